@@ -1,6 +1,7 @@
 package com.ehr.auth.model;
 
 import com.ehr.auth.model.enums.UserRole;
+import com.ehr.auth.model.id.UuidV7Id;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -18,7 +19,7 @@ import java.util.UUID;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Id
     @Column(name = "ID")
     private UUID id;
 
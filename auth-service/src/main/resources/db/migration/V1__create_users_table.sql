@@ -0,0 +1,19 @@
+-- Baseline schema as previously generated by Hibernate (ddl-auto: update).
+-- IF NOT EXISTS keeps this a no-op on databases created before migrations were introduced.
+-- findByUsername, existsByUsername and existsByEmail are served by the unique indexes.
+
+CREATE TABLE IF NOT EXISTS users (
+    id         UUID         NOT NULL,
+    username   VARCHAR(255) NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    password   VARCHAR(255) NOT NULL,
+    first_name VARCHAR(255),
+    last_name  VARCHAR(255),
+    role       VARCHAR(255) NOT NULL CHECK (role IN ('ADMIN', 'THERAPIST', 'NURSE', 'RESEARCHER', 'COORDINATOR')),
+    enabled    BOOLEAN      NOT NULL,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
@@ -0,0 +1,43 @@
+package com.ehr.auth.model.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7Test {
+
+    @Test
+    void givenNewId_whenRandomUuid_thenHasVersion7AndRfcVariant() {
+        UUID id = UuidV7.randomUuid();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+    }
+
+    @Test
+    void givenNewId_whenTimestampMillis_thenMatchesCreationTime() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7.randomUuid();
+        long after = System.currentTimeMillis();
+
+        assertThat(UuidV7.timestampMillis(id)).isBetween(before, after + 1);
+    }
+
+    @Test
+    void givenManyIdsInQuickSuccession_whenRandomUuid_thenStrictlyIncreasingAndUnique() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(UuidV7.randomUuid());
+        }
+
+        assertThat(new HashSet<>(ids)).hasSize(ids.size());
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(ids.get(i).toString()).isGreaterThan(ids.get(i - 1).toString());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+-- Insert throughput and primary key index size for random (v4) versus time-ordered (v7) UUID keys.
+--
+--   docker compose up -d postgres-patient
+--   psql -h localhost -p 5433 -U ehr_user -d ehr_patient_db -v rows=10000000 -f patient-service/benchmarks/uuid_v7_vs_v4.sql
+--
+-- Rows are inserted in batches of 10k so every batch pays the index maintenance of a live table
+-- rather than one bulk load. uuidv7() (Postgres 18) produces the same layout as UuidV7 in the service.
+-- The mixed table starts with v4 keys and switches to v7 half way, the state of an upgraded database.
+
+\set ON_ERROR_STOP on
+\if :{?rows}
+\else
+    \set rows 10000000
+\endif
+
+DROP TABLE IF EXISTS bench_uuid_v4, bench_uuid_v7, bench_uuid_mixed;
+CREATE UNLOGGED TABLE bench_uuid_v4 (id uuid PRIMARY KEY, payload text NOT NULL);
+CREATE UNLOGGED TABLE bench_uuid_v7 (id uuid PRIMARY KEY, payload text NOT NULL);
+CREATE UNLOGGED TABLE bench_uuid_mixed (id uuid PRIMARY KEY, payload text NOT NULL);
+
+CREATE OR REPLACE PROCEDURE bench_insert(target regclass, total bigint, v7_from bigint)
+LANGUAGE plpgsql AS $$
+DECLARE
+    batch CONSTANT bigint := 10000;
+    started timestamptz := clock_timestamp();
+    done bigint := 0;
+BEGIN
+    WHILE done < total LOOP
+        EXECUTE format(
+            'INSERT INTO %s (id, payload) SELECT CASE WHEN g >= $2 THEN uuidv7() ELSE gen_random_uuid() END, md5(g::text) '
+            'FROM generate_series($1, $1 + $3 - 1) g', target)
+        USING done, v7_from, batch;
+        done := done + batch;
+        COMMIT;
+    END LOOP;
+    RAISE NOTICE '% rows=% seconds=% rows/s=%', target, total,
+        round(extract(epoch FROM clock_timestamp() - started)::numeric, 1),
+        round(total / extract(epoch FROM clock_timestamp() - started)::numeric);
+END;
+$$;
+
+CALL bench_insert('bench_uuid_v4', :rows, :rows);
+CALL bench_insert('bench_uuid_v7', :rows, 0);
+CALL bench_insert('bench_uuid_mixed', :rows, :rows / 2);
+
+CREATE EXTENSION IF NOT EXISTS pgstattuple;
+
+SELECT c.relname AS index_name,
+       pg_size_pretty(pg_relation_size(c.oid)) AS index_size,
+       s.leaf_fragmentation,
+       s.avg_leaf_density
+FROM pg_class c
+CROSS JOIN LATERAL pgstatindex(c.oid) s
+WHERE c.relname IN ('bench_uuid_v4_pkey', 'bench_uuid_v7_pkey', 'bench_uuid_mixed_pkey')
+ORDER BY c.relname;
+
+-- Existing v4 keys keep working next to v7 keys: uuid equality and ordering are plain byte comparisons.
+SELECT count(*) FILTER (WHERE uuid_extract_version(id) = 4) AS v4_rows,
+       count(*) FILTER (WHERE uuid_extract_version(id) = 7) AS v7_rows
+FROM bench_uuid_mixed;
+
+DROP PROCEDURE bench_insert(regclass, bigint, bigint);
+DROP TABLE bench_uuid_v4, bench_uuid_v7, bench_uuid_mixed;
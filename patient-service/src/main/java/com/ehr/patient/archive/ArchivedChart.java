@@ -0,0 +1,145 @@
+package com.ehr.patient.archive;
+
+import com.ehr.patient.dto.DiagnosisResponse;
+import com.ehr.patient.dto.MedicationResponse;
+import com.ehr.patient.dto.PatientResponse;
+import com.ehr.patient.model.enums.DiagnosisStatus;
+import com.ehr.patient.model.enums.MedicationStatus;
+import com.ehr.patient.model.enums.PatientStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The stored form of an archived chart. It is separate from the response records so that changing the API
+ * leaves the charts already in the archive readable. A change to this layout bumps {@link #CURRENT_VERSION}
+ * and teaches {@link #toResponse()} to read the older versions.
+ */
+record ArchivedChart(
+        int version,
+        UUID id,
+        String firstName,
+        String lastName,
+        LocalDate dateOfBirth,
+        String gender,
+        String email,
+        String phone,
+        String address,
+        String city,
+        String state,
+        String zipCode,
+        String emergencyContactName,
+        String emergencyContactPhone,
+        PatientStatus status,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        List<Diagnosis> diagnoses,
+        List<Medication> medications) {
+
+    static final int CURRENT_VERSION = 1;
+
+    static ArchivedChart of(PatientResponse patient) {
+        return new ArchivedChart(
+                CURRENT_VERSION,
+                patient.id(),
+                patient.firstName(),
+                patient.lastName(),
+                patient.dateOfBirth(),
+                patient.gender(),
+                patient.email(),
+                patient.phone(),
+                patient.address(),
+                patient.city(),
+                patient.state(),
+                patient.zipCode(),
+                patient.emergencyContactName(),
+                patient.emergencyContactPhone(),
+                patient.status(),
+                patient.createdAt(),
+                patient.updatedAt(),
+                patient.diagnoses().stream().map(Diagnosis::of).toList(),
+                patient.medications().stream().map(Medication::of).toList()
+        );
+    }
+
+    ArchivedChart withEmail(String email) {
+        return new ArchivedChart(version, id, firstName, lastName, dateOfBirth, gender, email, phone, address, city,
+                state, zipCode, emergencyContactName, emergencyContactPhone, status, createdAt, updatedAt, diagnoses,
+                medications);
+    }
+
+    PatientResponse toResponse() {
+        if (version != CURRENT_VERSION) {
+            throw new IllegalStateException("Unsupported archived chart version " + version + " for patient " + id);
+        }
+        return new PatientResponse(
+                id,
+                firstName,
+                lastName,
+                dateOfBirth,
+                gender,
+                email,
+                phone,
+                address,
+                city,
+                state,
+                zipCode,
+                emergencyContactName,
+                emergencyContactPhone,
+                status,
+                createdAt,
+                updatedAt,
+                diagnoses.stream().map(diagnosis -> diagnosis.toResponse(id)).toList(),
+                medications.stream().map(medication -> medication.toResponse(id)).toList()
+        );
+    }
+
+    record Diagnosis(
+            UUID id,
+            String icdCode,
+            String description,
+            LocalDate diagnosisDate,
+            DiagnosisStatus status,
+            LocalDateTime createdAt,
+            LocalDateTime updatedAt) {
+
+        static Diagnosis of(DiagnosisResponse diagnosis) {
+            return new Diagnosis(diagnosis.id(), diagnosis.icdCode(), diagnosis.description(),
+                    diagnosis.diagnosisDate(), diagnosis.status(), diagnosis.createdAt(), diagnosis.updatedAt());
+        }
+
+        DiagnosisResponse toResponse(UUID patientId) {
+            return new DiagnosisResponse(id, patientId, icdCode, description, diagnosisDate, status,
+                    createdAt, updatedAt);
+        }
+    }
+
+    record Medication(
+            UUID id,
+            String name,
+            String dosage,
+            String frequency,
+            MedicationStatus status,
+            LocalDate startDate,
+            LocalDate endDate,
+            boolean contraindicated,
+            Integer washoutDays,
+            String washoutNotes,
+            LocalDateTime createdAt,
+            LocalDateTime updatedAt) {
+
+        static Medication of(MedicationResponse medication) {
+            return new Medication(medication.id(), medication.name(), medication.dosage(), medication.frequency(),
+                    medication.status(), medication.startDate(), medication.endDate(), medication.contraindicated(),
+                    medication.washoutDays(), medication.washoutNotes(), medication.createdAt(),
+                    medication.updatedAt());
+        }
+
+        MedicationResponse toResponse(UUID patientId) {
+            return new MedicationResponse(id, patientId, name, dosage, frequency, status, startDate, endDate,
+                    contraindicated, washoutDays, washoutNotes, createdAt, updatedAt);
+        }
+    }
+}
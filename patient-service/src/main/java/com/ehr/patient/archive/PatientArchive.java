@@ -0,0 +1,104 @@
+package com.ehr.patient.archive;
+
+import com.ehr.patient.dto.PatientResponse;
+import com.ehr.patient.model.ArchivedPatient;
+import com.ehr.patient.repository.ArchivedPatientRepository;
+import com.ehr.patient.repository.PatientBatchRepository;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cold storage for whole patient charts. Reads decompress the stored chart, so they are slower than the
+ * hot path but return the same response. Charts are stored as {@link ArchivedChart} with the archive's own
+ * mapper, so neither changes to the response records nor to the web layer's JSON settings alter the format.
+ */
+@Component
+public class PatientArchive {
+
+    private final ArchivedPatientRepository archivedPatientRepository;
+    private final PatientBatchRepository patientBatchRepository;
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    public PatientArchive(ArchivedPatientRepository archivedPatientRepository,
+                          PatientBatchRepository patientBatchRepository) {
+        this.archivedPatientRepository = archivedPatientRepository;
+        this.patientBatchRepository = patientBatchRepository;
+    }
+
+    /**
+     * Stores the charts in the caller's transaction. The caller removes them from the hot tables.
+     */
+    public void store(List<PatientResponse> patients) {
+        archivedPatientRepository.saveAll(patients.stream()
+                .map(patient -> ArchivedPatient.builder()
+                        .id(patient.id())
+                        .status(patient.status())
+                        .chart(compress(patient))
+                        .build())
+                .toList());
+    }
+
+    public Optional<PatientResponse> find(UUID id) {
+        return archivedPatientRepository.findById(id).map(this::decompress);
+    }
+
+    public List<PatientResponse> findAll(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return archivedPatientRepository.findAllById(ids).stream().map(this::decompress).toList();
+    }
+
+    /**
+     * Moves the chart back into the hot tables with its original ids and timestamps, in the caller's
+     * transaction. Archiving frees the patient's email, so the chart goes back under {@code email}: a patient
+     * whose email has since been taken can be restored by changing it.
+     *
+     * @return the chart as it was archived, or empty if the patient is not archived
+     */
+    public Optional<PatientResponse> restore(UUID id, String email) {
+        Optional<ArchivedPatient> archived = archivedPatientRepository.findById(id);
+        if (archived.isEmpty()) {
+            return Optional.empty();
+        }
+        ArchivedChart chart = read(archived.get());
+        patientBatchRepository.insertChart(chart.withEmail(email).toResponse());
+        archivedPatientRepository.delete(archived.get());
+        return Optional.of(chart.toResponse());
+    }
+
+    private byte[] compress(PatientResponse patient) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(bytes)) {
+            jsonMapper.writeValue(gzip, ArchivedChart.of(patient));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private PatientResponse decompress(ArchivedPatient archived) {
+        return read(archived).toResponse();
+    }
+
+    private ArchivedChart read(ArchivedPatient archived) {
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(archived.getChart()))) {
+            return jsonMapper.readValue(gzip, ArchivedChart.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.ehr.patient.archive;
+
+import com.ehr.patient.service.PatientService;
+import com.ehr.patient.sharding.ScatterGather;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Moves INACTIVE and DECEASED patients that have not changed for the retention period into the archive,
+ * one chunk per transaction so locks stay short and a failure only rolls back the current chunk. Chunks are
+ * claimed with SKIP LOCKED, so instances running the job at the same time archive disjoint patients.
+ */
+@Component
+@ConditionalOnProperty(name = "patient.archive.enabled", havingValue = "true")
+public class PatientArchiver {
+
+    public static final String ARCHIVED_METRIC = "patient.archive.archived";
+    public static final String RUN_METRIC = "patient.archive.run";
+
+    private static final Logger log = LoggerFactory.getLogger(PatientArchiver.class);
+    private static final String RETENTION_DAYS_PROPERTY = "${patient.archive.retention-days}";
+    private static final String CHUNK_SIZE_PROPERTY = "${patient.archive.chunk-size}";
+    private static final String CRON_PROPERTY = "${patient.archive.cron}";
+
+    private final PatientService patientService;
+    private final ScatterGather scatterGather;
+    private final Duration retention;
+    private final int chunkSize;
+    private final Counter archived;
+    private final Timer run;
+
+    public PatientArchiver(PatientService patientService,
+                           ScatterGather scatterGather,
+                           MeterRegistry meterRegistry,
+                           @Value(RETENTION_DAYS_PROPERTY) long retentionDays,
+                           @Value(CHUNK_SIZE_PROPERTY) int chunkSize) {
+        this.patientService = patientService;
+        this.scatterGather = scatterGather;
+        this.retention = Duration.ofDays(retentionDays);
+        this.chunkSize = chunkSize;
+        this.archived = meterRegistry.counter(ARCHIVED_METRIC);
+        this.run = meterRegistry.timer(RUN_METRIC);
+    }
+
+    /**
+     * @return the number of patients archived
+     */
+    @Scheduled(cron = CRON_PROPERTY)
+    public int archiveEligible() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int total = run.record(() -> scatterGather.sumOverShards(() -> archiveShard(cutoff)));
+        if (total > 0) {
+            log.info("Archived {} patients unchanged since {}", total, cutoff);
+        }
+        return total;
+    }
+
+    private int archiveShard(LocalDateTime cutoff) {
+        int total = 0;
+        int archivedInChunk;
+        do {
+            archivedInChunk = patientService.archiveBatch(cutoff, chunkSize);
+            archived.increment(archivedInChunk);
+            total += archivedInChunk;
+        } while (archivedInChunk == chunkSize);
+        return total;
+    }
+}
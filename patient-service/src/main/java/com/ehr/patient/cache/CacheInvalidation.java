@@ -0,0 +1,37 @@
+package com.ehr.patient.cache;
+
+import java.util.UUID;
+
+/**
+ * Decoded invalidation payload: the patient whose chart changed and, for a diagnosis or medication row,
+ * the kind and id of that row.
+ */
+public record CacheInvalidation(UUID patientId, Kind kind, UUID childId) {
+
+    private static final String SEPARATOR = ":";
+
+    public enum Kind {
+        PATIENT,
+        DIAGNOSIS,
+        MEDICATION
+    }
+
+    /**
+     * @throws IllegalArgumentException if the payload was not raised by the invalidation triggers
+     */
+    public static CacheInvalidation parse(String payload) {
+        String[] parts = payload.split(SEPARATOR, -1);
+        if (parts.length == 1) {
+            return new CacheInvalidation(UUID.fromString(parts[0]), Kind.PATIENT, null);
+        }
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed cache invalidation payload: " + payload);
+        }
+        Kind kind = switch (parts[1]) {
+            case "D" -> Kind.DIAGNOSIS;
+            case "M" -> Kind.MEDICATION;
+            default -> throw new IllegalArgumentException("Unknown cache invalidation kind: " + parts[1]);
+        };
+        return new CacheInvalidation(UUID.fromString(parts[0]), kind, UUID.fromString(parts[2]));
+    }
+}
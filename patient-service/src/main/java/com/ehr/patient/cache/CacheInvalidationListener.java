@@ -0,0 +1,185 @@
+package com.ehr.patient.cache;
+
+import com.ehr.patient.constant.CacheNames;
+import com.ehr.patient.sharding.ShardingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.autoconfigure.JdbcConnectionDetails;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Holds a dedicated connection per database, outside the pool, that LISTENs on the invalidation channel and
+ * evicts each notified chart locally. Notifications raised while a connection is down are lost, so every
+ * time a subscription is (re)established the local caches are flushed before listening resumes.
+ */
+@Component
+@ConditionalOnProperty(name = "patient.cache.invalidation.enabled", havingValue = "true")
+public class CacheInvalidationListener implements SmartLifecycle {
+
+    public static final String RECEIVED_METRIC = "patient.cache.invalidations";
+    public static final String RESYNCS_METRIC = "patient.cache.invalidation.resyncs";
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationListener.class);
+    private static final String APPLICATION_NAME = "patient-service-cache-invalidation";
+    private static final String POLL_TIMEOUT_PROPERTY = "${patient.cache.invalidation.poll-timeout-ms}";
+    private static final String RECONNECT_DELAY_PROPERTY = "${patient.cache.invalidation.reconnect-delay-ms}";
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final List<JdbcConnectionDetails> databases;
+    private final CacheInvalidator cacheInvalidator;
+    private final int pollTimeoutMillis;
+    private final Duration reconnectDelay;
+    private final Counter received;
+    private final Counter resyncs;
+
+    private final List<Thread> listenerThreads = new ArrayList<>();
+    private final List<Connection> connections = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+
+    public CacheInvalidationListener(JdbcConnectionDetails connectionDetails,
+                                     ShardingProperties shardingProperties,
+                                     CacheInvalidator cacheInvalidator,
+                                     MeterRegistry meterRegistry,
+                                     @Value(POLL_TIMEOUT_PROPERTY) int pollTimeoutMillis,
+                                     @Value(RECONNECT_DELAY_PROPERTY) long reconnectDelayMillis) {
+        this.databases = shardingProperties.enabled()
+                ? List.copyOf(shardingProperties.shards())
+                : List.of(connectionDetails);
+        this.cacheInvalidator = cacheInvalidator;
+        this.pollTimeoutMillis = pollTimeoutMillis;
+        this.reconnectDelay = Duration.ofMillis(reconnectDelayMillis);
+        this.received = meterRegistry.counter(RECEIVED_METRIC);
+        this.resyncs = meterRegistry.counter(RESYNCS_METRIC);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (int i = 0; i < databases.size(); i++) {
+            JdbcConnectionDetails database = databases.get(i);
+            Thread thread = new Thread(() -> listen(database), APPLICATION_NAME + "-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            listenerThreads.add(thread);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        connections.forEach(CacheInvalidationListener::closeQuietly);
+        for (Thread thread : listenerThreads) {
+            thread.interrupt();
+            try {
+                thread.join(reconnectDelay.plusMillis(pollTimeoutMillis).toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        listenerThreads.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen(JdbcConnectionDetails database) {
+        while (running) {
+            try (Connection listening = connect(database)) {
+                connections.add(listening);
+                try {
+                    subscribe(listening);
+                    cacheInvalidator.evictAll();
+                    resyncs.increment();
+                    poll(listening.unwrap(PGConnection.class), listening);
+                } finally {
+                    connections.remove(listening);
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Cache invalidation listener lost its connection to {}; reconnecting in {}",
+                            database.getJdbcUrl(), reconnectDelay, e);
+                    pause();
+                }
+            }
+        }
+    }
+
+    private Connection connect(JdbcConnectionDetails database) throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", database.getUsername());
+        properties.setProperty("password", database.getPassword());
+        properties.setProperty("ApplicationName", APPLICATION_NAME);
+        return DriverManager.getConnection(database.getJdbcUrl(), properties);
+    }
+
+    private void subscribe(Connection listening) throws SQLException {
+        try (Statement statement = listening.createStatement()) {
+            statement.execute("LISTEN " + CacheNames.INVALIDATION_CHANNEL);
+        }
+    }
+
+    private void poll(PGConnection notifications, Connection listening) throws SQLException {
+        while (running) {
+            PGNotification[] batch = notifications.getNotifications(pollTimeoutMillis);
+            if (batch == null || batch.length == 0) {
+                // A silent poll cannot tell an idle channel from a half-open socket.
+                if (!listening.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    throw new SQLException("Cache invalidation connection is no longer valid");
+                }
+                continue;
+            }
+            for (PGNotification notification : batch) {
+                apply(notification.getParameter());
+            }
+        }
+    }
+
+    private void apply(String payload) {
+        received.increment();
+        try {
+            cacheInvalidator.evict(CacheInvalidation.parse(payload));
+        } catch (IllegalArgumentException e) {
+            log.warn("Flushing caches after an unreadable invalidation payload '{}'", payload);
+            cacheInvalidator.evictAll();
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(reconnectDelay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // The listener thread is shutting down and will not reuse it.
+        }
+    }
+}
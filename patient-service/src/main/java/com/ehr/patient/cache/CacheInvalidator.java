@@ -0,0 +1,55 @@
+package com.ehr.patient.cache;
+
+import com.ehr.patient.constant.CacheNames;
+import com.ehr.patient.model.Diagnosis;
+import com.ehr.patient.model.Medication;
+import com.ehr.patient.model.Patient;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Evicts this instance's copies of a patient's chart: the cached response and the second-level cache
+ * entries for the changed row.
+ */
+@Component
+public class CacheInvalidator {
+
+    private static final String DIAGNOSES_ROLE = Patient.class.getName() + ".diagnoses";
+    private static final String MEDICATIONS_ROLE = Patient.class.getName() + ".medications";
+
+    private final org.springframework.cache.Cache patients;
+    private final org.hibernate.Cache entityCache;
+
+    public CacheInvalidator(CacheManager cacheManager, EntityManagerFactory entityManagerFactory) {
+        this.patients = cacheManager.getCache(CacheNames.PATIENTS);
+        this.entityCache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    public void evict(CacheInvalidation invalidation) {
+        UUID patientId = invalidation.patientId();
+        patients.evict(patientId);
+        switch (invalidation.kind()) {
+            case PATIENT -> entityCache.evictEntityData(Patient.class, patientId);
+            case DIAGNOSIS -> {
+                entityCache.evictEntityData(Diagnosis.class, invalidation.childId());
+                entityCache.evictCollectionData(DIAGNOSES_ROLE, patientId);
+            }
+            case MEDICATION -> {
+                entityCache.evictEntityData(Medication.class, invalidation.childId());
+                entityCache.evictCollectionData(MEDICATIONS_ROLE, patientId);
+            }
+        }
+    }
+
+    /**
+     * Drops every cached chart, for when invalidations may have been missed.
+     */
+    public void evictAll() {
+        patients.clear();
+        entityCache.evictAllRegions();
+    }
+}
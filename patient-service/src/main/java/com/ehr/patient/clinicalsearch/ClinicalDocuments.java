@@ -0,0 +1,106 @@
+package com.ehr.patient.clinicalsearch;
+
+import com.ehr.patient.dto.ClinicalSearchHit;
+import com.ehr.patient.model.enums.ClinicalRecordType;
+import com.ehr.patient.model.enums.PatientStatus;
+import com.ehr.patient.repository.DiagnosisTextRow;
+import com.ehr.patient.repository.MedicationTextRow;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.Term;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * How diagnoses and medications are laid out as Lucene documents, and read back as hits.
+ */
+final class ClinicalDocuments {
+
+    static final String ID = "id";
+    static final String PATIENT_ID = "patientId";
+    static final String TYPE = "type";
+    static final String STATUS = "status";
+    // Doc values rather than an indexed term, so a patient's status change rewrites one number per document.
+    static final String PATIENT_STATUS = "patientStatus";
+    // The rebuild that last wrote the document; documents an entire rebuild did not write are deleted.
+    static final String GENERATION = "generation";
+
+    static final String ICD_CODE = "icdCode";
+    static final String DESCRIPTION = "description";
+    static final String NAME = "name";
+    static final String DOSAGE = "dosage";
+    static final String WASHOUT_NOTES = "washoutNotes";
+
+    /**
+     * Searched fields and their weight: a match on what the record is outranks one in its notes.
+     */
+    static final Map<String, Float> TEXT_FIELDS = Map.of(
+            ICD_CODE, 3f, NAME, 3f, DESCRIPTION, 2f, DOSAGE, 1f, WASHOUT_NOTES, 1f);
+
+    private ClinicalDocuments() {}
+
+    static Term idTerm(UUID id) {
+        return new Term(ID, id.toString());
+    }
+
+    static Term patientTerm(UUID patientId) {
+        return new Term(PATIENT_ID, patientId.toString());
+    }
+
+    static Document diagnosis(DiagnosisTextRow row, long generation) {
+        Document document = common(ClinicalRecordType.DIAGNOSIS, row.id(), row.patientId(), row.status(),
+                row.patientStatus(), generation);
+        addText(document, ICD_CODE, row.icdCode());
+        addText(document, DESCRIPTION, row.description());
+        return document;
+    }
+
+    static Document medication(MedicationTextRow row, long generation) {
+        Document document = common(ClinicalRecordType.MEDICATION, row.id(), row.patientId(), row.status(),
+                row.patientStatus(), generation);
+        addText(document, NAME, row.name());
+        addText(document, DOSAGE, row.dosage());
+        addText(document, WASHOUT_NOTES, row.washoutNotes());
+        return document;
+    }
+
+    static ClinicalSearchHit hit(Document document, float score) {
+        return new ClinicalSearchHit(
+                ClinicalRecordType.valueOf(document.get(TYPE)),
+                UUID.fromString(document.get(ID)),
+                UUID.fromString(document.get(PATIENT_ID)),
+                document.get(STATUS),
+                score,
+                document.get(ICD_CODE),
+                document.get(DESCRIPTION),
+                document.get(NAME),
+                document.get(DOSAGE),
+                document.get(WASHOUT_NOTES));
+    }
+
+    private static Document common(ClinicalRecordType type, UUID id, UUID patientId, Enum<?> status,
+                                   PatientStatus patientStatus, long generation) {
+        Document document = new Document();
+        document.add(new StringField(ID, id.toString(), Field.Store.YES));
+        document.add(new StringField(PATIENT_ID, patientId.toString(), Field.Store.YES));
+        document.add(new StringField(TYPE, type.name(), Field.Store.YES));
+        if (status != null) {
+            document.add(new StringField(STATUS, status.name(), Field.Store.YES));
+        }
+        if (patientStatus != null) {
+            document.add(new NumericDocValuesField(PATIENT_STATUS, patientStatus.ordinal()));
+        }
+        document.add(new NumericDocValuesField(GENERATION, generation));
+        return document;
+    }
+
+    private static void addText(Document document, String field, String value) {
+        if (value != null && !value.isBlank()) {
+            document.add(new TextField(field, value, Field.Store.YES));
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.ehr.patient.clinicalsearch;
+
+import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.datasource.PrimaryReads;
+import com.ehr.patient.dto.ClinicalSearchHit;
+import com.ehr.patient.dto.DiagnosisResponse;
+import com.ehr.patient.dto.MedicationResponse;
+import com.ehr.patient.dto.PageResponse;
+import com.ehr.patient.event.DiagnosisEvent;
+import com.ehr.patient.event.MedicationEvent;
+import com.ehr.patient.event.PatientEvent;
+import com.ehr.patient.exception.InvalidListQueryException;
+import com.ehr.patient.model.enums.ClinicalRecordType;
+import com.ehr.patient.model.enums.DiagnosisStatus;
+import com.ehr.patient.model.enums.DomainEventType;
+import com.ehr.patient.model.enums.MedicationStatus;
+import com.ehr.patient.model.enums.PatientStatus;
+import com.ehr.patient.pagination.ClinicalSearchQuery;
+import com.ehr.patient.repository.DiagnosisRepository;
+import com.ehr.patient.repository.DiagnosisTextRow;
+import com.ehr.patient.repository.MedicationRepository;
+import com.ehr.patient.repository.MedicationTextRow;
+import com.ehr.patient.repository.PatientRepository;
+import com.ehr.patient.sharding.ScatterGather;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.DisjunctionMaxQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Ranked full-text search over diagnosis descriptions and codes and medication names, dosages and washout
+ * notes, in a Lucene index on local disk. The index is rebuilt from every shard before the instance
+ * reports ready and periodically after that. This instance's own diagnosis, medication and patient
+ * changes are written to it once they commit and become searchable at the next refresh. Changes made
+ * through other instances, imports and archiving show up at the next rebuild.
+ */
+@Component
+@ConditionalOnProperty(name = "patient.clinical-search.enabled", havingValue = "true")
+public class ClinicalSearchIndex implements ApplicationRunner, DisposableBean {
+
+    public static final String DOCUMENTS_METRIC = "patient.clinical-search.documents";
+    public static final String REBUILD_METRIC = "patient.clinical-search.rebuild";
+
+    private static final Logger log = LoggerFactory.getLogger(ClinicalSearchIndex.class);
+    private static final String DIRECTORY_PROPERTY = "${patient.clinical-search.directory}";
+    private static final String REFRESH_INTERVAL_PROPERTY = "${patient.clinical-search.refresh-interval-ms}";
+    private static final String REBUILD_INTERVAL_PROPERTY = "${patient.clinical-search.rebuild-interval-ms}";
+    // Words of the search text past this are ignored, keeping the query under Lucene's clause limit.
+    private static final int MAX_TERMS = 32;
+    // Lets a term found in several fields score a little above one found in its best field alone.
+    private static final float TIE_BREAKER = 0.1f;
+
+    private final PatientRepository patientRepository;
+    private final DiagnosisRepository diagnosisRepository;
+    private final MedicationRepository medicationRepository;
+    private final ScatterGather scatterGather;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Timer rebuildTimer;
+    private final Analyzer analyzer = new EnglishAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final Object writeLock = new Object();
+    // Applies committed changes in commit order, off the committing thread and its connection.
+    private final ExecutorService updates = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "clinical-search-updates");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long generation;
+    // Changes committed while a rebuild scans, replayed onto its result. Null when no rebuild runs.
+    private List<IndexChange> changedDuringRebuild;
+
+    public ClinicalSearchIndex(PatientRepository patientRepository,
+                               DiagnosisRepository diagnosisRepository,
+                               MedicationRepository medicationRepository,
+                               ScatterGather scatterGather,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value(DIRECTORY_PROPERTY) Path directory) {
+        this.patientRepository = patientRepository;
+        this.diagnosisRepository = diagnosisRepository;
+        this.medicationRepository = medicationRepository;
+        this.scatterGather = scatterGather;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rebuildTimer = meterRegistry.timer(REBUILD_METRIC);
+        try {
+            Files.createDirectories(directory);
+            this.directory = FSDirectory.open(directory);
+            // Whatever a previous run left is stale; the startup rebuild fills the index again.
+            this.writer = new IndexWriter(this.directory,
+                    new IndexWriterConfig(analyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE));
+            this.searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Gauge.builder(DOCUMENTS_METRIC, writer, indexWriter -> indexWriter.getDocStats().numDocs)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuild();
+    }
+
+    public PageResponse<ClinicalSearchHit> search(ClinicalSearchQuery query) {
+        Query luceneQuery = toLuceneQuery(query);
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs top = searcher.search(luceneQuery, query.fetchLimit());
+                StoredFields storedFields = searcher.storedFields();
+                List<ClinicalSearchHit> hits = new ArrayList<>(top.scoreDocs.length);
+                for (ScoreDoc scoreDoc : top.scoreDocs) {
+                    hits.add(ClinicalDocuments.hit(storedFields.document(scoreDoc.doc), scoreDoc.score));
+                }
+                return query.page(hits);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onDiagnosisChanged(DiagnosisEvent event) {
+        DiagnosisResponse diagnosis = event.diagnosis();
+        enqueue(() -> patientStatus(diagnosis.patientId()).ifPresent(patientStatus -> {
+            DiagnosisTextRow row = DiagnosisTextRow.of(diagnosis, patientStatus);
+            apply((indexWriter, current) -> indexWriter.updateDocument(
+                    ClinicalDocuments.idTerm(row.id()), ClinicalDocuments.diagnosis(row, current)));
+        }));
+    }
+
+    @TransactionalEventListener
+    public void onMedicationChanged(MedicationEvent event) {
+        MedicationResponse medication = event.medication();
+        enqueue(() -> patientStatus(medication.patientId()).ifPresent(patientStatus -> {
+            MedicationTextRow row = MedicationTextRow.of(medication, patientStatus);
+            apply((indexWriter, current) -> indexWriter.updateDocument(
+                    ClinicalDocuments.idTerm(row.id()), ClinicalDocuments.medication(row, current)));
+        }));
+    }
+
+    @TransactionalEventListener
+    public void onPatientChanged(PatientEvent event) {
+        // A new patient has no diagnoses or medications to relabel yet.
+        if (event.type() != DomainEventType.PATIENT_UPDATED || event.patient().status() == null) {
+            return;
+        }
+        UUID patientId = event.patientId();
+        long status = event.patient().status().ordinal();
+        enqueue(() -> apply((indexWriter, current) -> indexWriter.updateNumericDocValue(
+                ClinicalDocuments.patientTerm(patientId), ClinicalDocuments.PATIENT_STATUS, status)));
+    }
+
+    /**
+     * Makes the changes committed since the last refresh searchable, waiting for those still queued.
+     */
+    @Scheduled(fixedDelayString = REFRESH_INTERVAL_PROPERTY)
+    public void refresh() {
+        try {
+            updates.submit(() -> { }).get();
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Writes every diagnosis and medication again from a fresh scan, folding in the changes made meanwhile,
+     * then deletes the documents the scan no longer found.
+     */
+    @Scheduled(initialDelayString = REBUILD_INTERVAL_PROPERTY, fixedDelayString = REBUILD_INTERVAL_PROPERTY)
+    public synchronized void rebuild() {
+        long rebuilding;
+        synchronized (writeLock) {
+            rebuilding = ++generation;
+            changedDuringRebuild = new ArrayList<>();
+        }
+        try {
+            rebuildTimer.record(() -> scan(rebuilding));
+            synchronized (writeLock) {
+                // The scan may or may not have seen these; applying them again is harmless.
+                for (IndexChange change : changedDuringRebuild) {
+                    change.applyTo(writer, rebuilding);
+                }
+                writer.deleteDocuments(NumericDocValuesField.newSlowRangeQuery(
+                        ClinicalDocuments.GENERATION, Long.MIN_VALUE, rebuilding - 1));
+            }
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            log.info("Clinical search index rebuilt with {} documents", writer.getDocStats().numDocs);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            synchronized (writeLock) {
+                changedDuringRebuild = null;
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException, InterruptedException {
+        // Whatever is still queued is caught up by the startup rebuild of the next run.
+        updates.shutdownNow();
+        updates.awaitTermination(5, TimeUnit.SECONDS);
+        searcherManager.close();
+        writer.close();
+        directory.close();
+        analyzer.close();
+    }
+
+    private void scan(long rebuilding) {
+        scatterGather.sumOverShards(() -> readOnlyTransaction.execute(status -> {
+            try (Stream<DiagnosisTextRow> diagnoses = diagnosisRepository.streamTextRows()) {
+                diagnoses.forEach(row -> write(row.id(), ClinicalDocuments.diagnosis(row, rebuilding)));
+            }
+            try (Stream<MedicationTextRow> medications = medicationRepository.streamTextRows()) {
+                medications.forEach(row -> write(row.id(), ClinicalDocuments.medication(row, rebuilding)));
+            }
+            return 0;
+        }));
+    }
+
+    private void write(UUID id, Document document) {
+        try {
+            writer.updateDocument(ClinicalDocuments.idTerm(id), document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Read on the update thread after the write commits, so the write pays neither a statement nor a second
+     * connection for it. Empty if the patient has been deleted since; the next rebuild drops its records.
+     */
+    private Optional<PatientStatus> patientStatus(UUID patientId) {
+        return scatterGather.onShardOf(patientId, () -> PrimaryReads.call(() ->
+                readOnlyTransaction.execute(status -> patientRepository.findStatusById(patientId))));
+    }
+
+    private void enqueue(Runnable update) {
+        updates.execute(() -> {
+            try {
+                update.run();
+            } catch (RuntimeException e) {
+                // The write has committed; the index is only behind until the next rebuild.
+                log.warn("Could not update the clinical search index; the next rebuild will catch up", e);
+            }
+        });
+    }
+
+    private void apply(IndexChange change) {
+        synchronized (writeLock) {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(change);
+            }
+            try {
+                change.applyTo(writer, generation);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private Query toLuceneQuery(ClinicalSearchQuery query) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        for (String term : terms(query.text())) {
+            List<Query> fields = new ArrayList<>();
+            ClinicalDocuments.TEXT_FIELDS.forEach((field, boost) ->
+                    fields.add(new BoostQuery(new TermQuery(new Term(field, term)), boost)));
+            builder.add(new DisjunctionMaxQuery(fields, TIE_BREAKER), BooleanClause.Occur.MUST);
+        }
+
+        BooleanQuery.Builder types = new BooleanQuery.Builder();
+        if (query.types().contains(ClinicalRecordType.DIAGNOSIS)) {
+            types.add(typeFilter(ClinicalRecordType.DIAGNOSIS, query.diagnosisStatuses(),
+                    DiagnosisStatus.values().length), BooleanClause.Occur.SHOULD);
+        }
+        if (query.types().contains(ClinicalRecordType.MEDICATION)) {
+            types.add(typeFilter(ClinicalRecordType.MEDICATION, query.medicationStatuses(),
+                    MedicationStatus.values().length), BooleanClause.Occur.SHOULD);
+        }
+        builder.add(types.build(), BooleanClause.Occur.FILTER);
+
+        if (query.patientStatuses().size() < PatientStatus.values().length) {
+            long[] ordinals = query.patientStatuses().stream().mapToLong(Enum::ordinal).toArray();
+            builder.add(NumericDocValuesField.newSlowSetQuery(ClinicalDocuments.PATIENT_STATUS, ordinals),
+                    BooleanClause.Occur.FILTER);
+        }
+        return builder.build();
+    }
+
+    private static Query typeFilter(ClinicalRecordType type, Set<? extends Enum<?>> statuses, int allStatuses) {
+        Query typeQuery = new TermQuery(new Term(ClinicalDocuments.TYPE, type.name()));
+        if (statuses.size() == allStatuses) {
+            return typeQuery;
+        }
+        BooleanQuery.Builder anyStatus = new BooleanQuery.Builder();
+        for (Enum<?> status : statuses) {
+            anyStatus.add(new TermQuery(new Term(ClinicalDocuments.STATUS, status.name())),
+                    BooleanClause.Occur.SHOULD);
+        }
+        return new BooleanQuery.Builder()
+                .add(typeQuery, BooleanClause.Occur.FILTER)
+                .add(anyStatus.build(), BooleanClause.Occur.FILTER)
+                .build();
+    }
+
+    // The search text run through the same analysis as the indexed fields, without repeats.
+    private Set<String> terms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        try (TokenStream tokens = analyzer.tokenStream(ClinicalDocuments.DESCRIPTION, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken() && terms.size() < MAX_TERMS) {
+                terms.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (terms.isEmpty()) {
+            throw new InvalidListQueryException(ExceptionMessages.CLINICAL_SEARCH_NO_TERMS);
+        }
+        return terms;
+    }
+
+    @FunctionalInterface
+    private interface IndexChange {
+
+        void applyTo(IndexWriter writer, long generation) throws IOException;
+    }
+}
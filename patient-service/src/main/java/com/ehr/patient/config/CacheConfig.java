@@ -0,0 +1,69 @@
+package com.ehr.patient.config;
+
+import com.ehr.patient.constant.CacheNames;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    private static final String PATIENT_CACHE_MAXIMUM_SIZE_PROPERTY = "${patient.cache.maximum-size}";
+    private static final String PATIENT_CACHE_TIME_TO_LIVE_PROPERTY = "${patient.cache.time-to-live-minutes}";
+
+    /**
+     * Evictions are deferred until the surrounding transaction commits, so a reader cannot re-cache
+     * the row a writer is still changing. Loads are synchronous (see {@code @Cacheable(sync = true)}),
+     * which makes a post-commit eviction wait for any in-flight load of the same key.
+     */
+    @Bean
+    public CacheManager cacheManager(@Value(PATIENT_CACHE_MAXIMUM_SIZE_PROPERTY) long maximumSize,
+                                     @Value(PATIENT_CACHE_TIME_TO_LIVE_PROPERTY) long timeToLiveMinutes) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMinutes(timeToLiveMinutes))
+                .recordStats());
+        cacheManager.setCacheNames(List.of(CacheNames.PATIENTS));
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    /**
+     * Micrometer only publishes Caffeine load statistics for loading caches, while Spring builds plain
+     * caches that are populated through {@code @Cacheable}; bind the load count and time explicitly.
+     */
+    @Bean
+    public MeterBinder patientCacheLoadMetrics(CacheManager cacheManager) {
+        return registry -> {
+            @SuppressWarnings("unchecked")
+            Cache<Object, Object> cache = (Cache<Object, Object>) cacheManager.getCache(CacheNames.PATIENTS).getNativeCache();
+            FunctionCounter.builder("cache.load", cache, c -> c.stats().loadSuccessCount())
+                    .tags("cache", CacheNames.PATIENTS, "result", "success")
+                    .description("The number of times cache lookup methods have successfully loaded a new value")
+                    .register(registry);
+            FunctionCounter.builder("cache.load", cache, c -> c.stats().loadFailureCount())
+                    .tags("cache", CacheNames.PATIENTS, "result", "failure")
+                    .description("The number of times cache lookup methods failed to load a new value")
+                    .register(registry);
+            TimeGauge.builder("cache.load.duration", cache, TimeUnit.NANOSECONDS, c -> c.stats().totalLoadTime())
+                    .tags("cache", CacheNames.PATIENTS)
+                    .description("The time the cache has spent loading new values")
+                    .register(registry);
+        };
+    }
+}
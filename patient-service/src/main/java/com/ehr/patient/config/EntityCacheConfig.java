@@ -0,0 +1,66 @@
+package com.ehr.patient.config;
+
+import com.ehr.patient.constant.CacheNames;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class EntityCacheConfig {
+
+    private static final String ENTITY_CACHE_ENABLED_PROPERTY = "${patient.entity-cache.enabled}";
+    private static final String ENTITY_CACHE_MAXIMUM_SIZE_PROPERTY = "${patient.entity-cache.maximum-size}";
+    private static final String ENTITY_CACHE_TIME_TO_LIVE_PROPERTY = "${patient.entity-cache.time-to-live-minutes}";
+
+    /**
+     * Every region is created up front with a size bound; Hibernate is told to fail rather than
+     * silently create an unbounded cache for a region that is missing here.
+     */
+    @Bean
+    public CacheManager entityCacheManager(@Value(ENTITY_CACHE_MAXIMUM_SIZE_PROPERTY) long maximumSize,
+                                           @Value(ENTITY_CACHE_TIME_TO_LIVE_PROPERTY) long timeToLiveMinutes) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("urn:ehr:patient:entity-cache:" + UUID.randomUUID()),
+                getClass().getClassLoader());
+
+        for (String region : CacheNames.ENTITY_REGIONS) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MINUTES.toNanos(timeToLiveMinutes)));
+            configuration.setStatisticsEnabled(true);
+            cacheManager.createCache(region, configuration);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager,
+                                                               @Value(ENTITY_CACHE_ENABLED_PROPERTY) boolean enabled) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, enabled);
+            if (!enabled) {
+                return;
+            }
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // Diagnoses and medications are saved through their own repositories, never through the
+            // inverse Patient collections, so collection entries must be evicted from the owning side.
+            properties.put(AvailableSettings.AUTO_EVICT_COLLECTION_CACHE, true);
+        };
+    }
+}
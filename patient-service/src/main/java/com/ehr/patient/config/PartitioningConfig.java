@@ -0,0 +1,39 @@
+package com.ehr.patient.config;
+
+import com.ehr.patient.partitioning.PartitionBackfill;
+import com.ehr.patient.partitioning.PartitionBackfillRunner;
+import com.ehr.patient.sharding.ShardDataSources;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Finishes the V8 partitioning of the child tables in the background after startup, while the instance
+ * already serves traffic. Instances starting together take turns through an advisory lock, so only one
+ * copies at a time. Once every table has been swapped the run is a no-op.
+ */
+@Configuration
+@ConditionalOnProperty(name = "patient.partitioning.backfill.enabled", havingValue = "true")
+public class PartitioningConfig {
+
+    private static final String CHUNK_SIZE_PROPERTY = "${patient.partitioning.backfill.chunk-size}";
+    private static final String PAUSE_PROPERTY = "${patient.partitioning.backfill.pause-ms}";
+
+    @Bean
+    public PartitionBackfillRunner partitionBackfillRunner(DataSource dataSource,
+                                                           ObjectProvider<ShardDataSources> shardDataSources,
+                                                           @Value(CHUNK_SIZE_PROPERTY) int chunkSize,
+                                                           @Value(PAUSE_PROPERTY) long pauseMillis) {
+        ShardDataSources shards = shardDataSources.getIfAvailable();
+        List<? extends DataSource> databases = shards == null ? List.of(dataSource) : shards.pools();
+        return new PartitionBackfillRunner(databases.stream()
+                .map(database -> new PartitionBackfill(database, chunkSize, Duration.ofMillis(pauseMillis)))
+                .toList());
+    }
+}
@@ -0,0 +1,122 @@
+package com.ehr.patient.config;
+
+import com.ehr.patient.datasource.ReadYourWrites;
+import com.ehr.patient.datasource.ReadYourWritesFilter;
+import com.ehr.patient.datasource.ReplicaRoutingDataSource;
+import com.ehr.patient.datasource.ReplicationPositions;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.boot.jdbc.autoconfigure.JdbcConnectionDetails;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Replaces the auto-configured datasource with a primary and a replica pool behind a routing datasource.
+ * Flyway, the import batches and every read-write transaction keep using the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "patient.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    private static final String REPLICA_URL_PROPERTY = "${patient.datasource.replica.url}";
+    private static final String REPLICA_USERNAME_PROPERTY = "${patient.datasource.replica.username}";
+    private static final String REPLICA_PASSWORD_PROPERTY = "${patient.datasource.replica.password}";
+    private static final String PIN_WINDOW_PROPERTY = "${patient.datasource.replica.pin-window-ms}";
+    private static final String REPLAY_CHECK_INTERVAL_PROPERTY =
+            "${patient.datasource.replica.replay-check-interval-ms}";
+
+    /**
+     * Boot only derives connection details when it creates the datasource itself; the cache invalidation
+     * listener still needs them to open its own connection to the primary.
+     */
+    @Bean
+    public JdbcConnectionDetails jdbcConnectionDetails(DataSourceProperties properties) {
+        return new JdbcConnectionDetails() {
+
+            @Override
+            public String getUsername() {
+                return properties.determineUsername();
+            }
+
+            @Override
+            public String getPassword() {
+                return properties.determinePassword();
+            }
+
+            @Override
+            public String getJdbcUrl() {
+                return properties.determineUrl();
+            }
+
+            @Override
+            public String getDriverClassName() {
+                return properties.determineDriverClassName();
+            }
+        };
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(JdbcConnectionDetails connectionDetails) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(connectionDetails.getDriverClassName())
+                .url(connectionDetails.getJdbcUrl())
+                .username(connectionDetails.getUsername())
+                .password(connectionDetails.getPassword())
+                .build();
+        dataSource.setPoolName("patient-primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("patient.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value(REPLICA_URL_PROPERTY) String url,
+                                              @Value(REPLICA_USERNAME_PROPERTY) String username,
+                                              @Value(REPLICA_PASSWORD_PROPERTY) String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("patient-replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWrites readYourWrites(@Qualifier("primaryDataSource") DataSource primary,
+                                         @Qualifier("replicaDataSource") DataSource replica,
+                                         MeterRegistry meterRegistry,
+                                         @Value(PIN_WINDOW_PROPERTY) long pinWindowMillis,
+                                         @Value(REPLAY_CHECK_INTERVAL_PROPERTY) long replayCheckIntervalMillis) {
+        ReplicationPositions positions = new ReplicationPositions(primary, replica,
+                Duration.ofMillis(replayCheckIntervalMillis));
+        return new ReadYourWrites(positions, Duration.ofMillis(pinWindowMillis), meterRegistry);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReadYourWrites readYourWrites) {
+        return new ReadYourWritesFilter(readYourWrites);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReadYourWrites readYourWrites) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, readYourWrites));
+    }
+}
@@ -0,0 +1,123 @@
+package com.ehr.patient.config;
+
+import com.ehr.patient.sharding.ShardDataSources;
+import com.ehr.patient.sharding.ShardRebalancer;
+import com.ehr.patient.sharding.ShardRoutingDataSource;
+import com.ehr.patient.sharding.ShardRoutingInterceptor;
+import com.ehr.patient.sharding.ShardTopology;
+import com.ehr.patient.sharding.ShardingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.flyway.autoconfigure.FlywayMigrationStrategy;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.JdbcConnectionDetails;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured datasource with one pool per shard behind a routing datasource. Every pool
+ * takes the {@code spring.datasource.hikari} settings, and Flyway migrates each shard in turn.
+ */
+@Configuration
+@ConditionalOnProperty(name = "patient.sharding.enabled", havingValue = "true")
+public class ShardedDataSourceConfig implements WebMvcConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardedDataSourceConfig.class);
+    private static final String REPLICA_ENABLED_PROPERTY = "${patient.datasource.replica.enabled}";
+    private static final String REBALANCE_CHUNK_SIZE_PROPERTY = "${patient.sharding.rebalance.chunk-size}";
+
+    private final ShardingProperties properties;
+    private final ShardTopology topology;
+
+    public ShardedDataSourceConfig(ShardingProperties properties,
+                                   ShardTopology topology,
+                                   @Value(REPLICA_ENABLED_PROPERTY) boolean replicaEnabled) {
+        if (replicaEnabled) {
+            throw new IllegalStateException("Replica routing and sharding cannot be enabled together");
+        }
+        this.properties = properties;
+        this.topology = topology;
+    }
+
+    /**
+     * Points the cache invalidation listener and other single-database consumers at shard 0.
+     */
+    @Bean
+    public JdbcConnectionDetails jdbcConnectionDetails() {
+        return properties.shards().get(0);
+    }
+
+    @Bean
+    public ShardDataSources shardDataSources(Environment environment) {
+        Binder binder = Binder.get(environment);
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (ShardingProperties.Shard shard : properties.shards()) {
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.url())
+                    .username(shard.username())
+                    .password(shard.password())
+                    .build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+            pool.setPoolName("patient-shard-" + pools.size());
+            pools.add(pool);
+        }
+        return new ShardDataSources(pools);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardDataSources shardDataSources) {
+        return new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(shardDataSources.pools()));
+    }
+
+    @Bean
+    public FlywayMigrationStrategy shardMigrations(ShardDataSources shardDataSources) {
+        return flyway -> {
+            for (HikariDataSource pool : shardDataSources.pools()) {
+                Flyway.configure(getClass().getClassLoader())
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(pool)
+                        .load()
+                        .migrate();
+            }
+        };
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer(ShardDataSources shardDataSources,
+                                           @Value(REBALANCE_CHUNK_SIZE_PROPERTY) int chunkSize) {
+        return new ShardRebalancer(shardDataSources.pools(), topology, chunkSize);
+    }
+
+    /**
+     * Start an instance with {@code patient.sharding.rebalance.enabled=true} after changing the shard list
+     * to move existing charts to their new shards.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "patient.sharding.rebalance.enabled", havingValue = "true")
+    public ApplicationRunner shardRebalanceRunner(ShardRebalancer shardRebalancer) {
+        return args -> log.info("Shard rebalance moved {} patients", shardRebalancer.rebalance());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ShardRoutingInterceptor(topology));
+    }
+}
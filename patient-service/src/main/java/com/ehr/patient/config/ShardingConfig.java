@@ -0,0 +1,20 @@
+package com.ehr.patient.config;
+
+import com.ehr.patient.sharding.ShardTopology;
+import com.ehr.patient.sharding.ShardingProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    /**
+     * A single shard unless sharding is enabled, in which case every configured shard counts.
+     */
+    @Bean
+    public ShardTopology shardTopology(ShardingProperties properties) {
+        return new ShardTopology(properties.enabled() ? properties.shards().size() : 1);
+    }
+}
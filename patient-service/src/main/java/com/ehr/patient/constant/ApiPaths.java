@@ -7,4 +7,12 @@ public final class ApiPaths {
     public static final String PATIENTS_API_PATH = "/api/patients";
     public static final String DIAGNOSES_API_PATH = "/api/patients/{patientId}/diagnoses";
     public static final String MEDICATIONS_API_PATH = "/api/patients/{patientId}/medications";
+    public static final String SUMMARIES_PATH = "/summaries";
+    public static final String BATCH_PATH = "/batch";
+    public static final String LOOKUP_PATH = "/lookup";
+    public static final String CHANGES_PATH = "/changes";
+    public static final String EXPORT_PATH = "/$export";
+    public static final String SEARCH_PATH = "/search";
+    public static final String TYPEAHEAD_PATH = "/typeahead";
+    public static final String CLINICAL_SEARCH_PATH = "/clinical-search";
 }
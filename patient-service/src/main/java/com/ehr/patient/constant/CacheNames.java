@@ -0,0 +1,27 @@
+package com.ehr.patient.constant;
+
+import java.util.List;
+
+public final class CacheNames {
+
+    private CacheNames() {}
+
+    public static final String PATIENTS = "patients";
+
+    // Postgres NOTIFY channel raised by the V7 triggers on every change to a patient's chart.
+    public static final String INVALIDATION_CHANNEL = "patient_cache_invalidation";
+
+    public static final String PATIENT_REGION = "patient";
+    public static final String DIAGNOSIS_REGION = "diagnosis";
+    public static final String MEDICATION_REGION = "medication";
+    public static final String PATIENT_DIAGNOSES_REGION = "patient.diagnoses";
+    public static final String PATIENT_MEDICATIONS_REGION = "patient.medications";
+
+    public static final List<String> ENTITY_REGIONS = List.of(
+            PATIENT_REGION,
+            DIAGNOSIS_REGION,
+            MEDICATION_REGION,
+            PATIENT_DIAGNOSES_REGION,
+            PATIENT_MEDICATIONS_REGION
+    );
+}
@@ -10,4 +10,23 @@ public final class ExceptionMessages {
     public static final String DIAGNOSIS_NOT_FOUND_FOR_PATIENT = "Diagnosis not found for this patient";
     public static final String MEDICATION_NOT_FOUND = "Medication not found";
     public static final String MEDICATION_NOT_FOUND_FOR_PATIENT = "Medication not found for this patient";
+    public static final String INVALID_CURSOR = "Invalid pagination cursor";
+    public static final String UNSUPPORTED_SORT = "Unsupported sort property";
+    public static final String UNSUPPORTED_SORT_DIRECTION = "Sort direction must be asc or desc";
+    public static final String INVALID_DATE_RANGE = "Date range start must not be after its end";
+    public static final String PATIENT_EMAIL_DUPLICATED_IN_BATCH = "Email appears more than once in this batch";
+    public static final String MALFORMED_IMPORT_RECORD = "Malformed import record";
+    public static final String IMPORT_RECORD_REJECTED = "Import record rejected by the database";
+    public static final String OUTBOX_FILE_WRITE_FAILED = "Could not append outbox batch to file";
+    public static final String OUTBOX_WEBHOOK_FAILED = "Outbox webhook did not accept the batch";
+    public static final String EXPORT_NOT_FOUND = "Bulk export not found";
+    public static final String EXPORT_FILE_NOT_FOUND = "Bulk export file not found";
+    public static final String EXPORT_FAILED = "Bulk export failed";
+    public static final String EXPORT_LIMIT_REACHED = "Too many bulk exports are queued or running; try again later";
+    public static final String SEARCH_CRITERIA_REQUIRED = "Search needs a name, email, phone or date of birth";
+    public static final String SEARCH_TERM_TOO_SHORT = "Search terms must be at least 3 characters";
+    public static final String SEARCH_PAGE_OUT_OF_RANGE = "Search results are limited to the first 1000 matches";
+    public static final String SEARCH_TIMED_OUT = "Search took too long; narrow the criteria";
+    public static final String CLINICAL_SEARCH_TEXT_REQUIRED = "Clinical search needs text to match";
+    public static final String CLINICAL_SEARCH_NO_TERMS = "Search text has no searchable words";
 }
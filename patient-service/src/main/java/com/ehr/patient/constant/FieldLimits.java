@@ -0,0 +1,9 @@
+package com.ehr.patient.constant;
+
+public final class FieldLimits {
+
+    private FieldLimits() {}
+
+    // Every text column of patients, diagnoses and medications is VARCHAR(255).
+    public static final int MAX_TEXT_LENGTH = 255;
+}
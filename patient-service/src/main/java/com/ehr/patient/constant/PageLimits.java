@@ -0,0 +1,13 @@
+package com.ehr.patient.constant;
+
+public final class PageLimits {
+
+    private PageLimits() {}
+
+    public static final String DEFAULT_PAGE_SIZE = "50";
+    public static final int MAX_PAGE_SIZE = 200;
+    // Matches the @BatchSize of the patient collections, so a full lookup loads each in one query.
+    public static final int MAX_LOOKUP_IDS = MAX_PAGE_SIZE;
+    public static final String DEFAULT_TYPEAHEAD_LIMIT = "10";
+    public static final int MAX_TYPEAHEAD_LIMIT = 50;
+}
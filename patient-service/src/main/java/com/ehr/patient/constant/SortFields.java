@@ -0,0 +1,16 @@
+package com.ehr.patient.constant;
+
+import java.util.Set;
+
+public final class SortFields {
+
+    private SortFields() {}
+
+    public static final String DIAGNOSIS_DATE = "diagnosisDate";
+    public static final String START_DATE = "startDate";
+    public static final String UPDATED_AT = "updatedAt";
+    public static final String DEFAULT_DIRECTION = "desc";
+
+    public static final Set<String> DIAGNOSIS_SORTS = Set.of(DIAGNOSIS_DATE, UPDATED_AT);
+    public static final Set<String> MEDICATION_SORTS = Set.of(START_DATE, UPDATED_AT);
+}
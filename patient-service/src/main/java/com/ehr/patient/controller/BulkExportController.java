@@ -0,0 +1,101 @@
+package com.ehr.patient.controller;
+
+import com.ehr.patient.constant.ApiPaths;
+import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.dto.BulkExportManifest;
+import com.ehr.patient.export.BulkExportJob;
+import com.ehr.patient.export.BulkExportService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Kick-off, status and download endpoints of the bulk export. Files are served as static resources, so
+ * clients can resume a download with a {@code Range} request.
+ */
+@RestController
+@RequestMapping(ApiPaths.PATIENTS_API_PATH + ApiPaths.EXPORT_PATH)
+public class BulkExportController {
+
+    static final String PROGRESS_HEADER = "X-Progress";
+    static final MediaType NDJSON = MediaType.parseMediaType("application/fhir+ndjson");
+    static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+    private static final String RETRY_AFTER_SECONDS = "5";
+
+    private final BulkExportService bulkExportService;
+
+    public BulkExportController(BulkExportService bulkExportService) {
+        this.bulkExportService = bulkExportService;
+    }
+
+    @PostMapping
+    public ResponseEntity<Void> startExport(@RequestParam(defaultValue = "true") boolean gzip) {
+        String request = ServletUriComponentsBuilder.fromCurrentRequest().toUriString();
+        BulkExportJob job = bulkExportService.start(request, gzip);
+        return ResponseEntity.accepted()
+                .header(HttpHeaders.CONTENT_LOCATION, exportUri("/{jobId}", job.getId()).toString())
+                .build();
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getExportStatus(@PathVariable UUID jobId) {
+        BulkExportJob job = bulkExportService.getJob(jobId);
+        return switch (job.getStatus()) {
+            case ACCEPTED, IN_PROGRESS -> ResponseEntity.accepted()
+                    .header(PROGRESS_HEADER, progress(job))
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .build();
+            case COMPLETED -> ResponseEntity.ok(BulkExportManifest.of(job, fileName ->
+                    exportUri("/{jobId}/{fileName}", jobId, fileName).toString()));
+            case FAILED -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", job.getError() == null ? ExceptionMessages.EXPORT_FAILED : job.getError()));
+        };
+    }
+
+    @GetMapping("/{jobId}/{fileName}")
+    public ResponseEntity<Resource> getExportFile(@PathVariable UUID jobId, @PathVariable String fileName) {
+        Path file = bulkExportService.getFile(jobId, fileName);
+        return ResponseEntity.ok()
+                .contentType(fileName.endsWith(".gz") ? GZIP : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(new FileSystemResource(file));
+    }
+
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<Void> deleteExport(@PathVariable UUID jobId) {
+        bulkExportService.delete(jobId);
+        return ResponseEntity.accepted().build();
+    }
+
+    private static URI exportUri(String path, Object... uriVariables) {
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path(ApiPaths.PATIENTS_API_PATH + ApiPaths.EXPORT_PATH + path)
+                .buildAndExpand(uriVariables)
+                .toUri();
+    }
+
+    private static String progress(BulkExportJob job) {
+        if (job.getStatus() == BulkExportJob.Status.ACCEPTED) {
+            return "queued";
+        }
+        String type = job.getCurrentType();
+        return (type == null ? "starting" : "exporting " + type) + ", " + job.getExportedRows() + " rows written";
+    }
+}
@@ -0,0 +1,30 @@
+package com.ehr.patient.controller;
+
+import com.ehr.patient.constant.ApiPaths;
+import com.ehr.patient.constant.PageLimits;
+import com.ehr.patient.dto.ChangeFeedResponse;
+import com.ehr.patient.service.ChangeFeedService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(ApiPaths.PATIENTS_API_PATH + ApiPaths.CHANGES_PATH)
+public class ChangeFeedController {
+
+    private final ChangeFeedService changeFeedService;
+
+    public ChangeFeedController(ChangeFeedService changeFeedService) {
+        this.changeFeedService = changeFeedService;
+    }
+
+    @GetMapping
+    public ResponseEntity<ChangeFeedResponse> getChanges(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = PageLimits.DEFAULT_PAGE_SIZE) int size) {
+        ChangeFeedResponse changes = changeFeedService.getChanges(cursor, size);
+        return ResponseEntity.ok(changes);
+    }
+}
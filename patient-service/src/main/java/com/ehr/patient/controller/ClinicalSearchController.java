@@ -0,0 +1,46 @@
+package com.ehr.patient.controller;
+
+import com.ehr.patient.clinicalsearch.ClinicalSearchIndex;
+import com.ehr.patient.constant.ApiPaths;
+import com.ehr.patient.constant.PageLimits;
+import com.ehr.patient.dto.ClinicalSearchHit;
+import com.ehr.patient.dto.PageResponse;
+import com.ehr.patient.model.enums.ClinicalRecordType;
+import com.ehr.patient.model.enums.DiagnosisStatus;
+import com.ehr.patient.model.enums.MedicationStatus;
+import com.ehr.patient.model.enums.PatientStatus;
+import com.ehr.patient.pagination.ClinicalSearchQuery;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(ApiPaths.PATIENTS_API_PATH + ApiPaths.CLINICAL_SEARCH_PATH)
+@ConditionalOnProperty(name = "patient.clinical-search.enabled", havingValue = "true")
+public class ClinicalSearchController {
+
+    private final ClinicalSearchIndex clinicalSearchIndex;
+
+    public ClinicalSearchController(ClinicalSearchIndex clinicalSearchIndex) {
+        this.clinicalSearchIndex = clinicalSearchIndex;
+    }
+
+    @GetMapping
+    public ResponseEntity<PageResponse<ClinicalSearchHit>> search(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) List<ClinicalRecordType> type,
+            @RequestParam(required = false) List<PatientStatus> patientStatus,
+            @RequestParam(required = false) List<DiagnosisStatus> diagnosisStatus,
+            @RequestParam(required = false) List<MedicationStatus> medicationStatus,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = PageLimits.DEFAULT_PAGE_SIZE) int size) {
+        ClinicalSearchQuery query = ClinicalSearchQuery.of(q, type, patientStatus, diagnosisStatus,
+                medicationStatus, page, size);
+        return ResponseEntity.ok(clinicalSearchIndex.search(query));
+    }
+}
@@ -1,9 +1,15 @@
 package com.ehr.patient.controller;
 
 import com.ehr.patient.constant.ApiPaths;
+import com.ehr.patient.constant.PageLimits;
+import com.ehr.patient.constant.SortFields;
 import com.ehr.patient.dto.CreateDiagnosisRequest;
 import com.ehr.patient.dto.DiagnosisResponse;
+import com.ehr.patient.dto.PageResponse;
+import com.ehr.patient.model.enums.DiagnosisStatus;
+import com.ehr.patient.pagination.ChildListQuery;
 import com.ehr.patient.service.DiagnosisService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import jakarta.validation.Valid;
@@ -13,8 +19,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -36,9 +45,25 @@ public class DiagnosisController {
     }
 
     @GetMapping
-    public ResponseEntity<List<DiagnosisResponse>> getDiagnoses(@PathVariable UUID patientId) {
-        List<DiagnosisResponse> diagnoses = diagnosisService.getDiagnoses(patientId);
-        return ResponseEntity.ok(diagnoses);
+    public ResponseEntity<PageResponse<DiagnosisResponse>> getDiagnoses(
+            @PathVariable UUID patientId,
+            @RequestParam(required = false) List<DiagnosisStatus> status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = SortFields.DIAGNOSIS_DATE) String sort,
+            @RequestParam(defaultValue = SortFields.DEFAULT_DIRECTION) String direction,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = PageLimits.DEFAULT_PAGE_SIZE) int size,
+            WebRequest request) {
+        ChildListQuery<DiagnosisStatus> query = ChildListQuery.of(DiagnosisStatus.class, status, from, to,
+                sort, direction, SortFields.DIAGNOSIS_SORTS, page, size);
+        // Tagged before the read, so a concurrent write can leave the tag stale but never the body.
+        String eTag = diagnosisService.getDiagnosesETag(patientId, query);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        PageResponse<DiagnosisResponse> diagnoses = diagnosisService.getDiagnoses(patientId, query);
+        return ResponseEntity.ok().eTag(eTag).body(diagnoses);
     }
 
     @PutMapping("/{diagnosisId}")
@@ -1,11 +1,17 @@
 package com.ehr.patient.controller;
 
 import com.ehr.patient.constant.ApiPaths;
+import com.ehr.patient.constant.PageLimits;
+import com.ehr.patient.constant.SortFields;
 import com.ehr.patient.dto.CreateMedicationRequest;
 import com.ehr.patient.dto.MedicationResponse;
+import com.ehr.patient.dto.PageResponse;
+import com.ehr.patient.model.enums.MedicationStatus;
+import com.ehr.patient.pagination.ChildListQuery;
 import com.ehr.patient.dto.UpdateMedicationRequest;
 import com.ehr.patient.service.MedicationService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,8 +20,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -37,9 +46,25 @@ public class MedicationController {
     }
 
     @GetMapping
-    public ResponseEntity<List<MedicationResponse>> getMedications(@PathVariable UUID patientId) {
-        List<MedicationResponse> medications = medicationService.getMedications(patientId);
-        return ResponseEntity.ok(medications);
+    public ResponseEntity<PageResponse<MedicationResponse>> getMedications(
+            @PathVariable UUID patientId,
+            @RequestParam(required = false) List<MedicationStatus> status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = SortFields.START_DATE) String sort,
+            @RequestParam(defaultValue = SortFields.DEFAULT_DIRECTION) String direction,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = PageLimits.DEFAULT_PAGE_SIZE) int size,
+            WebRequest request) {
+        ChildListQuery<MedicationStatus> query = ChildListQuery.of(MedicationStatus.class, status, from, to,
+                sort, direction, SortFields.MEDICATION_SORTS, page, size);
+        // Tagged before the read, so a concurrent write can leave the tag stale but never the body.
+        String eTag = medicationService.getMedicationsETag(patientId, query);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        PageResponse<MedicationResponse> medications = medicationService.getMedications(patientId, query);
+        return ResponseEntity.ok().eTag(eTag).body(medications);
     }
 
     @PutMapping("/{medicationId}")
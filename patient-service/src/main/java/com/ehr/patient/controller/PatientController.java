@@ -1,11 +1,18 @@
 package com.ehr.patient.controller;
 
 import com.ehr.patient.constant.ApiPaths;
+import com.ehr.patient.constant.PageLimits;
 import com.ehr.patient.dto.CreatePatientRequest;
+import com.ehr.patient.dto.CursorPageResponse;
+import com.ehr.patient.dto.PatientLookupRequest;
+import com.ehr.patient.dto.PatientLookupResponse;
 import com.ehr.patient.dto.PatientResponse;
+import com.ehr.patient.dto.PatientSummaryResponse;
 import com.ehr.patient.dto.UpdatePatientRequest;
+import com.ehr.patient.etag.PatientChartVersion;
 import com.ehr.patient.service.PatientService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,9 +21,10 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -36,15 +44,40 @@ public class PatientController {
     }
 
     @GetMapping
-    public ResponseEntity<List<PatientResponse>> getAllPatients() {
-        List<PatientResponse> patients = patientService.getAllPatients();
+    public ResponseEntity<CursorPageResponse<PatientResponse>> getPatients(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = PageLimits.DEFAULT_PAGE_SIZE) int size) {
+        CursorPageResponse<PatientResponse> patients = patientService.getPatients(cursor, size);
         return ResponseEntity.ok(patients);
     }
 
+    @GetMapping(ApiPaths.SUMMARIES_PATH)
+    public ResponseEntity<CursorPageResponse<PatientSummaryResponse>> getPatientSummaries(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = PageLimits.DEFAULT_PAGE_SIZE) int size) {
+        CursorPageResponse<PatientSummaryResponse> summaries = patientService.getPatientSummaries(cursor, size);
+        return ResponseEntity.ok(summaries);
+    }
+
+    @PostMapping(ApiPaths.LOOKUP_PATH)
+    public ResponseEntity<PatientLookupResponse<?>> lookupPatients(@Valid @RequestBody PatientLookupRequest request) {
+        PatientLookupResponse<?> response = switch (request.viewOrDefault()) {
+            case SUMMARY -> patientService.lookupPatientSummaries(request.ids());
+            case FULL -> patientService.lookupPatients(request.ids());
+        };
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<PatientResponse> getPatient(@PathVariable UUID id) {
+    public ResponseEntity<PatientResponse> getPatient(@PathVariable UUID id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(patientService.getPatientETag(id))) {
+            return null;
+        }
         PatientResponse response = patientService.getPatient(id);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .eTag(PatientChartVersion.of(response).eTag())
+                .body(response);
     }
 
     @PutMapping("/{id}")
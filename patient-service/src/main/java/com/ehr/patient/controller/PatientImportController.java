@@ -0,0 +1,39 @@
+package com.ehr.patient.controller;
+
+import com.ehr.patient.constant.ApiPaths;
+import com.ehr.patient.dto.ImportPatientRequest;
+import com.ehr.patient.dto.PatientImportResponse;
+import com.ehr.patient.service.PatientImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping(ApiPaths.PATIENTS_API_PATH + ApiPaths.BATCH_PATH)
+public class PatientImportController {
+
+    private final PatientImportService patientImportService;
+
+    public PatientImportController(PatientImportService patientImportService) {
+        this.patientImportService = patientImportService;
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PatientImportResponse> importPatients(@RequestBody List<ImportPatientRequest> records) {
+        PatientImportResponse response = patientImportService.importPatients(records);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<PatientImportResponse> importPatientStream(HttpServletRequest request) throws IOException {
+        PatientImportResponse response = patientImportService.importPatients(request.getInputStream());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,39 @@
+package com.ehr.patient.controller;
+
+import com.ehr.patient.constant.ApiPaths;
+import com.ehr.patient.constant.PageLimits;
+import com.ehr.patient.dto.PageResponse;
+import com.ehr.patient.dto.PatientSummaryResponse;
+import com.ehr.patient.pagination.PatientSearchQuery;
+import com.ehr.patient.service.PatientSearchService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping(ApiPaths.PATIENTS_API_PATH + ApiPaths.SEARCH_PATH)
+public class PatientSearchController {
+
+    private final PatientSearchService patientSearchService;
+
+    public PatientSearchController(PatientSearchService patientSearchService) {
+        this.patientSearchService = patientSearchService;
+    }
+
+    @GetMapping
+    public ResponseEntity<PageResponse<PatientSummaryResponse>> search(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String phone,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateOfBirth,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = PageLimits.DEFAULT_PAGE_SIZE) int size) {
+        PatientSearchQuery query = PatientSearchQuery.of(name, email, phone, dateOfBirth, page, size);
+        return ResponseEntity.ok(patientSearchService.search(query));
+    }
+}
@@ -0,0 +1,34 @@
+package com.ehr.patient.controller;
+
+import com.ehr.patient.constant.ApiPaths;
+import com.ehr.patient.constant.PageLimits;
+import com.ehr.patient.dto.PatientTypeaheadResponse;
+import com.ehr.patient.typeahead.PatientTypeahead;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(ApiPaths.PATIENTS_API_PATH + ApiPaths.TYPEAHEAD_PATH)
+@ConditionalOnProperty(name = "patient.typeahead.enabled", havingValue = "true")
+public class PatientTypeaheadController {
+
+    private final PatientTypeahead patientTypeahead;
+
+    public PatientTypeaheadController(PatientTypeahead patientTypeahead) {
+        this.patientTypeahead = patientTypeahead;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<PatientTypeaheadResponse>> typeahead(
+            @RequestParam String q,
+            @RequestParam(defaultValue = PageLimits.DEFAULT_TYPEAHEAD_LIMIT) int limit) {
+        int size = Math.max(1, Math.min(limit, PageLimits.MAX_TYPEAHEAD_LIMIT));
+        return ResponseEntity.ok(patientTypeahead.search(q, size));
+    }
+}
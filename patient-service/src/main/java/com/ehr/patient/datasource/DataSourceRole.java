@@ -0,0 +1,6 @@
+package com.ehr.patient.datasource;
+
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
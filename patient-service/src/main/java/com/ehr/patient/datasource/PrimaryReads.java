@@ -0,0 +1,31 @@
+package com.ehr.patient.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Keeps the current thread's read-only transactions on the primary. Used for loads whose result is cached:
+ * a lagging replica would otherwise cache a chart older than the write that just evicted it. Connections
+ * are resolved on their first statement, so this only has to be entered before the read touches the database.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private PrimaryReads() {}
+
+    public static <T> T call(Supplier<T> read) {
+        if (isActive()) {
+            return read.get();
+        }
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+
+    static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+}
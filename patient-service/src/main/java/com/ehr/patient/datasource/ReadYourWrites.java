@@ -0,0 +1,92 @@
+package com.ehr.patient.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+
+import java.time.Duration;
+
+/**
+ * Pins a client to the primary after it writes, until the replica has replayed past the primary's WAL
+ * position at the end of that request or the pin window runs out, whichever comes first. Pins are held
+ * per instance, keyed by the client id the gateway forwards.
+ */
+public class ReadYourWrites {
+
+    public static final String PINNED_CLIENTS_METRIC = "patient.datasource.pinned.clients";
+
+    private static final Logger log = LoggerFactory.getLogger(ReadYourWrites.class);
+
+    private final ReplicationPositions positions;
+    private final Cache<String, Long> pins;
+    private final ThreadLocal<ClientRequest> currentRequest = new ThreadLocal<>();
+
+    public ReadYourWrites(ReplicationPositions positions, Duration pinWindow, MeterRegistry meterRegistry) {
+        this.positions = positions;
+        this.pins = Caffeine.newBuilder()
+                .expireAfterWrite(pinWindow)
+                .build();
+        Gauge.builder(PINNED_CLIENTS_METRIC, pins, Cache::estimatedSize).register(meterRegistry);
+    }
+
+    public void beginRequest(String clientId) {
+        currentRequest.set(new ClientRequest(clientId));
+    }
+
+    /**
+     * Runs after the request's transactions have committed, so the primary position read here is at or
+     * past every commit the client made.
+     */
+    public void endRequest() {
+        ClientRequest request = currentRequest.get();
+        currentRequest.remove();
+        if (request == null || request.clientId == null || !request.wrote) {
+            return;
+        }
+        long lsn;
+        try {
+            lsn = positions.primaryLsn();
+        } catch (DataAccessException e) {
+            log.warn("Could not read the primary WAL position; pinning client for the full window", e);
+            lsn = Long.MAX_VALUE;
+        }
+        pins.put(request.clientId, lsn);
+    }
+
+    void recordWrite() {
+        ClientRequest request = currentRequest.get();
+        if (request != null) {
+            request.wrote = true;
+        }
+    }
+
+    boolean isPinned() {
+        ClientRequest request = currentRequest.get();
+        if (request == null || request.clientId == null) {
+            return false;
+        }
+        Long pinnedLsn = pins.getIfPresent(request.clientId);
+        if (pinnedLsn == null) {
+            return false;
+        }
+        if (positions.replayLsn() >= pinnedLsn) {
+            pins.invalidate(request.clientId);
+            return false;
+        }
+        return true;
+    }
+
+    private static final class ClientRequest {
+
+        private final String clientId;
+        private boolean wrote;
+
+        private ClientRequest(String clientId) {
+            this.clientId = clientId;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.ehr.patient.datasource;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica unless the calling client is pinned to the primary or the read
+ * fills a cache (see {@link PrimaryReads}); everything else, including reads outside a transaction, goes to
+ * the primary. The lookup key is resolved when the connection is first used, so this must sit behind a
+ * {@code LazyConnectionDataSourceProxy}: the transaction manager opens the connection before the read-only
+ * flag is bound to the thread.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReadYourWrites readYourWrites;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadYourWrites readYourWrites) {
+        this.readYourWrites = readYourWrites;
+        setTargetDataSources(Map.of(DataSourceRole.PRIMARY, primary, DataSourceRole.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                readYourWrites.recordWrite();
+            }
+            return DataSourceRole.PRIMARY;
+        }
+        if (PrimaryReads.isActive() || readYourWrites.isPinned()) {
+            return DataSourceRole.PRIMARY;
+        }
+        skipEntityCachePuts();
+        return DataSourceRole.REPLICA;
+    }
+
+    /**
+     * Entities read from a lagging replica would sit in the shared entity cache until they expire. The
+     * transaction's session may still read cached entries, but no longer adds the ones it loads.
+     */
+    private static void skipEntityCachePuts() {
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (resource instanceof EntityManagerHolder holder) {
+                holder.getEntityManager().unwrap(Session.class).setCacheMode(CacheMode.GET);
+            }
+        }
+    }
+}
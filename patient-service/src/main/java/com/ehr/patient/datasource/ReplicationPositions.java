@@ -0,0 +1,70 @@
+package com.ehr.patient.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * WAL positions of the primary and the replica as comparable numbers. The replica's replay position is
+ * re-read at most once per refresh interval, so routing decisions do not cost a query each.
+ */
+public class ReplicationPositions {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationPositions.class);
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long refreshIntervalNanos;
+
+    private volatile long replayLsn = -1;
+    private volatile long replayLsnReadAt;
+
+    public ReplicationPositions(DataSource primary, DataSource replica, Duration refreshInterval) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+    }
+
+    public long primaryLsn() {
+        return parseLsn(primary.queryForObject("SELECT pg_current_wal_lsn()::text", String.class));
+    }
+
+    /**
+     * The last position the replica has replayed, or -1 when it cannot be read. A server that is not in
+     * recovery reports no replay position; it is then its own primary and never behind.
+     */
+    public long replayLsn() {
+        long now = System.nanoTime();
+        if (now - replayLsnReadAt >= refreshIntervalNanos) {
+            replayLsn = readReplayLsn();
+            replayLsnReadAt = now;
+        }
+        return replayLsn;
+    }
+
+    private long readReplayLsn() {
+        try {
+            String lsn = replica.queryForObject("SELECT pg_last_wal_replay_lsn()::text", String.class);
+            return lsn == null ? Long.MAX_VALUE : parseLsn(lsn);
+        } catch (DataAccessException e) {
+            log.warn("Could not read the replica replay position; pinned clients stay on the primary", e);
+            return -1;
+        }
+    }
+
+    /**
+     * Converts the textual {@code pg_lsn} form, two hexadecimal halves such as {@code 16/B374D848}.
+     */
+    static long parseLsn(String lsn) {
+        int separator = lsn.indexOf('/');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Malformed LSN: " + lsn);
+        }
+        return Long.parseLong(lsn.substring(0, separator), 16) << 32
+                | Long.parseLong(lsn.substring(separator + 1), 16);
+    }
+}
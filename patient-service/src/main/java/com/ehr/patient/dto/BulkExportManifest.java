@@ -0,0 +1,28 @@
+package com.ehr.patient.dto;
+
+import com.ehr.patient.export.BulkExportJob;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+public record BulkExportManifest(
+        LocalDateTime transactionTime,
+        String request,
+        boolean requiresAccessToken,
+        List<Output> output,
+        List<Output> error) {
+
+    public record Output(String type, String url, long count) {
+    }
+
+    /**
+     * @param fileUrl maps an output file name to its download URL
+     */
+    public static BulkExportManifest of(BulkExportJob job, Function<String, String> fileUrl) {
+        List<Output> output = job.getOutput().stream()
+                .map(file -> new Output(file.type(), fileUrl.apply(file.fileName()), file.count()))
+                .toList();
+        return new BulkExportManifest(job.getTransactionTime(), job.getRequest(), true, output, List.of());
+    }
+}
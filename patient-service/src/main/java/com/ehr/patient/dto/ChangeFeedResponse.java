@@ -0,0 +1,11 @@
+package com.ehr.patient.dto;
+
+import java.util.List;
+
+public record ChangeFeedResponse(
+        List<PatientSummaryResponse> patients,
+        List<DiagnosisResponse> diagnoses,
+        List<MedicationResponse> medications,
+        String nextCursor,
+        boolean hasMore) {
+}
@@ -0,0 +1,21 @@
+package com.ehr.patient.dto;
+
+import com.ehr.patient.model.enums.ClinicalRecordType;
+
+import java.util.UUID;
+
+/**
+ * A diagnosis or medication matching a clinical text search. Only the fields of its type are set.
+ */
+public record ClinicalSearchHit(
+        ClinicalRecordType type,
+        UUID id,
+        UUID patientId,
+        String status,
+        float score,
+        String icdCode,
+        String description,
+        String name,
+        String dosage,
+        String washoutNotes) {
+}
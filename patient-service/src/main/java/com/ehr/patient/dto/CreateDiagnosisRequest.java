@@ -1,14 +1,16 @@
 package com.ehr.patient.dto;
 
+import com.ehr.patient.constant.FieldLimits;
 import com.ehr.patient.model.enums.DiagnosisStatus;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 import java.time.LocalDate;
 
 public record CreateDiagnosisRequest(
-        @NotBlank String icdCode,
-        String description,
+        @NotBlank @Size(max = FieldLimits.MAX_TEXT_LENGTH) String icdCode,
+        @Size(max = FieldLimits.MAX_TEXT_LENGTH) String description,
         @NotNull LocalDate diagnosisDate,
         @NotNull DiagnosisStatus status) {
 }
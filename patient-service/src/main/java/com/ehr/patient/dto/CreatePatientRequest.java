@@ -1,21 +1,23 @@
 package com.ehr.patient.dto;
 
+import com.ehr.patient.constant.FieldLimits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 import java.time.LocalDate;
 
 public record CreatePatientRequest(
-        @NotBlank String firstName,
-        @NotBlank String lastName,
+        @NotBlank @Size(max = FieldLimits.MAX_TEXT_LENGTH) String firstName,
+        @NotBlank @Size(max = FieldLimits.MAX_TEXT_LENGTH) String lastName,
         @NotNull LocalDate dateOfBirth,
-        @NotBlank String gender,
-        @NotBlank String email,
-        String phone,
-        String address,
-        String city,
-        String state,
-        String zipCode,
-        String emergencyContactName,
-        String emergencyContactPhone) {
+        @NotBlank @Size(max = FieldLimits.MAX_TEXT_LENGTH) String gender,
+        @NotBlank @Size(max = FieldLimits.MAX_TEXT_LENGTH) String email,
+        @Size(max = FieldLimits.MAX_TEXT_LENGTH) String phone,
+        @Size(max = FieldLimits.MAX_TEXT_LENGTH) String address,
+        @Size(max = FieldLimits.MAX_TEXT_LENGTH) String city,
+        @Size(max = FieldLimits.MAX_TEXT_LENGTH) String state,
+        @Size(max = FieldLimits.MAX_TEXT_LENGTH) String zipCode,
+        @Size(max = FieldLimits.MAX_TEXT_LENGTH) String emergencyContactName,
+        @Size(max = FieldLimits.MAX_TEXT_LENGTH) String emergencyContactPhone) {
 }
@@ -0,0 +1,8 @@
+package com.ehr.patient.dto;
+
+import java.util.List;
+
+public record CursorPageResponse<T>(
+        List<T> items,
+        String nextCursor) {
+}
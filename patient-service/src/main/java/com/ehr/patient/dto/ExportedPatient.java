@@ -0,0 +1,29 @@
+package com.ehr.patient.dto;
+
+import com.ehr.patient.model.enums.PatientStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One line of a bulk export's Patient file. Diagnoses and medications are exported to their own files.
+ */
+public record ExportedPatient(
+        UUID id,
+        String firstName,
+        String lastName,
+        LocalDate dateOfBirth,
+        String gender,
+        String email,
+        String phone,
+        String address,
+        String city,
+        String state,
+        String zipCode,
+        String emergencyContactName,
+        String emergencyContactPhone,
+        PatientStatus status,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
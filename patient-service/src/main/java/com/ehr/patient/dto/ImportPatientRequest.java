@@ -0,0 +1,20 @@
+package com.ehr.patient.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public record ImportPatientRequest(
+        @NotNull @Valid CreatePatientRequest patient,
+        @Valid List<CreateDiagnosisRequest> diagnoses,
+        @Valid List<CreateMedicationRequest> medications) {
+
+    public List<CreateDiagnosisRequest> diagnosesOrEmpty() {
+        return diagnoses == null ? List.of() : diagnoses;
+    }
+
+    public List<CreateMedicationRequest> medicationsOrEmpty() {
+        return medications == null ? List.of() : medications;
+    }
+}
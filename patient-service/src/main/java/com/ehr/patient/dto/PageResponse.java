@@ -0,0 +1,16 @@
+package com.ehr.patient.dto;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+public record PageResponse<T>(
+        List<T> items,
+        int page,
+        int size,
+        boolean hasNext) {
+
+    public static <T> PageResponse<T> of(Slice<T> slice) {
+        return new PageResponse<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext());
+    }
+}
@@ -0,0 +1,9 @@
+package com.ehr.patient.dto;
+
+import java.util.List;
+
+public record PatientImportResponse(
+        int created,
+        int failed,
+        List<PatientImportResult> results) {
+}
@@ -0,0 +1,23 @@
+package com.ehr.patient.dto;
+
+import java.util.UUID;
+
+public record PatientImportResult(
+        int index,
+        Outcome outcome,
+        UUID patientId,
+        String error) {
+
+    public enum Outcome {
+        CREATED,
+        FAILED
+    }
+
+    public static PatientImportResult created(int index, UUID patientId) {
+        return new PatientImportResult(index, Outcome.CREATED, patientId, null);
+    }
+
+    public static PatientImportResult failed(int index, String error) {
+        return new PatientImportResult(index, Outcome.FAILED, null, error);
+    }
+}
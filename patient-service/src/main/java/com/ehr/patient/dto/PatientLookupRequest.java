@@ -0,0 +1,18 @@
+package com.ehr.patient.dto;
+
+import com.ehr.patient.constant.PageLimits;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public record PatientLookupRequest(
+        @NotEmpty @Size(max = PageLimits.MAX_LOOKUP_IDS) List<@NotNull UUID> ids,
+        PatientLookupView view) {
+
+    public PatientLookupView viewOrDefault() {
+        return view == null ? PatientLookupView.SUMMARY : view;
+    }
+}
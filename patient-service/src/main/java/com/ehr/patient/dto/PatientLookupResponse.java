@@ -0,0 +1,9 @@
+package com.ehr.patient.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record PatientLookupResponse<T>(
+        List<T> patients,
+        List<UUID> missingIds) {
+}
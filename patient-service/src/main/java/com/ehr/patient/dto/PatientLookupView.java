@@ -0,0 +1,6 @@
+package com.ehr.patient.dto;
+
+public enum PatientLookupView {
+    SUMMARY,
+    FULL
+}
@@ -0,0 +1,36 @@
+package com.ehr.patient.dto;
+
+import com.ehr.patient.model.enums.PatientStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record PatientSummaryResponse(
+        UUID id,
+        String firstName,
+        String lastName,
+        LocalDate dateOfBirth,
+        String gender,
+        String email,
+        String phone,
+        String address,
+        String city,
+        String state,
+        String zipCode,
+        String emergencyContactName,
+        String emergencyContactPhone,
+        PatientStatus status,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        long diagnosisCount,
+        long medicationCount) {
+
+    public static PatientSummaryResponse of(PatientResponse patient) {
+        return new PatientSummaryResponse(patient.id(), patient.firstName(), patient.lastName(),
+                patient.dateOfBirth(), patient.gender(), patient.email(), patient.phone(), patient.address(),
+                patient.city(), patient.state(), patient.zipCode(), patient.emergencyContactName(),
+                patient.emergencyContactPhone(), patient.status(), patient.createdAt(), patient.updatedAt(),
+                patient.diagnoses().size(), patient.medications().size());
+    }
+}
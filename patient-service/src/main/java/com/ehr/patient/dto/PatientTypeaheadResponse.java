@@ -0,0 +1,20 @@
+package com.ehr.patient.dto;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Just enough of a patient to pick the right one from a search-as-you-type list.
+ */
+public record PatientTypeaheadResponse(
+        UUID id,
+        String firstName,
+        String lastName,
+        LocalDate dateOfBirth,
+        String email) {
+
+    public static PatientTypeaheadResponse of(PatientSummaryResponse patient) {
+        return new PatientTypeaheadResponse(patient.id(), patient.firstName(), patient.lastName(),
+                patient.dateOfBirth(), patient.email());
+    }
+}
@@ -1,19 +1,21 @@
 package com.ehr.patient.dto;
 
+import com.ehr.patient.constant.FieldLimits;
 import com.ehr.patient.model.enums.MedicationStatus;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 import java.time.LocalDate;
 
 public record UpdateMedicationRequest(
-        @NotBlank String name,
-        @NotBlank String dosage,
-        @NotBlank String frequency,
+        @NotBlank @Size(max = FieldLimits.MAX_TEXT_LENGTH) String name,
+        @NotBlank @Size(max = FieldLimits.MAX_TEXT_LENGTH) String dosage,
+        @NotBlank @Size(max = FieldLimits.MAX_TEXT_LENGTH) String frequency,
         @NotNull MedicationStatus status,
         @NotNull LocalDate startDate,
         LocalDate endDate,
         boolean contraindicated,
         Integer washoutDays,
-        String washoutNotes) {
+        @Size(max = FieldLimits.MAX_TEXT_LENGTH) String washoutNotes) {
 }
@@ -0,0 +1,37 @@
+package com.ehr.patient.etag;
+
+import com.ehr.patient.pagination.ChildListQuery;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+public record CollectionVersion(
+        UUID patientId,
+        LocalDateTime updatedAt,
+        long count
+) {
+
+    public static <T> CollectionVersion of(UUID patientId, List<T> items, Function<T, LocalDateTime> updatedAt) {
+        return new CollectionVersion(patientId, maxUpdatedAt(items, updatedAt), items.size());
+    }
+
+    static <T> LocalDateTime maxUpdatedAt(List<T> items, Function<T, LocalDateTime> updatedAt) {
+        return items.stream()
+                .map(updatedAt)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+    }
+
+    /**
+     * Tags one filtered page of the collection. Any change to the collection retags every page, which keeps
+     * revalidation down to the single version query.
+     */
+    public String eTag(ChildListQuery<?> query) {
+        return ETags.strong(patientId, updatedAt, count, query.canonical());
+    }
+}
@@ -0,0 +1,27 @@
+package com.ehr.patient.etag;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.stream.Collectors;
+
+public final class ETags {
+
+    private static final int HASH_BYTES = 16;
+
+    private ETags() {}
+
+    public static String strong(Object... versionParts) {
+        String joined = Arrays.stream(versionParts)
+                .map(String::valueOf)
+                .collect(Collectors.joining("|"));
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(joined.getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(hash, 0, HASH_BYTES) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.ehr.patient.etag;
+
+import com.ehr.patient.dto.DiagnosisResponse;
+import com.ehr.patient.dto.MedicationResponse;
+import com.ehr.patient.dto.PatientResponse;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record PatientChartVersion(
+        UUID patientId,
+        LocalDateTime updatedAt,
+        LocalDateTime diagnosesUpdatedAt,
+        long diagnosisCount,
+        LocalDateTime medicationsUpdatedAt,
+        long medicationCount
+) {
+
+    public static PatientChartVersion of(PatientResponse patient) {
+        return new PatientChartVersion(
+                patient.id(),
+                patient.updatedAt(),
+                CollectionVersion.maxUpdatedAt(patient.diagnoses(), DiagnosisResponse::updatedAt),
+                patient.diagnoses().size(),
+                CollectionVersion.maxUpdatedAt(patient.medications(), MedicationResponse::updatedAt),
+                patient.medications().size()
+        );
+    }
+
+    public String eTag() {
+        return ETags.strong(patientId, updatedAt, diagnosesUpdatedAt, diagnosisCount,
+                medicationsUpdatedAt, medicationCount);
+    }
+}
@@ -0,0 +1,24 @@
+package com.ehr.patient.event;
+
+import com.ehr.patient.dto.DiagnosisResponse;
+import com.ehr.patient.model.enums.DomainEventType;
+
+import java.util.UUID;
+
+public record DiagnosisEvent(DomainEventType type, DiagnosisResponse diagnosis) implements PatientDomainEvent {
+
+    @Override
+    public UUID patientId() {
+        return diagnosis.patientId();
+    }
+
+    @Override
+    public UUID aggregateId() {
+        return diagnosis.id();
+    }
+
+    @Override
+    public Object payload() {
+        return diagnosis;
+    }
+}
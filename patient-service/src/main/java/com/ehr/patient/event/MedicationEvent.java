@@ -0,0 +1,24 @@
+package com.ehr.patient.event;
+
+import com.ehr.patient.dto.MedicationResponse;
+import com.ehr.patient.model.enums.DomainEventType;
+
+import java.util.UUID;
+
+public record MedicationEvent(DomainEventType type, MedicationResponse medication) implements PatientDomainEvent {
+
+    @Override
+    public UUID patientId() {
+        return medication.patientId();
+    }
+
+    @Override
+    public UUID aggregateId() {
+        return medication.id();
+    }
+
+    @Override
+    public Object payload() {
+        return medication;
+    }
+}
@@ -0,0 +1,19 @@
+package com.ehr.patient.event;
+
+import com.ehr.patient.model.enums.DomainEventType;
+
+import java.util.UUID;
+
+/**
+ * Published by the write services inside their transaction, once the change has been flushed.
+ */
+public sealed interface PatientDomainEvent permits PatientEvent, DiagnosisEvent, MedicationEvent {
+
+    DomainEventType type();
+
+    UUID patientId();
+
+    UUID aggregateId();
+
+    Object payload();
+}
@@ -0,0 +1,24 @@
+package com.ehr.patient.event;
+
+import com.ehr.patient.dto.PatientSummaryResponse;
+import com.ehr.patient.model.enums.DomainEventType;
+
+import java.util.UUID;
+
+public record PatientEvent(DomainEventType type, PatientSummaryResponse patient) implements PatientDomainEvent {
+
+    @Override
+    public UUID patientId() {
+        return patient.id();
+    }
+
+    @Override
+    public UUID aggregateId() {
+        return patient.id();
+    }
+
+    @Override
+    public Object payload() {
+        return patient;
+    }
+}
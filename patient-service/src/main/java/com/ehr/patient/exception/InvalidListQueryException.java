@@ -0,0 +1,7 @@
+package com.ehr.patient.exception;
+
+public class InvalidListQueryException extends RuntimeException {
+    public InvalidListQueryException(String message) {
+        super(message);
+    }
+}
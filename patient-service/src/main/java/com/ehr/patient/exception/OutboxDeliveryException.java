@@ -0,0 +1,11 @@
+package com.ehr.patient.exception;
+
+public class OutboxDeliveryException extends RuntimeException {
+    public OutboxDeliveryException(String message) {
+        super(message);
+    }
+
+    public OutboxDeliveryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
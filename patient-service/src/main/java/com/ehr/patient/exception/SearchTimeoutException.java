@@ -0,0 +1,7 @@
+package com.ehr.patient.exception;
+
+public class SearchTimeoutException extends RuntimeException {
+    public SearchTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
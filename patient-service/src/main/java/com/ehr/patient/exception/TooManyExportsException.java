@@ -0,0 +1,7 @@
+package com.ehr.patient.exception;
+
+public class TooManyExportsException extends RuntimeException {
+    public TooManyExportsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,134 @@
+package com.ehr.patient.export;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * State of one bulk export, shared between the worker writing it and the requests polling it.
+ */
+public class BulkExportJob {
+
+    public enum Status {
+        ACCEPTED,
+        IN_PROGRESS,
+        COMPLETED,
+        FAILED
+    }
+
+    public record OutputFile(String type, String fileName, long count, long bytes) {
+    }
+
+    private final UUID id;
+    private final String request;
+    private final boolean gzip;
+    private final Path directory;
+    private final LocalDateTime requestedAt;
+    private final List<OutputFile> output = new CopyOnWriteArrayList<>();
+    private final AtomicLong exportedRows = new AtomicLong();
+    private volatile Status status = Status.ACCEPTED;
+    private volatile String currentType;
+    private volatile LocalDateTime transactionTime;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+    private volatile boolean cancelled;
+
+    BulkExportJob(UUID id, String request, boolean gzip, Path directory, LocalDateTime requestedAt) {
+        this.id = id;
+        this.request = request;
+        this.gzip = gzip;
+        this.directory = directory;
+        this.requestedAt = requestedAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getRequest() {
+        return request;
+    }
+
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public List<OutputFile> getOutput() {
+        return List.copyOf(output);
+    }
+
+    public long getExportedRows() {
+        return exportedRows.get();
+    }
+
+    public String getCurrentType() {
+        return currentType;
+    }
+
+    /**
+     * When the export started reading. Rows committed after this may be missing from the files.
+     */
+    public LocalDateTime getTransactionTime() {
+        return transactionTime;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    LocalDateTime getRequestedAt() {
+        return requestedAt;
+    }
+
+    LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    Path getDirectory() {
+        return directory;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    void started(LocalDateTime at) {
+        transactionTime = at;
+        status = Status.IN_PROGRESS;
+    }
+
+    void exporting(String type) {
+        currentType = type;
+    }
+
+    void exported() {
+        exportedRows.incrementAndGet();
+    }
+
+    void addOutput(OutputFile file) {
+        output.add(file);
+    }
+
+    void completed(LocalDateTime at) {
+        finishedAt = at;
+        currentType = null;
+        status = Status.COMPLETED;
+    }
+
+    void failed(String message, LocalDateTime at) {
+        error = message;
+        finishedAt = at;
+        status = Status.FAILED;
+    }
+}
@@ -0,0 +1,246 @@
+package com.ehr.patient.export;
+
+import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.exception.ResourceNotFoundException;
+import com.ehr.patient.exception.TooManyExportsException;
+import com.ehr.patient.repository.DiagnosisRepository;
+import com.ehr.patient.repository.MedicationRepository;
+import com.ehr.patient.repository.PatientRepository;
+import com.ehr.patient.sharding.ScatterGather;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Runs bulk exports in the background, in the spirit of FHIR {@code $export}: a kick-off returns a job id at
+ * once, clients poll the job and then download its files. At most {@code max-concurrent-jobs} exports read
+ * the database at a time; the rest queue, up to {@code max-active-jobs} queued and running together, past
+ * which a kick-off is turned away. Finished exports are deleted after the retention period. Jobs
+ * live in this instance's memory, so a restart forgets them; their directories, and any another instance
+ * sharing the export directory left behind, are swept once nothing in them has changed for the retention
+ * period.
+ */
+@Service
+public class BulkExportService implements ApplicationRunner, DisposableBean {
+
+    public static final String ROWS_METRIC = "patient.export.rows";
+    public static final String DURATION_METRIC = "patient.export.duration";
+
+    private static final Logger log = LoggerFactory.getLogger(BulkExportService.class);
+    private static final String DIRECTORY_PROPERTY = "${patient.export.directory}";
+    private static final String MAX_CONCURRENT_JOBS_PROPERTY = "${patient.export.max-concurrent-jobs}";
+    private static final String MAX_ACTIVE_JOBS_PROPERTY = "${patient.export.max-active-jobs}";
+    private static final String BUFFER_SIZE_PROPERTY = "${patient.export.buffer-size}";
+    private static final String RETENTION_HOURS_PROPERTY = "${patient.export.retention-hours}";
+    private static final String CLEANUP_INTERVAL_PROPERTY = "${patient.export.cleanup-interval-ms}";
+
+    private final BulkExporter exporter;
+    private final Path directory;
+    private final Duration retention;
+    private final int maxActiveJobs;
+    private final ExecutorService executor;
+    private final Map<UUID, BulkExportJob> jobs = new ConcurrentHashMap<>();
+    private final Counter rows;
+    private final Timer duration;
+
+    public BulkExportService(PatientRepository patientRepository,
+                             DiagnosisRepository diagnosisRepository,
+                             MedicationRepository medicationRepository,
+                             ScatterGather scatterGather,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value(DIRECTORY_PROPERTY) Path directory,
+                             @Value(MAX_CONCURRENT_JOBS_PROPERTY) int maxConcurrentJobs,
+                             @Value(MAX_ACTIVE_JOBS_PROPERTY) int maxActiveJobs,
+                             @Value(BUFFER_SIZE_PROPERTY) int bufferSize,
+                             @Value(RETENTION_HOURS_PROPERTY) long retentionHours) {
+        this.exporter = new BulkExporter(patientRepository, diagnosisRepository, medicationRepository,
+                scatterGather, transactionManager, objectMapper.writer(), bufferSize);
+        this.directory = directory;
+        this.retention = Duration.ofHours(retentionHours);
+        this.maxActiveJobs = maxActiveJobs;
+        this.executor = Executors.newFixedThreadPool(maxConcurrentJobs, exportThreads());
+        this.rows = meterRegistry.counter(ROWS_METRIC);
+        this.duration = meterRegistry.timer(DURATION_METRIC);
+    }
+
+    /**
+     * @param request the kick-off URL, echoed in the manifest
+     * @throws TooManyExportsException if {@code max-active-jobs} exports are already queued or running
+     */
+    public synchronized BulkExportJob start(String request, boolean gzip) {
+        if (jobs.values().stream().filter(BulkExportService::isActive).count() >= maxActiveJobs) {
+            throw new TooManyExportsException(ExceptionMessages.EXPORT_LIMIT_REACHED);
+        }
+        UUID id = UUID.randomUUID();
+        BulkExportJob job = new BulkExportJob(id, request, gzip, directory.resolve(id.toString()),
+                LocalDateTime.now());
+        jobs.put(id, job);
+        executor.execute(() -> runJob(job));
+        return job;
+    }
+
+    public BulkExportJob getJob(UUID id) {
+        BulkExportJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException(ExceptionMessages.EXPORT_NOT_FOUND);
+        }
+        return job;
+    }
+
+    /**
+     * The path of one of a completed job's files. Only names listed in the job's output resolve, so a
+     * request cannot reach outside the job's directory.
+     */
+    public Path getFile(UUID id, String fileName) {
+        BulkExportJob job = getJob(id);
+        return job.getOutput().stream()
+                .filter(file -> file.fileName().equals(fileName))
+                .findFirst()
+                .map(file -> job.getDirectory().resolve(file.fileName()))
+                .orElseThrow(() -> new ResourceNotFoundException(ExceptionMessages.EXPORT_FILE_NOT_FOUND));
+    }
+
+    /**
+     * Cancels a running job or deletes a finished one's files.
+     */
+    public void delete(UUID id) {
+        BulkExportJob job = jobs.remove(id);
+        if (job == null) {
+            throw new ResourceNotFoundException(ExceptionMessages.EXPORT_NOT_FOUND);
+        }
+        job.cancel();
+        if (job.getStatus() == BulkExportJob.Status.COMPLETED || job.getStatus() == BulkExportJob.Status.FAILED) {
+            deleteFiles(job);
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        deleteAbandoned(Instant.now().minus(retention));
+    }
+
+    @Scheduled(fixedDelayString = CLEANUP_INTERVAL_PROPERTY)
+    public void deleteExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().stream()
+                .filter(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff))
+                .forEach(job -> delete(job.getId()));
+        deleteAbandoned(Instant.now().minus(retention));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Deletes job directories this instance has no job for and that have not changed since {@code cutoff}.
+     * A running export keeps writing to its files, so only abandoned ones get that old.
+     */
+    private void deleteAbandoned(Instant cutoff) {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> children = Files.list(directory)) {
+            children.filter(Files::isDirectory)
+                    .filter(child -> jobId(child).filter(id -> !jobs.containsKey(id)).isPresent())
+                    .forEach(child -> {
+                        try {
+                            if (ExportFiles.lastModified(child).isBefore(cutoff)) {
+                                ExportFiles.deleteRecursively(child);
+                                log.info("Deleted abandoned bulk export {}", child.getFileName());
+                            }
+                        } catch (IOException e) {
+                            log.warn("Could not delete abandoned bulk export {}", child.getFileName(), e);
+                        }
+                    });
+        } catch (IOException e) {
+            log.warn("Could not list bulk exports in {}", directory, e);
+        }
+    }
+
+    private static boolean isActive(BulkExportJob job) {
+        BulkExportJob.Status status = job.getStatus();
+        return status == BulkExportJob.Status.ACCEPTED || status == BulkExportJob.Status.IN_PROGRESS;
+    }
+
+    // Job directories are named after the job id; anything else in the export directory is left alone.
+    private static Optional<UUID> jobId(Path child) {
+        try {
+            return Optional.of(UUID.fromString(child.getFileName().toString()));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private void runJob(BulkExportJob job) {
+        if (job.isCancelled()) {
+            return;
+        }
+        job.started(LocalDateTime.now());
+        Timer.Sample sample = Timer.start();
+        try {
+            exporter.export(job);
+            job.completed(LocalDateTime.now());
+            log.info("Bulk export {} wrote {} rows", job.getId(), job.getExportedRows());
+        } catch (CancellationException e) {
+            deleteFiles(job);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Bulk export {} failed", job.getId(), e);
+            job.failed(ExceptionMessages.EXPORT_FAILED, LocalDateTime.now());
+        } finally {
+            sample.stop(duration);
+            rows.increment(job.getExportedRows());
+        }
+        // A delete that arrived while the last file was closing.
+        if (job.isCancelled()) {
+            deleteFiles(job);
+        }
+    }
+
+    private void deleteFiles(BulkExportJob job) {
+        try {
+            ExportFiles.deleteRecursively(job.getDirectory());
+        } catch (IOException e) {
+            log.warn("Could not delete bulk export {}", job.getId(), e);
+        }
+    }
+
+    private static ThreadFactory exportThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "patient-bulk-export-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,108 @@
+package com.ehr.patient.export;
+
+import com.ehr.patient.repository.DiagnosisRepository;
+import com.ehr.patient.repository.MedicationRepository;
+import com.ehr.patient.repository.PatientRepository;
+import com.ehr.patient.sharding.ScatterGather;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Streams every patient, diagnosis and medication into one NDJSON file per type. Each shard is read in a
+ * single read-only REPEATABLE READ transaction, so its three files agree with each other, and rows are
+ * pulled with a JDBC fetch size and written straight out, so nothing is held beyond one fetch.
+ */
+class BulkExporter {
+
+    static final String PATIENT = "Patient";
+    static final String DIAGNOSIS = "Diagnosis";
+    static final String MEDICATION = "Medication";
+
+    private final PatientRepository patientRepository;
+    private final DiagnosisRepository diagnosisRepository;
+    private final MedicationRepository medicationRepository;
+    private final ScatterGather scatterGather;
+    private final TransactionTemplate snapshot;
+    private final ObjectWriter objectWriter;
+    private final int bufferSize;
+
+    BulkExporter(PatientRepository patientRepository,
+                 DiagnosisRepository diagnosisRepository,
+                 MedicationRepository medicationRepository,
+                 ScatterGather scatterGather,
+                 PlatformTransactionManager transactionManager,
+                 ObjectWriter objectWriter,
+                 int bufferSize) {
+        this.patientRepository = patientRepository;
+        this.diagnosisRepository = diagnosisRepository;
+        this.medicationRepository = medicationRepository;
+        this.scatterGather = scatterGather;
+        this.snapshot = new TransactionTemplate(transactionManager);
+        this.snapshot.setReadOnly(true);
+        this.snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.objectWriter = objectWriter;
+        this.bufferSize = bufferSize;
+    }
+
+    static String fileName(String type, boolean gzip) {
+        return type + (gzip ? ".ndjson.gz" : ".ndjson");
+    }
+
+    void export(BulkExportJob job) throws IOException {
+        Files.createDirectories(job.getDirectory());
+        long[] counts;
+        try (NdjsonFileWriter patients = open(job, PATIENT);
+             NdjsonFileWriter diagnoses = open(job, DIAGNOSIS);
+             NdjsonFileWriter medications = open(job, MEDICATION)) {
+            scatterGather.sumOverShards(() -> snapshot.execute(status -> {
+                copy(job, PATIENT, patientRepository::streamExport, patients);
+                copy(job, DIAGNOSIS, diagnosisRepository::streamExport, diagnoses);
+                copy(job, MEDICATION, medicationRepository::streamExport, medications);
+                return 0;
+            }));
+            counts = new long[] {patients.count(), diagnoses.count(), medications.count()};
+        }
+        // Sizes are only final once the writers have closed.
+        addOutput(job, PATIENT, counts[0]);
+        addOutput(job, DIAGNOSIS, counts[1]);
+        addOutput(job, MEDICATION, counts[2]);
+    }
+
+    private NdjsonFileWriter open(BulkExportJob job, String type) throws IOException {
+        return new NdjsonFileWriter(job.getDirectory().resolve(fileName(type, job.isGzip())), job.isGzip(),
+                bufferSize, objectWriter);
+    }
+
+    private void copy(BulkExportJob job, String type, Supplier<? extends Stream<?>> query, NdjsonFileWriter writer) {
+        job.exporting(type);
+        try (Stream<?> rows = query.get()) {
+            rows.forEach(row -> {
+                if (job.isCancelled()) {
+                    throw new CancellationException();
+                }
+                try {
+                    writer.write(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                job.exported();
+            });
+        }
+    }
+
+    private void addOutput(BulkExportJob job, String type, long count) throws IOException {
+        String fileName = fileName(type, job.isGzip());
+        job.addOutput(new BulkExportJob.OutputFile(type, fileName, count,
+                Files.size(job.getDirectory().resolve(fileName))));
+    }
+}
@@ -0,0 +1,52 @@
+package com.ehr.patient.export;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+final class ExportFiles {
+
+    private ExportFiles() {
+    }
+
+    /**
+     * Deletes a directory and everything under it. Does nothing if it does not exist.
+     */
+    static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * The latest modification time of a directory or anything under it.
+     */
+    static Instant lastModified(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.map(path -> {
+                try {
+                    return Files.getLastModifiedTime(path).toInstant();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).max(Comparator.naturalOrder()).orElseThrow();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.ehr.patient.export;
+
+import tools.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Appends records to an NDJSON file through a fixed direct buffer, so memory use does not grow with the
+ * file. With gzip the buffer drains into a deflater writing to the file channel.
+ */
+class NdjsonFileWriter implements AutoCloseable {
+
+    private static final byte NEWLINE = '\n';
+
+    private final FileChannel file;
+    private final GZIPOutputStream gzip;
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final ObjectWriter objectWriter;
+    private long count;
+
+    NdjsonFileWriter(Path path, boolean gzip, int bufferSize, ObjectWriter objectWriter) throws IOException {
+        this.file = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        this.gzip = gzip ? new GZIPOutputStream(Channels.newOutputStream(file), bufferSize) : null;
+        this.channel = gzip ? Channels.newChannel(this.gzip) : file;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.objectWriter = objectWriter;
+    }
+
+    void write(Object record) throws IOException {
+        byte[] line = objectWriter.writeValueAsBytes(record);
+        if (line.length + 1 > buffer.remaining()) {
+            drain();
+        }
+        if (line.length + 1 > buffer.capacity()) {
+            writeFully(ByteBuffer.wrap(line));
+        } else {
+            buffer.put(line);
+        }
+        buffer.put(NEWLINE);
+        count++;
+    }
+
+    long count() {
+        return count;
+    }
+
+    /**
+     * Flushes the buffer, finishes the gzip stream and forces the file to disk.
+     */
+    @Override
+    public void close() throws IOException {
+        try (file) {
+            drain();
+            if (gzip != null) {
+                gzip.finish();
+            }
+            file.force(false);
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+}
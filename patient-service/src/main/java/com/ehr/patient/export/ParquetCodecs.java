@@ -0,0 +1,93 @@
+package com.ehr.patient.export;
+
+import com.github.luben.zstd.Zstd;
+import org.apache.parquet.bytes.ByteBufferReleaser;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.bytes.HeapByteBufferAllocator;
+import org.apache.parquet.compression.CompressionCodecFactory;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.xerial.snappy.Snappy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Page compression for the Parquet export. Parquet's own codec factory builds Hadoop codecs, which need a
+ * Hadoop runtime; this calls the Snappy and Zstandard libraries that Parquet already depends on.
+ */
+final class ParquetCodecs implements CompressionCodecFactory {
+
+    private static final int ZSTD_LEVEL = 3;
+
+    static void checkSupported(CompressionCodecName codec) {
+        switch (codec) {
+            case UNCOMPRESSED, SNAPPY, ZSTD -> {
+            }
+            default -> throw new IllegalArgumentException("Unsupported Parquet codec: " + codec);
+        }
+    }
+
+    @Override
+    public BytesInputCompressor getCompressor(CompressionCodecName codec) {
+        checkSupported(codec);
+        return new BytesInputCompressor() {
+            @Override
+            public BytesInput compress(BytesInput bytes) throws IOException {
+                return switch (codec) {
+                    case SNAPPY -> BytesInput.from(Snappy.compress(bytesOf(bytes)));
+                    case ZSTD -> BytesInput.from(Zstd.compress(bytesOf(bytes), ZSTD_LEVEL));
+                    default -> bytes;
+                };
+            }
+
+            @Override
+            public CompressionCodecName getCodecName() {
+                return codec;
+            }
+
+            @Override
+            public void release() {
+            }
+        };
+    }
+
+    @Override
+    public BytesInputDecompressor getDecompressor(CompressionCodecName codec) {
+        checkSupported(codec);
+        return new BytesInputDecompressor() {
+            @Override
+            public BytesInput decompress(BytesInput bytes, int uncompressedSize) throws IOException {
+                return switch (codec) {
+                    case SNAPPY -> BytesInput.from(Snappy.uncompress(bytesOf(bytes)));
+                    case ZSTD -> BytesInput.from(Zstd.decompress(bytesOf(bytes), uncompressedSize));
+                    default -> bytes;
+                };
+            }
+
+            @Override
+            public void decompress(ByteBuffer input, int compressedSize, ByteBuffer output, int uncompressedSize)
+                    throws IOException {
+                byte[] compressed = new byte[compressedSize];
+                input.get(compressed);
+                output.put(bytesOf(decompress(BytesInput.from(compressed), uncompressedSize)));
+            }
+
+            @Override
+            public void release() {
+            }
+        };
+    }
+
+    @Override
+    public void release() {
+    }
+
+    private static byte[] bytesOf(BytesInput bytes) {
+        try (ByteBufferReleaser releaser = new ByteBufferReleaser(HeapByteBufferAllocator.getInstance())) {
+            ByteBuffer page = bytes.toByteBuffer(releaser);
+            byte[] array = new byte[page.remaining()];
+            page.get(array);
+            return array;
+        }
+    }
+}
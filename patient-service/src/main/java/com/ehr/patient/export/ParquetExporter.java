@@ -0,0 +1,260 @@
+package com.ehr.patient.export;
+
+import com.ehr.patient.dto.DiagnosisResponse;
+import com.ehr.patient.dto.ExportedPatient;
+import com.ehr.patient.dto.MedicationResponse;
+import com.ehr.patient.repository.DiagnosisRepository;
+import com.ehr.patient.repository.MedicationRepository;
+import com.ehr.patient.repository.PatientRepository;
+import com.ehr.patient.sharding.ScatterGather;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.LocalOutputFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Writes columnar snapshots of the patient tables for analytics, as Parquet files partitioned by export date
+ * in the Hive layout ({@code patients/export_date=2026-01-31/part-00000.parquet}) that Spark, DuckDB and
+ * pyarrow discover on their own. Tables are read in keyset-paged chunks, each in its own short read-only
+ * transaction, and every chunk is encoded as one row group by a worker pool. When the workers fall behind
+ * the reading thread encodes the next chunk itself, so about two chunks per worker are held in memory.
+ * A partition only appears once all three tables are written, and a rerun on the same day replaces it.
+ * Chunks are not one snapshot: a row changed mid-export may show up in either state. Every instance with
+ * the job enabled writes its own copy, so enable it on one.
+ */
+@Component
+@ConditionalOnProperty(name = "patient.parquet-export.enabled", havingValue = "true")
+public class ParquetExporter implements DisposableBean {
+
+    public static final String ROWS_METRIC = "patient.parquet-export.rows";
+    public static final String RUN_METRIC = "patient.parquet-export.run";
+
+    static final String PARTITION_PREFIX = "export_date=";
+    private static final String STAGING_PREFIX = "_staging-";
+    private static final String REPLACED_PREFIX = "_replaced-";
+
+    private static final Logger log = LoggerFactory.getLogger(ParquetExporter.class);
+    private static final String DIRECTORY_PROPERTY = "${patient.parquet-export.directory}";
+    private static final String CHUNK_SIZE_PROPERTY = "${patient.parquet-export.chunk-size}";
+    private static final String WORKERS_PROPERTY = "${patient.parquet-export.workers}";
+    private static final String CODEC_PROPERTY = "${patient.parquet-export.codec}";
+    private static final String CRON_PROPERTY = "${patient.parquet-export.cron}";
+
+    private final PatientRepository patientRepository;
+    private final DiagnosisRepository diagnosisRepository;
+    private final MedicationRepository medicationRepository;
+    private final ScatterGather scatterGather;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Path directory;
+    private final int chunkSize;
+    private final CompressionCodecName codec;
+    private final ThreadPoolExecutor encoders;
+    private final Counter rows;
+    private final Timer run;
+
+    public ParquetExporter(PatientRepository patientRepository,
+                           DiagnosisRepository diagnosisRepository,
+                           MedicationRepository medicationRepository,
+                           ScatterGather scatterGather,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value(DIRECTORY_PROPERTY) Path directory,
+                           @Value(CHUNK_SIZE_PROPERTY) int chunkSize,
+                           @Value(WORKERS_PROPERTY) int workers,
+                           @Value(CODEC_PROPERTY) String codec) {
+        this.patientRepository = patientRepository;
+        this.diagnosisRepository = diagnosisRepository;
+        this.medicationRepository = medicationRepository;
+        this.scatterGather = scatterGather;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.directory = directory;
+        this.chunkSize = chunkSize;
+        this.codec = CompressionCodecName.valueOf(codec.toUpperCase(Locale.ROOT));
+        ParquetCodecs.checkSupported(this.codec);
+        this.encoders = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers), encoderThreads(), new ThreadPoolExecutor.CallerRunsPolicy());
+        this.rows = meterRegistry.counter(ROWS_METRIC);
+        this.run = meterRegistry.timer(RUN_METRIC);
+    }
+
+    @Scheduled(cron = CRON_PROPERTY)
+    public void exportToday() {
+        export(LocalDate.now());
+    }
+
+    /**
+     * @return the number of rows exported across the three tables
+     */
+    public synchronized long export(LocalDate exportDate) {
+        String partition = PARTITION_PREFIX + exportDate;
+        List<Path> staged = new ArrayList<>();
+        Timer.Sample sample = Timer.start();
+        try {
+            long total = exportTable(ParquetTable.PATIENTS, partition, staged, ExportedPatient::id,
+                    (after, limit) -> after == null ? patientRepository.findExportChunk(limit)
+                            : patientRepository.findExportChunkAfter(after, limit))
+                    + exportTable(ParquetTable.DIAGNOSES, partition, staged, DiagnosisResponse::id,
+                    (after, limit) -> after == null ? diagnosisRepository.findExportChunk(limit)
+                            : diagnosisRepository.findExportChunkAfter(after, limit))
+                    + exportTable(ParquetTable.MEDICATIONS, partition, staged, MedicationResponse::id,
+                    (after, limit) -> after == null ? medicationRepository.findExportChunk(limit)
+                            : medicationRepository.findExportChunkAfter(after, limit));
+            for (Path staging : staged) {
+                publish(staging, staging.resolveSibling(partition));
+            }
+            rows.increment(total);
+            log.info("Exported {} rows to Parquet partition {}", total, partition);
+            return total;
+        } catch (IOException | RuntimeException e) {
+            for (Path staging : staged) {
+                deleteQuietly(staging);
+            }
+            if (e instanceof IOException io) {
+                throw new UncheckedIOException("Parquet export " + partition + " failed", io);
+            }
+            throw (RuntimeException) e;
+        } finally {
+            sample.stop(run);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        encoders.shutdownNow();
+    }
+
+    private <T> long exportTable(ParquetTable<T> table, String partition, List<Path> staged,
+                                 Function<T, UUID> idOf, ChunkQuery<T> query) throws IOException {
+        Path staging = directory.resolve(table.name()).resolve(STAGING_PREFIX + partition);
+        ExportFiles.deleteRecursively(staging);
+        Files.createDirectories(staging);
+        staged.add(staging);
+
+        AtomicInteger parts = new AtomicInteger();
+        List<Future<Integer>> written = new ArrayList<>();
+        try {
+            scatterGather.sumOverShards(() -> {
+                UUID after = null;
+                List<T> chunk;
+                do {
+                    UUID from = after;
+                    chunk = readOnlyTransaction.execute(status -> query.next(from, Limit.of(chunkSize)));
+                    if (!chunk.isEmpty()) {
+                        List<T> rowGroup = chunk;
+                        Path file = staging.resolve(partFileName(parts.getAndIncrement()));
+                        written.add(encoders.submit(() -> write(table, file, rowGroup)));
+                        after = idOf.apply(chunk.get(chunk.size() - 1));
+                    }
+                } while (chunk.size() == chunkSize);
+                return 0;
+            });
+        } catch (RuntimeException e) {
+            written.forEach(part -> part.cancel(true));
+            throw e;
+        }
+        if (written.isEmpty()) {
+            // An empty table still gets a file, so readers see its schema.
+            write(table, staging.resolve(partFileName(0)), List.of());
+        }
+        return awaitAll(written);
+    }
+
+    private <T> int write(ParquetTable<T> table, Path file, List<T> rowGroup) throws IOException {
+        try (ParquetWriter<T> writer = table.openWriter(new LocalOutputFile(file), codec)) {
+            for (T row : rowGroup) {
+                writer.write(row);
+            }
+        }
+        return rowGroup.size();
+    }
+
+    private static long awaitAll(List<Future<Integer>> written) throws IOException {
+        long total = 0;
+        try {
+            for (Future<Integer> part : written) {
+                total += part.get();
+            }
+            return total;
+        } catch (ExecutionException e) {
+            written.forEach(part -> part.cancel(true));
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            written.forEach(part -> part.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+    // Swaps the staged directory in with two renames, so readers see either the old partition or the new one.
+    private static void publish(Path staging, Path partition) throws IOException {
+        if (!Files.exists(partition)) {
+            Files.move(staging, partition, StandardCopyOption.ATOMIC_MOVE);
+            return;
+        }
+        Path replaced = partition.resolveSibling(REPLACED_PREFIX + partition.getFileName());
+        ExportFiles.deleteRecursively(replaced);
+        Files.move(partition, replaced, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(staging, partition, StandardCopyOption.ATOMIC_MOVE);
+        ExportFiles.deleteRecursively(replaced);
+    }
+
+    private static void deleteQuietly(Path staging) {
+        try {
+            ExportFiles.deleteRecursively(staging);
+        } catch (IOException e) {
+            log.warn("Could not delete staged Parquet export {}", staging, e);
+        }
+    }
+
+    private static String partFileName(int part) {
+        return String.format("part-%05d.parquet", part);
+    }
+
+    private static ThreadFactory encoderThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "patient-parquet-encoder-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @FunctionalInterface
+    private interface ChunkQuery<T> {
+
+        List<T> next(UUID after, Limit limit);
+    }
+}
@@ -0,0 +1,250 @@
+package com.ehr.patient.export;
+
+import com.ehr.patient.dto.DiagnosisResponse;
+import com.ehr.patient.dto.ExportedPatient;
+import com.ehr.patient.dto.MedicationResponse;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.conf.ParquetConfiguration;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Types;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * The Parquet schema of one exported table and how to write a row of it. Columns are named like the JSON
+ * fields of the API. Only low-cardinality columns are dictionary encoded; ids, personal details and free
+ * text would fill the dictionary page and fall back to plain encoding anyway.
+ */
+final class ParquetTable<T> {
+
+    static final ParquetTable<ExportedPatient> PATIENTS = new Builder<ExportedPatient>("patients")
+            .uuid("id", ExportedPatient::id)
+            .string("firstName", ExportedPatient::firstName)
+            .string("lastName", ExportedPatient::lastName)
+            .date("dateOfBirth", ExportedPatient::dateOfBirth)
+            .dictionary("gender", ExportedPatient::gender)
+            .string("email", ExportedPatient::email)
+            .string("phone", ExportedPatient::phone)
+            .string("address", ExportedPatient::address)
+            .dictionary("city", ExportedPatient::city)
+            .dictionary("state", ExportedPatient::state)
+            .string("zipCode", ExportedPatient::zipCode)
+            .string("emergencyContactName", ExportedPatient::emergencyContactName)
+            .string("emergencyContactPhone", ExportedPatient::emergencyContactPhone)
+            .dictionary("status", patient -> patient.status().name())
+            .timestamp("createdAt", ExportedPatient::createdAt)
+            .timestamp("updatedAt", ExportedPatient::updatedAt)
+            .build();
+
+    static final ParquetTable<DiagnosisResponse> DIAGNOSES = new Builder<DiagnosisResponse>("diagnoses")
+            .uuid("id", DiagnosisResponse::id)
+            .uuid("patientId", DiagnosisResponse::patientId)
+            .dictionary("icdCode", DiagnosisResponse::icdCode)
+            .string("description", DiagnosisResponse::description)
+            .date("diagnosisDate", DiagnosisResponse::diagnosisDate)
+            .dictionary("status", diagnosis -> diagnosis.status().name())
+            .timestamp("createdAt", DiagnosisResponse::createdAt)
+            .timestamp("updatedAt", DiagnosisResponse::updatedAt)
+            .build();
+
+    static final ParquetTable<MedicationResponse> MEDICATIONS = new Builder<MedicationResponse>("medications")
+            .uuid("id", MedicationResponse::id)
+            .uuid("patientId", MedicationResponse::patientId)
+            .dictionary("name", MedicationResponse::name)
+            .dictionary("dosage", MedicationResponse::dosage)
+            .dictionary("frequency", MedicationResponse::frequency)
+            .dictionary("status", medication -> medication.status().name())
+            .date("startDate", MedicationResponse::startDate)
+            .date("endDate", MedicationResponse::endDate)
+            .bool("contraindicated", MedicationResponse::contraindicated)
+            .int32("washoutDays", MedicationResponse::washoutDays)
+            .string("washoutNotes", MedicationResponse::washoutNotes)
+            .timestamp("createdAt", MedicationResponse::createdAt)
+            .timestamp("updatedAt", MedicationResponse::updatedAt)
+            .build();
+
+    private final String name;
+    private final MessageType schema;
+    private final List<Column<T, ?>> columns;
+
+    private ParquetTable(String name, MessageType schema, List<Column<T, ?>> columns) {
+        this.name = name;
+        this.schema = schema;
+        this.columns = columns;
+    }
+
+    String name() {
+        return name;
+    }
+
+    MessageType schema() {
+        return schema;
+    }
+
+    List<String> dictionaryColumns() {
+        return columns.stream().filter(Column::dictionary).map(Column::name).toList();
+    }
+
+    ParquetWriter<T> openWriter(OutputFile file, CompressionCodecName codec) throws IOException {
+        WriterBuilder builder = new WriterBuilder(file)
+                .withConf(new PlainParquetConfiguration())
+                .withCodecFactory(new ParquetCodecs())
+                .withCompressionCodec(codec)
+                .withDictionaryEncoding(false);
+        for (String column : dictionaryColumns()) {
+            builder.withDictionaryEncoding(column, true);
+        }
+        return builder.build();
+    }
+
+    private record Column<T, V>(String name, Function<T, V> value, BiConsumer<RecordConsumer, V> writer,
+                                boolean dictionary) {
+
+        void write(RecordConsumer consumer, int index, T row) {
+            V v = value.apply(row);
+            if (v == null) {
+                return;
+            }
+            consumer.startField(name, index);
+            writer.accept(consumer, v);
+            consumer.endField(name, index);
+        }
+    }
+
+    private final class RowWriteSupport extends WriteSupport<T> {
+
+        private RecordConsumer consumer;
+
+        @Override
+        public WriteContext init(ParquetConfiguration configuration) {
+            return new WriteContext(schema, Map.of());
+        }
+
+        // Still abstract in WriteSupport, so it has to be implemented even though nothing calls it here.
+        @Override
+        @SuppressWarnings("deprecation")
+        public WriteContext init(Configuration configuration) {
+            return new WriteContext(schema, Map.of());
+        }
+
+        @Override
+        public void prepareForWrite(RecordConsumer recordConsumer) {
+            this.consumer = recordConsumer;
+        }
+
+        @Override
+        public void write(T row) {
+            consumer.startMessage();
+            for (int i = 0; i < columns.size(); i++) {
+                columns.get(i).write(consumer, i, row);
+            }
+            consumer.endMessage();
+        }
+    }
+
+    private final class WriterBuilder extends ParquetWriter.Builder<T, WriterBuilder> {
+
+        WriterBuilder(OutputFile file) {
+            super(file);
+        }
+
+        @Override
+        protected WriterBuilder self() {
+            return this;
+        }
+
+        @Override
+        protected WriteSupport<T> getWriteSupport(ParquetConfiguration configuration) {
+            return new RowWriteSupport();
+        }
+
+        // Still abstract in ParquetWriter.Builder, so it has to be implemented even though nothing calls it here.
+        @Override
+        @SuppressWarnings("deprecation")
+        protected WriteSupport<T> getWriteSupport(Configuration configuration) {
+            return new RowWriteSupport();
+        }
+    }
+
+    private static final class Builder<T> {
+
+        private final String name;
+        private final Types.MessageTypeBuilder schema = Types.buildMessage();
+        private final List<Column<T, ?>> columns = new ArrayList<>();
+
+        Builder(String name) {
+            this.name = name;
+        }
+
+        Builder<T> uuid(String column, Function<T, UUID> value) {
+            return string(column, row -> {
+                UUID id = value.apply(row);
+                return id == null ? null : id.toString();
+            });
+        }
+
+        Builder<T> string(String column, Function<T, String> value) {
+            return add(Types.optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named(column),
+                    value, (consumer, v) -> consumer.addBinary(Binary.fromString(v)), false);
+        }
+
+        Builder<T> dictionary(String column, Function<T, String> value) {
+            return add(Types.optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named(column),
+                    value, (consumer, v) -> consumer.addBinary(Binary.fromString(v)), true);
+        }
+
+        Builder<T> date(String column, Function<T, LocalDate> value) {
+            return add(Types.optional(PrimitiveTypeName.INT32).as(LogicalTypeAnnotation.dateType()).named(column),
+                    value, (consumer, v) -> consumer.addInteger((int) v.toEpochDay()), false);
+        }
+
+        // Wall-clock times, as stored: readers must not shift them to UTC.
+        Builder<T> timestamp(String column, Function<T, LocalDateTime> value) {
+            return add(Types.optional(PrimitiveTypeName.INT64)
+                            .as(LogicalTypeAnnotation.timestampType(false, LogicalTypeAnnotation.TimeUnit.MICROS))
+                            .named(column),
+                    value, (consumer, v) -> consumer.addLong(v.toEpochSecond(ZoneOffset.UTC) * 1_000_000
+                            + v.getNano() / 1_000), false);
+        }
+
+        Builder<T> bool(String column, Function<T, Boolean> value) {
+            return add(Types.optional(PrimitiveTypeName.BOOLEAN).named(column), value, RecordConsumer::addBoolean,
+                    false);
+        }
+
+        Builder<T> int32(String column, Function<T, Integer> value) {
+            return add(Types.optional(PrimitiveTypeName.INT32).named(column), value, RecordConsumer::addInteger,
+                    false);
+        }
+
+        ParquetTable<T> build() {
+            return new ParquetTable<>(name, schema.named(name), List.copyOf(columns));
+        }
+
+        private <V> Builder<T> add(Type type, Function<T, V> value, BiConsumer<RecordConsumer, V> writer,
+                                   boolean dictionary) {
+            schema.addField(type);
+            columns.add(new Column<>(type.getName(), value, writer, dictionary));
+            return this;
+        }
+    }
+}
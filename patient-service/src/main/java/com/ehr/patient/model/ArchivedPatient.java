@@ -0,0 +1,56 @@
+package com.ehr.patient.model;
+
+import com.ehr.patient.model.enums.PatientStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * A patient moved out of the hot tables, with its diagnoses and medications, as one gzipped JSON chart.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "ARCHIVED_PATIENTS")
+public class ArchivedPatient implements Persistable<UUID> {
+
+    @Id
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "STATUS", nullable = false)
+    private PatientStatus status;
+
+    @Column(name = "ARCHIVED_AT", nullable = false, updatable = false)
+    private LocalDateTime archivedAt;
+
+    @ToString.Exclude
+    @JdbcTypeCode(SqlTypes.LONG32VARBINARY)
+    @Column(name = "CHART", nullable = false)
+    private byte[] chart;
+
+    /**
+     * The id is the patient's, so saving a new archive row must not first look it up to decide.
+     */
+    @Override
+    public boolean isNew() {
+        return archivedAt == null;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        archivedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
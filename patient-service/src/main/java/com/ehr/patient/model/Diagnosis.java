@@ -1,14 +1,22 @@
 package com.ehr.patient.model;
 
+import com.ehr.patient.constant.CacheNames;
 import com.ehr.patient.model.enums.DiagnosisStatus;
+import com.ehr.patient.model.id.UuidV7Id;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.PartitionKey;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 @Data
@@ -16,17 +24,30 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheNames.DIAGNOSIS_REGION)
 @Table(name = "DIAGNOSES")
 public class Diagnosis {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Id
     private UUID id;
 
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "PATIENT_ID", nullable = false)
     private Patient patient;
 
+    /**
+     * Read-only copy of the patient's id, so Hibernate's updates and deletes name the partition.
+     */
+    @PartitionKey
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Column(name = "PATIENT_ID", insertable = false, updatable = false)
+    private UUID patientId;
+
     @Column(name = "ICD_CODE", nullable = false)
     private String icdCode;
 
@@ -48,12 +69,13 @@ public class Diagnosis {
 
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        patientId = patient.getId();
+        createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 }
@@ -0,0 +1,47 @@
+package com.ehr.patient.model;
+
+import com.ehr.patient.model.enums.DomainEventType;
+import com.ehr.patient.model.id.UuidV7Id;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "OUTBOX_EVENTS")
+public class OutboxEvent {
+
+    @Id
+    @UuidV7Id
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "EVENT_TYPE", nullable = false)
+    private DomainEventType eventType;
+
+    @Column(name = "PATIENT_ID", nullable = false)
+    private UUID patientId;
+
+    @Column(name = "AGGREGATE_ID", nullable = false)
+    private UUID aggregateId;
+
+    @Column(name = "PAYLOAD", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "CREATED_AT", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
@@ -1,14 +1,23 @@
 package com.ehr.patient.model;
 
+import com.ehr.patient.constant.CacheNames;
+import com.ehr.patient.constant.PageLimits;
 import com.ehr.patient.model.enums.PatientStatus;
+import com.ehr.patient.model.id.UuidV7Id;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
@@ -18,11 +27,13 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheNames.PATIENT_REGION)
 @Table(name = "PATIENTS")
 public class Patient {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Id
     private UUID id;
 
     @Column(name = "FIRST_NAME", nullable = false)
@@ -72,21 +83,29 @@ public class Patient {
     private LocalDateTime updatedAt;
 
     @Builder.Default
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheNames.PATIENT_DIAGNOSES_REGION)
+    @BatchSize(size = PageLimits.MAX_PAGE_SIZE)
     @OneToMany(mappedBy = "patient", cascade = CascadeType.ALL)
     private Set<Diagnosis> diagnoses = new HashSet<>();
 
     @Builder.Default
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheNames.PATIENT_MEDICATIONS_REGION)
+    @BatchSize(size = PageLimits.MAX_PAGE_SIZE)
     @OneToMany(mappedBy = "patient", cascade = CascadeType.ALL)
     private Set<Medication> medications = new HashSet<>();
 
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 }
@@ -0,0 +1,6 @@
+package com.ehr.patient.model.enums;
+
+public enum ClinicalRecordType {
+    DIAGNOSIS,
+    MEDICATION
+}
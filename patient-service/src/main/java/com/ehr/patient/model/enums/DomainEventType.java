@@ -0,0 +1,10 @@
+package com.ehr.patient.model.enums;
+
+public enum DomainEventType {
+    PATIENT_CREATED,
+    PATIENT_UPDATED,
+    DIAGNOSIS_ADDED,
+    DIAGNOSIS_UPDATED,
+    MEDICATION_ADDED,
+    MEDICATION_UPDATED
+}
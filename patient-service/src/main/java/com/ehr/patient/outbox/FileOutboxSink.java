@@ -0,0 +1,54 @@
+package com.ehr.patient.outbox;
+
+import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.exception.OutboxDeliveryException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends batches as NDJSON to a local file, forced to disk before the relay deletes them from the outbox.
+ */
+@Component
+@ConditionalOnProperty(name = "patient.outbox.sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink {
+
+    private static final String PATH_PROPERTY = "${patient.outbox.file.path}";
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public FileOutboxSink(ObjectMapper objectMapper, @Value(PATH_PROPERTY) Path path) {
+        this.objectMapper = objectMapper;
+        this.path = path;
+    }
+
+    @Override
+    public synchronized void deliver(List<OutboxMessage> messages) {
+        ByteBuffer batch = ByteBuffer.wrap(OutboxMessage.toNdjson(messages, objectMapper));
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                while (batch.hasRemaining()) {
+                    channel.write(batch);
+                }
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new OutboxDeliveryException(ExceptionMessages.OUTBOX_FILE_WRITE_FAILED, e);
+        }
+    }
+}
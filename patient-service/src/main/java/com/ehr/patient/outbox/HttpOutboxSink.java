@@ -0,0 +1,64 @@
+package com.ehr.patient.outbox;
+
+import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.exception.OutboxDeliveryException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Posts each batch as one NDJSON request to a webhook; any non-2xx response fails the batch.
+ */
+@Component
+@ConditionalOnProperty(name = "patient.outbox.sink", havingValue = "http")
+public class HttpOutboxSink implements OutboxSink {
+
+    private static final String URL_PROPERTY = "${patient.outbox.http.url}";
+    private static final String TIMEOUT_PROPERTY = "${patient.outbox.http.timeout-seconds}";
+
+    private final ObjectMapper objectMapper;
+    private final URI url;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+
+    public HttpOutboxSink(ObjectMapper objectMapper,
+                          @Value(URL_PROPERTY) URI url,
+                          @Value(TIMEOUT_PROPERTY) long timeoutSeconds) {
+        this.objectMapper = objectMapper;
+        this.url = url;
+        this.timeout = Duration.ofSeconds(timeoutSeconds);
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public void deliver(List<OutboxMessage> messages) {
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(timeout)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(OutboxMessage.toNdjson(messages, objectMapper)))
+                .build();
+        int status;
+        try {
+            status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            throw new OutboxDeliveryException(ExceptionMessages.OUTBOX_WEBHOOK_FAILED, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OutboxDeliveryException(ExceptionMessages.OUTBOX_WEBHOOK_FAILED, e);
+        }
+        if (status / 100 != 2) {
+            throw new OutboxDeliveryException(ExceptionMessages.OUTBOX_WEBHOOK_FAILED + ": HTTP " + status);
+        }
+    }
+}
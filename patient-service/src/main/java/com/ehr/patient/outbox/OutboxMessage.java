@@ -0,0 +1,39 @@
+package com.ehr.patient.outbox;
+
+import com.ehr.patient.model.OutboxEvent;
+import com.ehr.patient.model.enums.DomainEventType;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Envelope a sink delivers for each outbox row. Delivery is at least once, so consumers deduplicate on id.
+ */
+public record OutboxMessage(
+        UUID id,
+        DomainEventType type,
+        UUID patientId,
+        UUID aggregateId,
+        LocalDateTime occurredAt,
+        @JsonRawValue String payload) {
+
+    private static final byte NEWLINE = '\n';
+
+    public static OutboxMessage of(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getEventType(), event.getPatientId(), event.getAggregateId(),
+                event.getCreatedAt(), event.getPayload());
+    }
+
+    public static byte[] toNdjson(List<OutboxMessage> messages, ObjectMapper objectMapper) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (OutboxMessage message : messages) {
+            out.writeBytes(objectMapper.writeValueAsBytes(message));
+            out.write(NEWLINE);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,121 @@
+package com.ehr.patient.outbox;
+
+import com.ehr.patient.model.OutboxEvent;
+import com.ehr.patient.repository.OutboxEventRepository;
+import com.ehr.patient.sharding.ScatterGather;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Drains the outbox oldest first. Each batch is claimed with SKIP LOCKED, handed to the sink and deleted in
+ * one transaction, so instances relay disjoint batches in parallel and a failed delivery is retried on the
+ * next run. Ordering holds within a batch but not across instances. Each shard keeps its own outbox and is
+ * drained in turn.
+ */
+@Component
+@ConditionalOnProperty(name = "patient.outbox.relay.enabled", havingValue = "true")
+public class OutboxRelay {
+
+    public static final String RELAYED_METRIC = "patient.outbox.relayed";
+    public static final String FAILURES_METRIC = "patient.outbox.relay.failures";
+    public static final String DELIVERY_LAG_METRIC = "patient.outbox.delivery.lag";
+    public static final String OLDEST_PENDING_METRIC = "patient.outbox.oldest.pending.seconds";
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final String BATCH_SIZE_PROPERTY = "${patient.outbox.relay.batch-size}";
+    private static final String INTERVAL_PROPERTY = "${patient.outbox.relay.interval-ms}";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink sink;
+    private final ScatterGather scatterGather;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Counter relayed;
+    private final Counter failures;
+    private final Timer deliveryLag;
+    private final AtomicReference<LocalDateTime> oldestPending = new AtomicReference<>();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxSink sink,
+                       ScatterGather scatterGather,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value(BATCH_SIZE_PROPERTY) int batchSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sink = sink;
+        this.scatterGather = scatterGather;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.relayed = meterRegistry.counter(RELAYED_METRIC);
+        this.failures = meterRegistry.counter(FAILURES_METRIC);
+        this.deliveryLag = meterRegistry.timer(DELIVERY_LAG_METRIC);
+        Gauge.builder(OLDEST_PENDING_METRIC, this, OutboxRelay::oldestPendingSeconds).register(meterRegistry);
+    }
+
+    /**
+     * Relays batches until each shard's outbox is drained or a delivery to it fails.
+     *
+     * @return the number of events relayed
+     */
+    @Scheduled(fixedDelayString = INTERVAL_PROPERTY)
+    public int relayPending() {
+        return scatterGather.sumOverShards(this::relayShard);
+    }
+
+    private int relayShard() {
+        int total = 0;
+        try {
+            int relayedInBatch;
+            do {
+                relayedInBatch = relayBatch();
+                total += relayedInBatch;
+            } while (relayedInBatch == batchSize);
+            oldestPending.set(null);
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Outbox relay stopped after {} events; the failed batch stays queued", total, e);
+        }
+        return total;
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> {
+            List<OutboxEvent> claimed = outboxEventRepository.findRelayBatch(Limit.of(batchSize));
+            if (claimed.isEmpty()) {
+                return claimed;
+            }
+            oldestPending.set(claimed.get(0).getCreatedAt());
+            sink.deliver(claimed.stream().map(OutboxMessage::of).toList());
+            outboxEventRepository.deleteAllInBatch(claimed);
+            return claimed;
+        });
+
+        LocalDateTime deliveredAt = LocalDateTime.now();
+        for (OutboxEvent event : batch) {
+            deliveryLag.record(Duration.between(event.getCreatedAt(), deliveredAt));
+        }
+        relayed.increment(batch.size());
+        return batch.size();
+    }
+
+    private double oldestPendingSeconds() {
+        LocalDateTime oldest = oldestPending.get();
+        return oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis() / 1000.0;
+    }
+}
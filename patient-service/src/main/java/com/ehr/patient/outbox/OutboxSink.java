@@ -0,0 +1,11 @@
+package com.ehr.patient.outbox;
+
+import java.util.List;
+
+public interface OutboxSink {
+
+    /**
+     * Returns once the batch has been accepted. Throwing leaves the batch in the outbox for the next relay run.
+     */
+    void deliver(List<OutboxMessage> messages);
+}
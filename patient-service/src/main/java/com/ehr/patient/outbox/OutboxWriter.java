@@ -0,0 +1,71 @@
+package com.ehr.patient.outbox;
+
+import com.ehr.patient.event.PatientDomainEvent;
+import com.ehr.patient.model.OutboxEvent;
+import com.ehr.patient.model.id.UuidV7;
+import com.ehr.patient.repository.OutboxEventRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Appends each domain event to the outbox in the transaction of the write that published it, so the
+ * event is stored if and only if the change commits.
+ */
+@Component
+public class OutboxWriter {
+
+    private static final String INSERT_EVENT = """
+            INSERT INTO outbox_events (id, event_type, patient_id, aggregate_id, payload, created_at)
+            VALUES (?, ?, ?, ?, ?, ?)""";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxWriter(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper,
+                        JdbcTemplate jdbcTemplate) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(PatientDomainEvent event) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(event.type())
+                .patientId(event.patientId())
+                .aggregateId(event.aggregateId())
+                .payload(objectMapper.writeValueAsString(event.payload()))
+                .build());
+    }
+
+    /**
+     * Appends the events of a bulk write with one JDBC batch, in that write's transaction. Their ids keep
+     * the list's order for the relay.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(List<? extends PatientDomainEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        jdbcTemplate.batchUpdate(INSERT_EVENT, events, events.size(), (ps, event) -> {
+            ps.setObject(1, UuidV7.randomUuid());
+            ps.setString(2, event.type().name());
+            ps.setObject(3, event.patientId());
+            ps.setObject(4, event.aggregateId());
+            ps.setString(5, objectMapper.writeValueAsString(event.payload()));
+            ps.setObject(6, now, Types.TIMESTAMP);
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package com.ehr.patient.pagination;
+
+import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.exception.InvalidCursorException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Position of a replica in the change feed: one (updatedAt, id) watermark per table, since patients,
+ * diagnoses and medications are each read in their own keyset order.
+ */
+public record ChangeCursor(Watermark patients, Watermark diagnoses, Watermark medications) {
+
+    public static final ChangeCursor START = new ChangeCursor(Watermark.ORIGIN, Watermark.ORIGIN, Watermark.ORIGIN);
+
+    private static final String WATERMARK_SEPARATOR = "|";
+    private static final String FIELD_SEPARATOR = ",";
+
+    public static ChangeCursor decode(String cursor) {
+        String[] watermarks = CursorCodec.decode(cursor).split("\\" + WATERMARK_SEPARATOR, -1);
+        if (watermarks.length != 3) {
+            throw new InvalidCursorException(ExceptionMessages.INVALID_CURSOR);
+        }
+        return new ChangeCursor(Watermark.parse(watermarks[0]), Watermark.parse(watermarks[1]),
+                Watermark.parse(watermarks[2]));
+    }
+
+    public String encode() {
+        return CursorCodec.encode(String.join(WATERMARK_SEPARATOR,
+                patients.format(), diagnoses.format(), medications.format()));
+    }
+
+    public record Watermark(LocalDateTime updatedAt, UUID id) {
+
+        public static final Watermark ORIGIN = new Watermark(LocalDateTime.of(1, 1, 1, 0, 0), new UUID(0, 0));
+
+        /**
+         * Watermark after the last row of a batch, or this one unchanged when the batch is empty.
+         */
+        public <T> Watermark advance(List<T> batch, Function<T, LocalDateTime> updatedAtOf, Function<T, UUID> idOf) {
+            if (batch.isEmpty()) {
+                return this;
+            }
+            T last = batch.get(batch.size() - 1);
+            return new Watermark(updatedAtOf.apply(last), idOf.apply(last));
+        }
+
+        private static Watermark parse(String watermark) {
+            String[] fields = watermark.split(FIELD_SEPARATOR, -1);
+            if (fields.length != 2) {
+                throw new InvalidCursorException(ExceptionMessages.INVALID_CURSOR);
+            }
+            try {
+                return new Watermark(LocalDateTime.parse(fields[0]), UUID.fromString(fields[1]));
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                throw new InvalidCursorException(ExceptionMessages.INVALID_CURSOR);
+            }
+        }
+
+        private String format() {
+            return updatedAt + FIELD_SEPARATOR + id;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.ehr.patient.pagination;
+
+import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.constant.PageLimits;
+import com.ehr.patient.dto.PageResponse;
+import com.ehr.patient.exception.InvalidListQueryException;
+import com.ehr.patient.sharding.KWayMerge;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Status filter, date range and page of a patient's diagnosis or medication list. Absent filters widen to
+ * every status and to sentinel dates, so each request runs the same index-backed query.
+ */
+public record ChildListQuery<S extends Enum<S>>(
+        Set<S> statuses,
+        LocalDate from,
+        LocalDate to,
+        Pageable pageable) {
+
+    public static final LocalDate EARLIEST = LocalDate.of(1, 1, 1);
+    public static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+    private static final String ID = "id";
+
+    public static <S extends Enum<S>> ChildListQuery<S> of(Class<S> statusType, Collection<S> statuses,
+                                                           LocalDate from, LocalDate to,
+                                                           String sort, String direction, Set<String> sortable,
+                                                           int page, int size) {
+        if (!sortable.contains(sort)) {
+            throw new InvalidListQueryException(ExceptionMessages.UNSUPPORTED_SORT);
+        }
+        Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction)
+                .orElseThrow(() -> new InvalidListQueryException(ExceptionMessages.UNSUPPORTED_SORT_DIRECTION));
+        LocalDate start = from == null ? EARLIEST : from;
+        LocalDate end = to == null ? LATEST : to;
+        if (start.isAfter(end)) {
+            throw new InvalidListQueryException(ExceptionMessages.INVALID_DATE_RANGE);
+        }
+
+        Set<S> matching = statuses == null || statuses.isEmpty()
+                ? EnumSet.allOf(statusType)
+                : EnumSet.copyOf(statuses);
+        int pageSize = Math.max(1, Math.min(size, PageLimits.MAX_PAGE_SIZE));
+        Sort order = Sort.by(sortDirection, sort).and(Sort.by(sortDirection, ID));
+        return new ChildListQuery<>(matching, start, end, PageRequest.of(Math.max(0, page), pageSize, order));
+    }
+
+    /**
+     * Runs the query over children already in memory, such as those of an archived chart, in the order the
+     * database query gives: by the sort property's comparator from {@code sorts}, then by id.
+     */
+    public <T> PageResponse<T> page(List<T> children, Function<T, S> status, Function<T, LocalDate> date,
+                                    Map<String, Comparator<T>> sorts, Function<T, UUID> id) {
+        Sort.Order order = pageable.getSort().iterator().next();
+        Comparator<T> ascending = sorts.get(order.getProperty()).thenComparing(id, KWayMerge.UUID_ORDER);
+        List<T> matching = children.stream()
+                .filter(child -> statuses.contains(status.apply(child)))
+                .filter(child -> !date.apply(child).isBefore(from) && !date.apply(child).isAfter(to))
+                .sorted(order.isAscending() ? ascending : ascending.reversed())
+                .toList();
+        int start = (int) Math.min(pageable.getOffset(), matching.size());
+        int end = Math.min(start + pageable.getPageSize(), matching.size());
+        return new PageResponse<>(matching.subList(start, end), pageable.getPageNumber(), pageable.getPageSize(),
+                end < matching.size());
+    }
+
+    /**
+     * Canonical form of the query, so equivalent requests share an entity tag.
+     */
+    public String canonical() {
+        String statusNames = statuses.stream().map(Enum::name).collect(Collectors.joining(","));
+        return String.join(";", statusNames, from.toString(), to.toString(),
+                pageable.getSort().toString(), String.valueOf(pageable.getPageNumber()),
+                String.valueOf(pageable.getPageSize()));
+    }
+}
@@ -0,0 +1,75 @@
+package com.ehr.patient.pagination;
+
+import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.constant.PageLimits;
+import com.ehr.patient.dto.ClinicalSearchHit;
+import com.ehr.patient.dto.PageResponse;
+import com.ehr.patient.exception.InvalidListQueryException;
+import com.ehr.patient.model.enums.ClinicalRecordType;
+import com.ehr.patient.model.enums.DiagnosisStatus;
+import com.ehr.patient.model.enums.MedicationStatus;
+import com.ehr.patient.model.enums.PatientStatus;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Text, filters and page of a clinical text search. Absent filters widen to every value. A diagnosis status
+ * filter only narrows diagnoses and a medication status filter only medications; to search one kind of
+ * record alone, filter by type. Only the first {@link #MAX_RESULTS} hits can be paged to.
+ */
+public record ClinicalSearchQuery(
+        String text,
+        Set<ClinicalRecordType> types,
+        Set<PatientStatus> patientStatuses,
+        Set<DiagnosisStatus> diagnosisStatuses,
+        Set<MedicationStatus> medicationStatuses,
+        int page,
+        int size) {
+
+    public static final int MAX_RESULTS = 1000;
+
+    public static ClinicalSearchQuery of(String text, Collection<ClinicalRecordType> types,
+                                         Collection<PatientStatus> patientStatuses,
+                                         Collection<DiagnosisStatus> diagnosisStatuses,
+                                         Collection<MedicationStatus> medicationStatuses,
+                                         int page, int size) {
+        if (text == null || text.isBlank()) {
+            throw new InvalidListQueryException(ExceptionMessages.CLINICAL_SEARCH_TEXT_REQUIRED);
+        }
+        int pageSize = Math.max(1, Math.min(size, PageLimits.MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        if ((long) pageNumber * pageSize >= MAX_RESULTS) {
+            throw new InvalidListQueryException(ExceptionMessages.SEARCH_PAGE_OUT_OF_RANGE);
+        }
+        return new ClinicalSearchQuery(text.strip(),
+                matching(ClinicalRecordType.class, types),
+                matching(PatientStatus.class, patientStatuses),
+                matching(DiagnosisStatus.class, diagnosisStatuses),
+                matching(MedicationStatus.class, medicationStatuses),
+                pageNumber, pageSize);
+    }
+
+    /**
+     * Hits to collect: everything up to the end of the page, plus one to tell whether another page follows.
+     */
+    public int fetchLimit() {
+        return Math.min((page + 1) * size, MAX_RESULTS) + 1;
+    }
+
+    /**
+     * Cuts this query's page out of the first {@link #fetchLimit} hits.
+     */
+    public PageResponse<ClinicalSearchHit> page(List<ClinicalSearchHit> hits) {
+        int from = Math.min(page * size, hits.size());
+        int to = Math.min(from + size, hits.size());
+        boolean hasNext = hits.size() > to && to < MAX_RESULTS;
+        return new PageResponse<>(List.copyOf(hits.subList(from, to)), page, size, hasNext);
+    }
+
+    private static <E extends Enum<E>> Set<E> matching(Class<E> type, Collection<E> values) {
+        return values == null || values.isEmpty() ? EnumSet.allOf(type) : EnumSet.copyOf(values);
+    }
+}
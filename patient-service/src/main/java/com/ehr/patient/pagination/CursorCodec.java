@@ -0,0 +1,24 @@
+package com.ehr.patient.pagination;
+
+import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public final class CursorCodec {
+
+    private CursorCodec() {}
+
+    public static String encode(String payload) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(ExceptionMessages.INVALID_CURSOR);
+        }
+    }
+}
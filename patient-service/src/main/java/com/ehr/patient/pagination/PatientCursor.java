@@ -0,0 +1,32 @@
+package com.ehr.patient.pagination;
+
+import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.exception.InvalidCursorException;
+
+import java.util.UUID;
+
+/**
+ * Keyset position in the patient roster, which is ordered by (lastName, id).
+ */
+public record PatientCursor(String lastName, UUID id) {
+
+    private static final int UUID_LENGTH = 36;
+    private static final char SEPARATOR = ':';
+
+    public static PatientCursor decode(String cursor) {
+        String payload = CursorCodec.decode(cursor);
+        if (payload.length() <= UUID_LENGTH || payload.charAt(UUID_LENGTH) != SEPARATOR) {
+            throw new InvalidCursorException(ExceptionMessages.INVALID_CURSOR);
+        }
+        try {
+            UUID id = UUID.fromString(payload.substring(0, UUID_LENGTH));
+            return new PatientCursor(payload.substring(UUID_LENGTH + 1), id);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(ExceptionMessages.INVALID_CURSOR);
+        }
+    }
+
+    public String encode() {
+        return CursorCodec.encode(id.toString() + SEPARATOR + lastName);
+    }
+}
@@ -0,0 +1,118 @@
+package com.ehr.patient.pagination;
+
+import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.constant.PageLimits;
+import com.ehr.patient.dto.PageResponse;
+import com.ehr.patient.dto.PatientSummaryResponse;
+import com.ehr.patient.exception.InvalidListQueryException;
+import com.ehr.patient.sharding.KWayMerge;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Criteria and page of a patient search. Text terms are trimmed and lower-cased and match anywhere in the
+ * field; they need at least three characters, the shortest a trigram index can serve. Results are ordered
+ * by {@link #relevance}, then like the roster, and only the first {@link #MAX_RESULTS} can be paged to.
+ */
+public record PatientSearchQuery(
+        String name,
+        String email,
+        String phone,
+        LocalDate dateOfBirth,
+        int page,
+        int size) {
+
+    public static final int MIN_TERM_LENGTH = 3;
+    public static final int MAX_RESULTS = 1000;
+
+    public static final int EXACT = 3;
+    public static final int PREFIX = 2;
+    public static final int CONTAINS = 1;
+
+    public static PatientSearchQuery of(String name, String email, String phone, LocalDate dateOfBirth,
+                                        int page, int size) {
+        String nameTerm = term(name);
+        String emailTerm = term(email);
+        String phoneTerm = term(phone);
+        if (nameTerm == null && emailTerm == null && phoneTerm == null && dateOfBirth == null) {
+            throw new InvalidListQueryException(ExceptionMessages.SEARCH_CRITERIA_REQUIRED);
+        }
+        int pageSize = Math.max(1, Math.min(size, PageLimits.MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        if ((long) pageNumber * pageSize >= MAX_RESULTS) {
+            throw new InvalidListQueryException(ExceptionMessages.SEARCH_PAGE_OUT_OF_RANGE);
+        }
+        return new PatientSearchQuery(nameTerm, emailTerm, phoneTerm, dateOfBirth, pageNumber, pageSize);
+    }
+
+    /**
+     * Rows to read: everything up to the end of the page, plus one to tell whether another page follows.
+     */
+    public int fetchLimit() {
+        return Math.min((page + 1) * size, MAX_RESULTS) + 1;
+    }
+
+    /**
+     * Sum over the text criteria of how well the patient matches: {@value #EXACT} for the whole field,
+     * {@value #PREFIX} for its start, {@value #CONTAINS} anywhere else. A name matches on either the first or
+     * the last name, whichever is better. Mirrors the rank the search query orders by, so shards merge in
+     * the same order.
+     */
+    public int relevance(PatientSummaryResponse patient) {
+        int relevance = 0;
+        if (name != null) {
+            relevance += Math.max(match(name, patient.firstName()), match(name, patient.lastName()));
+        }
+        if (email != null) {
+            relevance += match(email, patient.email());
+        }
+        if (phone != null) {
+            relevance += match(phone, patient.phone());
+        }
+        return relevance;
+    }
+
+    public Comparator<PatientSummaryResponse> order() {
+        return Comparator.comparingInt(this::relevance).reversed()
+                .thenComparing(PatientSummaryResponse::lastName)
+                .thenComparing(PatientSummaryResponse::id, KWayMerge.UUID_ORDER);
+    }
+
+    /**
+     * Cuts this query's page out of the first {@link #fetchLimit} results.
+     */
+    public PageResponse<PatientSummaryResponse> page(List<PatientSummaryResponse> results) {
+        int from = Math.min(page * size, results.size());
+        int to = Math.min(from + size, results.size());
+        boolean hasNext = results.size() > to && to < MAX_RESULTS;
+        return new PageResponse<>(List.copyOf(results.subList(from, to)), page, size, hasNext);
+    }
+
+    private static int match(String term, String value) {
+        if (value == null) {
+            return 0;
+        }
+        String normalized = value.toLowerCase(Locale.ROOT);
+        if (normalized.equals(term)) {
+            return EXACT;
+        }
+        if (normalized.startsWith(term)) {
+            return PREFIX;
+        }
+        return normalized.contains(term) ? CONTAINS : 0;
+    }
+
+    private static String term(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String term = value.strip().toLowerCase(Locale.ROOT);
+        if (term.length() < MIN_TERM_LENGTH) {
+            throw new InvalidListQueryException(ExceptionMessages.SEARCH_TERM_TOO_SHORT);
+        }
+        return term;
+    }
+}
@@ -0,0 +1,114 @@
+package com.ehr.patient.partitioning;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Copies the rows of a table that V8 has not swapped for its partitioned copy yet, then swaps it. Rows are
+ * copied in id order, one short transaction per chunk, while the mirror triggers carry concurrent writes
+ * across. Each chunk is read FOR SHARE so a row cannot be deleted between being read and being copied.
+ * An interrupted run resumes from the start and skips rows already copied. Runs are serialized across
+ * instances with a session advisory lock; an instance that finds it taken leaves the work to its holder.
+ */
+public class PartitionBackfill {
+
+    public static final List<String> TABLES = List.of("diagnoses", "medications");
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionBackfill.class);
+    private static final UUID FIRST_ID = new UUID(0, 0);
+    private static final String LOCK_NAME = "partition-backfill";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Duration pause;
+
+    public PartitionBackfill(DataSource dataSource, int chunkSize, Duration pause) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.chunkSize = chunkSize;
+        this.pause = pause;
+    }
+
+    /**
+     * @return the number of rows copied, 0 if another instance is running the backfill
+     */
+    public long backfill() {
+        // The lock belongs to the session, so it is taken and released on one connection held for the run.
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            if (!Boolean.TRUE.equals(session.queryForObject(
+                    "SELECT pg_try_advisory_lock(hashtext(?))", Boolean.class, LOCK_NAME))) {
+                log.info("Partition backfill is running on another instance");
+                return 0L;
+            }
+            try {
+                long copied = 0;
+                for (String table : TABLES) {
+                    copied += backfill(table);
+                }
+                return copied;
+            } finally {
+                session.queryForObject("SELECT pg_advisory_unlock(hashtext(?))", Boolean.class, LOCK_NAME);
+            }
+        });
+    }
+
+    public boolean isPending(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, table + "_partitioned"));
+    }
+
+    private long backfill(String table) {
+        if (!isPending(table)) {
+            return 0;
+        }
+        String copyChunk = """
+                WITH chunk AS (SELECT * FROM %1$s WHERE id > ? ORDER BY id LIMIT ? FOR SHARE),
+                     copied AS (INSERT INTO %1$s_partitioned SELECT * FROM chunk ON CONFLICT DO NOTHING)
+                SELECT (SELECT COUNT(*) FROM chunk) AS copied_rows,
+                       (SELECT id FROM chunk ORDER BY id DESC LIMIT 1) AS last_id""".formatted(table);
+
+        long copied = 0;
+        UUID after = FIRST_ID;
+        long rows;
+        do {
+            UUID from = after;
+            Map<String, Object> chunk = transactionTemplate.execute(status ->
+                    jdbcTemplate.queryForMap(copyChunk, from, chunkSize));
+            rows = ((Number) chunk.get("copied_rows")).longValue();
+            if (rows > 0) {
+                after = (UUID) chunk.get("last_id");
+                copied += rows;
+                pause();
+            }
+        } while (rows == chunkSize);
+
+        jdbcTemplate.queryForObject("SELECT finish_partitioning(?)", Boolean.class, table);
+        log.info("Backfilled {} rows into partitioned {} and swapped it in", copied, table);
+        return copied;
+    }
+
+    private void pause() {
+        if (pause.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(pause.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Partition backfill was interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.ehr.patient.partitioning;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Starts the backfill of each database on a background thread once the application has started. Spring
+ * Boot reports the instance ready only after its runners return, so the copy must not run inline.
+ */
+public class PartitionBackfillRunner implements ApplicationRunner, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionBackfillRunner.class);
+
+    private final List<PartitionBackfill> backfills;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "partition-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PartitionBackfillRunner(List<PartitionBackfill> backfills) {
+        this.backfills = backfills;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        executor.execute(this::backfill);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void backfill() {
+        for (PartitionBackfill backfill : backfills) {
+            try {
+                long copied = backfill.backfill();
+                if (copied > 0) {
+                    log.info("Partition backfill copied {} rows", copied);
+                }
+            } catch (RuntimeException e) {
+                log.error("Partition backfill failed; the next start resumes it", e);
+            }
+        }
+    }
+}
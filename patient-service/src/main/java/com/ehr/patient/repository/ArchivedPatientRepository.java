@@ -0,0 +1,11 @@
+package com.ehr.patient.repository;
+
+import com.ehr.patient.model.ArchivedPatient;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface ArchivedPatientRepository extends JpaRepository<ArchivedPatient, UUID> {
+}
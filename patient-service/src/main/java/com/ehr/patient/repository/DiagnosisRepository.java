@@ -1,14 +1,76 @@
 package com.ehr.patient.repository;
 
+import com.ehr.patient.dto.DiagnosisResponse;
+import com.ehr.patient.etag.CollectionVersion;
 import com.ehr.patient.model.Diagnosis;
+import com.ehr.patient.model.enums.DiagnosisStatus;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface DiagnosisRepository extends JpaRepository<Diagnosis, UUID> {
 
+    String RESPONSE_SELECT = """
+            SELECT new com.ehr.patient.dto.DiagnosisResponse(
+                d.id, d.patient.id, d.icdCode, d.description, d.diagnosisDate, d.status, d.createdAt, d.updatedAt)
+            FROM Diagnosis d
+            """;
+
     List<Diagnosis> findByPatientId(UUID patientId);
+
+    @Query(RESPONSE_SELECT + """
+            WHERE d.patient.id = :patientId
+              AND d.status IN :statuses
+              AND d.diagnosisDate BETWEEN :from AND :to""")
+    Slice<DiagnosisResponse> findResponsesByPatientId(UUID patientId, Collection<DiagnosisStatus> statuses,
+                                                      LocalDate from, LocalDate to, Pageable pageable);
+
+    @Query(RESPONSE_SELECT + """
+            WHERE (d.updatedAt > :updatedAt OR (d.updatedAt = :updatedAt AND d.id > :id))
+              AND d.updatedAt < :settledBefore
+            ORDER BY d.updatedAt, d.id""")
+    List<DiagnosisResponse> findResponsesChangedAfter(LocalDateTime updatedAt, UUID id,
+                                                      LocalDateTime settledBefore, Limit limit);
+
+    @QueryHints(@QueryHint(name = PatientRepository.FETCH_SIZE_HINT, value = PatientRepository.EXPORT_FETCH_SIZE))
+    @Query(RESPONSE_SELECT)
+    Stream<DiagnosisResponse> streamExport();
+
+    @QueryHints(@QueryHint(name = PatientRepository.FETCH_SIZE_HINT, value = PatientRepository.EXPORT_FETCH_SIZE))
+    @Query("""
+            SELECT new com.ehr.patient.repository.DiagnosisTextRow(
+                d.id, d.patient.id, d.icdCode, d.description, d.status, p.status)
+            FROM Diagnosis d JOIN d.patient p""")
+    Stream<DiagnosisTextRow> streamTextRows();
+
+    @Query(RESPONSE_SELECT + "ORDER BY d.id")
+    List<DiagnosisResponse> findExportChunk(Limit limit);
+
+    @Query(RESPONSE_SELECT + "WHERE d.id > :id ORDER BY d.id")
+    List<DiagnosisResponse> findExportChunkAfter(UUID id, Limit limit);
+
+    Optional<Diagnosis> findByIdAndPatientId(UUID id, UUID patientId);
+
+    @Query("""
+            SELECT new com.ehr.patient.etag.CollectionVersion(
+                p.id,
+                (SELECT MAX(d.updatedAt) FROM Diagnosis d WHERE d.patient.id = :patientId),
+                (SELECT COUNT(d) FROM Diagnosis d WHERE d.patient.id = :patientId))
+            FROM Patient p
+            WHERE p.id = :patientId""")
+    Optional<CollectionVersion> findVersionByPatientId(UUID patientId);
 }
@@ -0,0 +1,21 @@
+package com.ehr.patient.repository;
+
+import com.ehr.patient.dto.DiagnosisResponse;
+import com.ehr.patient.model.enums.DiagnosisStatus;
+import com.ehr.patient.model.enums.PatientStatus;
+
+import java.util.UUID;
+
+public record DiagnosisTextRow(
+        UUID id,
+        UUID patientId,
+        String icdCode,
+        String description,
+        DiagnosisStatus status,
+        PatientStatus patientStatus) {
+
+    public static DiagnosisTextRow of(DiagnosisResponse diagnosis, PatientStatus patientStatus) {
+        return new DiagnosisTextRow(diagnosis.id(), diagnosis.patientId(), diagnosis.icdCode(),
+                diagnosis.description(), diagnosis.status(), patientStatus);
+    }
+}
@@ -1,16 +1,80 @@
 package com.ehr.patient.repository;
 
+import com.ehr.patient.dto.MedicationResponse;
+import com.ehr.patient.etag.CollectionVersion;
 import com.ehr.patient.model.Medication;
+import com.ehr.patient.model.enums.MedicationStatus;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface MedicationRepository extends JpaRepository<Medication, UUID> {
 
+    String RESPONSE_SELECT = """
+            SELECT new com.ehr.patient.dto.MedicationResponse(
+                m.id, m.patient.id, m.name, m.dosage, m.frequency, m.status, m.startDate, m.endDate,
+                m.contraindicated, m.washoutDays, m.washoutNotes, m.createdAt, m.updatedAt)
+            FROM Medication m
+            """;
+
     List<Medication> findByPatientId(UUID patientId);
 
-    List<Medication> findByPatientIdAndContraindicatedTrue(UUID patientId);
+    @Query(RESPONSE_SELECT + """
+            WHERE m.patient.id = :patientId
+              AND m.status IN :statuses
+              AND m.startDate BETWEEN :from AND :to""")
+    Slice<MedicationResponse> findResponsesByPatientId(UUID patientId, Collection<MedicationStatus> statuses,
+                                                       LocalDate from, LocalDate to, Pageable pageable);
+
+    @Query(RESPONSE_SELECT + """
+            WHERE (m.updatedAt > :updatedAt OR (m.updatedAt = :updatedAt AND m.id > :id))
+              AND m.updatedAt < :settledBefore
+            ORDER BY m.updatedAt, m.id""")
+    List<MedicationResponse> findResponsesChangedAfter(LocalDateTime updatedAt, UUID id,
+                                                       LocalDateTime settledBefore, Limit limit);
+
+    @QueryHints(@QueryHint(name = PatientRepository.FETCH_SIZE_HINT, value = PatientRepository.EXPORT_FETCH_SIZE))
+    @Query(RESPONSE_SELECT)
+    Stream<MedicationResponse> streamExport();
+
+    @QueryHints(@QueryHint(name = PatientRepository.FETCH_SIZE_HINT, value = PatientRepository.EXPORT_FETCH_SIZE))
+    @Query("""
+            SELECT new com.ehr.patient.repository.MedicationTextRow(
+                m.id, m.patient.id, m.name, m.dosage, m.washoutNotes, m.status, p.status)
+            FROM Medication m JOIN m.patient p""")
+    Stream<MedicationTextRow> streamTextRows();
+
+    @Query(RESPONSE_SELECT + "ORDER BY m.id")
+    List<MedicationResponse> findExportChunk(Limit limit);
+
+    @Query(RESPONSE_SELECT + "WHERE m.id > :id ORDER BY m.id")
+    List<MedicationResponse> findExportChunkAfter(UUID id, Limit limit);
+
+    Optional<Medication> findByIdAndPatientId(UUID id, UUID patientId);
+
+    @Query("""
+            SELECT new com.ehr.patient.etag.CollectionVersion(
+                p.id,
+                (SELECT MAX(m.updatedAt) FROM Medication m WHERE m.patient.id = :patientId),
+                (SELECT COUNT(m) FROM Medication m WHERE m.patient.id = :patientId))
+            FROM Patient p
+            WHERE p.id = :patientId""")
+    Optional<CollectionVersion> findVersionByPatientId(UUID patientId);
+
+    @Query(RESPONSE_SELECT + "WHERE m.patient.id = :patientId AND m.contraindicated = true")
+    List<MedicationResponse> findContraindicationResponsesByPatientId(UUID patientId);
 }
@@ -0,0 +1,22 @@
+package com.ehr.patient.repository;
+
+import com.ehr.patient.dto.MedicationResponse;
+import com.ehr.patient.model.enums.MedicationStatus;
+import com.ehr.patient.model.enums.PatientStatus;
+
+import java.util.UUID;
+
+public record MedicationTextRow(
+        UUID id,
+        UUID patientId,
+        String name,
+        String dosage,
+        String washoutNotes,
+        MedicationStatus status,
+        PatientStatus patientStatus) {
+
+    public static MedicationTextRow of(MedicationResponse medication, PatientStatus patientStatus) {
+        return new MedicationTextRow(medication.id(), medication.patientId(), medication.name(),
+                medication.dosage(), medication.washoutNotes(), medication.status(), patientStatus);
+    }
+}
@@ -0,0 +1,138 @@
+package com.ehr.patient.repository;
+
+import com.ehr.patient.dto.CreatePatientRequest;
+import com.ehr.patient.dto.DiagnosisResponse;
+import com.ehr.patient.dto.MedicationResponse;
+import com.ehr.patient.dto.PatientResponse;
+import com.ehr.patient.model.enums.PatientStatus;
+import com.ehr.patient.model.id.UuidV7;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Inserts imported patients and their child records with JDBC batches. Combined with the pgjdbc
+ * reWriteBatchedInserts option each batch is sent as a multi-row INSERT. Restored charts go back in the
+ * same way, keeping their ids and timestamps.
+ */
+@Repository
+public class PatientBatchRepository {
+
+    private static final String JDBC_BATCH_SIZE_PROPERTY = "${patient.import.jdbc-batch-size}";
+
+    private static final String INSERT_PATIENT = """
+            INSERT INTO patients (id, first_name, last_name, date_of_birth, gender, email, phone, address, city,
+                                  state, zip_code, emergency_contact_name, emergency_contact_phone, status,
+                                  created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+
+    private static final String INSERT_DIAGNOSIS = """
+            INSERT INTO diagnoses (id, patient_id, icd_code, description, diagnosis_date, status, created_at,
+                                   updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)""";
+
+    private static final String INSERT_MEDICATION = """
+            INSERT INTO medications (id, patient_id, name, dosage, frequency, status, start_date, end_date,
+                                     contraindicated, washout_days, washout_notes, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public PatientBatchRepository(JdbcTemplate jdbcTemplate, @Value(JDBC_BATCH_SIZE_PROPERTY) int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return the inserted charts, with the ids and timestamps they were given
+     */
+    public List<PatientResponse> insertAll(List<PatientImportRow> rows) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        List<PatientResponse> charts = rows.stream().map(row -> toChart(row, now)).toList();
+        insert(charts);
+        return charts;
+    }
+
+    public void insertChart(PatientResponse patient) {
+        insert(List.of(patient));
+    }
+
+    private void insert(List<PatientResponse> charts) {
+        if (charts.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_PATIENT, charts, batchSize, (ps, patient) -> {
+            ps.setObject(1, patient.id());
+            ps.setString(2, patient.firstName());
+            ps.setString(3, patient.lastName());
+            ps.setObject(4, patient.dateOfBirth(), Types.DATE);
+            ps.setString(5, patient.gender());
+            ps.setString(6, patient.email());
+            ps.setString(7, patient.phone());
+            ps.setString(8, patient.address());
+            ps.setString(9, patient.city());
+            ps.setString(10, patient.state());
+            ps.setString(11, patient.zipCode());
+            ps.setString(12, patient.emergencyContactName());
+            ps.setString(13, patient.emergencyContactPhone());
+            ps.setString(14, patient.status().name());
+            ps.setObject(15, patient.createdAt(), Types.TIMESTAMP);
+            ps.setObject(16, patient.updatedAt(), Types.TIMESTAMP);
+        });
+
+        List<DiagnosisResponse> diagnoses = charts.stream().flatMap(patient -> patient.diagnoses().stream()).toList();
+        jdbcTemplate.batchUpdate(INSERT_DIAGNOSIS, diagnoses, batchSize, (ps, diagnosis) -> {
+            ps.setObject(1, diagnosis.id());
+            ps.setObject(2, diagnosis.patientId());
+            ps.setString(3, diagnosis.icdCode());
+            ps.setString(4, diagnosis.description());
+            ps.setObject(5, diagnosis.diagnosisDate(), Types.DATE);
+            ps.setString(6, diagnosis.status() == null ? null : diagnosis.status().name());
+            ps.setObject(7, diagnosis.createdAt(), Types.TIMESTAMP);
+            ps.setObject(8, diagnosis.updatedAt(), Types.TIMESTAMP);
+        });
+
+        List<MedicationResponse> medications = charts.stream()
+                .flatMap(patient -> patient.medications().stream())
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT_MEDICATION, medications, batchSize, (ps, medication) -> {
+            ps.setObject(1, medication.id());
+            ps.setObject(2, medication.patientId());
+            ps.setString(3, medication.name());
+            ps.setString(4, medication.dosage());
+            ps.setString(5, medication.frequency());
+            ps.setString(6, medication.status() == null ? null : medication.status().name());
+            ps.setObject(7, medication.startDate(), Types.DATE);
+            ps.setObject(8, medication.endDate(), Types.DATE);
+            ps.setBoolean(9, medication.contraindicated());
+            ps.setObject(10, medication.washoutDays(), Types.INTEGER);
+            ps.setString(11, medication.washoutNotes());
+            ps.setObject(12, medication.createdAt(), Types.TIMESTAMP);
+            ps.setObject(13, medication.updatedAt(), Types.TIMESTAMP);
+        });
+    }
+
+    private static PatientResponse toChart(PatientImportRow row, LocalDateTime now) {
+        CreatePatientRequest patient = row.request().patient();
+        List<DiagnosisResponse> diagnoses = row.request().diagnosesOrEmpty().stream()
+                .map(diagnosis -> new DiagnosisResponse(UuidV7.randomUuid(), row.id(), diagnosis.icdCode(),
+                        diagnosis.description(), diagnosis.diagnosisDate(), diagnosis.status(), now, now))
+                .toList();
+        List<MedicationResponse> medications = row.request().medicationsOrEmpty().stream()
+                .map(medication -> new MedicationResponse(UuidV7.randomUuid(), row.id(), medication.name(),
+                        medication.dosage(), medication.frequency(), medication.status(), medication.startDate(),
+                        medication.endDate(), medication.contraindicated(), medication.washoutDays(),
+                        medication.washoutNotes(), now, now))
+                .toList();
+        return new PatientResponse(row.id(), patient.firstName(), patient.lastName(), patient.dateOfBirth(),
+                patient.gender(), patient.email(), patient.phone(), patient.address(), patient.city(),
+                patient.state(), patient.zipCode(), patient.emergencyContactName(),
+                patient.emergencyContactPhone(), PatientStatus.ACTIVE, now, now, diagnoses, medications);
+    }
+}
@@ -0,0 +1,8 @@
+package com.ehr.patient.repository;
+
+import com.ehr.patient.dto.ImportPatientRequest;
+
+import java.util.UUID;
+
+public record PatientImportRow(UUID id, ImportPatientRequest request) {
+}
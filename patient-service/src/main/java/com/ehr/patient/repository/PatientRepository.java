@@ -1,28 +1,151 @@
 package com.ehr.patient.repository;
 
+import com.ehr.patient.dto.ExportedPatient;
+import com.ehr.patient.dto.PatientSummaryResponse;
+import com.ehr.patient.dto.PatientTypeaheadResponse;
+import com.ehr.patient.etag.PatientChartVersion;
 import com.ehr.patient.model.Patient;
 import com.ehr.patient.model.enums.PatientStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface PatientRepository extends JpaRepository<Patient, UUID> {
 
-    @Query("SELECT DISTINCT p FROM Patient p LEFT JOIN FETCH p.diagnoses LEFT JOIN FETCH p.medications")
-    List<Patient> findAllWithDiagnosesAndMedications();
+    String SUMMARY_SELECT = """
+            SELECT new com.ehr.patient.dto.PatientSummaryResponse(
+                p.id, p.firstName, p.lastName, p.dateOfBirth, p.gender, p.email, p.phone,
+                p.address, p.city, p.state, p.zipCode, p.emergencyContactName, p.emergencyContactPhone,
+                p.status, p.createdAt, p.updatedAt,
+                (SELECT COUNT(d) FROM Diagnosis d WHERE d.patient = p),
+                (SELECT COUNT(m) FROM Medication m WHERE m.patient = p))
+            FROM Patient p
+            """;
 
-    @Query("SELECT DISTINCT p FROM Patient p LEFT JOIN FETCH p.diagnoses LEFT JOIN FETCH p.medications WHERE p.id = :id")
-    Optional<Patient> findByIdWithDiagnosesAndMedications(UUID id);
+    String EXPORT_SELECT = """
+            SELECT new com.ehr.patient.dto.ExportedPatient(
+                p.id, p.firstName, p.lastName, p.dateOfBirth, p.gender, p.email, p.phone,
+                p.address, p.city, p.state, p.zipCode, p.emergencyContactName, p.emergencyContactPhone,
+                p.status, p.createdAt, p.updatedAt)
+            FROM Patient p
+            """;
+
+    // Rows per round trip when streaming a bulk export or a search index scan. Postgres only honours it
+    // inside a transaction.
+    String EXPORT_FETCH_SIZE = "1000";
+    String FETCH_SIZE_HINT = "org.hibernate.fetchSize";
+
+    @Query("SELECT p FROM Patient p ORDER BY p.lastName, p.id")
+    List<Patient> findRosterPage(Limit limit);
+
+    @Query("""
+            SELECT p FROM Patient p
+            WHERE p.lastName > :lastName OR (p.lastName = :lastName AND p.id > :id)
+            ORDER BY p.lastName, p.id""")
+    List<Patient> findRosterPageAfter(String lastName, UUID id, Limit limit);
+
+    @Query(SUMMARY_SELECT + "ORDER BY p.lastName, p.id")
+    List<PatientSummaryResponse> findSummaryPage(Limit limit);
+
+    @Query(SUMMARY_SELECT + """
+            WHERE p.lastName > :lastName OR (p.lastName = :lastName AND p.id > :id)
+            ORDER BY p.lastName, p.id""")
+    List<PatientSummaryResponse> findSummaryPageAfter(String lastName, UUID id, Limit limit);
+
+    @QueryHints(@QueryHint(name = FETCH_SIZE_HINT, value = EXPORT_FETCH_SIZE))
+    @Query(EXPORT_SELECT)
+    Stream<ExportedPatient> streamExport();
+
+    @QueryHints(@QueryHint(name = FETCH_SIZE_HINT, value = EXPORT_FETCH_SIZE))
+    @Query("""
+            SELECT new com.ehr.patient.dto.PatientTypeaheadResponse(
+                p.id, p.firstName, p.lastName, p.dateOfBirth, p.email)
+            FROM Patient p""")
+    Stream<PatientTypeaheadResponse> streamTypeahead();
+
+    @Query(EXPORT_SELECT + "ORDER BY p.id")
+    List<ExportedPatient> findExportChunk(Limit limit);
+
+    @Query(EXPORT_SELECT + "WHERE p.id > :id ORDER BY p.id")
+    List<ExportedPatient> findExportChunkAfter(UUID id, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE p.id IN :ids")
+    List<PatientSummaryResponse> findSummariesByIdIn(Collection<UUID> ids);
+
+    @Query(SUMMARY_SELECT + """
+            WHERE (p.updatedAt > :updatedAt OR (p.updatedAt = :updatedAt AND p.id > :id))
+              AND p.updatedAt < :settledBefore
+            ORDER BY p.updatedAt, p.id""")
+    List<PatientSummaryResponse> findSummariesChangedAfter(LocalDateTime updatedAt, UUID id,
+                                                           LocalDateTime settledBefore, Limit limit);
 
     List<Patient> findByStatus(PatientStatus status);
 
+    /**
+     * Locks a batch of INACTIVE and DECEASED patients last changed before the cutoff, skipping rows other
+     * archivers hold. The statuses are literals so Postgres can use the partial index from V9.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = OutboxEventRepository.SKIP_LOCKED))
+    @Query("""
+            SELECT p FROM Patient p
+            WHERE p.status IN (com.ehr.patient.model.enums.PatientStatus.INACTIVE,
+                               com.ehr.patient.model.enums.PatientStatus.DECEASED)
+              AND p.updatedAt < :cutoff
+            ORDER BY p.updatedAt, p.id""")
+    List<Patient> findArchiveBatch(LocalDateTime cutoff, Limit limit);
+
     List<Patient> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(
             String firstName, String lastName);
 
     Optional<Patient> findByEmail(String email);
+
+    @Query("""
+            SELECT new com.ehr.patient.etag.PatientChartVersion(
+                p.id, p.updatedAt,
+                (SELECT MAX(d.updatedAt) FROM Diagnosis d WHERE d.patient.id = :id),
+                (SELECT COUNT(d) FROM Diagnosis d WHERE d.patient.id = :id),
+                (SELECT MAX(m.updatedAt) FROM Medication m WHERE m.patient.id = :id),
+                (SELECT COUNT(m) FROM Medication m WHERE m.patient.id = :id))
+            FROM Patient p
+            WHERE p.id = :id""")
+    Optional<PatientChartVersion> findChartVersion(UUID id);
+
+    /**
+     * The patient with its diagnoses and medications joined into one statement, for writes that return the
+     * whole chart. The row count is diagnoses times medications, which a single chart keeps small.
+     */
+    @EntityGraph(attributePaths = {"diagnoses", "medications"})
+    @Query("SELECT p FROM Patient p WHERE p.id = :id")
+    Optional<Patient> findChartById(UUID id);
+
+    @Query("SELECT p.status FROM Patient p WHERE p.id = :id")
+    Optional<PatientStatus> findStatusById(UUID id);
+
+    @Query("SELECT p.email FROM Patient p WHERE p.email IN :emails")
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    /**
+     * Resolved through {@link #findById} so the existence guards in the diagnosis and medication
+     * services are answered by the second-level cache instead of a count query.
+     */
+    @Override
+    default boolean existsById(UUID id) {
+        return findById(id).isPresent();
+    }
 }
@@ -0,0 +1,109 @@
+package com.ehr.patient.repository;
+
+import com.ehr.patient.dto.PatientSummaryResponse;
+import com.ehr.patient.pagination.PatientSearchQuery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs patient searches. Only the criteria present are put in the query, so Postgres can combine the
+ * trigram indexes from V10 for exactly those columns. The statement timeout bounds each search on
+ * Postgres; it is set for the current transaction only.
+ */
+@Repository
+public class PatientSearchRepository {
+
+    private static final String STATEMENT_TIMEOUT_PROPERTY = "${patient.search.statement-timeout-ms}";
+    // Hibernate treats a backslash in an HQL literal as an escape of its own, so LIKE escapes with '!'.
+    private static final char LIKE_ESCAPE = '!';
+
+    private final EntityManager entityManager;
+    private final String statementTimeout;
+    private final boolean postgres;
+
+    public PatientSearchRepository(EntityManager entityManager,
+                                   @Value(STATEMENT_TIMEOUT_PROPERTY) long statementTimeoutMillis) {
+        this.entityManager = entityManager;
+        this.statementTimeout = Long.toString(statementTimeoutMillis);
+        this.postgres = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+
+    /**
+     * The first {@link PatientSearchQuery#fetchLimit} matches in {@link PatientSearchQuery#order}. Must run
+     * in a transaction.
+     */
+    public List<PatientSummaryResponse> search(PatientSearchQuery query) {
+        List<String> filters = new ArrayList<>();
+        List<String> ranks = new ArrayList<>();
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (query.name() != null) {
+            text("name", query.name(), filters, ranks, parameters, "p.firstName", "p.lastName");
+        }
+        if (query.email() != null) {
+            text("email", query.email(), filters, ranks, parameters, "p.email");
+        }
+        if (query.phone() != null) {
+            text("phone", query.phone(), filters, ranks, parameters, "p.phone");
+        }
+        if (query.dateOfBirth() != null) {
+            filters.add("p.dateOfBirth = :dateOfBirth");
+            parameters.put("dateOfBirth", query.dateOfBirth());
+        }
+
+        String order = ranks.isEmpty() ? "" : "(" + String.join(" + ", ranks) + ") DESC, ";
+        TypedQuery<PatientSummaryResponse> search = entityManager.createQuery(PatientRepository.SUMMARY_SELECT
+                        + "WHERE " + String.join(" AND ", filters)
+                        + " ORDER BY " + order + "p.lastName, p.id",
+                PatientSummaryResponse.class);
+        parameters.forEach(search::setParameter);
+        search.setMaxResults(query.fetchLimit());
+        if (postgres) {
+            entityManager.createNativeQuery("SELECT set_config('statement_timeout', :timeout, true)")
+                    .setParameter("timeout", statementTimeout)
+                    .getSingleResult();
+        }
+        return search.getResultList();
+    }
+
+    // Matches the term anywhere in any of the columns, ranked as PatientSearchQuery.relevance ranks it.
+    private static void text(String name, String term, List<String> filters, List<String> ranks,
+                             Map<String, Object> parameters, String... columns) {
+        List<String> contains = new ArrayList<>();
+        List<String> equals = new ArrayList<>();
+        List<String> startsWith = new ArrayList<>();
+        for (String column : columns) {
+            contains.add(column + " ILIKE :" + name + "Contains ESCAPE '" + LIKE_ESCAPE + "'");
+            equals.add("lower(" + column + ") = :" + name);
+            startsWith.add(column + " ILIKE :" + name + "Prefix ESCAPE '" + LIKE_ESCAPE + "'");
+        }
+        filters.add("(" + String.join(" OR ", contains) + ")");
+        ranks.add("CASE WHEN " + String.join(" OR ", equals) + " THEN " + PatientSearchQuery.EXACT
+                + " WHEN " + String.join(" OR ", startsWith) + " THEN " + PatientSearchQuery.PREFIX
+                + " ELSE " + PatientSearchQuery.CONTAINS + " END");
+        String escaped = escape(term);
+        parameters.put(name, term);
+        parameters.put(name + "Contains", "%" + escaped + "%");
+        parameters.put(name + "Prefix", escaped + "%");
+    }
+
+    private static String escape(String term) {
+        StringBuilder escaped = new StringBuilder(term.length());
+        for (char c : term.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,93 @@
+package com.ehr.patient.service;
+
+import com.ehr.patient.constant.PageLimits;
+import com.ehr.patient.dto.ChangeFeedResponse;
+import com.ehr.patient.dto.DiagnosisResponse;
+import com.ehr.patient.dto.MedicationResponse;
+import com.ehr.patient.dto.PatientSummaryResponse;
+import com.ehr.patient.pagination.ChangeCursor;
+import com.ehr.patient.repository.DiagnosisRepository;
+import com.ehr.patient.repository.MedicationRepository;
+import com.ehr.patient.repository.PatientRepository;
+import com.ehr.patient.sharding.KWayMerge;
+import com.ehr.patient.sharding.ScatterGather;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Rows changed since a replica's cursor, read per table in (updatedAt, id) order. Rows stamped within the
+ * settle window are held back: updatedAt is taken before commit, so a slow transaction can still make a
+ * row visible behind a watermark the feed has already handed out.
+ */
+@Service
+public class ChangeFeedService {
+
+    private static final String SETTLE_SECONDS_PROPERTY = "${patient.change-feed.settle-seconds}";
+
+    private final PatientRepository patientRepository;
+    private final DiagnosisRepository diagnosisRepository;
+    private final MedicationRepository medicationRepository;
+    private final ScatterGather scatterGather;
+    private final long settleSeconds;
+
+    public ChangeFeedService(PatientRepository patientRepository,
+                             DiagnosisRepository diagnosisRepository,
+                             MedicationRepository medicationRepository,
+                             ScatterGather scatterGather,
+                             @Value(SETTLE_SECONDS_PROPERTY) long settleSeconds) {
+        this.patientRepository = patientRepository;
+        this.diagnosisRepository = diagnosisRepository;
+        this.medicationRepository = medicationRepository;
+        this.scatterGather = scatterGather;
+        this.settleSeconds = settleSeconds;
+    }
+
+    @Transactional(readOnly = true)
+    public ChangeFeedResponse getChanges(String cursor, int size) {
+        int batchSize = Math.max(1, Math.min(size, PageLimits.MAX_PAGE_SIZE));
+        int fetchSize = batchSize + 1;
+        Limit limit = Limit.of(fetchSize);
+        ChangeCursor after = cursor == null || cursor.isBlank() ? ChangeCursor.START : ChangeCursor.decode(cursor);
+        LocalDateTime settledBefore = LocalDateTime.now().minusSeconds(settleSeconds);
+
+        List<PatientSummaryResponse> patients = scatterGather.readMerged(
+                () -> patientRepository.findSummariesChangedAfter(
+                        after.patients().updatedAt(), after.patients().id(), settledBefore, limit),
+                changeOrder(PatientSummaryResponse::updatedAt, PatientSummaryResponse::id), fetchSize);
+        List<DiagnosisResponse> diagnoses = scatterGather.readMerged(
+                () -> diagnosisRepository.findResponsesChangedAfter(
+                        after.diagnoses().updatedAt(), after.diagnoses().id(), settledBefore, limit),
+                changeOrder(DiagnosisResponse::updatedAt, DiagnosisResponse::id), fetchSize);
+        List<MedicationResponse> medications = scatterGather.readMerged(
+                () -> medicationRepository.findResponsesChangedAfter(
+                        after.medications().updatedAt(), after.medications().id(), settledBefore, limit),
+                changeOrder(MedicationResponse::updatedAt, MedicationResponse::id), fetchSize);
+        boolean hasMore = patients.size() > batchSize || diagnoses.size() > batchSize
+                || medications.size() > batchSize;
+
+        patients = trim(patients, batchSize);
+        diagnoses = trim(diagnoses, batchSize);
+        medications = trim(medications, batchSize);
+        ChangeCursor next = new ChangeCursor(
+                after.patients().advance(patients, PatientSummaryResponse::updatedAt, PatientSummaryResponse::id),
+                after.diagnoses().advance(diagnoses, DiagnosisResponse::updatedAt, DiagnosisResponse::id),
+                after.medications().advance(medications, MedicationResponse::updatedAt, MedicationResponse::id));
+        return new ChangeFeedResponse(patients, diagnoses, medications, next.encode(), hasMore);
+    }
+
+    private static <T> Comparator<T> changeOrder(Function<T, LocalDateTime> updatedAtOf, Function<T, UUID> idOf) {
+        return Comparator.comparing(updatedAtOf).thenComparing(idOf, KWayMerge.UUID_ORDER);
+    }
+
+    private static <T> List<T> trim(List<T> rows, int batchSize) {
+        return rows.size() > batchSize ? rows.subList(0, batchSize) : rows;
+    }
+}
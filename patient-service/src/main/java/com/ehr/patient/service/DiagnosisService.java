@@ -1,73 +1,118 @@
 package com.ehr.patient.service;
 
+import com.ehr.patient.archive.PatientArchive;
+import com.ehr.patient.constant.CacheNames;
 import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.constant.SortFields;
 import com.ehr.patient.dto.CreateDiagnosisRequest;
 import com.ehr.patient.dto.DiagnosisResponse;
+import com.ehr.patient.dto.PageResponse;
+import com.ehr.patient.etag.CollectionVersion;
+import com.ehr.patient.event.DiagnosisEvent;
 import com.ehr.patient.exception.ResourceNotFoundException;
 import com.ehr.patient.model.Diagnosis;
-import com.ehr.patient.model.Patient;
+import com.ehr.patient.model.enums.DiagnosisStatus;
+import com.ehr.patient.model.enums.DomainEventType;
+import com.ehr.patient.pagination.ChildListQuery;
 import com.ehr.patient.repository.DiagnosisRepository;
 import com.ehr.patient.repository.PatientRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.Comparator;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
 public class DiagnosisService {
 
+    // Orders an archived chart's diagnoses the way the list query orders live ones.
+    private static final Map<String, Comparator<DiagnosisResponse>> ARCHIVED_SORTS = Map.of(
+            SortFields.DIAGNOSIS_DATE, Comparator.comparing(DiagnosisResponse::diagnosisDate),
+            SortFields.UPDATED_AT, Comparator.comparing(DiagnosisResponse::updatedAt));
+
     private final DiagnosisRepository diagnosisRepository;
     private final PatientRepository patientRepository;
+    private final PatientArchive patientArchive;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public DiagnosisService(DiagnosisRepository diagnosisRepository, PatientRepository patientRepository) {
+    public DiagnosisService(DiagnosisRepository diagnosisRepository, PatientRepository patientRepository,
+                            PatientArchive patientArchive, ApplicationEventPublisher eventPublisher) {
         this.diagnosisRepository = diagnosisRepository;
         this.patientRepository = patientRepository;
+        this.patientArchive = patientArchive;
+        this.eventPublisher = eventPublisher;
     }
 
+    @CacheEvict(cacheNames = CacheNames.PATIENTS, key = "#patientId")
+    @Transactional
     public DiagnosisResponse addDiagnosis(UUID patientId, CreateDiagnosisRequest request) {
-        Patient patient = patientRepository.findById(patientId)
-                .orElseThrow(() -> new ResourceNotFoundException(ExceptionMessages.PATIENT_NOT_FOUND));
-
         Diagnosis diagnosis = Diagnosis.builder()
-                .patient(patient)
+                .patient(patientRepository.getReferenceById(patientId))
                 .icdCode(request.icdCode())
                 .description(request.description())
                 .diagnosisDate(request.diagnosisDate())
                 .status(request.status())
                 .build();
 
-        Diagnosis saved = diagnosisRepository.save(diagnosis);
-        return toDiagnosisResponse(saved);
-    }
-
-    public List<DiagnosisResponse> getDiagnoses(UUID patientId) {
-        if (!patientRepository.existsById(patientId)) {
+        DiagnosisResponse response;
+        try {
+            response = toDiagnosisResponse(diagnosisRepository.saveAndFlush(diagnosis));
+        } catch (DataIntegrityViolationException e) {
+            // The patient foreign key is the only constraint a validated diagnosis can violate.
             throw new ResourceNotFoundException(ExceptionMessages.PATIENT_NOT_FOUND);
         }
-        return diagnosisRepository.findByPatientId(patientId).stream()
-                .map(this::toDiagnosisResponse)
-                .toList();
+        eventPublisher.publishEvent(new DiagnosisEvent(DomainEventType.DIAGNOSIS_ADDED, response));
+        return response;
     }
 
-    public DiagnosisResponse updateDiagnosis(UUID patientId, UUID diagnosisId, CreateDiagnosisRequest request) {
+    public String getDiagnosesETag(UUID patientId, ChildListQuery<DiagnosisStatus> query) {
+        return diagnosisRepository.findVersionByPatientId(patientId)
+                .or(() -> patientArchive.find(patientId).map(patient ->
+                        CollectionVersion.of(patient.id(), patient.diagnoses(), DiagnosisResponse::updatedAt)))
+                .map(version -> version.eTag(query))
+                .orElseThrow(() -> new ResourceNotFoundException(ExceptionMessages.PATIENT_NOT_FOUND));
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<DiagnosisResponse> getDiagnoses(UUID patientId, ChildListQuery<DiagnosisStatus> query) {
         if (!patientRepository.existsById(patientId)) {
-            throw new ResourceNotFoundException(ExceptionMessages.PATIENT_NOT_FOUND);
+            return patientArchive.find(patientId)
+                    .map(patient -> query.page(patient.diagnoses(), DiagnosisResponse::status,
+                            DiagnosisResponse::diagnosisDate, ARCHIVED_SORTS, DiagnosisResponse::id))
+                    .orElseThrow(() -> new ResourceNotFoundException(ExceptionMessages.PATIENT_NOT_FOUND));
         }
+        return PageResponse.of(diagnosisRepository.findResponsesByPatientId(
+                patientId, query.statuses(), query.from(), query.to(), query.pageable()));
+    }
 
-        Diagnosis diagnosis = diagnosisRepository.findById(diagnosisId)
-                .orElseThrow(() -> new ResourceNotFoundException(ExceptionMessages.DIAGNOSIS_NOT_FOUND));
-
-        if (!diagnosis.getPatient().getId().equals(patientId)) {
-            throw new ResourceNotFoundException(ExceptionMessages.DIAGNOSIS_NOT_FOUND_FOR_PATIENT);
-        }
+    @CacheEvict(cacheNames = CacheNames.PATIENTS, key = "#patientId")
+    @Transactional
+    public DiagnosisResponse updateDiagnosis(UUID patientId, UUID diagnosisId, CreateDiagnosisRequest request) {
+        Diagnosis diagnosis = diagnosisRepository.findByIdAndPatientId(diagnosisId, patientId)
+                .orElseThrow(() -> diagnosisNotFound(patientId, diagnosisId));
 
         diagnosis.setIcdCode(request.icdCode());
         diagnosis.setDescription(request.description());
         diagnosis.setDiagnosisDate(request.diagnosisDate());
         diagnosis.setStatus(request.status());
 
-        Diagnosis saved = diagnosisRepository.save(diagnosis);
-        return toDiagnosisResponse(saved);
+        DiagnosisResponse response = toDiagnosisResponse(diagnosisRepository.saveAndFlush(diagnosis));
+        eventPublisher.publishEvent(new DiagnosisEvent(DomainEventType.DIAGNOSIS_UPDATED, response));
+        return response;
+    }
+
+    private ResourceNotFoundException diagnosisNotFound(UUID patientId, UUID diagnosisId) {
+        if (!patientRepository.existsById(patientId)) {
+            return new ResourceNotFoundException(ExceptionMessages.PATIENT_NOT_FOUND);
+        }
+        if (!diagnosisRepository.existsById(diagnosisId)) {
+            return new ResourceNotFoundException(ExceptionMessages.DIAGNOSIS_NOT_FOUND);
+        }
+        return new ResourceNotFoundException(ExceptionMessages.DIAGNOSIS_NOT_FOUND_FOR_PATIENT);
     }
 
     private DiagnosisResponse toDiagnosisResponse(Diagnosis diagnosis) {
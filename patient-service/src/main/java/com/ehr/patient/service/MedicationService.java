@@ -1,36 +1,61 @@
 package com.ehr.patient.service;
 
+import com.ehr.patient.archive.PatientArchive;
+import com.ehr.patient.constant.CacheNames;
 import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.constant.SortFields;
 import com.ehr.patient.dto.CreateMedicationRequest;
 import com.ehr.patient.dto.MedicationResponse;
+import com.ehr.patient.dto.PageResponse;
+import com.ehr.patient.dto.PatientResponse;
 import com.ehr.patient.dto.UpdateMedicationRequest;
+import com.ehr.patient.etag.CollectionVersion;
+import com.ehr.patient.event.MedicationEvent;
 import com.ehr.patient.exception.ResourceNotFoundException;
 import com.ehr.patient.model.Medication;
-import com.ehr.patient.model.Patient;
+import com.ehr.patient.model.enums.DomainEventType;
+import com.ehr.patient.model.enums.MedicationStatus;
+import com.ehr.patient.pagination.ChildListQuery;
 import com.ehr.patient.repository.MedicationRepository;
 import com.ehr.patient.repository.PatientRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class MedicationService {
 
+    // Orders an archived chart's medications the way the list query orders live ones.
+    private static final Map<String, Comparator<MedicationResponse>> ARCHIVED_SORTS = Map.of(
+            SortFields.START_DATE, Comparator.comparing(MedicationResponse::startDate),
+            SortFields.UPDATED_AT, Comparator.comparing(MedicationResponse::updatedAt));
+
     private final MedicationRepository medicationRepository;
     private final PatientRepository patientRepository;
+    private final PatientArchive patientArchive;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public MedicationService(MedicationRepository medicationRepository, PatientRepository patientRepository) {
+    public MedicationService(MedicationRepository medicationRepository, PatientRepository patientRepository,
+                             PatientArchive patientArchive, ApplicationEventPublisher eventPublisher) {
         this.medicationRepository = medicationRepository;
         this.patientRepository = patientRepository;
+        this.patientArchive = patientArchive;
+        this.eventPublisher = eventPublisher;
     }
 
+    @CacheEvict(cacheNames = CacheNames.PATIENTS, key = "#patientId")
+    @Transactional
     public MedicationResponse addMedication(UUID patientId, CreateMedicationRequest request) {
-        Patient patient = patientRepository.findById(patientId)
-                .orElseThrow(() -> new ResourceNotFoundException(ExceptionMessages.PATIENT_NOT_FOUND));
-
         Medication medication = Medication.builder()
-                .patient(patient)
+                .patient(patientRepository.getReferenceById(patientId))
                 .name(request.name())
                 .dosage(request.dosage())
                 .frequency(request.frequency())
@@ -42,30 +67,42 @@ public class MedicationService {
                 .washoutNotes(request.washoutNotes())
                 .build();
 
-        Medication saved = medicationRepository.save(medication);
-        return toMedicationResponse(saved);
-    }
-
-    public List<MedicationResponse> getMedications(UUID patientId) {
-        if (!patientRepository.existsById(patientId)) {
+        MedicationResponse response;
+        try {
+            response = toMedicationResponse(medicationRepository.saveAndFlush(medication));
+        } catch (DataIntegrityViolationException e) {
+            // The patient foreign key is the only constraint a validated medication can violate.
             throw new ResourceNotFoundException(ExceptionMessages.PATIENT_NOT_FOUND);
         }
-        return medicationRepository.findByPatientId(patientId).stream()
-                .map(this::toMedicationResponse)
-                .toList();
+        eventPublisher.publishEvent(new MedicationEvent(DomainEventType.MEDICATION_ADDED, response));
+        return response;
     }
 
-    public MedicationResponse updateMedication(UUID patientId, UUID medicationId, UpdateMedicationRequest request) {
+    public String getMedicationsETag(UUID patientId, ChildListQuery<MedicationStatus> query) {
+        return medicationRepository.findVersionByPatientId(patientId)
+                .or(() -> patientArchive.find(patientId).map(patient ->
+                        CollectionVersion.of(patient.id(), patient.medications(), MedicationResponse::updatedAt)))
+                .map(version -> version.eTag(query))
+                .orElseThrow(() -> new ResourceNotFoundException(ExceptionMessages.PATIENT_NOT_FOUND));
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<MedicationResponse> getMedications(UUID patientId, ChildListQuery<MedicationStatus> query) {
         if (!patientRepository.existsById(patientId)) {
-            throw new ResourceNotFoundException(ExceptionMessages.PATIENT_NOT_FOUND);
+            return archivedMedications(patientId)
+                    .map(medications -> query.page(medications, MedicationResponse::status,
+                            MedicationResponse::startDate, ARCHIVED_SORTS, MedicationResponse::id))
+                    .orElseThrow(() -> new ResourceNotFoundException(ExceptionMessages.PATIENT_NOT_FOUND));
         }
+        return PageResponse.of(medicationRepository.findResponsesByPatientId(
+                patientId, query.statuses(), query.from(), query.to(), query.pageable()));
+    }
 
-        Medication medication = medicationRepository.findById(medicationId)
-                .orElseThrow(() -> new ResourceNotFoundException(ExceptionMessages.MEDICATION_NOT_FOUND));
-
-        if (!medication.getPatient().getId().equals(patientId)) {
-            throw new ResourceNotFoundException(ExceptionMessages.MEDICATION_NOT_FOUND_FOR_PATIENT);
-        }
+    @CacheEvict(cacheNames = CacheNames.PATIENTS, key = "#patientId")
+    @Transactional
+    public MedicationResponse updateMedication(UUID patientId, UUID medicationId, UpdateMedicationRequest request) {
+        Medication medication = medicationRepository.findByIdAndPatientId(medicationId, patientId)
+                .orElseThrow(() -> medicationNotFound(patientId, medicationId));
 
         medication.setName(request.name());
         medication.setDosage(request.dosage());
@@ -77,17 +114,33 @@ public class MedicationService {
         medication.setWashoutDays(request.washoutDays());
         medication.setWashoutNotes(request.washoutNotes());
 
-        Medication saved = medicationRepository.save(medication);
-        return toMedicationResponse(saved);
+        MedicationResponse response = toMedicationResponse(medicationRepository.saveAndFlush(medication));
+        eventPublisher.publishEvent(new MedicationEvent(DomainEventType.MEDICATION_UPDATED, response));
+        return response;
     }
 
+    @Transactional(readOnly = true)
     public List<MedicationResponse> getContraindications(UUID patientId) {
         if (!patientRepository.existsById(patientId)) {
-            throw new ResourceNotFoundException(ExceptionMessages.PATIENT_NOT_FOUND);
+            return archivedMedications(patientId)
+                    .map(medications -> medications.stream().filter(MedicationResponse::contraindicated).toList())
+                    .orElseThrow(() -> new ResourceNotFoundException(ExceptionMessages.PATIENT_NOT_FOUND));
+        }
+        return medicationRepository.findContraindicationResponsesByPatientId(patientId);
+    }
+
+    private Optional<List<MedicationResponse>> archivedMedications(UUID patientId) {
+        return patientArchive.find(patientId).map(PatientResponse::medications);
+    }
+
+    private ResourceNotFoundException medicationNotFound(UUID patientId, UUID medicationId) {
+        if (!patientRepository.existsById(patientId)) {
+            return new ResourceNotFoundException(ExceptionMessages.PATIENT_NOT_FOUND);
+        }
+        if (!medicationRepository.existsById(medicationId)) {
+            return new ResourceNotFoundException(ExceptionMessages.MEDICATION_NOT_FOUND);
         }
-        return medicationRepository.findByPatientIdAndContraindicatedTrue(patientId).stream()
-                .map(this::toMedicationResponse)
-                .toList();
+        return new ResourceNotFoundException(ExceptionMessages.MEDICATION_NOT_FOUND_FOR_PATIENT);
     }
 
     private MedicationResponse toMedicationResponse(Medication medication) {
@@ -0,0 +1,263 @@
+package com.ehr.patient.service;
+
+import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.dto.ImportPatientRequest;
+import com.ehr.patient.dto.PatientImportResponse;
+import com.ehr.patient.dto.PatientImportResult;
+import com.ehr.patient.dto.PatientResponse;
+import com.ehr.patient.dto.PatientSummaryResponse;
+import com.ehr.patient.event.DiagnosisEvent;
+import com.ehr.patient.event.MedicationEvent;
+import com.ehr.patient.event.PatientDomainEvent;
+import com.ehr.patient.event.PatientEvent;
+import com.ehr.patient.model.enums.DomainEventType;
+import com.ehr.patient.model.id.UuidV7;
+import com.ehr.patient.outbox.OutboxWriter;
+import com.ehr.patient.repository.PatientBatchRepository;
+import com.ehr.patient.repository.PatientImportRow;
+import com.ehr.patient.repository.PatientRepository;
+import com.ehr.patient.sharding.ScatterGather;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Service
+public class PatientImportService {
+
+    private static final String CHUNK_SIZE_PROPERTY = "${patient.import.chunk-size}";
+    private static final int MAX_INSERT_ATTEMPTS = 2;
+
+    private final PatientRepository patientRepository;
+    private final PatientBatchRepository patientBatchRepository;
+    private final OutboxWriter outboxWriter;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ScatterGather scatterGather;
+    private final ObjectReader recordReader;
+    private final int chunkSize;
+
+    public PatientImportService(PatientRepository patientRepository,
+                                PatientBatchRepository patientBatchRepository,
+                                OutboxWriter outboxWriter,
+                                Validator validator,
+                                TransactionTemplate transactionTemplate,
+                                ScatterGather scatterGather,
+                                ObjectMapper objectMapper,
+                                @Value(CHUNK_SIZE_PROPERTY) int chunkSize) {
+        this.patientRepository = patientRepository;
+        this.patientBatchRepository = patientBatchRepository;
+        this.outboxWriter = outboxWriter;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.scatterGather = scatterGather;
+        this.recordReader = objectMapper.readerFor(ImportPatientRequest.class);
+        this.chunkSize = chunkSize;
+    }
+
+    public PatientImportResponse importPatients(List<ImportPatientRequest> records) {
+        List<PatientImportResult> results = new ArrayList<>(records.size());
+        List<Candidate> chunk = new ArrayList<>(chunkSize);
+        for (int i = 0; i < records.size(); i++) {
+            chunk.add(new Candidate(i, records.get(i), null));
+            if (chunk.size() == chunkSize) {
+                results.addAll(importChunk(chunk));
+                chunk.clear();
+            }
+        }
+        results.addAll(importChunk(chunk));
+        return toResponse(results);
+    }
+
+    public PatientImportResponse importPatients(InputStream ndjson) throws IOException {
+        List<PatientImportResult> results = new ArrayList<>();
+        List<Candidate> chunk = new ArrayList<>(chunkSize);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+            int index = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                chunk.add(parse(index++, line));
+                if (chunk.size() == chunkSize) {
+                    results.addAll(importChunk(chunk));
+                    chunk.clear();
+                }
+            }
+        }
+        results.addAll(importChunk(chunk));
+        return toResponse(results);
+    }
+
+    private Candidate parse(int index, String line) {
+        try {
+            return new Candidate(index, recordReader.readValue(line), null);
+        } catch (JacksonException e) {
+            return new Candidate(index, null, ExceptionMessages.MALFORMED_IMPORT_RECORD);
+        }
+    }
+
+    private List<PatientImportResult> importChunk(List<Candidate> chunk) {
+        if (chunk.isEmpty()) {
+            return List.of();
+        }
+        String[] errors = new String[chunk.size()];
+        IntStream.range(0, chunk.size()).parallel().forEach(i -> errors[i] = validate(chunk.get(i)));
+
+        UUID[] ids = new UUID[chunk.size()];
+        // Each shard commits its share of the chunk separately; rows already committed are not retried.
+        boolean[] inserted = new boolean[chunk.size()];
+        for (int attempt = 1; attempt <= MAX_INSERT_ATTEMPTS; attempt++) {
+            rejectDuplicateEmails(chunk, errors, inserted);
+            List<PatientImportRow> rows = new ArrayList<>();
+            Map<UUID, Integer> positions = new HashMap<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                if (errors[i] == null && !inserted[i]) {
+                    ids[i] = UuidV7.randomUuid();
+                    rows.add(new PatientImportRow(ids[i], chunk.get(i).request()));
+                    positions.put(ids[i], i);
+                }
+            }
+            try {
+                insert(rows, positions, inserted);
+                break;
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent writer may have claimed one of the emails after our check; re-check and retry once,
+                // then narrow a second failure down to the rows the database keeps rejecting.
+                if (attempt == MAX_INSERT_ATTEMPTS) {
+                    isolateRejected(rows, positions, inserted, errors);
+                }
+            }
+        }
+
+        List<PatientImportResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            int index = chunk.get(i).index();
+            results.add(errors[i] == null
+                    ? PatientImportResult.created(index, ids[i])
+                    : PatientImportResult.failed(index, errors[i]));
+        }
+        return results;
+    }
+
+    private void insert(List<PatientImportRow> rows, Map<UUID, Integer> positions, boolean[] inserted) {
+        scatterGather.writeByShard(rows, PatientImportRow::id, shardRows -> {
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxWriter.appendAll(createdEvents(patientBatchRepository.insertAll(shardRows))));
+            shardRows.forEach(row -> inserted[positions.get(row.id())] = true);
+        });
+    }
+
+    // The events the single-record endpoints would have appended for the same charts.
+    private static List<PatientDomainEvent> createdEvents(List<PatientResponse> charts) {
+        List<PatientDomainEvent> events = new ArrayList<>();
+        for (PatientResponse chart : charts) {
+            events.add(new PatientEvent(DomainEventType.PATIENT_CREATED, PatientSummaryResponse.of(chart)));
+            chart.diagnoses().forEach(diagnosis -> events.add(new DiagnosisEvent(DomainEventType.DIAGNOSIS_ADDED,
+                    diagnosis)));
+            chart.medications().forEach(medication -> events.add(new MedicationEvent(
+                    DomainEventType.MEDICATION_ADDED, medication)));
+        }
+        return events;
+    }
+
+    /**
+     * Inserts the halves of a rejected set of rows separately, splitting again whichever half is rejected,
+     * so a single bad record fails on its own instead of taking the rest of the chunk with it.
+     */
+    private void isolateRejected(List<PatientImportRow> rejected, Map<UUID, Integer> positions,
+                                 boolean[] inserted, String[] errors) {
+        List<PatientImportRow> pending = rejected.stream()
+                .filter(row -> !inserted[positions.get(row.id())])
+                .toList();
+        if (pending.isEmpty()) {
+            return;
+        }
+        if (pending.size() == 1) {
+            errors[positions.get(pending.get(0).id())] = rejectionOf(pending.get(0));
+            return;
+        }
+        int middle = pending.size() / 2;
+        for (List<PatientImportRow> half : List.of(pending.subList(0, middle), pending.subList(middle, pending.size()))) {
+            try {
+                insert(half, positions, inserted);
+            } catch (DataIntegrityViolationException e) {
+                isolateRejected(half, positions, inserted, errors);
+            }
+        }
+    }
+
+    private String rejectionOf(PatientImportRow row) {
+        Set<String> email = Set.of(row.request().patient().email());
+        return scatterGather.readAll(() -> patientRepository.findExistingEmails(email)).isEmpty()
+                ? ExceptionMessages.IMPORT_RECORD_REJECTED
+                : ExceptionMessages.PATIENT_EMAIL_EXISTS;
+    }
+
+    private String validate(Candidate candidate) {
+        if (candidate.parseError() != null) {
+            return candidate.parseError();
+        }
+        Set<ConstraintViolation<ImportPatientRequest>> violations = validator.validate(candidate.request());
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void rejectDuplicateEmails(List<Candidate> chunk, String[] errors, boolean[] inserted) {
+        Set<String> emails = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (errors[i] == null && !inserted[i] && !emails.add(chunk.get(i).email())) {
+                errors[i] = ExceptionMessages.PATIENT_EMAIL_DUPLICATED_IN_BATCH;
+            }
+        }
+        if (emails.isEmpty()) {
+            return;
+        }
+        Set<String> existing = new HashSet<>(scatterGather.readAll(() -> patientRepository.findExistingEmails(emails)));
+        for (int i = 0; i < chunk.size(); i++) {
+            if (errors[i] == null && !inserted[i] && existing.contains(chunk.get(i).email())) {
+                errors[i] = ExceptionMessages.PATIENT_EMAIL_EXISTS;
+            }
+        }
+    }
+
+    private PatientImportResponse toResponse(List<PatientImportResult> results) {
+        int created = (int) results.stream()
+                .filter(result -> result.outcome() == PatientImportResult.Outcome.CREATED)
+                .count();
+        return new PatientImportResponse(created, results.size() - created, results);
+    }
+
+    private record Candidate(int index, ImportPatientRequest request, String parseError) {
+
+        String email() {
+            return request.patient().email();
+        }
+    }
+}
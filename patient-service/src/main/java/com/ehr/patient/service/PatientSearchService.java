@@ -0,0 +1,50 @@
+package com.ehr.patient.service;
+
+import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.dto.PageResponse;
+import com.ehr.patient.dto.PatientSummaryResponse;
+import com.ehr.patient.exception.SearchTimeoutException;
+import com.ehr.patient.pagination.PatientSearchQuery;
+import com.ehr.patient.repository.PatientSearchRepository;
+import com.ehr.patient.sharding.ScatterGather;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Searches patients by name, email, phone and date of birth. Archived patients are not searched. A search
+ * that runs past the statement timeout is cancelled by the database and reported as unavailable rather
+ * than left to hold a connection.
+ */
+@Service
+public class PatientSearchService {
+
+    public static final String TIMEOUTS_METRIC = "patient.search.timeouts";
+
+    private final PatientSearchRepository searchRepository;
+    private final ScatterGather scatterGather;
+    private final Counter timeouts;
+
+    public PatientSearchService(PatientSearchRepository searchRepository, ScatterGather scatterGather,
+                                MeterRegistry meterRegistry) {
+        this.searchRepository = searchRepository;
+        this.scatterGather = scatterGather;
+        this.timeouts = meterRegistry.counter(TIMEOUTS_METRIC);
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<PatientSummaryResponse> search(PatientSearchQuery query) {
+        try {
+            List<PatientSummaryResponse> results = scatterGather.readMerged(
+                    () -> searchRepository.search(query), query.order(), query.fetchLimit());
+            return query.page(results);
+        } catch (QueryTimeoutException e) {
+            timeouts.increment();
+            throw new SearchTimeoutException(ExceptionMessages.SEARCH_TIMED_OUT, e);
+        }
+    }
+}
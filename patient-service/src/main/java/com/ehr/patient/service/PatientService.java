@@ -1,34 +1,76 @@
 package com.ehr.patient.service;
 
+import com.ehr.patient.archive.PatientArchive;
+import com.ehr.patient.constant.CacheNames;
 import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.constant.PageLimits;
+import com.ehr.patient.datasource.PrimaryReads;
 import com.ehr.patient.dto.*;
+import com.ehr.patient.etag.PatientChartVersion;
+import com.ehr.patient.event.PatientEvent;
 import com.ehr.patient.exception.DuplicateResourceException;
 import com.ehr.patient.exception.ResourceNotFoundException;
 import com.ehr.patient.model.Diagnosis;
 import com.ehr.patient.model.Medication;
 import com.ehr.patient.model.Patient;
+import com.ehr.patient.model.enums.DomainEventType;
 import com.ehr.patient.model.enums.PatientStatus;
+import com.ehr.patient.model.id.UuidV7;
+import com.ehr.patient.pagination.PatientCursor;
 import com.ehr.patient.repository.PatientRepository;
+import com.ehr.patient.sharding.KWayMerge;
+import com.ehr.patient.sharding.ScatterGather;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class PatientService {
 
+    private static final Comparator<PatientResponse> ROSTER_ORDER = Comparator
+            .comparing(PatientResponse::lastName)
+            .thenComparing(PatientResponse::id, KWayMerge.UUID_ORDER);
+    private static final Comparator<PatientSummaryResponse> SUMMARY_ROSTER_ORDER = Comparator
+            .comparing(PatientSummaryResponse::lastName)
+            .thenComparing(PatientSummaryResponse::id, KWayMerge.UUID_ORDER);
+
     private final PatientRepository patientRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ScatterGather scatterGather;
+    private final PatientArchive patientArchive;
+    private final EntityManager entityManager;
 
-    public PatientService(PatientRepository patientRepository) {
+    public PatientService(PatientRepository patientRepository, ApplicationEventPublisher eventPublisher,
+                          ScatterGather scatterGather, PatientArchive patientArchive, EntityManager entityManager) {
         this.patientRepository = patientRepository;
+        this.eventPublisher = eventPublisher;
+        this.scatterGather = scatterGather;
+        this.patientArchive = patientArchive;
+        this.entityManager = entityManager;
     }
 
+    @Transactional
     public PatientResponse createPatient(CreatePatientRequest request) {
-        if (request.email() != null && patientRepository.findByEmail(request.email()).isPresent()) {
-            throw new DuplicateResourceException(ExceptionMessages.PATIENT_EMAIL_EXISTS);
-        }
-
+        // The id is drawn up front so the email check and the INSERT both know the patient's shard.
         Patient patient = Patient.builder()
+                .id(UuidV7.randomUuid())
                 .firstName(request.firstName())
                 .lastName(request.lastName())
                 .dateOfBirth(request.dateOfBirth())
@@ -44,48 +86,223 @@ public class PatientService {
                 .status(PatientStatus.ACTIVE)
                 .build();
 
-        Patient saved = patientRepository.save(patient);
-        return toPatientResponse(saved);
+        rejectEmailOnOtherShards(patient.getId(), patient.getEmail());
+        return scatterGather.onShardOf(patient.getId(), () -> {
+            PatientResponse response = toPatientResponse(rejectingDuplicateEmail(() -> {
+                // Persisting with the assigned id takes no statement; flushing through the repository
+                // translates a constraint violation like any other repository call.
+                entityManager.persist(patient);
+                patientRepository.flush();
+                return patient;
+            }));
+            publish(DomainEventType.PATIENT_CREATED, response);
+            return response;
+        });
     }
 
+    @Cacheable(cacheNames = CacheNames.PATIENTS, key = "#id", sync = true)
+    @Transactional(readOnly = true)
     public PatientResponse getPatient(UUID id) {
-        Patient patient = patientRepository.findByIdWithDiagnosesAndMedications(id)
+        // Only runs on a cache miss, and what it returns is cached, so it reads from the primary.
+        return PrimaryReads.call(() -> patientRepository.findById(id)
+                .map(this::toPatientResponse)
+                .or(() -> patientArchive.find(id))
+                .orElseThrow(() -> new ResourceNotFoundException(ExceptionMessages.PATIENT_NOT_FOUND)));
+    }
+
+    public String getPatientETag(UUID id) {
+        return patientRepository.findChartVersion(id)
+                .or(() -> patientArchive.find(id).map(PatientChartVersion::of))
+                .map(PatientChartVersion::eTag)
                 .orElseThrow(() -> new ResourceNotFoundException(ExceptionMessages.PATIENT_NOT_FOUND));
-        return toPatientResponse(patient);
     }
 
-    public List<PatientResponse> getAllPatients() {
-        return patientRepository.findAllWithDiagnosesAndMedications().stream()
-                .map(this::toPatientResponse)
-                .toList();
+    @Transactional(readOnly = true)
+    public CursorPageResponse<PatientResponse> getPatients(String cursor, int size) {
+        int pageSize = pageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+        PatientCursor after = cursor == null || cursor.isBlank() ? null : PatientCursor.decode(cursor);
+
+        List<PatientResponse> page = scatterGather.readMerged(() -> {
+            List<Patient> patients = after == null
+                    ? patientRepository.findRosterPage(limit)
+                    : patientRepository.findRosterPageAfter(after.lastName(), after.id(), limit);
+            return patients.stream().map(this::toPatientResponse).toList();
+        }, ROSTER_ORDER, pageSize + 1);
+
+        return toCursorPage(page, pageSize, patient -> new PatientCursor(patient.lastName(), patient.id()));
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageResponse<PatientSummaryResponse> getPatientSummaries(String cursor, int size) {
+        int pageSize = pageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+        PatientCursor after = cursor == null || cursor.isBlank() ? null : PatientCursor.decode(cursor);
+
+        List<PatientSummaryResponse> page = scatterGather.readMerged(() -> after == null
+                ? patientRepository.findSummaryPage(limit)
+                : patientRepository.findSummaryPageAfter(after.lastName(), after.id(), limit),
+                SUMMARY_ROSTER_ORDER, pageSize + 1);
+
+        return toCursorPage(page, pageSize, summary -> new PatientCursor(summary.lastName(), summary.id()));
+    }
+
+    @Transactional(readOnly = true)
+    public PatientLookupResponse<PatientSummaryResponse> lookupPatientSummaries(List<UUID> ids) {
+        List<UUID> distinctIds = ids.stream().distinct().toList();
+        return inRequestOrder(distinctIds,
+                scatterGather.readByShard(distinctIds, shardIds -> withArchived(shardIds,
+                        patientRepository.findSummariesByIdIn(shardIds), PatientSummaryResponse::id,
+                        PatientSummaryResponse::of)),
+                PatientSummaryResponse::id);
+    }
+
+    @Transactional(readOnly = true)
+    public PatientLookupResponse<PatientResponse> lookupPatients(List<UUID> ids) {
+        List<UUID> distinctIds = ids.stream().distinct().toList();
+        List<PatientResponse> patients = scatterGather.readByShard(distinctIds, shardIds -> withArchived(shardIds,
+                patientRepository.findAllById(shardIds).stream()
+                        .map(this::toPatientResponse)
+                        .toList(),
+                PatientResponse::id, Function.identity()));
+        return inRequestOrder(distinctIds, patients, PatientResponse::id);
+    }
+
+    @CacheEvict(cacheNames = CacheNames.PATIENTS, key = "#id")
+    @Transactional
     public PatientResponse updatePatient(UUID id, UpdatePatientRequest request) {
-        Patient patient = patientRepository.findById(id)
+        return scatterGather.onShardOf(id, () -> {
+            // The response carries the whole chart, so it is read along with the patient instead of after.
+            Patient patient = patientRepository.findChartById(id).orElse(null);
+            String previousEmail;
+            if (patient == null) {
+                previousEmail = restoreArchived(id, request.email()).email();
+                patient = patientRepository.findChartById(id).orElseThrow();
+            } else {
+                previousEmail = patient.getEmail();
+            }
+            if (!Objects.equals(previousEmail, request.email())) {
+                rejectEmailOnOtherShards(id, request.email());
+            }
+
+            patient.setFirstName(request.firstName());
+            patient.setLastName(request.lastName());
+            patient.setDateOfBirth(request.dateOfBirth());
+            patient.setGender(request.gender());
+            patient.setEmail(request.email());
+            patient.setPhone(request.phone());
+            patient.setAddress(request.address());
+            patient.setCity(request.city());
+            patient.setState(request.state());
+            patient.setZipCode(request.zipCode());
+            patient.setEmergencyContactName(request.emergencyContactName());
+            patient.setEmergencyContactPhone(request.emergencyContactPhone());
+            patient.setStatus(request.status());
+
+            PatientResponse response = toPatientResponse(saveAndFlush(patient));
+            publish(DomainEventType.PATIENT_UPDATED, response);
+            return response;
+        });
+    }
+
+    /**
+     * Moves the chart of up to {@code size} archivable patients last changed before {@code cutoff} into
+     * the archive.
+     *
+     * @return the number of patients archived
+     */
+    @Transactional
+    public int archiveBatch(LocalDateTime cutoff, int size) {
+        List<Patient> patients = patientRepository.findArchiveBatch(cutoff, Limit.of(size));
+        patientArchive.store(patients.stream().map(this::toPatientResponse).toList());
+        patientRepository.deleteAll(patients);
+        return patients.size();
+    }
+
+    /**
+     * Any update brings an archived chart back into the hot tables first, so a patient returning to ACTIVE
+     * is served from them again. One left INACTIVE or DECEASED is archived again after the retention period.
+     * The chart is restored under the requested email, which may have been taken since it was archived.
+     *
+     * @return the chart as it was archived
+     */
+    private PatientResponse restoreArchived(UUID id, String email) {
+        return rejectingDuplicateEmail(() -> patientArchive.restore(id, email))
                 .orElseThrow(() -> new ResourceNotFoundException(ExceptionMessages.PATIENT_NOT_FOUND));
+    }
 
-        if (request.email() != null && !request.email().equals(patient.getEmail())) {
-            if (patientRepository.findByEmail(request.email()).isPresent()) {
-                throw new DuplicateResourceException(ExceptionMessages.PATIENT_EMAIL_EXISTS);
-            }
+    private Patient saveAndFlush(Patient patient) {
+        return rejectingDuplicateEmail(() -> patientRepository.saveAndFlush(patient));
+    }
+
+    /**
+     * uk_patients_email only sees the rows of its own shard, so the others are asked first. A patient
+     * created concurrently on another shard can still slip past this check.
+     */
+    private void rejectEmailOnOtherShards(UUID patientId, String email) {
+        if (email == null) {
+            return;
         }
+        List<String> taken = scatterGather.readOtherShards(patientId,
+                () -> patientRepository.findExistingEmails(Set.of(email)));
+        if (!taken.isEmpty()) {
+            throw new DuplicateResourceException(ExceptionMessages.PATIENT_EMAIL_EXISTS);
+        }
+    }
+
+    private <T> T rejectingDuplicateEmail(Supplier<T> write) {
+        try {
+            return write.get();
+        } catch (DataIntegrityViolationException e) {
+            // Within a shard, uk_patients_email is the only constraint a validated patient can violate.
+            throw new DuplicateResourceException(ExceptionMessages.PATIENT_EMAIL_EXISTS);
+        }
+    }
 
-        patient.setFirstName(request.firstName());
-        patient.setLastName(request.lastName());
-        patient.setDateOfBirth(request.dateOfBirth());
-        patient.setGender(request.gender());
-        patient.setEmail(request.email());
-        patient.setPhone(request.phone());
-        patient.setAddress(request.address());
-        patient.setCity(request.city());
-        patient.setState(request.state());
-        patient.setZipCode(request.zipCode());
-        patient.setEmergencyContactName(request.emergencyContactName());
-        patient.setEmergencyContactPhone(request.emergencyContactPhone());
-        patient.setStatus(request.status());
-
-        Patient saved = patientRepository.save(patient);
-        return toPatientResponse(saved);
+    private void publish(DomainEventType type, PatientResponse patient) {
+        eventPublisher.publishEvent(new PatientEvent(type, PatientSummaryResponse.of(patient)));
+    }
+
+    private int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, PageLimits.MAX_PAGE_SIZE));
+    }
+
+    private <T> CursorPageResponse<T> toCursorPage(List<T> page, int pageSize, Function<T, PatientCursor> cursorOf) {
+        if (page.size() <= pageSize) {
+            return new CursorPageResponse<>(page, null);
+        }
+        List<T> items = page.subList(0, pageSize);
+        return new CursorPageResponse<>(items, cursorOf.apply(items.get(pageSize - 1)).encode());
+    }
+
+    /**
+     * Adds the archived charts among {@code ids} that {@code found} is missing.
+     */
+    private <T> List<T> withArchived(List<UUID> ids, List<T> found, Function<T, UUID> idOf,
+                                     Function<PatientResponse, T> fromArchive) {
+        if (found.size() == ids.size()) {
+            return found;
+        }
+        Set<UUID> foundIds = found.stream().map(idOf).collect(Collectors.toSet());
+        List<UUID> missingIds = ids.stream().filter(id -> !foundIds.contains(id)).toList();
+        List<T> patients = new ArrayList<>(found);
+        patientArchive.findAll(missingIds).stream().map(fromArchive).forEach(patients::add);
+        return patients;
+    }
+
+    private <T> PatientLookupResponse<T> inRequestOrder(List<UUID> ids, List<T> found, Function<T, UUID> idOf) {
+        Map<UUID, T> byId = found.stream().collect(Collectors.toMap(idOf, Function.identity()));
+        List<T> patients = new ArrayList<>(found.size());
+        List<UUID> missingIds = new ArrayList<>();
+        for (UUID id : ids) {
+            T patient = byId.get(id);
+            if (patient == null) {
+                missingIds.add(id);
+            } else {
+                patients.add(patient);
+            }
+        }
+        return new PatientLookupResponse<>(patients, missingIds);
     }
 
     private PatientResponse toPatientResponse(Patient patient) {
@@ -0,0 +1,54 @@
+package com.ehr.patient.sharding;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Merges runs that are each already sorted, such as one keyset page per shard, into the first
+ * {@code limit} items of their combined order.
+ */
+public final class KWayMerge {
+
+    /**
+     * Postgres compares uuid values as unsigned bytes; {@link UUID#compareTo} compares signed longs.
+     */
+    public static final Comparator<UUID> UUID_ORDER = (left, right) -> {
+        int high = Long.compareUnsigned(left.getMostSignificantBits(), right.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(left.getLeastSignificantBits(), right.getLeastSignificantBits());
+    };
+
+    private KWayMerge() {}
+
+    public static <T> List<T> merge(List<List<T>> runs, Comparator<? super T> order, int limit) {
+        if (runs.size() == 1) {
+            List<T> run = runs.get(0);
+            return run.size() > limit ? run.subList(0, limit) : run;
+        }
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>(Math.max(1, runs.size()),
+                (left, right) -> order.compare(left.item(), right.item()));
+        for (List<T> run : runs) {
+            if (!run.isEmpty()) {
+                heads.add(new Head<>(run, 0));
+            }
+        }
+        List<T> merged = new ArrayList<>();
+        while (merged.size() < limit && !heads.isEmpty()) {
+            Head<T> head = heads.poll();
+            merged.add(head.item());
+            if (head.position() + 1 < head.run().size()) {
+                heads.add(new Head<>(head.run(), head.position() + 1));
+            }
+        }
+        return merged;
+    }
+
+    private record Head<T>(List<T> run, int position) {
+
+        T item() {
+            return run.get(position);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.ehr.patient.sharding;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Runs patient queries against the shards that hold the data. With a single shard every call runs inline
+ * in the caller's transaction; with several, cross-shard reads run in parallel, each in its own read-only
+ * transaction, and are merged in the caller's keyset order.
+ */
+@Component
+public class ScatterGather implements DisposableBean {
+
+    private final ShardTopology topology;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService executor;
+
+    public ScatterGather(ShardTopology topology, PlatformTransactionManager transactionManager) {
+        this.topology = topology;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.executor = topology.isSharded() ? Executors.newFixedThreadPool(topology.shardCount(), shardThreads())
+                : null;
+    }
+
+    public <T> T onShardOf(UUID patientId, Supplier<T> action) {
+        if (!topology.isSharded()) {
+            return action.get();
+        }
+        return ShardContext.callOn(topology.shardOf(patientId), action);
+    }
+
+    /**
+     * The first {@code limit} rows in {@code order} across all shards, given a query that returns each
+     * shard's rows in that same order.
+     */
+    public <T> List<T> readMerged(Supplier<List<T>> query, Comparator<? super T> order, int limit) {
+        if (!topology.isSharded()) {
+            return KWayMerge.merge(List.of(query.get()), order, limit);
+        }
+        return KWayMerge.merge(readEach(allShards(), shard -> query.get()), order, limit);
+    }
+
+    public <T> List<T> readAll(Supplier<? extends Collection<T>> query) {
+        if (!topology.isSharded()) {
+            return List.copyOf(query.get());
+        }
+        List<List<T>> results = readEach(allShards(), shard -> List.copyOf(query.get()));
+        return results.stream().flatMap(List::stream).toList();
+    }
+
+    /**
+     * Runs the query on every shard except the one that holds {@code patientId}, for checks such as email
+     * uniqueness that the owning shard's constraints already enforce. With a single shard there is nothing
+     * to run.
+     */
+    public <T> List<T> readOtherShards(UUID patientId, Supplier<? extends Collection<T>> query) {
+        if (!topology.isSharded()) {
+            return List.of();
+        }
+        List<Integer> shards = allShards();
+        shards.remove(Integer.valueOf(topology.shardOf(patientId)));
+        List<List<T>> results = readEach(shards, shard -> List.copyOf(query.get()));
+        return results.stream().flatMap(List::stream).toList();
+    }
+
+    /**
+     * Runs the query once per shard with only the ids that shard holds.
+     */
+    public <T> List<T> readByShard(Collection<UUID> patientIds, Function<List<UUID>, List<T>> query) {
+        if (!topology.isSharded()) {
+            return query.apply(List.copyOf(patientIds));
+        }
+        Map<Integer, List<UUID>> idsByShard = partition(patientIds, Function.identity());
+        List<List<T>> results = readEach(List.copyOf(idsByShard.keySet()),
+                shard -> query.apply(idsByShard.get(shard)));
+        return results.stream().flatMap(List::stream).toList();
+    }
+
+    /**
+     * Hands each shard its share of {@code items}, one shard after another, with the shard selected. The
+     * caller owns the transaction, so a failure leaves earlier shards committed.
+     */
+    public <T> void writeByShard(List<T> items, Function<T, UUID> patientIdOf, Consumer<List<T>> write) {
+        if (!topology.isSharded()) {
+            write.accept(items);
+            return;
+        }
+        partition(items, patientIdOf).forEach((shard, shardItems) ->
+                ShardContext.runOn(shard, () -> write.accept(shardItems)));
+    }
+
+    /**
+     * Runs the action on every shard in turn and sums the results, for jobs such as the outbox relay that
+     * drain per-shard tables.
+     */
+    public int sumOverShards(IntSupplier action) {
+        if (!topology.isSharded()) {
+            return action.getAsInt();
+        }
+        int total = 0;
+        for (int shard = 0; shard < topology.shardCount(); shard++) {
+            total += ShardContext.callOn(shard, action::getAsInt);
+        }
+        return total;
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private <T> List<List<T>> readEach(List<Integer> shards, Function<Integer, List<T>> query) {
+        List<CompletableFuture<List<T>>> futures = shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> ShardContext.callOn(shard,
+                        () -> readOnlyTransaction.execute(status -> query.apply(shard))), executor))
+                .toList();
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private List<Integer> allShards() {
+        List<Integer> shards = new ArrayList<>(topology.shardCount());
+        for (int shard = 0; shard < topology.shardCount(); shard++) {
+            shards.add(shard);
+        }
+        return shards;
+    }
+
+    private <T> Map<Integer, List<T>> partition(Collection<T> items, Function<T, UUID> patientIdOf) {
+        Map<Integer, List<T>> byShard = new LinkedHashMap<>();
+        for (T item : items) {
+            byShard.computeIfAbsent(topology.shardOf(patientIdOf.apply(item)), shard -> new ArrayList<>()).add(item);
+        }
+        return byShard;
+    }
+
+    private static ThreadFactory shardThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "patient-shard-query-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package com.ehr.patient.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.util.List;
+
+/**
+ * One connection pool per shard, indexed by shard number.
+ */
+public record ShardDataSources(List<HikariDataSource> pools) implements AutoCloseable {
+
+    @Override
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,143 @@
+package com.ehr.patient.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Moves every patient chart, hot or archived, that is not on the shard its id now hashes to, for example
+ * after a shard has been added to the configuration. Each chunk is copied to its target and only then deleted from its
+ * source, so an interrupted run can simply be started again. Writes to charts being moved are not fenced:
+ * run it while the service is stopped or read-only.
+ */
+public class ShardRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    // Each kind of chart is found through the ids of its first table and moved with all of its tables.
+    private static final List<List<ChartTable>> CHARTS = List.of(
+            List.of(new ChartTable("patients", "id"),
+                    new ChartTable("diagnoses", "patient_id"),
+                    new ChartTable("medications", "patient_id")),
+            List.of(new ChartTable("archived_patients", "id")));
+
+    private final List<NamedParameterJdbcTemplate> shards = new ArrayList<>();
+    private final List<TransactionTemplate> transactions = new ArrayList<>();
+    private final ShardTopology topology;
+    private final int chunkSize;
+
+    public ShardRebalancer(List<? extends DataSource> dataSources, ShardTopology topology, int chunkSize) {
+        for (DataSource dataSource : dataSources) {
+            shards.add(new NamedParameterJdbcTemplate(dataSource));
+            transactions.add(new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        }
+        this.topology = topology;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @return the number of patients moved
+     */
+    public int rebalance() {
+        int moved = 0;
+        for (int source = 0; source < shards.size(); source++) {
+            int movedFromSource = 0;
+            for (List<ChartTable> chart : CHARTS) {
+                movedFromSource += rebalance(source, chart);
+            }
+            log.info("Moved {} patients off shard {}", movedFromSource, source);
+            moved += movedFromSource;
+        }
+        return moved;
+    }
+
+    private int rebalance(int source, List<ChartTable> chart) {
+        int moved = 0;
+        UUID after = new UUID(0, 0);
+        List<UUID> ids;
+        do {
+            ids = shards.get(source).queryForList(chart.get(0).idsAfter(),
+                    new MapSqlParameterSource("after", after).addValue("limit", chunkSize), UUID.class);
+            Map<Integer, List<UUID>> misplaced = new LinkedHashMap<>();
+            for (UUID id : ids) {
+                int target = topology.shardOf(id);
+                if (target != source) {
+                    misplaced.computeIfAbsent(target, shard -> new ArrayList<>()).add(id);
+                }
+            }
+            for (Map.Entry<Integer, List<UUID>> entry : misplaced.entrySet()) {
+                move(chart, source, entry.getKey(), entry.getValue());
+                moved += entry.getValue().size();
+            }
+            if (!ids.isEmpty()) {
+                after = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == chunkSize);
+        return moved;
+    }
+
+    private void move(List<ChartTable> chart, int source, int target, List<UUID> patientIds) {
+        MapSqlParameterSource ids = new MapSqlParameterSource("ids", patientIds);
+        Map<ChartTable, List<Map<String, Object>>> rows = new LinkedHashMap<>();
+        for (ChartTable table : chart) {
+            rows.put(table, shards.get(source).queryForList(table.selectByPatient(), ids));
+        }
+        transactions.get(target).executeWithoutResult(status -> rows.forEach((table, tableRows) ->
+                insertMissing(shards.get(target), table, tableRows)));
+        transactions.get(source).executeWithoutResult(status -> {
+            for (int i = chart.size() - 1; i >= 0; i--) {
+                shards.get(source).update(chart.get(i).deleteByPatient(), ids);
+            }
+        });
+    }
+
+    // Rows already on the target were copied by an earlier, interrupted run. Anything else that collides,
+    // such as an email taken on the target, fails the chunk before the source is touched.
+    private static void insertMissing(NamedParameterJdbcTemplate target, ChartTable table,
+                                      List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Object> rowIds = rows.stream().map(row -> row.get("id")).toList();
+        Set<Object> existing = new HashSet<>(target.queryForList(
+                "SELECT id FROM " + table.name() + " WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", rowIds), Object.class));
+        List<String> columns = List.copyOf(rows.get(0).keySet());
+        String insert = "INSERT INTO " + table.name() + " (" + String.join(", ", columns) + ") VALUES ("
+                + columns.stream().map(column -> ":" + column).collect(Collectors.joining(", ")) + ")";
+        MapSqlParameterSource[] batch = rows.stream()
+                .filter(row -> !existing.contains(row.get("id")))
+                .map(MapSqlParameterSource::new)
+                .toArray(MapSqlParameterSource[]::new);
+        target.batchUpdate(insert, batch);
+    }
+
+    private record ChartTable(String name, String patientColumn) {
+
+        String idsAfter() {
+            return "SELECT " + patientColumn + " FROM " + name + " WHERE " + patientColumn
+                    + " > :after ORDER BY " + patientColumn + " LIMIT :limit";
+        }
+
+        String selectByPatient() {
+            return "SELECT * FROM " + name + " WHERE " + patientColumn + " IN (:ids)";
+        }
+
+        String deleteByPatient() {
+            return "DELETE FROM " + name + " WHERE " + patientColumn + " IN (:ids)";
+        }
+    }
+}
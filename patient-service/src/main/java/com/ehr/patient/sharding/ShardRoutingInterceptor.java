@@ -0,0 +1,53 @@
+package com.ehr.patient.sharding;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Selects the shard for requests addressed to one patient, from the {@code patientId} or {@code id} path
+ * variable. Requests without one leave the choice to the service.
+ */
+public class ShardRoutingInterceptor implements HandlerInterceptor {
+
+    private static final List<String> PATIENT_ID_VARIABLES = List.of("patientId", "id");
+
+    private final ShardTopology topology;
+
+    public ShardRoutingInterceptor(ShardTopology topology) {
+        this.topology = topology;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables == null) {
+            return true;
+        }
+        for (String name : PATIENT_ID_VARIABLES) {
+            String value = variables.get(name);
+            if (value != null) {
+                try {
+                    ShardContext.set(topology.shardOf(UUID.fromString(value)));
+                } catch (IllegalArgumentException e) {
+                    // Not a UUID; the controller rejects the request before any query runs.
+                }
+                break;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ShardContext.clear();
+    }
+}
@@ -0,0 +1,54 @@
+package com.ehr.patient.sharding;
+
+import java.util.UUID;
+
+/**
+ * Maps a patient id to one of N shards with jump consistent hashing (Lamping and Veach). Growing from N to
+ * N + 1 shards moves only the roughly 1 / (N + 1) of patients that now hash to the new shard. Diagnoses
+ * and medications are placed by their patient's id, so a chart never spans shards.
+ */
+public final class ShardTopology {
+
+    private final int shardCount;
+
+    public ShardTopology(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shardCount = shardCount;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    public int shardOf(UUID patientId) {
+        return jumpHash(mix(patientId), shardCount);
+    }
+
+    static int jumpHash(long key, int buckets) {
+        long bucket = -1;
+        long next = 0;
+        while (next < buckets) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+
+    // The high half of a v7 id is mostly timestamp; fold in the random half and finish with MurmurHash3's fmix64.
+    private static long mix(UUID id) {
+        long hash = id.getMostSignificantBits() ^ id.getLeastSignificantBits();
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,29 @@
+package com.ehr.patient.typeahead;
+
+/**
+ * Rough heap sizes for a 64-bit JVM with compressed references and compact strings.
+ */
+final class MemoryEstimates {
+
+    static final int REFERENCE = 4;
+
+    private static final int ARRAY_HEADER = 16;
+    private static final int STRING_OBJECT = 24;
+    private static final int LATIN1_MAX = 0xFF;
+
+    private MemoryEstimates() {
+    }
+
+    static long array(int length, int elementBytes) {
+        return align(ARRAY_HEADER + (long) length * elementBytes);
+    }
+
+    static long string(String value) {
+        int bytesPerChar = value.chars().allMatch(c -> c <= LATIN1_MAX) ? 1 : 2;
+        return STRING_OBJECT + array(value.length(), bytesPerChar);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
@@ -0,0 +1,159 @@
+package com.ehr.patient.typeahead;
+
+import com.ehr.patient.dto.PatientTypeaheadResponse;
+import com.ehr.patient.event.PatientEvent;
+import com.ehr.patient.repository.PatientRepository;
+import com.ehr.patient.sharding.ScatterGather;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Search-as-you-type over patient names and emails, answered from memory. The index is built from a scan
+ * of every shard before the instance reports ready, and takes this instance's own patient creates and
+ * updates once they commit. Changes made through other instances or by imports show up at the next
+ * periodic rebuild, as do archived patients leaving it. A burst of local changes that grows the index's
+ * overlay past {@code patient.typeahead.max-pending} starts a rebuild early, in the background.
+ */
+@Component
+@ConditionalOnProperty(name = "patient.typeahead.enabled", havingValue = "true")
+public class PatientTypeahead implements ApplicationRunner, DisposableBean {
+
+    public static final String ENTRIES_METRIC = "patient.typeahead.entries";
+    public static final String PENDING_METRIC = "patient.typeahead.pending";
+    public static final String MEMORY_METRIC = "patient.typeahead.memory";
+    public static final String REBUILD_METRIC = "patient.typeahead.rebuild";
+
+    private static final Logger log = LoggerFactory.getLogger(PatientTypeahead.class);
+    private static final String REBUILD_INTERVAL_PROPERTY = "${patient.typeahead.rebuild-interval-ms}";
+    private static final String MAX_PENDING_PROPERTY = "${patient.typeahead.max-pending}";
+
+    private final PatientRepository patientRepository;
+    private final ScatterGather scatterGather;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Timer rebuildTimer;
+    private final int maxPending;
+    private final ExecutorService earlyRebuilds = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "patient-typeahead-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean earlyRebuildQueued = new AtomicBoolean();
+    private final Object writeLock = new Object();
+    private volatile TypeaheadIndex index = TypeaheadIndex.EMPTY;
+    // Changes committed while a rebuild scans, replayed onto its result. Null when no rebuild runs.
+    private Map<UUID, PatientTypeaheadResponse> changedDuringRebuild;
+
+    public PatientTypeahead(PatientRepository patientRepository,
+                            ScatterGather scatterGather,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value(MAX_PENDING_PROPERTY) int maxPending) {
+        this.patientRepository = patientRepository;
+        this.scatterGather = scatterGather;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rebuildTimer = meterRegistry.timer(REBUILD_METRIC);
+        this.maxPending = maxPending;
+        Gauge.builder(ENTRIES_METRIC, this, typeahead -> typeahead.index.size()).register(meterRegistry);
+        Gauge.builder(PENDING_METRIC, this, typeahead -> typeahead.index.pending()).register(meterRegistry);
+        Gauge.builder(MEMORY_METRIC, this, typeahead -> typeahead.index.memoryBytes())
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuild();
+    }
+
+    public List<PatientTypeaheadResponse> search(String query, int limit) {
+        return index.search(query, limit);
+    }
+
+    @TransactionalEventListener
+    public void onPatientChanged(PatientEvent event) {
+        PatientTypeaheadResponse patient = PatientTypeaheadResponse.of(event.patient());
+        synchronized (writeLock) {
+            index = index.with(patient);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(patient.id(), patient);
+            }
+        }
+        if (index.pending() >= maxPending && earlyRebuildQueued.compareAndSet(false, true)) {
+            earlyRebuilds.execute(this::rebuildEarly);
+        }
+    }
+
+    /**
+     * Replaces the index with one built from a fresh scan, folding in the changes made since the last.
+     */
+    @Scheduled(initialDelayString = REBUILD_INTERVAL_PROPERTY, fixedDelayString = REBUILD_INTERVAL_PROPERTY)
+    public synchronized void rebuild() {
+        synchronized (writeLock) {
+            changedDuringRebuild = new LinkedHashMap<>();
+        }
+        try {
+            TypeaheadIndex rebuilt = rebuildTimer.record(this::scan);
+            synchronized (writeLock) {
+                // The scan may or may not have seen these; applying them again is harmless.
+                rebuilt = rebuilt.with(changedDuringRebuild.values());
+                index = rebuilt;
+            }
+            log.info("Typeahead index rebuilt with {} patients, about {} MB", rebuilt.size(),
+                    rebuilt.memoryBytes() / (1024 * 1024));
+        } finally {
+            synchronized (writeLock) {
+                changedDuringRebuild = null;
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        earlyRebuilds.shutdownNow();
+    }
+
+    private void rebuildEarly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Early typeahead rebuild failed; changes stay in the overlay until the next rebuild", e);
+        } finally {
+            earlyRebuildQueued.set(false);
+        }
+    }
+
+    private TypeaheadIndex scan() {
+        TypeaheadIndex.Builder builder = new TypeaheadIndex.Builder();
+        scatterGather.sumOverShards(() -> readOnlyTransaction.execute(status -> {
+            try (Stream<PatientTypeaheadResponse> patients = patientRepository.streamTypeahead()) {
+                patients.forEach(builder::add);
+            }
+            return 0;
+        }));
+        return builder.build();
+    }
+}
@@ -0,0 +1,142 @@
+package com.ehr.patient.typeahead;
+
+import java.util.Arrays;
+
+/**
+ * Sorted dictionary of terms, each with the slots it occurs in. The slots of all terms share one array,
+ * in term order, so every term under a prefix occupies one contiguous run of it.
+ */
+final class PrefixIndex {
+
+    static final PrefixIndex EMPTY = build(new String[0], new int[0], 0);
+
+    private static final int SLOT_BITS = 32;
+
+    private final String[] terms;
+    // Slots of terms[i] are postings[offsets[i]] up to postings[offsets[i + 1]].
+    private final int[] offsets;
+    private final int[] postings;
+
+    private PrefixIndex(String[] terms, int[] offsets, int[] postings) {
+        this.terms = terms;
+        this.offsets = offsets;
+        this.postings = postings;
+    }
+
+    /**
+     * Indexes the first {@code count} (term, slot) pairs. Slots must not be negative.
+     */
+    static PrefixIndex build(String[] termOf, int[] slotOf, int count) {
+        String[] sorted = Arrays.copyOf(termOf, count);
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || !sorted[i].equals(sorted[distinct - 1])) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        String[] terms = Arrays.copyOf(sorted, distinct);
+
+        // Each pair packed as (term ordinal, slot), so one primitive sort groups the slots by term.
+        long[] pairs = new long[count];
+        for (int i = 0; i < count; i++) {
+            pairs[i] = (long) Arrays.binarySearch(terms, termOf[i]) << SLOT_BITS | slotOf[i];
+        }
+        Arrays.sort(pairs);
+        int[] offsets = new int[distinct + 1];
+        int[] postings = new int[count];
+        for (int i = 0; i < count; i++) {
+            offsets[(int) (pairs[i] >>> SLOT_BITS) + 1]++;
+            postings[i] = (int) pairs[i];
+        }
+        for (int i = 0; i < distinct; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        return new PrefixIndex(terms, offsets, postings);
+    }
+
+    /**
+     * @return the ordinal of the term, or -1 if it is not indexed
+     */
+    int ordinal(String term) {
+        int ordinal = Arrays.binarySearch(terms, term);
+        return ordinal < 0 ? -1 : ordinal;
+    }
+
+    String term(int ordinal) {
+        return terms[ordinal];
+    }
+
+    /**
+     * Number of slots listed under terms starting with the prefix, counting a slot once per term.
+     */
+    int count(String prefix) {
+        return offsets[upperBound(prefix)] - offsets[lowerBound(prefix)];
+    }
+
+    /**
+     * Visits the slots of the terms starting with the prefix, in term order, until the visitor returns
+     * false or {@code maxVisits} slots have been visited.
+     */
+    void visit(String prefix, int maxVisits, TermVisitor visitor) {
+        int last = upperBound(prefix);
+        int visits = 0;
+        for (int ordinal = lowerBound(prefix); ordinal < last; ordinal++) {
+            for (int i = offsets[ordinal]; i < offsets[ordinal + 1]; i++) {
+                if (visits++ == maxVisits || !visitor.visit(terms[ordinal], postings[i])) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Estimated heap size of the dictionary and its postings, assuming compressed references.
+     */
+    long memoryBytes() {
+        long bytes = MemoryEstimates.array(terms.length, MemoryEstimates.REFERENCE)
+                + MemoryEstimates.array(offsets.length, Integer.BYTES)
+                + MemoryEstimates.array(postings.length, Integer.BYTES);
+        for (String term : terms) {
+            bytes += MemoryEstimates.string(term);
+        }
+        return bytes;
+    }
+
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = terms.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (terms[middle].compareTo(prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int upperBound(String prefix) {
+        int low = lowerBound(prefix);
+        int high = terms.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (terms[middle].startsWith(prefix)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    @FunctionalInterface
+    interface TermVisitor {
+
+        /**
+         * @return whether to keep visiting
+         */
+        boolean visit(String term, int slot);
+    }
+}
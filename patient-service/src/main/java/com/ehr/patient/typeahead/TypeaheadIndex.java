@@ -0,0 +1,402 @@
+package com.ehr.patient.typeahead;
+
+import com.ehr.patient.dto.PatientTypeaheadResponse;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of the typeahead index. Patients loaded by the last rebuild take one slot each in
+ * primitive and string arrays, with first and last names in one prefix index and emails in another.
+ * Patients changed since are kept in a small overlay, normalized once when added, that is scanned on every
+ * search and hides their slot until the next rebuild folds them in. Each change copies the overlay, so the
+ * owner rebuilds early once {@link #pending()} grows past a bound.
+ */
+final class TypeaheadIndex {
+
+    /**
+     * Most slots one search visits per prefix index, bounding its cost when even the most selective token
+     * of the query matches a large share of the patients.
+     */
+    static final int MAX_SCANNED = 20_000;
+
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final int NO_TERM = -1;
+    // Map entry, UUID and record headers of an overlay entry, on top of its strings.
+    private static final int OVERLAY_ENTRY_BYTES = 144;
+
+    private static final Comparator<Hit> HIT_ORDER = Comparator.comparing(Hit::term)
+            .thenComparing(hit -> hit.patient().lastName())
+            .thenComparing(hit -> hit.patient().firstName())
+            .thenComparing(hit -> hit.patient().id());
+
+    static final TypeaheadIndex EMPTY = new Builder().build();
+
+    private final int size;
+    private final long[] idHigh;
+    private final long[] idLow;
+    private final String[] firstNames;
+    private final String[] lastNames;
+    private final String[] emails;
+    private final int[] birthDays;
+    private final int[] firstNameTerms;
+    private final int[] lastNameTerms;
+    private final int[] emailTerms;
+    private final PrefixIndex names;
+    private final PrefixIndex emailIndex;
+    private final long baseMemoryBytes;
+    private final Map<UUID, Changed> overlay;
+    private final long overlayMemoryBytes;
+
+    private TypeaheadIndex(Builder builder, PrefixIndex names, PrefixIndex emailIndex, int[] firstNameTerms,
+                           int[] lastNameTerms, int[] emailTerms, long baseMemoryBytes) {
+        this.size = builder.size;
+        this.idHigh = builder.idHigh;
+        this.idLow = builder.idLow;
+        this.firstNames = builder.firstNames;
+        this.lastNames = builder.lastNames;
+        this.emails = builder.emails;
+        this.birthDays = builder.birthDays;
+        this.firstNameTerms = firstNameTerms;
+        this.lastNameTerms = lastNameTerms;
+        this.emailTerms = emailTerms;
+        this.names = names;
+        this.emailIndex = emailIndex;
+        this.baseMemoryBytes = baseMemoryBytes;
+        this.overlay = Map.of();
+        this.overlayMemoryBytes = 0;
+    }
+
+    private TypeaheadIndex(TypeaheadIndex base, Map<UUID, Changed> overlay, long overlayMemoryBytes) {
+        this.size = base.size;
+        this.idHigh = base.idHigh;
+        this.idLow = base.idLow;
+        this.firstNames = base.firstNames;
+        this.lastNames = base.lastNames;
+        this.emails = base.emails;
+        this.birthDays = base.birthDays;
+        this.firstNameTerms = base.firstNameTerms;
+        this.lastNameTerms = base.lastNameTerms;
+        this.emailTerms = base.emailTerms;
+        this.names = base.names;
+        this.emailIndex = base.emailIndex;
+        this.baseMemoryBytes = base.baseMemoryBytes;
+        this.overlay = overlay;
+        this.overlayMemoryBytes = overlayMemoryBytes;
+    }
+
+    /**
+     * This index with the patient added, or replaced if already present.
+     */
+    TypeaheadIndex with(PatientTypeaheadResponse patient) {
+        return with(List.of(patient));
+    }
+
+    /**
+     * This index with the patients added, or replaced if already present, copying the overlay once.
+     */
+    TypeaheadIndex with(Collection<PatientTypeaheadResponse> patients) {
+        if (patients.isEmpty()) {
+            return this;
+        }
+        Map<UUID, Changed> changed = new HashMap<>(overlay);
+        long bytes = overlayMemoryBytes;
+        for (PatientTypeaheadResponse patient : patients) {
+            Changed entry = Changed.of(patient);
+            Changed replaced = changed.put(patient.id(), entry);
+            bytes += entry.memoryBytes() - (replaced == null ? 0 : replaced.memoryBytes());
+        }
+        return new TypeaheadIndex(this, Collections.unmodifiableMap(changed), bytes);
+    }
+
+    /**
+     * Patients whose names or email start with every whitespace-separated token of the query, best match
+     * first: those whose matching name or email sorts first, so shorter and exact matches lead. Names match
+     * ignoring case, accents and punctuation; emails ignoring case.
+     */
+    List<PatientTypeaheadResponse> search(String query, int limit) {
+        List<Token> tokens = Token.parse(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // Drive the search from the token with the fewest postings; the rest only filter its slots.
+        Token driver = tokens.stream().min(Comparator.comparingInt(this::count)).orElseThrow();
+        List<Hit> hits = new ArrayList<>();
+        if (!driver.name().isEmpty()) {
+            collect(names, driver.name(), tokens, limit, hits);
+        }
+        collect(emailIndex, driver.email(), tokens, limit, hits);
+        for (Changed changed : overlay.values()) {
+            String term = driver.firstMatch(changed.fields());
+            if (term != null && tokens.stream().allMatch(token -> token.matches(changed.fields()))) {
+                hits.add(new Hit(term, changed.patient()));
+            }
+        }
+
+        hits.sort(HIT_ORDER);
+        Set<UUID> seen = new HashSet<>();
+        List<PatientTypeaheadResponse> results = new ArrayList<>(limit);
+        for (Hit hit : hits) {
+            if (results.size() < limit && seen.add(hit.patient().id())) {
+                results.add(hit.patient());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Patients loaded by the last rebuild.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Patients changed since the last rebuild.
+     */
+    int pending() {
+        return overlay.size();
+    }
+
+    /**
+     * Estimated heap size of the index, see {@link MemoryEstimates}.
+     */
+    long memoryBytes() {
+        return baseMemoryBytes + overlayMemoryBytes;
+    }
+
+    private int count(Token token) {
+        return (token.name().isEmpty() ? 0 : names.count(token.name())) + emailIndex.count(token.email());
+    }
+
+    // Adds the first `limit` distinct patients under the prefix that match every token.
+    private void collect(PrefixIndex index, String prefix, List<Token> tokens, int limit, List<Hit> hits) {
+        Set<Integer> found = new HashSet<>();
+        index.visit(prefix, MAX_SCANNED, (term, slot) -> {
+            if (found.contains(slot) || isShadowed(slot)) {
+                return true;
+            }
+            Fields fields = fields(slot);
+            if (tokens.stream().allMatch(token -> token.matches(fields))) {
+                found.add(slot);
+                hits.add(new Hit(term, patient(slot)));
+            }
+            return found.size() < limit;
+        });
+    }
+
+    private boolean isShadowed(int slot) {
+        return !overlay.isEmpty() && overlay.containsKey(new UUID(idHigh[slot], idLow[slot]));
+    }
+
+    private Fields fields(int slot) {
+        return new Fields(term(names, firstNameTerms[slot]), term(names, lastNameTerms[slot]),
+                term(emailIndex, emailTerms[slot]));
+    }
+
+    private PatientTypeaheadResponse patient(int slot) {
+        return new PatientTypeaheadResponse(new UUID(idHigh[slot], idLow[slot]), firstNames[slot],
+                lastNames[slot], birthDays[slot] == NO_DATE ? null : LocalDate.ofEpochDay(birthDays[slot]),
+                emails[slot]);
+    }
+
+    private static String term(PrefixIndex index, int ordinal) {
+        return ordinal == NO_TERM ? null : index.term(ordinal);
+    }
+
+    /**
+     * Lower case, without accents, and only letters and digits, so "O'Brien" and "Zoë" are found by typing
+     * "obr" and "zoe".
+     */
+    static String normalizeName(String name) {
+        if (name == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString().toLowerCase(Locale.ROOT);
+    }
+
+    static String normalizeEmail(String email) {
+        return email == null ? null : email.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Collects patients for a rebuild, then sorts them into a new index.
+     */
+    static final class Builder {
+
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private int size;
+        private long[] idHigh = new long[INITIAL_CAPACITY];
+        private long[] idLow = new long[INITIAL_CAPACITY];
+        private String[] firstNames = new String[INITIAL_CAPACITY];
+        private String[] lastNames = new String[INITIAL_CAPACITY];
+        private String[] emails = new String[INITIAL_CAPACITY];
+        private int[] birthDays = new int[INITIAL_CAPACITY];
+        // Names repeat across patients; each distinct one is kept once.
+        private final Map<String, String> sharedNames = new HashMap<>();
+
+        void add(PatientTypeaheadResponse patient) {
+            if (size == idHigh.length) {
+                resize(Math.max(INITIAL_CAPACITY, size * 2));
+            }
+            idHigh[size] = patient.id().getMostSignificantBits();
+            idLow[size] = patient.id().getLeastSignificantBits();
+            firstNames[size] = sharedNames.computeIfAbsent(patient.firstName(), name -> name);
+            lastNames[size] = sharedNames.computeIfAbsent(patient.lastName(), name -> name);
+            emails[size] = patient.email();
+            birthDays[size] = patient.dateOfBirth() == null ? NO_DATE : (int) patient.dateOfBirth().toEpochDay();
+            size++;
+        }
+
+        TypeaheadIndex build() {
+            resize(size);
+            String[] firstNameKeys = new String[size];
+            String[] lastNameKeys = new String[size];
+            String[] emailKeys = new String[size];
+            String[] nameTerms = new String[size * 2];
+            int[] nameSlots = new int[size * 2];
+            String[] emailTermsBySlot = new String[size];
+            int[] emailSlots = new int[size];
+            int namePostings = 0;
+            int emailPostings = 0;
+            for (int slot = 0; slot < size; slot++) {
+                firstNameKeys[slot] = normalizeName(firstNames[slot]);
+                lastNameKeys[slot] = normalizeName(lastNames[slot]);
+                emailKeys[slot] = normalizeEmail(emails[slot]);
+                if (!firstNameKeys[slot].isEmpty()) {
+                    nameTerms[namePostings] = firstNameKeys[slot];
+                    nameSlots[namePostings++] = slot;
+                }
+                if (!lastNameKeys[slot].isEmpty() && !lastNameKeys[slot].equals(firstNameKeys[slot])) {
+                    nameTerms[namePostings] = lastNameKeys[slot];
+                    nameSlots[namePostings++] = slot;
+                }
+                if (emailKeys[slot] != null && !emailKeys[slot].isEmpty()) {
+                    emailTermsBySlot[emailPostings] = emailKeys[slot];
+                    emailSlots[emailPostings++] = slot;
+                }
+            }
+            PrefixIndex names = PrefixIndex.build(nameTerms, nameSlots, namePostings);
+            PrefixIndex emailIndex = PrefixIndex.build(emailTermsBySlot, emailSlots, emailPostings);
+
+            int[] firstNameTerms = new int[size];
+            int[] lastNameTerms = new int[size];
+            int[] emailTerms = new int[size];
+            for (int slot = 0; slot < size; slot++) {
+                firstNameTerms[slot] = names.ordinal(firstNameKeys[slot]);
+                lastNameTerms[slot] = names.ordinal(lastNameKeys[slot]);
+                emailTerms[slot] = emailKeys[slot] == null ? NO_TERM : emailIndex.ordinal(emailKeys[slot]);
+            }
+            return new TypeaheadIndex(this, names, emailIndex, firstNameTerms, lastNameTerms, emailTerms,
+                    memoryBytes(names, emailIndex));
+        }
+
+        private long memoryBytes(PrefixIndex names, PrefixIndex emailIndex) {
+            long bytes = 2 * MemoryEstimates.array(size, Long.BYTES)
+                    + 3 * MemoryEstimates.array(size, MemoryEstimates.REFERENCE)
+                    + 4 * MemoryEstimates.array(size, Integer.BYTES)
+                    + names.memoryBytes() + emailIndex.memoryBytes();
+            for (String name : sharedNames.values()) {
+                bytes += MemoryEstimates.string(name);
+            }
+            for (int slot = 0; slot < size; slot++) {
+                if (emails[slot] != null) {
+                    bytes += MemoryEstimates.string(emails[slot]);
+                }
+            }
+            return bytes;
+        }
+
+        private void resize(int capacity) {
+            idHigh = Arrays.copyOf(idHigh, capacity);
+            idLow = Arrays.copyOf(idLow, capacity);
+            firstNames = Arrays.copyOf(firstNames, capacity);
+            lastNames = Arrays.copyOf(lastNames, capacity);
+            emails = Arrays.copyOf(emails, capacity);
+            birthDays = Arrays.copyOf(birthDays, capacity);
+        }
+    }
+
+    private record Hit(String term, PatientTypeaheadResponse patient) {
+    }
+
+    // An overlay entry: a changed patient and its normalized fields.
+    private record Changed(PatientTypeaheadResponse patient, Fields fields) {
+
+        static Changed of(PatientTypeaheadResponse patient) {
+            return new Changed(patient, Fields.of(patient));
+        }
+
+        long memoryBytes() {
+            return OVERLAY_ENTRY_BYTES + string(patient.firstName()) + string(patient.lastName())
+                    + string(patient.email()) + string(fields.firstName()) + string(fields.lastName())
+                    + string(fields.email());
+        }
+
+        private static long string(String value) {
+            return value == null ? 0 : MemoryEstimates.string(value);
+        }
+    }
+
+    // A patient's normalized names and email; null where the patient has none.
+    private record Fields(String firstName, String lastName, String email) {
+
+        static Fields of(PatientTypeaheadResponse patient) {
+            return new Fields(normalizeName(patient.firstName()), normalizeName(patient.lastName()),
+                    normalizeEmail(patient.email()));
+        }
+    }
+
+    // One word of a query, normalized both ways since it may be the start of a name or of an email.
+    private record Token(String name, String email) {
+
+        static List<Token> parse(String query) {
+            if (query == null || query.isBlank()) {
+                return List.of();
+            }
+            return Arrays.stream(query.strip().split("\\s+"))
+                    .map(word -> new Token(normalizeName(word), normalizeEmail(word)))
+                    .toList();
+        }
+
+        boolean matches(Fields fields) {
+            return firstMatch(fields) != null;
+        }
+
+        // The first of the patient's names and email this token is the start of.
+        String firstMatch(Fields fields) {
+            if (!name.isEmpty() && startsWith(fields.firstName(), name)) {
+                return fields.firstName();
+            }
+            if (!name.isEmpty() && startsWith(fields.lastName(), name)) {
+                return fields.lastName();
+            }
+            return startsWith(fields.email(), email) ? fields.email() : null;
+        }
+
+        private static boolean startsWith(String value, String prefix) {
+            return value != null && !value.isEmpty() && value.startsWith(prefix);
+        }
+    }
+}
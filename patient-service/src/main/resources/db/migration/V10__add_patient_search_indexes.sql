@@ -0,0 +1,11 @@
+-- Patient search filters with ILIKE '%term%', which a B-tree cannot serve. Trigram GIN indexes can, for
+-- terms of at least three characters, and ILIKE uses them without a lower() expression index.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_patients_first_name_trgm ON patients USING gin (first_name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_patients_last_name_trgm ON patients USING gin (last_name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_patients_email_trgm ON patients USING gin (email gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_patients_phone_trgm ON patients USING gin (phone gin_trgm_ops);
+
+-- Search by date of birth, alone or alongside a text term.
+CREATE INDEX IF NOT EXISTS idx_patients_date_of_birth ON patients (date_of_birth);
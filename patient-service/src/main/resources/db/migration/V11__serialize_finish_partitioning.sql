@@ -0,0 +1,38 @@
+-- finish_partitioning from V8, serialized per table. Two callers could both pass the to_regclass check and
+-- queue on LOCK TABLE; once the first had renamed the copy away, the second failed with "relation does
+-- not exist". Each caller now takes a transaction-level advisory lock first and only then checks whether
+-- the copy is still there, so the second returns false.
+CREATE OR REPLACE FUNCTION finish_partitioning(target text) RETURNS boolean AS $$
+DECLARE
+    copy_name CONSTANT text := target || '_partitioned';
+    index_name text;
+    constraint_name text;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('finish_partitioning:' || target));
+    IF to_regclass(quote_ident(copy_name)) IS NULL THEN
+        RETURN false;
+    END IF;
+    EXECUTE format('LOCK TABLE %I, %I IN ACCESS EXCLUSIVE MODE', target, copy_name);
+    EXECUTE format('DROP TRIGGER IF EXISTS %I ON %I', 'trg_' || target || '_mirror', target);
+
+    FOR index_name IN SELECT indexname FROM pg_indexes
+                      WHERE schemaname = current_schema() AND tablename = target LOOP
+        EXECUTE format('ALTER INDEX %I RENAME TO %I', index_name, index_name || '_legacy');
+    END LOOP;
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', target, target || '_legacy');
+    -- The legacy rows would otherwise block deleting their patients.
+    FOR constraint_name IN SELECT conname FROM pg_constraint
+                           WHERE conrelid = to_regclass(quote_ident(target || '_legacy')) AND contype = 'f' LOOP
+        EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', target || '_legacy', constraint_name);
+    END LOOP;
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', copy_name, target);
+
+    FOR index_name IN SELECT indexname FROM pg_indexes
+                      WHERE schemaname = current_schema() AND tablename = target LOOP
+        EXECUTE format('ALTER INDEX %I RENAME TO %I', index_name, replace(index_name, copy_name, target));
+    END LOOP;
+    EXECUTE format('ALTER TABLE %I RENAME CONSTRAINT %I TO %I',
+                   target, 'fk_' || copy_name || '_patient', 'fk_' || target || '_patient');
+    RETURN true;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,54 @@
+-- Baseline schema as previously generated by Hibernate (ddl-auto: update).
+-- IF NOT EXISTS keeps this a no-op on databases created before migrations were introduced.
+
+CREATE TABLE IF NOT EXISTS patients (
+    id                      UUID         NOT NULL,
+    first_name              VARCHAR(255) NOT NULL,
+    last_name               VARCHAR(255) NOT NULL,
+    date_of_birth           DATE,
+    gender                  VARCHAR(255),
+    email                   VARCHAR(255),
+    phone                   VARCHAR(255),
+    address                 VARCHAR(255),
+    city                    VARCHAR(255),
+    state                   VARCHAR(255),
+    zip_code                VARCHAR(255),
+    emergency_contact_name  VARCHAR(255),
+    emergency_contact_phone VARCHAR(255),
+    status                  VARCHAR(255) NOT NULL CHECK (status IN ('ACTIVE', 'INACTIVE', 'DECEASED')),
+    created_at              TIMESTAMP(6),
+    updated_at              TIMESTAMP(6),
+    CONSTRAINT pk_patients PRIMARY KEY (id),
+    CONSTRAINT uk_patients_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS diagnoses (
+    id             UUID         NOT NULL,
+    patient_id     UUID         NOT NULL,
+    icd_code       VARCHAR(255) NOT NULL,
+    description    VARCHAR(255),
+    diagnosis_date DATE,
+    status         VARCHAR(255) CHECK (status IN ('ACTIVE', 'RESOLVED', 'IN_REMISSION')),
+    created_at     TIMESTAMP(6),
+    updated_at     TIMESTAMP(6),
+    CONSTRAINT pk_diagnoses PRIMARY KEY (id),
+    CONSTRAINT fk_diagnoses_patient FOREIGN KEY (patient_id) REFERENCES patients (id)
+);
+
+CREATE TABLE IF NOT EXISTS medications (
+    id              UUID         NOT NULL,
+    patient_id      UUID         NOT NULL,
+    name            VARCHAR(255) NOT NULL,
+    dosage          VARCHAR(255),
+    frequency       VARCHAR(255),
+    status          VARCHAR(255) CHECK (status IN ('ACTIVE', 'DISCONTINUED', 'TAPERING')),
+    start_date      DATE,
+    end_date        DATE,
+    contraindicated BOOLEAN      NOT NULL,
+    washout_days    INTEGER,
+    washout_notes   VARCHAR(255),
+    created_at      TIMESTAMP(6),
+    updated_at      TIMESTAMP(6),
+    CONSTRAINT pk_medications PRIMARY KEY (id),
+    CONSTRAINT fk_medications_patient FOREIGN KEY (patient_id) REFERENCES patients (id)
+);
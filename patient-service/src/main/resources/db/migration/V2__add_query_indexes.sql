@@ -0,0 +1,16 @@
+-- Postgres does not index foreign keys. These back findByPatientId and the batched
+-- patient_id IN (...) collection loads.
+CREATE INDEX IF NOT EXISTS idx_diagnoses_patient_id ON diagnoses (patient_id);
+CREATE INDEX IF NOT EXISTS idx_medications_patient_id ON medications (patient_id);
+
+-- findByPatientIdAndContraindicatedTrue only ever reads the contraindicated rows.
+CREATE INDEX IF NOT EXISTS idx_medications_patient_id_contraindicated
+    ON medications (patient_id) WHERE contraindicated;
+
+-- findByStatus.
+CREATE INDEX IF NOT EXISTS idx_patients_status ON patients (status);
+
+-- Keyset order of the roster and summary pages.
+CREATE INDEX IF NOT EXISTS idx_patients_last_name_id ON patients (last_name, id);
+
+-- findByEmail is served by the unique index behind uk_patients_email.
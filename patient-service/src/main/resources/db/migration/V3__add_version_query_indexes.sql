@@ -0,0 +1,8 @@
+-- The ETag version queries read MAX(updated_at) and COUNT(*) per patient; with updated_at in the
+-- index they are answered from an index-only scan. The new indexes also cover findByPatientId,
+-- so the single-column ones are dropped.
+CREATE INDEX IF NOT EXISTS idx_diagnoses_patient_id_updated_at ON diagnoses (patient_id, updated_at);
+CREATE INDEX IF NOT EXISTS idx_medications_patient_id_updated_at ON medications (patient_id, updated_at);
+
+DROP INDEX IF EXISTS idx_diagnoses_patient_id;
+DROP INDEX IF EXISTS idx_medications_patient_id;
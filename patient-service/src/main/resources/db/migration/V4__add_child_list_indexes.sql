@@ -0,0 +1,7 @@
+-- Filtered child lists seek to the patient, range-scan the date filter and read rows back in the default
+-- sort order (date, then id) without a sort step. Status is filtered on the rows the range returns.
+-- Sorting by updatedAt is served by the (patient_id, updated_at) indexes from V3.
+CREATE INDEX IF NOT EXISTS idx_diagnoses_patient_id_diagnosis_date
+    ON diagnoses (patient_id, diagnosis_date, id);
+CREATE INDEX IF NOT EXISTS idx_medications_patient_id_start_date
+    ON medications (patient_id, start_date, id);
@@ -0,0 +1,5 @@
+-- The change feed seeks past each table's (updated_at, id) watermark and reads rows back in that
+-- order, so a sync touches only the rows changed since the replica's last cursor.
+CREATE INDEX IF NOT EXISTS idx_patients_updated_at_id ON patients (updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_diagnoses_updated_at_id ON diagnoses (updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_medications_updated_at_id ON medications (updated_at, id);
@@ -0,0 +1,15 @@
+-- Domain events appended in the same transaction as the write that raised them. The relay reads
+-- the oldest rows first and deletes them once its sink has accepted the batch.
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id           UUID         NOT NULL,
+    event_type   VARCHAR(255) NOT NULL CHECK (event_type IN ('PATIENT_CREATED', 'PATIENT_UPDATED',
+                                                             'DIAGNOSIS_ADDED', 'DIAGNOSIS_UPDATED',
+                                                             'MEDICATION_ADDED', 'MEDICATION_UPDATED')),
+    patient_id   UUID         NOT NULL,
+    aggregate_id UUID         NOT NULL,
+    payload      TEXT         NOT NULL,
+    created_at   TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_outbox_events PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_created_at_id ON outbox_events (created_at, id);
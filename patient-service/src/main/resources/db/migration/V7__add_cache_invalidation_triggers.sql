@@ -0,0 +1,35 @@
+-- Every committed change to a patient's chart notifies the other service instances so they can evict
+-- their local caches. Notifications are delivered on commit, dropped on rollback, and identical payloads
+-- within one transaction are collapsed. The payload is the patient id, followed by the kind and id of the
+-- changed diagnosis (D) or medication (M) for child rows.
+CREATE OR REPLACE FUNCTION notify_patient_cache_invalidation() RETURNS trigger AS $$
+DECLARE
+    changed RECORD;
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        changed := OLD;
+    ELSE
+        changed := NEW;
+    END IF;
+
+    IF TG_TABLE_NAME = 'patients' THEN
+        PERFORM pg_notify('patient_cache_invalidation', changed.id::text);
+    ELSE
+        PERFORM pg_notify('patient_cache_invalidation',
+                          changed.patient_id::text || ':' || TG_ARGV[0] || ':' || changed.id::text);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER trg_patients_cache_invalidation
+    AFTER INSERT OR UPDATE OR DELETE ON patients
+    FOR EACH ROW EXECUTE FUNCTION notify_patient_cache_invalidation();
+
+CREATE OR REPLACE TRIGGER trg_diagnoses_cache_invalidation
+    AFTER INSERT OR UPDATE OR DELETE ON diagnoses
+    FOR EACH ROW EXECUTE FUNCTION notify_patient_cache_invalidation('D');
+
+CREATE OR REPLACE TRIGGER trg_medications_cache_invalidation
+    AFTER INSERT OR UPDATE OR DELETE ON medications
+    FOR EACH ROW EXECUTE FUNCTION notify_patient_cache_invalidation('M');
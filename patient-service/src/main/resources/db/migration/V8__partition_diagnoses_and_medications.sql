@@ -0,0 +1,130 @@
+-- Hash-partitioned replacements for diagnoses and medications, keyed on patient_id so every per-patient
+-- query prunes to one of 16 partitions and vacuum and index maintenance work on partition-sized pieces.
+--
+-- The conversion is online. This migration only creates <table>_partitioned next to the live table, and
+-- mirror triggers keep it in step with every write from here on. PartitionBackfill then copies the
+-- existing rows in chunks and calls finish_partitioning(), which swaps the tables in one short
+-- transaction. Empty tables, such as a fresh database, are swapped right here. Until the swap the live
+-- tables are unchanged, so later migrations must not assume either layout for these two tables.
+--
+-- Postgres requires the partition key in every unique index, so the primary keys become (id, patient_id).
+-- The id stays first so existsById can still probe each partition's primary key.
+
+CREATE TABLE IF NOT EXISTS diagnoses_partitioned (
+    LIKE diagnoses INCLUDING DEFAULTS INCLUDING CONSTRAINTS,
+    CONSTRAINT pk_diagnoses_partitioned PRIMARY KEY (id, patient_id),
+    CONSTRAINT fk_diagnoses_partitioned_patient FOREIGN KEY (patient_id) REFERENCES patients (id)
+) PARTITION BY HASH (patient_id);
+
+CREATE TABLE IF NOT EXISTS medications_partitioned (
+    LIKE medications INCLUDING DEFAULTS INCLUDING CONSTRAINTS,
+    CONSTRAINT pk_medications_partitioned PRIMARY KEY (id, patient_id),
+    CONSTRAINT fk_medications_partitioned_patient FOREIGN KEY (patient_id) REFERENCES patients (id)
+) PARTITION BY HASH (patient_id);
+
+DO $$
+BEGIN
+    FOR remainder IN 0..15 LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS diagnoses_p%s PARTITION OF diagnoses_partitioned '
+                       'FOR VALUES WITH (MODULUS 16, REMAINDER %s)', lpad(remainder::text, 2, '0'), remainder);
+        EXECUTE format('CREATE TABLE IF NOT EXISTS medications_p%s PARTITION OF medications_partitioned '
+                       'FOR VALUES WITH (MODULUS 16, REMAINDER %s)', lpad(remainder::text, 2, '0'), remainder);
+    END LOOP;
+END;
+$$;
+
+-- Same indexes as V2 to V5. Names carry the table name so finish_partitioning can rename them.
+CREATE INDEX IF NOT EXISTS idx_diagnoses_partitioned_patient_id_updated_at
+    ON diagnoses_partitioned (patient_id, updated_at);
+CREATE INDEX IF NOT EXISTS idx_diagnoses_partitioned_patient_id_diagnosis_date
+    ON diagnoses_partitioned (patient_id, diagnosis_date, id);
+CREATE INDEX IF NOT EXISTS idx_diagnoses_partitioned_updated_at_id
+    ON diagnoses_partitioned (updated_at, id);
+
+CREATE INDEX IF NOT EXISTS idx_medications_partitioned_patient_id_contraindicated
+    ON medications_partitioned (patient_id) WHERE contraindicated;
+CREATE INDEX IF NOT EXISTS idx_medications_partitioned_patient_id_updated_at
+    ON medications_partitioned (patient_id, updated_at);
+CREATE INDEX IF NOT EXISTS idx_medications_partitioned_patient_id_start_date
+    ON medications_partitioned (patient_id, start_date, id);
+CREATE INDEX IF NOT EXISTS idx_medications_partitioned_updated_at_id
+    ON medications_partitioned (updated_at, id);
+
+CREATE OR REPLACE TRIGGER trg_diagnoses_cache_invalidation
+    AFTER INSERT OR UPDATE OR DELETE ON diagnoses_partitioned
+    FOR EACH ROW EXECUTE FUNCTION notify_patient_cache_invalidation('D');
+
+CREATE OR REPLACE TRIGGER trg_medications_cache_invalidation
+    AFTER INSERT OR UPDATE OR DELETE ON medications_partitioned
+    FOR EACH ROW EXECUTE FUNCTION notify_patient_cache_invalidation('M');
+
+-- Replays each write to the live table on its partitioned copy. An update is a delete and an insert;
+-- rows the backfill has not reached yet are simply skipped by the delete.
+CREATE OR REPLACE FUNCTION mirror_to_partitioned() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        EXECUTE format('DELETE FROM %I WHERE id = $1 AND patient_id = $2', TG_ARGV[0])
+            USING OLD.id, OLD.patient_id;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        EXECUTE format('INSERT INTO %I SELECT ($1).* ON CONFLICT DO NOTHING', TG_ARGV[0]) USING NEW;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER trg_diagnoses_mirror
+    AFTER INSERT OR UPDATE OR DELETE ON diagnoses
+    FOR EACH ROW EXECUTE FUNCTION mirror_to_partitioned('diagnoses_partitioned');
+
+CREATE OR REPLACE TRIGGER trg_medications_mirror
+    AFTER INSERT OR UPDATE OR DELETE ON medications
+    FOR EACH ROW EXECUTE FUNCTION mirror_to_partitioned('medications_partitioned');
+
+-- Swaps a fully backfilled copy in. The old table is kept as <table>_legacy, with its indexes renamed the
+-- same way and its foreign keys dropped, until an operator drops it. Returns false when the table was
+-- already swapped.
+CREATE OR REPLACE FUNCTION finish_partitioning(target text) RETURNS boolean AS $$
+DECLARE
+    copy_name CONSTANT text := target || '_partitioned';
+    index_name text;
+    constraint_name text;
+BEGIN
+    IF to_regclass(quote_ident(copy_name)) IS NULL THEN
+        RETURN false;
+    END IF;
+    EXECUTE format('LOCK TABLE %I, %I IN ACCESS EXCLUSIVE MODE', target, copy_name);
+    EXECUTE format('DROP TRIGGER IF EXISTS %I ON %I', 'trg_' || target || '_mirror', target);
+
+    FOR index_name IN SELECT indexname FROM pg_indexes
+                      WHERE schemaname = current_schema() AND tablename = target LOOP
+        EXECUTE format('ALTER INDEX %I RENAME TO %I', index_name, index_name || '_legacy');
+    END LOOP;
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', target, target || '_legacy');
+    -- The legacy rows would otherwise block deleting their patients.
+    FOR constraint_name IN SELECT conname FROM pg_constraint
+                           WHERE conrelid = to_regclass(quote_ident(target || '_legacy')) AND contype = 'f' LOOP
+        EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', target || '_legacy', constraint_name);
+    END LOOP;
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', copy_name, target);
+
+    FOR index_name IN SELECT indexname FROM pg_indexes
+                      WHERE schemaname = current_schema() AND tablename = target LOOP
+        EXECUTE format('ALTER INDEX %I RENAME TO %I', index_name, replace(index_name, copy_name, target));
+    END LOOP;
+    EXECUTE format('ALTER TABLE %I RENAME CONSTRAINT %I TO %I',
+                   target, 'fk_' || copy_name || '_patient', 'fk_' || target || '_patient');
+    RETURN true;
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM diagnoses) THEN
+        PERFORM finish_partitioning('diagnoses');
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM medications) THEN
+        PERFORM finish_partitioning('medications');
+    END IF;
+END;
+$$;
@@ -0,0 +1,16 @@
+-- Cold tier for INACTIVE and DECEASED patients past their retention period. Each row holds the whole
+-- chart as gzipped JSON, so the hot tables and their indexes only carry patients still in use.
+CREATE TABLE IF NOT EXISTS archived_patients (
+    id          UUID         NOT NULL,
+    status      VARCHAR(255) NOT NULL CHECK (status IN ('ACTIVE', 'INACTIVE', 'DECEASED')),
+    archived_at TIMESTAMP(6) NOT NULL,
+    chart       BYTEA        NOT NULL,
+    CONSTRAINT pk_archived_patients PRIMARY KEY (id)
+);
+
+-- The chart is already compressed; keep TOAST from trying again.
+ALTER TABLE archived_patients ALTER COLUMN chart SET STORAGE EXTERNAL;
+
+-- Only archivable patients are indexed, so the archiver's scan stays small as the active roster grows.
+CREATE INDEX IF NOT EXISTS idx_patients_archivable_updated_at_id
+    ON patients (updated_at, id) WHERE status IN ('INACTIVE', 'DECEASED');
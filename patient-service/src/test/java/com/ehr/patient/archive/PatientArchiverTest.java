@@ -0,0 +1,211 @@
+package com.ehr.patient.archive;
+
+import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.constant.SortFields;
+import com.ehr.patient.dto.MedicationResponse;
+import com.ehr.patient.dto.PatientResponse;
+import com.ehr.patient.dto.PatientSummaryResponse;
+import com.ehr.patient.exception.DuplicateResourceException;
+import com.ehr.patient.model.enums.DiagnosisStatus;
+import com.ehr.patient.model.enums.MedicationStatus;
+import com.ehr.patient.model.enums.PatientStatus;
+import com.ehr.patient.pagination.ChildListQuery;
+import com.ehr.patient.repository.ArchivedPatientRepository;
+import com.ehr.patient.repository.DiagnosisRepository;
+import com.ehr.patient.repository.PatientRepository;
+import com.ehr.patient.service.DiagnosisService;
+import com.ehr.patient.service.MedicationService;
+import com.ehr.patient.service.PatientService;
+import com.ehr.patient.sharding.ScatterGather;
+import com.ehr.patient.utils.ServiceSliceTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static com.ehr.patient.utils.DiagnosisTestUtils.createDiagnosisRequest;
+import static com.ehr.patient.utils.MedicationTestUtils.createMedicationRequest;
+import static com.ehr.patient.utils.PatientTestUtils.createPatientRequest;
+import static com.ehr.patient.utils.PatientTestUtils.updatePatientRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ServiceSliceTest
+class PatientArchiverTest {
+
+    private static final int RETENTION_DAYS = 30;
+    private static final int CHUNK_SIZE = 2;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private DiagnosisService diagnosisService;
+
+    @Autowired
+    private MedicationService medicationService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DiagnosisRepository diagnosisRepository;
+
+    @Autowired
+    private ArchivedPatientRepository archivedPatientRepository;
+
+    @Autowired
+    private ScatterGather scatterGather;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private PatientArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        archiver = new PatientArchiver(patientService, scatterGather, new SimpleMeterRegistry(), RETENTION_DAYS,
+                CHUNK_SIZE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        archivedPatientRepository.deleteAll();
+        patientRepository.deleteAll();
+    }
+
+    @Test
+    void givenInactiveAndDeceasedPastRetention_whenArchiveEligible_thenMovesOnlyThemInChunks() {
+        List<UUID> eligible = IntStream.range(0, 5)
+                .mapToObj(i -> createChart("eligible" + i + "@example.com",
+                        i % 2 == 0 ? PatientStatus.INACTIVE : PatientStatus.DECEASED, RETENTION_DAYS + 1))
+                .toList();
+        UUID recent = createChart("recent@example.com", PatientStatus.INACTIVE, RETENTION_DAYS - 1);
+        UUID active = createChart("active@example.com", PatientStatus.ACTIVE, RETENTION_DAYS + 1);
+
+        int archived = archiver.archiveEligible();
+
+        assertThat(archived).isEqualTo(eligible.size());
+        assertThat(archivedPatientRepository.findAll()).extracting(a -> a.getId())
+                .containsExactlyInAnyOrderElementsOf(eligible);
+        assertThat(patientRepository.findAll()).extracting(p -> p.getId()).containsExactlyInAnyOrder(recent, active);
+        assertThat(diagnosisRepository.findByPatientId(eligible.get(0))).isEmpty();
+        assertThat(archiver.archiveEligible()).isZero();
+    }
+
+    @Test
+    void givenArchivedPatient_whenRead_thenServesTheSameChartFromTheArchive() {
+        UUID id = createChart("archived@example.com", PatientStatus.DECEASED, RETENTION_DAYS + 1);
+        PatientResponse before = patientService.getPatient(id);
+        String eTagBefore = patientService.getPatientETag(id);
+
+        archiver.archiveEligible();
+
+        assertThat(patientRepository.findById(id)).isEmpty();
+        assertThat(patientService.getPatient(id)).isEqualTo(before);
+        assertThat(patientService.getPatientETag(id)).isEqualTo(eTagBefore);
+        UUID missing = UUID.randomUUID();
+        assertThat(patientService.lookupPatients(List.of(id, missing)).patients()).containsExactly(before);
+        assertThat(patientService.lookupPatientSummaries(List.of(missing, id)).patients())
+                .containsExactly(PatientSummaryResponse.of(before));
+    }
+
+    @Test
+    void givenArchivedPatient_whenChildListsRead_thenServesTheSamePagesAndTagsFromTheArchive() {
+        UUID id = createChart("lists@example.com", PatientStatus.INACTIVE, RETENTION_DAYS + 1);
+        diagnosisService.addDiagnosis(id, createDiagnosisRequest("F43.12", "Chronic PTSD"));
+        medicationService.addMedication(id, createMedicationRequest("Prazosin", "1mg", true));
+        jdbcTemplate.update("UPDATE patients SET updated_at = ? WHERE id = ?",
+                LocalDateTime.now().minusDays(RETENTION_DAYS + 1), id);
+        List<ChildListQuery<DiagnosisStatus>> diagnosisPages = List.of(diagnosisPage(0), diagnosisPage(1));
+        List<ChildListQuery<MedicationStatus>> medicationPages = List.of(medicationPage(0), medicationPage(1));
+        var diagnosesBefore = diagnosisPages.stream().map(page -> diagnosisService.getDiagnoses(id, page)).toList();
+        var diagnosisTagsBefore = diagnosisPages.stream()
+                .map(page -> diagnosisService.getDiagnosesETag(id, page)).toList();
+        var medicationsBefore = medicationPages.stream()
+                .map(page -> medicationService.getMedications(id, page)).toList();
+        var medicationTagsBefore = medicationPages.stream()
+                .map(page -> medicationService.getMedicationsETag(id, page)).toList();
+        var contraindicationsBefore = medicationService.getContraindications(id);
+
+        archiver.archiveEligible();
+
+        assertThat(patientRepository.findById(id)).isEmpty();
+        assertThat(diagnosisPages.stream().map(page -> diagnosisService.getDiagnoses(id, page)).toList())
+                .isEqualTo(diagnosesBefore);
+        assertThat(diagnosisPages.stream().map(page -> diagnosisService.getDiagnosesETag(id, page)).toList())
+                .isEqualTo(diagnosisTagsBefore);
+        assertThat(medicationPages.stream().map(page -> medicationService.getMedications(id, page)).toList())
+                .isEqualTo(medicationsBefore);
+        assertThat(medicationPages.stream().map(page -> medicationService.getMedicationsETag(id, page)).toList())
+                .isEqualTo(medicationTagsBefore);
+        assertThat(medicationService.getContraindications(id))
+                .isEqualTo(contraindicationsBefore)
+                .singleElement()
+                .extracting(MedicationResponse::name)
+                .isEqualTo("Prazosin");
+    }
+
+    @Test
+    void givenArchivedPatient_whenUpdatedToActive_thenRestoresTheChartToTheHotTables() {
+        UUID id = createChart("restored@example.com", PatientStatus.INACTIVE, RETENTION_DAYS + 1);
+        PatientResponse before = patientService.getPatient(id);
+        archiver.archiveEligible();
+
+        PatientResponse updated = patientService.updatePatient(id,
+                updatePatientRequest("John", "Doe", "restored@example.com"));
+
+        assertThat(updated.status()).isEqualTo(PatientStatus.ACTIVE);
+        assertThat(updated.diagnoses()).isEqualTo(before.diagnoses());
+        assertThat(updated.medications()).isEqualTo(before.medications());
+        assertThat(archivedPatientRepository.existsById(id)).isFalse();
+        assertThat(patientRepository.findById(id)).isPresent();
+        assertThat(archiver.archiveEligible()).isZero();
+    }
+
+    @Test
+    void givenArchivedPatientsEmailTakenSince_whenUpdatedWithAnotherEmail_thenRestoresTheChartUnderIt() {
+        UUID id = createChart("reused@example.com", PatientStatus.INACTIVE, RETENTION_DAYS + 1);
+        archiver.archiveEligible();
+        patientService.createPatient(createPatientRequest("Jane", "Roe", "reused@example.com"));
+
+        assertThatThrownBy(() -> patientService.updatePatient(id,
+                updatePatientRequest("John", "Doe", "reused@example.com")))
+                .isInstanceOf(DuplicateResourceException.class)
+                .hasMessage(ExceptionMessages.PATIENT_EMAIL_EXISTS);
+        assertThat(archivedPatientRepository.existsById(id)).isTrue();
+
+        PatientResponse updated = patientService.updatePatient(id,
+                updatePatientRequest("John", "Doe", "john.new@example.com"));
+
+        assertThat(updated.email()).isEqualTo("john.new@example.com");
+        assertThat(updated.diagnoses()).hasSize(1);
+        assertThat(archivedPatientRepository.existsById(id)).isFalse();
+    }
+
+    private static ChildListQuery<DiagnosisStatus> diagnosisPage(int page) {
+        return ChildListQuery.of(DiagnosisStatus.class, null, null, null, SortFields.DIAGNOSIS_DATE,
+                SortFields.DEFAULT_DIRECTION, SortFields.DIAGNOSIS_SORTS, page, 1);
+    }
+
+    private static ChildListQuery<MedicationStatus> medicationPage(int page) {
+        return ChildListQuery.of(MedicationStatus.class, null, null, null, SortFields.START_DATE,
+                SortFields.DEFAULT_DIRECTION, SortFields.MEDICATION_SORTS, page, 1);
+    }
+
+    private UUID createChart(String email, PatientStatus status, int daysSinceUpdate) {
+        UUID id = patientService.createPatient(createPatientRequest("John", "Doe", email)).id();
+        diagnosisService.addDiagnosis(id, createDiagnosisRequest());
+        medicationService.addMedication(id, createMedicationRequest());
+        jdbcTemplate.update("UPDATE patients SET status = ?, updated_at = ? WHERE id = ?", status.name(),
+                LocalDateTime.now().minusDays(daysSinceUpdate), id);
+        return id;
+    }
+}
@@ -0,0 +1,168 @@
+package com.ehr.patient.benchmark;
+
+import com.ehr.patient.dto.DiagnosisResponse;
+import com.ehr.patient.dto.MedicationResponse;
+import com.ehr.patient.model.Diagnosis;
+import com.ehr.patient.model.Medication;
+import com.ehr.patient.model.Patient;
+import com.ehr.patient.model.enums.DiagnosisStatus;
+import com.ehr.patient.model.enums.MedicationStatus;
+import com.ehr.patient.pagination.ChildListQuery;
+import com.ehr.patient.repository.DiagnosisRepository;
+import com.ehr.patient.repository.MedicationRepository;
+import com.ehr.patient.repository.PatientRepository;
+import com.ehr.patient.utils.QueryCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static com.ehr.patient.utils.DiagnosisTestUtils.diagnosis;
+import static com.ehr.patient.utils.MedicationTestUtils.medication;
+import static com.ehr.patient.utils.PatientTestUtils.patient;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Child list reads through managed entities mapped to responses, against constructor-expression queries
+ * in read-only transactions. Allocation is measured on the calling thread, which also runs the embedded
+ * H2 engine; point it at a scratch Postgres database for realistic latency:
+ * {@code mvn test -Pbenchmark -Dspring.test.database.replace=none -Dspring.datasource.url=...}
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=false"
+})
+@Import(QueryCounter.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ChildListProjectionBenchmarkTest {
+
+    private static final int PATIENTS = 20;
+    private static final int CHILDREN_PER_PATIENT = 300;
+    private static final int WARMUP_ITERATIONS = 500;
+    private static final int MEASURED_ITERATIONS = 5_000;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DiagnosisRepository diagnosisRepository;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    private List<UUID> patientIds;
+
+    @BeforeEach
+    void seed() {
+        patientIds = IntStream.range(0, PATIENTS).mapToObj(this::persistPatient).toList();
+    }
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAll();
+    }
+
+    @Test
+    void diagnosisList() {
+        TransactionTemplate entities = new TransactionTemplate(transactionManager);
+        TransactionTemplate projection = readOnly();
+
+        run("diagnoses via entities", patientId -> entities.execute(status ->
+                diagnosisRepository.findByPatientId(patientId).stream().map(this::toResponse).toList()));
+        run("diagnoses via select new", patientId -> projection.execute(status ->
+                diagnosisRepository.findResponsesByPatientId(patientId, EnumSet.allOf(DiagnosisStatus.class),
+                        ChildListQuery.EARLIEST, ChildListQuery.LATEST, Pageable.unpaged()).getContent()));
+    }
+
+    @Test
+    void medicationList() {
+        TransactionTemplate entities = new TransactionTemplate(transactionManager);
+        TransactionTemplate projection = readOnly();
+
+        run("medications via entities", patientId -> entities.execute(status ->
+                medicationRepository.findByPatientId(patientId).stream().map(this::toResponse).toList()));
+        run("medications via select new", patientId -> projection.execute(status ->
+                medicationRepository.findResponsesByPatientId(patientId, EnumSet.allOf(MedicationStatus.class),
+                        ChildListQuery.EARLIEST, ChildListQuery.LATEST, Pageable.unpaged()).getContent()));
+    }
+
+    private TransactionTemplate readOnly() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    private void run(String name, Function<UUID, List<?>> operation) {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Random random = new Random(42);
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            assertThat(operation.apply(patientIds.get(random.nextInt(PATIENTS)))).hasSize(CHILDREN_PER_PATIENT);
+        }
+        queryCounter.reset();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long started = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            operation.apply(patientIds.get(random.nextInt(PATIENTS)));
+        }
+        long elapsed = System.nanoTime() - started;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        System.out.printf("%-28s %8.0f ops/s %8.1f us/op %8.1f KB/op %6.2f statements/op%n",
+                name, MEASURED_ITERATIONS / (elapsed / 1e9), elapsed / 1e3 / MEASURED_ITERATIONS,
+                allocated / 1024.0 / MEASURED_ITERATIONS, (double) queryCounter.statements() / MEASURED_ITERATIONS);
+    }
+
+    private DiagnosisResponse toResponse(Diagnosis diagnosis) {
+        return new DiagnosisResponse(diagnosis.getId(), diagnosis.getPatient().getId(), diagnosis.getIcdCode(),
+                diagnosis.getDescription(), diagnosis.getDiagnosisDate(), diagnosis.getStatus(),
+                diagnosis.getCreatedAt(), diagnosis.getUpdatedAt());
+    }
+
+    private MedicationResponse toResponse(Medication medication) {
+        return new MedicationResponse(medication.getId(), medication.getPatient().getId(), medication.getName(),
+                medication.getDosage(), medication.getFrequency(), medication.getStatus(), medication.getStartDate(),
+                medication.getEndDate(), medication.isContraindicated(), medication.getWashoutDays(),
+                medication.getWashoutNotes(), medication.getCreatedAt(), medication.getUpdatedAt());
+    }
+
+    private UUID persistPatient(int index) {
+        Patient patient = patient("John", "Doe" + index, "patient" + index + "@example.com");
+        patient.setId(null);
+        Patient saved = patientRepository.save(patient);
+        diagnosisRepository.saveAll(IntStream.range(0, CHILDREN_PER_PATIENT).mapToObj(i -> {
+            Diagnosis diagnosis = diagnosis(saved, "F43." + i, "Diagnosis " + i);
+            diagnosis.setId(null);
+            return diagnosis;
+        }).toList());
+        medicationRepository.saveAll(IntStream.range(0, CHILDREN_PER_PATIENT).mapToObj(i -> {
+            Medication medication = medication(saved, "Medication " + i, "10mg", i % 3 == 0);
+            medication.setId(null);
+            return medication;
+        }).toList());
+        return saved.getId();
+    }
+}
@@ -0,0 +1,158 @@
+package com.ehr.patient.benchmark;
+
+import com.ehr.patient.archive.PatientArchive;
+import com.ehr.patient.config.EntityCacheConfig;
+import com.ehr.patient.config.ShardingConfig;
+import com.ehr.patient.model.Diagnosis;
+import com.ehr.patient.model.Medication;
+import com.ehr.patient.model.Patient;
+import com.ehr.patient.repository.DiagnosisRepository;
+import com.ehr.patient.repository.MedicationRepository;
+import com.ehr.patient.repository.PatientBatchRepository;
+import com.ehr.patient.repository.PatientRepository;
+import com.ehr.patient.service.DiagnosisService;
+import com.ehr.patient.service.MedicationService;
+import com.ehr.patient.service.PatientService;
+import com.ehr.patient.sharding.ScatterGather;
+import com.ehr.patient.utils.QueryCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static com.ehr.patient.utils.DiagnosisTestUtils.diagnosis;
+import static com.ehr.patient.utils.DiagnosisTestUtils.diagnosisListQuery;
+import static com.ehr.patient.utils.MedicationTestUtils.medication;
+import static com.ehr.patient.utils.MedicationTestUtils.medicationListQuery;
+import static com.ehr.patient.utils.PatientTestUtils.patient;
+
+/**
+ * Hot read paths with and without the second-level cache. Runs on H2 by default, which hides network
+ * latency; point it at a scratch Postgres database for realistic numbers:
+ * {@code mvn test -Pbenchmark -Dspring.test.database.replace=none -Dspring.datasource.url=...}
+ */
+@Tag("benchmark")
+class EntityCacheBenchmarkTest {
+
+    private static final int PATIENTS = 500;
+    private static final int CHILDREN_PER_PATIENT = 10;
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int MEASURED_ITERATIONS = 20_000;
+
+    @Nested
+    @TestPropertySource(properties = "patient.entity-cache.enabled=true")
+    class WithEntityCache extends HotReadPaths {
+    }
+
+    @Nested
+    @TestPropertySource(properties = "patient.entity-cache.enabled=false")
+    class WithoutEntityCache extends HotReadPaths {
+    }
+
+    @DataJpaTest(properties = {
+            "spring.flyway.enabled=false",
+            "spring.jpa.hibernate.ddl-auto=create-drop",
+            "spring.jpa.properties.hibernate.generate_statistics=false"
+    })
+    @Import({EntityCacheConfig.class, PatientService.class, DiagnosisService.class, MedicationService.class,
+            QueryCounter.class, ShardingConfig.class, ScatterGather.class, PatientArchive.class,
+            PatientBatchRepository.class})
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    abstract static class HotReadPaths {
+
+        @Autowired
+        private PatientRepository patientRepository;
+
+        @Autowired
+        private DiagnosisRepository diagnosisRepository;
+
+        @Autowired
+        private MedicationRepository medicationRepository;
+
+        @Autowired
+        private PatientService patientService;
+
+        @Autowired
+        private DiagnosisService diagnosisService;
+
+        @Autowired
+        private MedicationService medicationService;
+
+        @Autowired
+        private QueryCounter queryCounter;
+
+        private List<UUID> patientIds;
+
+        @BeforeEach
+        void seed() {
+            patientIds = IntStream.range(0, PATIENTS).mapToObj(this::persistPatient).toList();
+        }
+
+        @AfterEach
+        void tearDown() {
+            patientRepository.deleteAll();
+        }
+
+        @Test
+        void getPatient() {
+            run("getPatient", patientService::getPatient);
+        }
+
+        @Test
+        void guardedChildListReads() {
+            run("getDiagnoses+getMedications+getContraindications", patientId -> {
+                diagnosisService.getDiagnoses(patientId, diagnosisListQuery());
+                medicationService.getMedications(patientId, medicationListQuery());
+                medicationService.getContraindications(patientId);
+            });
+        }
+
+        private void run(String name, Consumer<UUID> operation) {
+            Random random = new Random(42);
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                operation.accept(patientIds.get(random.nextInt(PATIENTS)));
+            }
+            queryCounter.reset();
+            long started = System.nanoTime();
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                operation.accept(patientIds.get(random.nextInt(PATIENTS)));
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            System.out.printf("%-22s %-50s %10.0f ops/s %6.2f statements/op %8.2f rows/op%n",
+                    getClass().getSimpleName(), name, MEASURED_ITERATIONS / seconds,
+                    (double) queryCounter.statements() / MEASURED_ITERATIONS,
+                    (double) queryCounter.rows() / MEASURED_ITERATIONS);
+        }
+
+        private UUID persistPatient(int index) {
+            Patient patient = patient("John", "Doe" + index, "patient" + index + "@example.com");
+            patient.setId(null);
+            Patient saved = patientRepository.save(patient);
+            diagnosisRepository.saveAll(IntStream.range(0, CHILDREN_PER_PATIENT).mapToObj(i -> {
+                Diagnosis diagnosis = diagnosis(saved, "F43." + i, "Diagnosis " + i);
+                diagnosis.setId(null);
+                return diagnosis;
+            }).toList());
+            medicationRepository.saveAll(IntStream.range(0, CHILDREN_PER_PATIENT).mapToObj(i -> {
+                Medication medication = medication(saved, "Medication " + i, "10mg", i % 3 == 0);
+                medication.setId(null);
+                return medication;
+            }).toList());
+            return saved.getId();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.ehr.patient.benchmark;
+
+import com.ehr.patient.archive.PatientArchive;
+import com.ehr.patient.config.ShardingConfig;
+import com.ehr.patient.export.BulkExportJob;
+import com.ehr.patient.export.BulkExportService;
+import com.ehr.patient.export.ParquetExporter;
+import com.ehr.patient.model.Diagnosis;
+import com.ehr.patient.model.Medication;
+import com.ehr.patient.model.Patient;
+import com.ehr.patient.repository.DiagnosisRepository;
+import com.ehr.patient.repository.MedicationRepository;
+import com.ehr.patient.repository.PatientBatchRepository;
+import com.ehr.patient.repository.PatientRepository;
+import com.ehr.patient.sharding.ScatterGather;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+import static com.ehr.patient.utils.DiagnosisTestUtils.diagnosis;
+import static com.ehr.patient.utils.MedicationTestUtils.medication;
+import static com.ehr.patient.utils.PatientTestUtils.patient;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Export throughput and output size of the NDJSON bulk export against the Parquet analytics export, over
+ * the same rows. Cities, states, ICD codes and drug names repeat the way they do in a real chart
+ * population, which is what dictionary encoding pays off on. Times include reading from the embedded H2
+ * engine; point it at a scratch Postgres database for realistic numbers:
+ * {@code mvn test -Pbenchmark -Dspring.test.database.replace=none -Dspring.datasource.url=...}
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=false",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"
+})
+@Import({ShardingConfig.class, ScatterGather.class, PatientArchive.class, PatientBatchRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ParquetExportBenchmarkTest {
+
+    private static final int PATIENTS = 20_000;
+    private static final int DIAGNOSES_PER_PATIENT = 3;
+    private static final int MEDICATIONS_PER_PATIENT = 2;
+    private static final long ROWS = PATIENTS * (1L + DIAGNOSES_PER_PATIENT + MEDICATIONS_PER_PATIENT);
+    private static final int WARMUP_RUNS = 1;
+    private static final int MEASURED_RUNS = 3;
+    private static final int CHUNK_SIZE = 20_000;
+    private static final int WORKERS = 4;
+    private static final int BUFFER_SIZE = 65_536;
+    private static final LocalDate EXPORT_DATE = LocalDate.of(2026, 1, 31);
+
+    private static final String[][] PLACES = {
+            {"Springfield", "IL"}, {"Chicago", "IL"}, {"Peoria", "IL"}, {"Austin", "TX"}, {"Houston", "TX"},
+            {"Dallas", "TX"}, {"Denver", "CO"}, {"Boulder", "CO"}, {"Portland", "OR"}, {"Salem", "OR"}};
+    private static final String[] ICD_CODES = {
+            "F43.10", "E11.9", "I10", "J45.909", "M54.5", "F32.9", "E78.5", "K21.9", "N39.0", "G43.909"};
+    private static final String[] DRUGS = {
+            "Sertraline", "Metformin", "Lisinopril", "Albuterol", "Atorvastatin", "Omeprazole"};
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DiagnosisRepository diagnosisRepository;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private ScatterGather scatterGather;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path exportDirectory;
+
+    @BeforeEach
+    void seed() {
+        for (int from = 0; from < PATIENTS; from += 1_000) {
+            persistPatients(from, Math.min(from + 1_000, PATIENTS));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAll();
+    }
+
+    @Test
+    void ndjsonAgainstParquet() {
+        BulkExportService bulkExport = new BulkExportService(patientRepository, diagnosisRepository,
+                medicationRepository, scatterGather, transactionManager, JsonMapper.builder().build(),
+                new SimpleMeterRegistry(), exportDirectory.resolve("ndjson"), 1, 1, BUFFER_SIZE, 1);
+        try {
+            run("ndjson", () -> ndjson(bulkExport, false));
+            run("ndjson gzip", () -> ndjson(bulkExport, true));
+        } finally {
+            bulkExport.destroy();
+        }
+        for (String codec : List.of("uncompressed", "snappy", "zstd")) {
+            ParquetExporter parquet = new ParquetExporter(patientRepository, diagnosisRepository,
+                    medicationRepository, scatterGather, transactionManager, new SimpleMeterRegistry(),
+                    exportDirectory.resolve("parquet-" + codec), CHUNK_SIZE, WORKERS, codec);
+            try {
+                run("parquet " + codec, () -> {
+                    assertThat(parquet.export(EXPORT_DATE)).isEqualTo(ROWS);
+                    return directorySize(exportDirectory.resolve("parquet-" + codec));
+                });
+            } finally {
+                parquet.destroy();
+            }
+        }
+    }
+
+    private long ndjson(BulkExportService bulkExport, boolean gzip) {
+        BulkExportJob job = bulkExport.start("benchmark", gzip);
+        await().atMost(Duration.ofMinutes(5)).until(() -> job.getStatus() == BulkExportJob.Status.COMPLETED
+                || job.getStatus() == BulkExportJob.Status.FAILED);
+        assertThat(job.getStatus()).isEqualTo(BulkExportJob.Status.COMPLETED);
+        assertThat(job.getExportedRows()).isEqualTo(ROWS);
+        long bytes = job.getOutput().stream().mapToLong(BulkExportJob.OutputFile::bytes).sum();
+        bulkExport.delete(job.getId());
+        return bytes;
+    }
+
+    // Runs the export and reports rows per second and the bytes it wrote.
+    private static void run(String name, LongSupplier export) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            export.getAsLong();
+        }
+        long bytes = 0;
+        long started = System.nanoTime();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            bytes = export.getAsLong();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9 / MEASURED_RUNS;
+        System.out.printf("%-20s %10.0f rows/s %8.1f ms/export %10.1f KB %6.1f bytes/row%n",
+                name, ROWS / seconds, seconds * 1e3, bytes / 1024.0, (double) bytes / ROWS);
+    }
+
+    private static long directorySize(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).mapToLong(ParquetExportBenchmarkTest::size).sum();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void persistPatients(int from, int to) {
+        List<Patient> patients = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            Patient patient = patient("John" + i, "Doe" + i, "patient" + i + "@example.com");
+            patient.setId(null);
+            String[] place = PLACES[i % PLACES.length];
+            patient.setCity(place[0]);
+            patient.setState(place[1]);
+            patients.add(patient);
+        }
+        List<Patient> saved = patientRepository.saveAll(patients);
+        List<Diagnosis> diagnoses = new ArrayList<>();
+        List<Medication> medications = new ArrayList<>();
+        for (int p = 0; p < saved.size(); p++) {
+            for (int i = 0; i < DIAGNOSES_PER_PATIENT; i++) {
+                Diagnosis diagnosis = diagnosis(saved.get(p), ICD_CODES[(from + p + i) % ICD_CODES.length],
+                        "Diagnosis " + i);
+                diagnosis.setId(null);
+                diagnoses.add(diagnosis);
+            }
+            for (int i = 0; i < MEDICATIONS_PER_PATIENT; i++) {
+                Medication medication = medication(saved.get(p), DRUGS[(from + p + i) % DRUGS.length], "10mg", false);
+                medication.setId(null);
+                medications.add(medication);
+            }
+        }
+        diagnosisRepository.saveAll(diagnoses);
+        medicationRepository.saveAll(medications);
+    }
+}
@@ -0,0 +1,148 @@
+package com.ehr.patient.benchmark;
+
+import com.ehr.patient.config.ShardingConfig;
+import com.ehr.patient.pagination.PatientSearchQuery;
+import com.ehr.patient.repository.PatientRepository;
+import com.ehr.patient.repository.PatientSearchRepository;
+import com.ehr.patient.service.PatientSearchService;
+import com.ehr.patient.sharding.ScatterGather;
+import com.ehr.patient.utils.PlanCapture;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Name search at 1M patients: the derived {@code findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase}
+ * query against the trigram-indexed search, for a common, a rare and an absent name, plus email and phone
+ * lookups the derived query cannot do. Each query is explained with ANALYZE, so the times are the server's
+ * own and leave out hydrating the derived query's entities. Needs Docker; seeding takes a few minutes.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=false",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        // The budget would cancel the broad searches this compares; it is not what is measured here.
+        "patient.search.statement-timeout-ms=60000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PatientSearchService.class, PatientSearchRepository.class, PlanCapture.class, ShardingConfig.class,
+        ScatterGather.class, SimpleMeterRegistry.class})
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PatientSearchBenchmarkTest {
+
+    private static final int PATIENTS = 1_000_000;
+    private static final int MEASURED_RUNS = 20;
+
+    private static final String SEED = """
+            INSERT INTO patients (id, first_name, last_name, date_of_birth, gender, email, phone, city, state,
+                                  status, created_at, updated_at)
+            SELECT gen_random_uuid(),
+                   (ARRAY['James', 'Mary', 'Robert', 'Patricia', 'John', 'Jennifer', 'Michael', 'Linda',
+                          'David', 'Elizabeth', 'William', 'Barbara', 'Richard', 'Susan', 'Joseph', 'Jessica',
+                          'Thomas', 'Sarah', 'Charles', 'Karen'])[1 + i % 20],
+                   CASE WHEN i % 10000 = 0 THEN 'Quintanilla'
+                        ELSE (ARRAY['Smith', 'Johnson', 'Williams', 'Brown', 'Jones', 'Garcia', 'Miller',
+                                    'Davis', 'Rodriguez', 'Martinez', 'Hernandez', 'Lopez', 'Gonzalez', 'Wilson',
+                                    'Anderson', 'Thomas', 'Taylor', 'Moore', 'Jackson', 'Martin'])[1 + (i / 20) % 20]
+                   END,
+                   DATE '1940-01-01' + i % 25000,
+                   CASE WHEN i % 2 = 0 THEN 'Female' ELSE 'Male' END,
+                   'patient' || i || '@example.com',
+                   '555-' || lpad((i % 1000)::text, 3, '0') || '-' || lpad((i / 1000)::text, 4, '0'),
+                   'Springfield', 'IL', 'ACTIVE', now(), now()
+            FROM generate_series(1, ?) AS i""";
+
+    @Container
+    @ServiceConnection
+    private static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:18.1-alpine");
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PatientSearchService patientSearchService;
+
+    @Autowired
+    private PlanCapture planCapture;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // The container lives for this class only, so the rows are not cleaned up.
+    @BeforeEach
+    void seed() {
+        if (patientRepository.count() == 0) {
+            jdbcTemplate.update(SEED, PATIENTS);
+            jdbcTemplate.execute("ANALYZE patients");
+        }
+    }
+
+    @Test
+    void derivedQueryAgainstTrigramSearch() {
+        System.out.printf("%-32s %8s %10s  %s%n", "query", "rows", "server ms", "indexes");
+        for (String name : List.of("smith", "quintanilla", "zzq")) {
+            PlanCapture.Plan derived = explain("derived name=" + name, () -> patientRepository
+                    .findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(name, name).size());
+            PlanCapture.Plan search = explainSearch("search name=" + name,
+                    PatientSearchQuery.of(name, null, null, null, 0, 50));
+            assertThat(derived.indexes()).as("derived %s", name).isEmpty();
+            if (!name.equals("smith")) {
+                assertThat(search.indexes()).as("search %s", name)
+                        .contains("idx_patients_first_name_trgm", "idx_patients_last_name_trgm");
+            }
+        }
+        assertThat(explainSearch("search email=patient424242@",
+                PatientSearchQuery.of(null, "patient424242@", null, null, 0, 50)).indexes())
+                .contains("idx_patients_email_trgm");
+        assertThat(explainSearch("search phone=042-0424",
+                PatientSearchQuery.of(null, null, "042-0424", null, 0, 50)).indexes())
+                .contains("idx_patients_phone_trgm");
+    }
+
+    // Explains the search, then reports its mean end-to-end time through the service.
+    private PlanCapture.Plan explainSearch(String label, PatientSearchQuery query) {
+        PlanCapture.Plan plan = explain(label, () -> patientSearchService.search(query).items().size());
+        long started = System.nanoTime();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            patientSearchService.search(query);
+        }
+        System.out.printf("%-32s %8s %10.2f  (end to end)%n", label, "",
+                (System.nanoTime() - started) / 1e6 / MEASURED_RUNS);
+        return plan;
+    }
+
+    // Runs the read once under capture and reports the plan of its patients query.
+    private PlanCapture.Plan explain(String label, RowCount read) {
+        planCapture.start();
+        int rows = read.get();
+        PlanCapture.Plan plan = planCapture.stop().stream()
+                .filter(captured -> captured.sql().contains(" from patients "))
+                .findFirst()
+                .orElseThrow();
+        System.out.printf("%-32s %8d %10.2f  %s%n", label, rows, plan.executionMillis(), plan.indexes());
+        return plan;
+    }
+
+    @FunctionalInterface
+    private interface RowCount {
+
+        int get();
+    }
+}
@@ -0,0 +1,121 @@
+package com.ehr.patient.cache;
+
+import com.ehr.patient.PatientServiceApplication;
+import com.ehr.patient.service.DiagnosisService;
+import com.ehr.patient.service.PatientService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static com.ehr.patient.utils.DiagnosisTestUtils.createDiagnosisRequest;
+import static com.ehr.patient.utils.PatientTestUtils.createPatientRequest;
+import static com.ehr.patient.utils.PatientTestUtils.updatePatientRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Two application instances sharing one Postgres database, each with its own local caches.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class CacheInvalidationListenerTest {
+
+    private static final Duration PROPAGATION_TIMEOUT = Duration.ofSeconds(10);
+
+    @Container
+    private static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:18.1-alpine");
+
+    private static ConfigurableApplicationContext writer;
+    private static ConfigurableApplicationContext reader;
+
+    @BeforeAll
+    static void startInstances() {
+        writer = startInstance();
+        reader = startInstance();
+        await().atMost(PROPAGATION_TIMEOUT).until(() -> resyncs(reader) >= 1 && resyncs(writer) >= 1);
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        if (reader != null) {
+            reader.close();
+        }
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    @Test
+    void givenPatientCachedOnReader_whenUpdatedOnWriter_thenReaderEvictsIt() {
+        var patientId = createPatient("reader.cached@example.com");
+        assertThat(patientService(reader).getPatient(patientId).email()).isEqualTo("reader.cached@example.com");
+
+        patientService(writer).updatePatient(patientId, updatePatientRequest("John", "Doe", "writer.updated@example.com"));
+
+        await().atMost(PROPAGATION_TIMEOUT).untilAsserted(() ->
+                assertThat(patientService(reader).getPatient(patientId).email())
+                        .isEqualTo("writer.updated@example.com"));
+    }
+
+    @Test
+    void givenPatientCachedOnReader_whenDiagnosisAddedOnWriter_thenReaderEvictsIt() {
+        var patientId = createPatient("reader.diagnosis@example.com");
+        assertThat(patientService(reader).getPatient(patientId).diagnoses()).isEmpty();
+
+        writer.getBean(DiagnosisService.class).addDiagnosis(patientId, createDiagnosisRequest());
+
+        await().atMost(PROPAGATION_TIMEOUT).untilAsserted(() ->
+                assertThat(patientService(reader).getPatient(patientId).diagnoses()).hasSize(1));
+    }
+
+    @Test
+    void givenListenerConnectionKilled_whenUpdatedOnWriter_thenReaderResyncsAndEvictsIt() {
+        var patientId = createPatient("reader.reconnect@example.com");
+        assertThat(patientService(reader).getPatient(patientId).email()).isEqualTo("reader.reconnect@example.com");
+        double resyncsBefore = resyncs(reader);
+
+        // Kills both instances' listeners; the update below may land while the reader is disconnected.
+        writer.getBean(JdbcTemplate.class).queryForList(
+                "SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE application_name = ?",
+                "patient-service-cache-invalidation");
+        patientService(writer).updatePatient(patientId, updatePatientRequest("John", "Doe", "after.reconnect@example.com"));
+
+        await().atMost(PROPAGATION_TIMEOUT).untilAsserted(() -> {
+            assertThat(resyncs(reader)).isGreaterThan(resyncsBefore);
+            assertThat(patientService(reader).getPatient(patientId).email())
+                    .isEqualTo("after.reconnect@example.com");
+        });
+    }
+
+    private static ConfigurableApplicationContext startInstance() {
+        return new SpringApplicationBuilder(PatientServiceApplication.class).run(
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword(),
+                "--server.port=0",
+                "--patient.outbox.relay.enabled=false",
+                "--patient.cache.invalidation.poll-timeout-ms=500",
+                "--patient.cache.invalidation.reconnect-delay-ms=200");
+    }
+
+    private static UUID createPatient(String email) {
+        return patientService(writer).createPatient(createPatientRequest("John", "Doe", email)).id();
+    }
+
+    private static PatientService patientService(ConfigurableApplicationContext context) {
+        return context.getBean(PatientService.class);
+    }
+
+    private static double resyncs(ConfigurableApplicationContext context) {
+        return context.getBean(MeterRegistry.class).counter(CacheInvalidationListener.RESYNCS_METRIC).count();
+    }
+}
@@ -0,0 +1,38 @@
+package com.ehr.patient.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CacheInvalidationTest {
+
+    @Test
+    void givenPatientPayload_whenParse_thenInvalidatesPatientOnly() {
+        var patientId = UUID.randomUUID();
+
+        var invalidation = CacheInvalidation.parse(patientId.toString());
+
+        assertThat(invalidation).isEqualTo(new CacheInvalidation(patientId, CacheInvalidation.Kind.PATIENT, null));
+    }
+
+    @Test
+    void givenDiagnosisPayload_whenParse_thenCarriesDiagnosisId() {
+        var patientId = UUID.randomUUID();
+        var diagnosisId = UUID.randomUUID();
+
+        var invalidation = CacheInvalidation.parse(patientId + ":D:" + diagnosisId);
+
+        assertThat(invalidation)
+                .isEqualTo(new CacheInvalidation(patientId, CacheInvalidation.Kind.DIAGNOSIS, diagnosisId));
+    }
+
+    @Test
+    void givenUnknownKind_whenParse_thenThrowsIllegalArgumentException() {
+        var payload = UUID.randomUUID() + ":X:" + UUID.randomUUID();
+
+        assertThatThrownBy(() -> CacheInvalidation.parse(payload)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,232 @@
+package com.ehr.patient.clinicalsearch;
+
+import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.dto.ClinicalSearchHit;
+import com.ehr.patient.dto.CreateDiagnosisRequest;
+import com.ehr.patient.dto.CreateMedicationRequest;
+import com.ehr.patient.dto.PageResponse;
+import com.ehr.patient.dto.UpdatePatientRequest;
+import com.ehr.patient.exception.InvalidListQueryException;
+import com.ehr.patient.model.Diagnosis;
+import com.ehr.patient.model.Patient;
+import com.ehr.patient.model.enums.ClinicalRecordType;
+import com.ehr.patient.model.enums.DiagnosisStatus;
+import com.ehr.patient.model.enums.MedicationStatus;
+import com.ehr.patient.model.enums.PatientStatus;
+import com.ehr.patient.pagination.ClinicalSearchQuery;
+import com.ehr.patient.repository.DiagnosisRepository;
+import com.ehr.patient.repository.PatientRepository;
+import com.ehr.patient.service.DiagnosisService;
+import com.ehr.patient.service.MedicationService;
+import com.ehr.patient.service.PatientService;
+import com.ehr.patient.utils.ServiceSliceTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static com.ehr.patient.utils.DiagnosisTestUtils.diagnosis;
+import static com.ehr.patient.utils.PatientTestUtils.createPatientRequest;
+import static com.ehr.patient.utils.PatientTestUtils.patient;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@ServiceSliceTest
+@TestPropertySource(properties = "patient.clinical-search.directory=target/clinical-search-index-test")
+@Import(ClinicalSearchIndex.class)
+class ClinicalSearchIndexTest {
+
+    @Autowired
+    private ClinicalSearchIndex clinicalSearchIndex;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private DiagnosisService diagnosisService;
+
+    @Autowired
+    private MedicationService medicationService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DiagnosisRepository diagnosisRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAll();
+        clinicalSearchIndex.rebuild();
+    }
+
+    @Test
+    void givenRecordsWrittenThroughServices_whenRefreshed_thenSearchMatchesStemmedWordsAcrossFields() {
+        UUID patientId = createPatient("ann@example.com");
+        diagnosisService.addDiagnosis(patientId, diagnosisRequest("I10", "Essential hypertension",
+                DiagnosisStatus.ACTIVE));
+        medicationService.addMedication(patientId, medicationRequest("Lisinopril", "10mg",
+                "Monitor for hypertensive rebound", MedicationStatus.ACTIVE));
+
+        clinicalSearchIndex.refresh();
+
+        assertThat(search("hypertensive", null, null, null, null).items())
+                .extracting(ClinicalSearchHit::type)
+                .containsExactlyInAnyOrder(ClinicalRecordType.DIAGNOSIS, ClinicalRecordType.MEDICATION);
+        assertThat(search("lisinopril 10mg", null, null, null, null).items())
+                .extracting(ClinicalSearchHit::name, ClinicalSearchHit::patientId)
+                .containsExactly(tuple("Lisinopril", patientId));
+        assertThat(search("i10", null, null, null, null).items())
+                .extracting(ClinicalSearchHit::description)
+                .containsExactly("Essential hypertension");
+    }
+
+    @Test
+    void givenMatchesInSeveralFields_whenSearch_thenRanksMedicationNameAboveWashoutNotes() {
+        UUID patientId = createPatient("bo@example.com");
+        medicationService.addMedication(patientId, medicationRequest("Warfarin", "5mg",
+                "Stop before starting aspirin", MedicationStatus.ACTIVE));
+        medicationService.addMedication(patientId, medicationRequest("Aspirin", "81mg",
+                "Taper over a week", MedicationStatus.ACTIVE));
+
+        clinicalSearchIndex.refresh();
+
+        assertThat(search("aspirin", null, null, null, null).items())
+                .extracting(ClinicalSearchHit::name)
+                .containsExactly("Aspirin", "Warfarin");
+    }
+
+    @Test
+    void givenStatusFilters_whenSearch_thenNarrowsEachRecordTypeAndPatientStatus() {
+        UUID activePatient = createPatient("cy@example.com");
+        UUID deceasedPatient = createPatient("di@example.com");
+        diagnosisService.addDiagnosis(activePatient, diagnosisRequest("J45", "Mild asthma",
+                DiagnosisStatus.RESOLVED));
+        diagnosisService.addDiagnosis(deceasedPatient, diagnosisRequest("J45", "Severe asthma",
+                DiagnosisStatus.ACTIVE));
+        medicationService.addMedication(activePatient, medicationRequest("Albuterol", "90mcg",
+                "Asthma rescue inhaler", MedicationStatus.DISCONTINUED));
+        patientService.updatePatient(deceasedPatient, updateRequest(PatientStatus.DECEASED));
+
+        clinicalSearchIndex.refresh();
+
+        assertThat(search("asthma", null, null, null, null).items()).hasSize(3);
+        assertThat(search("asthma", List.of(ClinicalRecordType.DIAGNOSIS), null, List.of(DiagnosisStatus.ACTIVE),
+                null).items())
+                .extracting(ClinicalSearchHit::description)
+                .containsExactly("Severe asthma");
+        assertThat(search("asthma", null, List.of(PatientStatus.ACTIVE), null,
+                List.of(MedicationStatus.ACTIVE)).items())
+                .extracting(ClinicalSearchHit::description)
+                .containsExactly("Mild asthma");
+        assertThat(search("asthma", null, List.of(PatientStatus.DECEASED), null, null).items())
+                .extracting(ClinicalSearchHit::patientId)
+                .containsExactly(deceasedPatient);
+    }
+
+    @Test
+    void givenRowsWrittenWithoutEvents_whenRebuild_thenIndexesThemAndDropsDeletedOnes() {
+        Patient patient = patient("Eve", "Stone", "eve@example.com");
+        patient.setId(null);
+        patient = patientRepository.save(patient);
+        Diagnosis kept = diagnosisRepository.save(withoutId(diagnosis(patient, "E11.9", "Type 2 diabetes")));
+        Diagnosis dropped = diagnosisRepository.save(withoutId(diagnosis(patient, "E10.9", "Type 1 diabetes")));
+
+        clinicalSearchIndex.rebuild();
+        assertThat(search("diabetes", null, null, null, null).items()).hasSize(2);
+
+        diagnosisRepository.delete(dropped);
+        clinicalSearchIndex.rebuild();
+
+        assertThat(search("diabetes", null, null, null, null).items())
+                .extracting(ClinicalSearchHit::id)
+                .containsExactly(kept.getId());
+        assertThat(meterRegistry.get(ClinicalSearchIndex.DOCUMENTS_METRIC).gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get(ClinicalSearchIndex.REBUILD_METRIC).timer().count()).isPositive();
+    }
+
+    @Test
+    void givenMoreHitsThanPageSize_whenSearch_thenPagesThroughThem() {
+        UUID patientId = createPatient("fay@example.com");
+        for (int i = 0; i < 3; i++) {
+            diagnosisService.addDiagnosis(patientId, diagnosisRequest("M54." + i, "Chronic back pain",
+                    DiagnosisStatus.ACTIVE));
+        }
+        clinicalSearchIndex.refresh();
+
+        PageResponse<ClinicalSearchHit> first = clinicalSearchIndex.search(
+                ClinicalSearchQuery.of("pain", null, null, null, null, 0, 2));
+        PageResponse<ClinicalSearchHit> second = clinicalSearchIndex.search(
+                ClinicalSearchQuery.of("pain", null, null, null, null, 1, 2));
+
+        assertThat(first.items()).hasSize(2);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.items()).hasSize(1);
+        assertThat(second.hasNext()).isFalse();
+    }
+
+    @Test
+    void givenOnlyStopWords_whenSearch_thenRejectsQuery() {
+        assertThatThrownBy(() -> search("the and of", null, null, null, null))
+                .isInstanceOf(InvalidListQueryException.class)
+                .hasMessage(ExceptionMessages.CLINICAL_SEARCH_NO_TERMS);
+    }
+
+    @Test
+    void givenPatientStatusChangedEarlier_whenRecordsAdded_thenIndexesThemUnderTheCommittedStatus() {
+        UUID patientId = createPatient("ed@example.com");
+        patientService.updatePatient(patientId, updateRequest(PatientStatus.INACTIVE));
+
+        diagnosisService.addDiagnosis(patientId, diagnosisRequest("I10", "Essential hypertension",
+                DiagnosisStatus.ACTIVE));
+        medicationService.addMedication(patientId, medicationRequest("Lisinopril", "10mg",
+                "Hypertension follow-up", MedicationStatus.ACTIVE));
+        clinicalSearchIndex.refresh();
+
+        assertThat(search("hypertension", null, List.of(PatientStatus.INACTIVE), null, null).items()).hasSize(2);
+        assertThat(search("hypertension", null, List.of(PatientStatus.ACTIVE), null, null).items()).isEmpty();
+    }
+
+    private PageResponse<ClinicalSearchHit> search(String text, List<ClinicalRecordType> types,
+                                                   List<PatientStatus> patientStatuses,
+                                                   List<DiagnosisStatus> diagnosisStatuses,
+                                                   List<MedicationStatus> medicationStatuses) {
+        return clinicalSearchIndex.search(ClinicalSearchQuery.of(text, types, patientStatuses, diagnosisStatuses,
+                medicationStatuses, 0, 20));
+    }
+
+    private UUID createPatient(String email) {
+        return patientService.createPatient(createPatientRequest("John", "Doe", email)).id();
+    }
+
+    private static Diagnosis withoutId(Diagnosis diagnosis) {
+        diagnosis.setId(null);
+        return diagnosis;
+    }
+
+    private static CreateDiagnosisRequest diagnosisRequest(String icdCode, String description,
+                                                           DiagnosisStatus status) {
+        return new CreateDiagnosisRequest(icdCode, description, LocalDate.of(2024, 1, 15), status);
+    }
+
+    private static CreateMedicationRequest medicationRequest(String name, String dosage, String washoutNotes,
+                                                             MedicationStatus status) {
+        return new CreateMedicationRequest(name, dosage, "Once daily", status, LocalDate.of(2024, 1, 20), null,
+                false, 14, washoutNotes);
+    }
+
+    private static UpdatePatientRequest updateRequest(PatientStatus status) {
+        return new UpdatePatientRequest("John", "Doe", LocalDate.of(1985, 3, 15), "Male", null, null, null, null,
+                null, null, null, null, status);
+    }
+}
@@ -0,0 +1,150 @@
+package com.ehr.patient.config;
+
+import com.ehr.patient.constant.CacheNames;
+import com.ehr.patient.model.Diagnosis;
+import com.ehr.patient.model.Medication;
+import com.ehr.patient.model.Patient;
+import com.ehr.patient.repository.DiagnosisRepository;
+import com.ehr.patient.repository.MedicationRepository;
+import com.ehr.patient.repository.PatientRepository;
+import com.ehr.patient.service.DiagnosisService;
+import com.ehr.patient.service.MedicationService;
+import com.ehr.patient.service.PatientService;
+import com.ehr.patient.utils.QueryCounter;
+import com.ehr.patient.utils.ServiceSliceTest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static com.ehr.patient.utils.DiagnosisTestUtils.createDiagnosisRequest;
+import static com.ehr.patient.utils.DiagnosisTestUtils.diagnosis;
+import static com.ehr.patient.utils.DiagnosisTestUtils.diagnosisListQuery;
+import static com.ehr.patient.utils.MedicationTestUtils.createMedicationRequest;
+import static com.ehr.patient.utils.MedicationTestUtils.medication;
+import static com.ehr.patient.utils.MedicationTestUtils.medicationListQuery;
+import static com.ehr.patient.utils.PatientTestUtils.patient;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ServiceSliceTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.cache.use_second_level_cache=true")
+@Import(EntityCacheConfig.class)
+class EntityCacheConfigTest {
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DiagnosisRepository diagnosisRepository;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private DiagnosisService diagnosisService;
+
+    @Autowired
+    private MedicationService medicationService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    private Statistics statistics;
+    private UUID patientId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        patientId = persistPatient(3, 4);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAll();
+    }
+
+    @Test
+    void givenWarmCache_whenGetPatient_thenServesEntityAndCollectionsWithoutStatements() {
+        patientService.getPatient(patientId);
+        statistics.clear();
+        queryCounter.reset();
+
+        var response = patientService.getPatient(patientId);
+
+        assertThat(response.diagnoses()).hasSize(3);
+        assertThat(response.medications()).hasSize(4);
+        assertThat(queryCounter.statements()).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics(CacheNames.PATIENT_REGION).getHitCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics(CacheNames.PATIENT_DIAGNOSES_REGION).getHitCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics(CacheNames.MEDICATION_REGION).getHitCount()).isEqualTo(4);
+    }
+
+    @Test
+    void givenWarmCache_whenGuardedListReads_thenOnlyListQueriesHitTheDatabase() {
+        patientService.getPatient(patientId);
+        queryCounter.reset();
+
+        diagnosisService.getDiagnoses(patientId, diagnosisListQuery());
+        medicationService.getMedications(patientId, medicationListQuery());
+        medicationService.getContraindications(patientId);
+
+        assertThat(queryCounter.statements()).isEqualTo(3);
+    }
+
+    @Test
+    void givenWarmCache_whenAddDiagnosisAndMedication_thenCollectionsAreReloaded() {
+        patientService.getPatient(patientId);
+        queryCounter.reset();
+
+        diagnosisService.addDiagnosis(patientId, createDiagnosisRequest());
+        medicationService.addMedication(patientId, createMedicationRequest());
+        var response = patientService.getPatient(patientId);
+
+        assertThat(response.diagnoses()).hasSize(4);
+        assertThat(response.medications()).hasSize(5);
+        assertThat(statistics.getDomainDataRegionStatistics(CacheNames.PATIENT_REGION).getMissCount()).isZero();
+    }
+
+    @Test
+    void givenWarmCache_whenUpdatePatient_thenNextReadSeesTheChange() {
+        patientService.getPatient(patientId);
+
+        Patient patient = patientRepository.findById(patientId).orElseThrow();
+        patient.setCity("Springfield");
+        patientRepository.save(patient);
+
+        assertThat(patientService.getPatient(patientId).city()).isEqualTo("Springfield");
+    }
+
+    private UUID persistPatient(int diagnosisCount, int medicationCount) {
+        Patient patient = patient("John", "Doe", "john.doe@example.com");
+        patient.setId(null);
+        Patient saved = patientRepository.save(patient);
+        diagnosisRepository.saveAll(IntStream.range(0, diagnosisCount).mapToObj(i -> {
+            Diagnosis diagnosis = diagnosis(saved, "F43." + i, "Diagnosis " + i);
+            diagnosis.setId(null);
+            return diagnosis;
+        }).toList());
+        medicationRepository.saveAll(IntStream.range(0, medicationCount).mapToObj(i -> {
+            Medication medication = medication(saved, "Medication " + i, "10mg", i == 0);
+            medication.setId(null);
+            return medication;
+        }).toList());
+        return saved.getId();
+    }
+}
@@ -0,0 +1,180 @@
+package com.ehr.patient.controller;
+
+import com.ehr.patient.constant.ApiPaths;
+import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.exception.GlobalExceptionHandler;
+import com.ehr.patient.exception.ResourceNotFoundException;
+import com.ehr.patient.exception.TooManyExportsException;
+import com.ehr.patient.export.BulkExportJob;
+import com.ehr.patient.export.BulkExportService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.endsWith;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(BulkExportController.class)
+@Import(GlobalExceptionHandler.class)
+class BulkExportControllerTest {
+
+    private static final String EXPORT_PATH = ApiPaths.PATIENTS_API_PATH + ApiPaths.EXPORT_PATH;
+    private static final String FILE_NAME = "Patient.ndjson";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private BulkExportService bulkExportService;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void givenKickOff_whenStartExport_thenReturns202WithStatusLocation() throws Exception {
+        BulkExportJob job = job(BulkExportJob.Status.ACCEPTED);
+        when(bulkExportService.start(anyString(), eq(false))).thenReturn(job);
+
+        mockMvc.perform(post(EXPORT_PATH).param("gzip", "false"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.CONTENT_LOCATION, endsWith(EXPORT_PATH + "/" + job.getId())));
+    }
+
+    @Test
+    void givenTooManyExports_whenStartExport_thenReturns429WithRetryAfter() throws Exception {
+        when(bulkExportService.start(anyString(), eq(true)))
+                .thenThrow(new TooManyExportsException(ExceptionMessages.EXPORT_LIMIT_REACHED));
+
+        mockMvc.perform(post(EXPORT_PATH))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(jsonPath("$.error").value(ExceptionMessages.EXPORT_LIMIT_REACHED));
+    }
+
+    @Test
+    void givenRunningJob_whenGetStatus_thenReturns202WithProgress() throws Exception {
+        BulkExportJob job = job(BulkExportJob.Status.IN_PROGRESS);
+        when(job.getCurrentType()).thenReturn("Diagnosis");
+        when(job.getExportedRows()).thenReturn(42L);
+        when(bulkExportService.getJob(job.getId())).thenReturn(job);
+
+        mockMvc.perform(get(EXPORT_PATH + "/{jobId}", job.getId()))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(BulkExportController.PROGRESS_HEADER, "exporting Diagnosis, 42 rows written"))
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void givenCompletedJob_whenGetStatus_thenReturns200WithManifest() throws Exception {
+        BulkExportJob job = job(BulkExportJob.Status.COMPLETED);
+        when(job.getRequest()).thenReturn("http://localhost" + EXPORT_PATH);
+        when(job.getTransactionTime()).thenReturn(LocalDateTime.now());
+        when(job.getOutput()).thenReturn(List.of(new BulkExportJob.OutputFile("Patient", FILE_NAME, 3, 300)));
+        when(bulkExportService.getJob(job.getId())).thenReturn(job);
+
+        mockMvc.perform(get(EXPORT_PATH + "/{jobId}", job.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.request").value("http://localhost" + EXPORT_PATH))
+                .andExpect(jsonPath("$.output[0].type").value("Patient"))
+                .andExpect(jsonPath("$.output[0].url")
+                        .value("http://localhost" + EXPORT_PATH + "/" + job.getId() + "/" + FILE_NAME))
+                .andExpect(jsonPath("$.output[0].count").value(3))
+                .andExpect(jsonPath("$.error.length()").value(0));
+    }
+
+    @Test
+    void givenFailedJob_whenGetStatus_thenReturns500() throws Exception {
+        BulkExportJob job = job(BulkExportJob.Status.FAILED);
+        when(job.getError()).thenReturn(ExceptionMessages.EXPORT_FAILED);
+        when(bulkExportService.getJob(job.getId())).thenReturn(job);
+
+        mockMvc.perform(get(EXPORT_PATH + "/{jobId}", job.getId()))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.error").value(ExceptionMessages.EXPORT_FAILED));
+    }
+
+    @Test
+    void givenUnknownJob_whenGetStatus_thenReturns404() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(bulkExportService.getJob(id)).thenThrow(new ResourceNotFoundException(ExceptionMessages.EXPORT_NOT_FOUND));
+
+        mockMvc.perform(get(EXPORT_PATH + "/{jobId}", id))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value(ExceptionMessages.EXPORT_NOT_FOUND));
+    }
+
+    @Test
+    void givenRangeHeader_whenGetFile_thenReturns206WithRequestedBytes() throws Exception {
+        UUID id = UUID.randomUUID();
+        Path file = Files.writeString(tempDir.resolve(FILE_NAME), "{\"a\":1}\n{\"b\":2}\n", StandardCharsets.UTF_8);
+        when(bulkExportService.getFile(id, FILE_NAME)).thenReturn(file);
+
+        mockMvc.perform(get(EXPORT_PATH + "/{jobId}/{fileName}", id, FILE_NAME).header(HttpHeaders.RANGE, "bytes=8-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 8-15/16"))
+                .andExpect(content().string("{\"b\":2}\n"));
+    }
+
+    @Test
+    void givenNoRange_whenGetFile_thenReturnsWholeNdjsonFile() throws Exception {
+        UUID id = UUID.randomUUID();
+        Path file = Files.writeString(tempDir.resolve(FILE_NAME), "{\"a\":1}\n", StandardCharsets.UTF_8);
+        when(bulkExportService.getFile(id, FILE_NAME)).thenReturn(file);
+
+        mockMvc.perform(get(EXPORT_PATH + "/{jobId}/{fileName}", id, FILE_NAME))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, BulkExportController.NDJSON.toString()))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(content().string("{\"a\":1}\n"));
+    }
+
+    @Test
+    void givenJob_whenDelete_thenReturns202() throws Exception {
+        UUID id = UUID.randomUUID();
+
+        mockMvc.perform(delete(EXPORT_PATH + "/{jobId}", id))
+                .andExpect(status().isAccepted());
+
+        verify(bulkExportService).delete(id);
+    }
+
+    @Test
+    void givenUnknownJob_whenDelete_thenReturns404() throws Exception {
+        UUID id = UUID.randomUUID();
+        doThrow(new ResourceNotFoundException(ExceptionMessages.EXPORT_NOT_FOUND)).when(bulkExportService).delete(id);
+
+        mockMvc.perform(delete(EXPORT_PATH + "/{jobId}", id))
+                .andExpect(status().isNotFound());
+    }
+
+    private static BulkExportJob job(BulkExportJob.Status status) {
+        BulkExportJob job = mock(BulkExportJob.class);
+        when(job.getId()).thenReturn(UUID.randomUUID());
+        when(job.getStatus()).thenReturn(status);
+        return job;
+    }
+}
@@ -0,0 +1,82 @@
+package com.ehr.patient.controller;
+
+import com.ehr.patient.constant.ApiPaths;
+import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.dto.ChangeFeedResponse;
+import com.ehr.patient.exception.GlobalExceptionHandler;
+import com.ehr.patient.exception.InvalidCursorException;
+import com.ehr.patient.service.ChangeFeedService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.ehr.patient.utils.DiagnosisTestUtils.diagnosisResponse;
+import static com.ehr.patient.utils.MedicationTestUtils.medicationResponse;
+import static com.ehr.patient.utils.PatientTestUtils.patientSummaryResponse;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ChangeFeedController.class)
+@Import(GlobalExceptionHandler.class)
+class ChangeFeedControllerTest {
+
+    private static final String CHANGES_PATH = ApiPaths.PATIENTS_API_PATH + ApiPaths.CHANGES_PATH;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ChangeFeedService changeFeedService;
+
+    @Test
+    void givenChanges_whenGetChanges_thenReturns200WithBatchAndCursor() throws Exception {
+        var patientId = UUID.randomUUID();
+        when(changeFeedService.getChanges(null, 50)).thenReturn(new ChangeFeedResponse(
+                List.of(patientSummaryResponse(patientId, "John", "Doe")),
+                List.of(diagnosisResponse(patientId)),
+                List.of(medicationResponse(patientId)),
+                "next-cursor",
+                true));
+
+        mockMvc.perform(get(CHANGES_PATH))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.patients[0].id").value(patientId.toString()))
+                .andExpect(jsonPath("$.diagnoses[0].patientId").value(patientId.toString()))
+                .andExpect(jsonPath("$.medications[0].patientId").value(patientId.toString()))
+                .andExpect(jsonPath("$.nextCursor").value("next-cursor"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    void givenCursorAndSize_whenGetChanges_thenPassesThemToService() throws Exception {
+        when(changeFeedService.getChanges("abc", 200))
+                .thenReturn(new ChangeFeedResponse(List.of(), List.of(), List.of(), "abc", false));
+
+        mockMvc.perform(get(CHANGES_PATH)
+                        .param("cursor", "abc")
+                        .param("size", "200"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.patients.length()").value(0))
+                .andExpect(jsonPath("$.nextCursor").value("abc"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void givenMalformedCursor_whenGetChanges_thenReturns400() throws Exception {
+        when(changeFeedService.getChanges("bad", 50)).thenThrow(
+                new InvalidCursorException(ExceptionMessages.INVALID_CURSOR)
+        );
+
+        mockMvc.perform(get(CHANGES_PATH).param("cursor", "bad"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(ExceptionMessages.INVALID_CURSOR));
+    }
+}
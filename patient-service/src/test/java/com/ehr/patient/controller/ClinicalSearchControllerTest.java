@@ -0,0 +1,93 @@
+package com.ehr.patient.controller;
+
+import com.ehr.patient.clinicalsearch.ClinicalSearchIndex;
+import com.ehr.patient.constant.ApiPaths;
+import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.dto.ClinicalSearchHit;
+import com.ehr.patient.dto.PageResponse;
+import com.ehr.patient.exception.GlobalExceptionHandler;
+import com.ehr.patient.model.enums.ClinicalRecordType;
+import com.ehr.patient.model.enums.DiagnosisStatus;
+import com.ehr.patient.model.enums.MedicationStatus;
+import com.ehr.patient.model.enums.PatientStatus;
+import com.ehr.patient.pagination.ClinicalSearchQuery;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ClinicalSearchController.class)
+@Import(GlobalExceptionHandler.class)
+class ClinicalSearchControllerTest {
+
+    private static final String CLINICAL_SEARCH_PATH = ApiPaths.PATIENTS_API_PATH + ApiPaths.CLINICAL_SEARCH_PATH;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ClinicalSearchIndex clinicalSearchIndex;
+
+    @Test
+    void givenTextAndFilters_whenSearch_thenPassesQueryAndReturnsRankedPage() throws Exception {
+        var diagnosisId = UUID.randomUUID();
+        var patientId = UUID.randomUUID();
+        var query = new ClinicalSearchQuery("chronic asthma", Set.of(ClinicalRecordType.DIAGNOSIS),
+                Set.of(PatientStatus.ACTIVE), Set.of(DiagnosisStatus.ACTIVE, DiagnosisStatus.IN_REMISSION),
+                EnumSet.allOf(MedicationStatus.class), 1, 20);
+        when(clinicalSearchIndex.search(query)).thenReturn(new PageResponse<>(List.of(
+                new ClinicalSearchHit(ClinicalRecordType.DIAGNOSIS, diagnosisId, patientId, "ACTIVE", 2.5f, "J45",
+                        "Chronic asthma", null, null, null)), 1, 20, false));
+
+        mockMvc.perform(get(CLINICAL_SEARCH_PATH)
+                        .param("q", " chronic asthma ")
+                        .param("type", "DIAGNOSIS")
+                        .param("patientStatus", "ACTIVE")
+                        .param("diagnosisStatus", "ACTIVE", "IN_REMISSION")
+                        .param("page", "1")
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(diagnosisId.toString()))
+                .andExpect(jsonPath("$.items[0].patientId").value(patientId.toString()))
+                .andExpect(jsonPath("$.items[0].type").value("DIAGNOSIS"))
+                .andExpect(jsonPath("$.items[0].description").value("Chronic asthma"))
+                .andExpect(jsonPath("$.page").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void givenNoText_whenSearch_thenReturnsBadRequest() throws Exception {
+        mockMvc.perform(get(CLINICAL_SEARCH_PATH).param("q", "  "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(ExceptionMessages.CLINICAL_SEARCH_TEXT_REQUIRED));
+
+        verify(clinicalSearchIndex, never()).search(any());
+    }
+
+    @Test
+    void givenPageBeyondResultLimit_whenSearch_thenReturnsBadRequest() throws Exception {
+        mockMvc.perform(get(CLINICAL_SEARCH_PATH)
+                        .param("q", "asthma")
+                        .param("page", "50")
+                        .param("size", "20"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(ExceptionMessages.SEARCH_PAGE_OUT_OF_RANGE));
+
+        verify(clinicalSearchIndex, never()).search(any());
+    }
+}
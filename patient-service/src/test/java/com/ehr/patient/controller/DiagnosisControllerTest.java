@@ -2,8 +2,12 @@ package com.ehr.patient.controller;
 
 import com.ehr.patient.constant.ApiPaths;
 import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.constant.SortFields;
+import com.ehr.patient.dto.PageResponse;
 import com.ehr.patient.exception.GlobalExceptionHandler;
 import com.ehr.patient.exception.ResourceNotFoundException;
+import com.ehr.patient.model.enums.DiagnosisStatus;
+import com.ehr.patient.pagination.ChildListQuery;
 import com.ehr.patient.service.DiagnosisService;
 
 import static com.ehr.patient.utils.DiagnosisTestUtils.*;
@@ -11,22 +15,33 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -79,48 +94,6 @@ class DiagnosisControllerTest {
                 .andExpect(jsonPath("$.error").value(ExceptionMessages.PATIENT_NOT_FOUND));
     }
 
-    @Test
-    void givenPatientWithDiagnoses_whenGetDiagnoses_thenReturns200WithList() throws Exception {
-        var patientId = UUID.randomUUID();
-        var diagnosis1 = diagnosisResponse(
-                UUID.randomUUID(),
-                patientId
-        );
-        var diagnosis2 = diagnosisResponse(
-                UUID.randomUUID(),
-                patientId
-        );
-        when(diagnosisService.getDiagnoses(patientId)).thenReturn(List.of(diagnosis1, diagnosis2));
-
-        mockMvc.perform(get(ApiPaths.DIAGNOSES_API_PATH, patientId))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(2));
-    }
-
-    @Test
-    void givenPatientWithNoDiagnoses_whenGetDiagnoses_thenReturns200WithEmptyList() throws Exception {
-        var patientId = UUID.randomUUID();
-        when(diagnosisService.getDiagnoses(patientId)).thenReturn(List.of());
-
-        mockMvc.perform(get(ApiPaths.DIAGNOSES_API_PATH, patientId))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(0));
-    }
-
-    @Test
-    void givenNonExistentPatient_whenGetDiagnoses_thenReturns404() throws Exception {
-        var patientId = UUID.randomUUID();
-        when(diagnosisService.getDiagnoses(patientId)).thenThrow(
-                new ResourceNotFoundException(ExceptionMessages.PATIENT_NOT_FOUND)
-        );
-
-        mockMvc.perform(get(ApiPaths.DIAGNOSES_API_PATH, patientId))
-                .andExpect(status().isNotFound())
-                .andExpect(jsonPath("$.error").value(ExceptionMessages.PATIENT_NOT_FOUND));
-    }
-
     @Test
     void givenValidRequest_whenUpdateDiagnosis_thenReturns200() throws Exception {
         var patientId = UUID.randomUUID();
@@ -174,4 +147,116 @@ class DiagnosisControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.error").value(ExceptionMessages.DIAGNOSIS_NOT_FOUND));
     }
+
+    @Test
+    void givenPatientWithDiagnoses_whenGetDiagnoses_thenReturns200WithPageAndETag() throws Exception {
+        var patientId = UUID.randomUUID();
+        var diagnosis1 = diagnosisResponse(UUID.randomUUID(), patientId);
+        var diagnosis2 = diagnosisResponse(UUID.randomUUID(), patientId);
+        when(diagnosisService.getDiagnosesETag(eq(patientId), any())).thenReturn("\"v1\"");
+        when(diagnosisService.getDiagnoses(eq(patientId), any()))
+                .thenReturn(new PageResponse<>(List.of(diagnosis1, diagnosis2), 0, 50, false));
+
+        mockMvc.perform(get(ApiPaths.DIAGNOSES_API_PATH, patientId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"v1\""))
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.page").value(0))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void givenPatientWithNoDiagnoses_whenGetDiagnoses_thenReturns200WithEmptyPage() throws Exception {
+        var patientId = UUID.randomUUID();
+        when(diagnosisService.getDiagnosesETag(eq(patientId), any())).thenReturn("\"v1\"");
+        when(diagnosisService.getDiagnoses(eq(patientId), any())).thenReturn(new PageResponse<>(List.of(), 0, 50, false));
+
+        mockMvc.perform(get(ApiPaths.DIAGNOSES_API_PATH, patientId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isArray())
+                .andExpect(jsonPath("$.items.length()").value(0));
+    }
+
+    @Test
+    void givenNonExistentPatient_whenGetDiagnoses_thenReturns404() throws Exception {
+        var patientId = UUID.randomUUID();
+        when(diagnosisService.getDiagnosesETag(eq(patientId), any())).thenThrow(
+                new ResourceNotFoundException(ExceptionMessages.PATIENT_NOT_FOUND)
+        );
+
+        mockMvc.perform(get(ApiPaths.DIAGNOSES_API_PATH, patientId))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value(ExceptionMessages.PATIENT_NOT_FOUND));
+    }
+
+    @Test
+    void givenFilterSortAndPageParams_whenGetDiagnoses_thenPassesThemToTheQuery() throws Exception {
+        var patientId = UUID.randomUUID();
+        when(diagnosisService.getDiagnosesETag(eq(patientId), any())).thenReturn("\"v1\"");
+        when(diagnosisService.getDiagnoses(eq(patientId), any())).thenReturn(new PageResponse<>(List.of(), 1, 10, false));
+
+        mockMvc.perform(get(ApiPaths.DIAGNOSES_API_PATH, patientId)
+                        .param("status", "ACTIVE", "RESOLVED")
+                        .param("from", "2024-01-01")
+                        .param("to", "2024-12-31")
+                        .param("sort", SortFields.UPDATED_AT)
+                        .param("direction", "asc")
+                        .param("page", "1")
+                        .param("size", "10"))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<ChildListQuery<DiagnosisStatus>> query = ArgumentCaptor.captor();
+        verify(diagnosisService).getDiagnoses(eq(patientId), query.capture());
+        assertThat(query.getValue().statuses()).containsExactly(DiagnosisStatus.ACTIVE, DiagnosisStatus.RESOLVED);
+        assertThat(query.getValue().from()).isEqualTo(LocalDate.of(2024, 1, 1));
+        assertThat(query.getValue().to()).isEqualTo(LocalDate.of(2024, 12, 31));
+        assertThat(query.getValue().pageable())
+                .isEqualTo(PageRequest.of(1, 10, Sort.by(SortFields.UPDATED_AT, "id").ascending()));
+    }
+
+    @Test
+    void givenUnsupportedSort_whenGetDiagnoses_thenReturns400WithoutQuerying() throws Exception {
+        var patientId = UUID.randomUUID();
+
+        mockMvc.perform(get(ApiPaths.DIAGNOSES_API_PATH, patientId).param("sort", "description"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(ExceptionMessages.UNSUPPORTED_SORT));
+
+        verifyNoInteractions(diagnosisService);
+    }
+
+    @Test
+    void givenInvertedDateRange_whenGetDiagnoses_thenReturns400() throws Exception {
+        var patientId = UUID.randomUUID();
+
+        mockMvc.perform(get(ApiPaths.DIAGNOSES_API_PATH, patientId).param("from", "2024-12-31").param("to", "2024-01-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(ExceptionMessages.INVALID_DATE_RANGE));
+    }
+
+    @Test
+    void givenMatchingIfNoneMatch_whenGetDiagnoses_thenReturns304WithoutLoadingThem() throws Exception {
+        var patientId = UUID.randomUUID();
+        when(diagnosisService.getDiagnosesETag(eq(patientId), any())).thenReturn("\"abc\"");
+
+        mockMvc.perform(get(ApiPaths.DIAGNOSES_API_PATH, patientId).header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(content().string(""));
+
+        verify(diagnosisService, never()).getDiagnoses(any(), any());
+    }
+
+    @Test
+    void givenStaleIfNoneMatch_whenGetDiagnoses_thenReturns200WithPage() throws Exception {
+        var patientId = UUID.randomUUID();
+        when(diagnosisService.getDiagnosesETag(eq(patientId), any())).thenReturn("\"new\"");
+        when(diagnosisService.getDiagnoses(eq(patientId), any()))
+                .thenReturn(new PageResponse<>(List.of(diagnosisResponse(UUID.randomUUID(), patientId)), 0, 50, false));
+
+        mockMvc.perform(get(ApiPaths.DIAGNOSES_API_PATH, patientId).header(HttpHeaders.IF_NONE_MATCH, "\"old\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"new\""))
+                .andExpect(jsonPath("$.items.length()").value(1));
+    }
 }
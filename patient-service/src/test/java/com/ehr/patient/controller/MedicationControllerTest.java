@@ -2,8 +2,12 @@ package com.ehr.patient.controller;
 
 import com.ehr.patient.constant.ApiPaths;
 import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.constant.SortFields;
+import com.ehr.patient.dto.PageResponse;
 import com.ehr.patient.exception.GlobalExceptionHandler;
 import com.ehr.patient.exception.ResourceNotFoundException;
+import com.ehr.patient.model.enums.MedicationStatus;
+import com.ehr.patient.pagination.ChildListQuery;
 import com.ehr.patient.service.MedicationService;
 
 import static com.ehr.patient.utils.MedicationTestUtils.*;
@@ -11,22 +15,33 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -79,50 +94,6 @@ class MedicationControllerTest {
                 .andExpect(jsonPath("$.error").value(ExceptionMessages.PATIENT_NOT_FOUND));
     }
 
-    @Test
-    void givenPatientWithMedications_whenGetMedications_thenReturns200WithList() throws Exception {
-        var patientId = UUID.randomUUID();
-        var medication1 = medicationResponse(
-                UUID.randomUUID(),
-                patientId,
-                false
-        );
-        var medication2 = medicationResponse(
-                UUID.randomUUID(),
-                patientId,
-                true
-        );
-        when(medicationService.getMedications(patientId)).thenReturn(List.of(medication1, medication2));
-
-        mockMvc.perform(get(ApiPaths.MEDICATIONS_API_PATH, patientId))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(2));
-    }
-
-    @Test
-    void givenPatientWithNoMedications_whenGetMedications_thenReturns200WithEmptyList() throws Exception {
-        var patientId = UUID.randomUUID();
-        when(medicationService.getMedications(patientId)).thenReturn(List.of());
-
-        mockMvc.perform(get(ApiPaths.MEDICATIONS_API_PATH, patientId))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(0));
-    }
-
-    @Test
-    void givenNonExistentPatient_whenGetMedications_thenReturns404() throws Exception {
-        var patientId = UUID.randomUUID();
-        when(medicationService.getMedications(patientId)).thenThrow(
-                new ResourceNotFoundException(ExceptionMessages.PATIENT_NOT_FOUND)
-        );
-
-        mockMvc.perform(get(ApiPaths.MEDICATIONS_API_PATH, patientId))
-                .andExpect(status().isNotFound())
-                .andExpect(jsonPath("$.error").value(ExceptionMessages.PATIENT_NOT_FOUND));
-    }
-
     @Test
     void givenValidRequest_whenUpdateMedication_thenReturns200() throws Exception {
         var patientId = UUID.randomUUID();
@@ -214,4 +185,116 @@ class MedicationControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.error").value(ExceptionMessages.PATIENT_NOT_FOUND));
     }
+
+    @Test
+    void givenPatientWithMedications_whenGetMedications_thenReturns200WithPageAndETag() throws Exception {
+        var patientId = UUID.randomUUID();
+        var medication1 = medicationResponse(UUID.randomUUID(), patientId, false);
+        var medication2 = medicationResponse(UUID.randomUUID(), patientId, false);
+        when(medicationService.getMedicationsETag(eq(patientId), any())).thenReturn("\"v1\"");
+        when(medicationService.getMedications(eq(patientId), any()))
+                .thenReturn(new PageResponse<>(List.of(medication1, medication2), 0, 50, false));
+
+        mockMvc.perform(get(ApiPaths.MEDICATIONS_API_PATH, patientId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"v1\""))
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.page").value(0))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void givenPatientWithNoMedications_whenGetMedications_thenReturns200WithEmptyPage() throws Exception {
+        var patientId = UUID.randomUUID();
+        when(medicationService.getMedicationsETag(eq(patientId), any())).thenReturn("\"v1\"");
+        when(medicationService.getMedications(eq(patientId), any())).thenReturn(new PageResponse<>(List.of(), 0, 50, false));
+
+        mockMvc.perform(get(ApiPaths.MEDICATIONS_API_PATH, patientId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isArray())
+                .andExpect(jsonPath("$.items.length()").value(0));
+    }
+
+    @Test
+    void givenNonExistentPatient_whenGetMedications_thenReturns404() throws Exception {
+        var patientId = UUID.randomUUID();
+        when(medicationService.getMedicationsETag(eq(patientId), any())).thenThrow(
+                new ResourceNotFoundException(ExceptionMessages.PATIENT_NOT_FOUND)
+        );
+
+        mockMvc.perform(get(ApiPaths.MEDICATIONS_API_PATH, patientId))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value(ExceptionMessages.PATIENT_NOT_FOUND));
+    }
+
+    @Test
+    void givenFilterSortAndPageParams_whenGetMedications_thenPassesThemToTheQuery() throws Exception {
+        var patientId = UUID.randomUUID();
+        when(medicationService.getMedicationsETag(eq(patientId), any())).thenReturn("\"v1\"");
+        when(medicationService.getMedications(eq(patientId), any())).thenReturn(new PageResponse<>(List.of(), 1, 10, false));
+
+        mockMvc.perform(get(ApiPaths.MEDICATIONS_API_PATH, patientId)
+                        .param("status", "ACTIVE", "TAPERING")
+                        .param("from", "2024-01-01")
+                        .param("to", "2024-12-31")
+                        .param("sort", SortFields.UPDATED_AT)
+                        .param("direction", "asc")
+                        .param("page", "1")
+                        .param("size", "10"))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<ChildListQuery<MedicationStatus>> query = ArgumentCaptor.captor();
+        verify(medicationService).getMedications(eq(patientId), query.capture());
+        assertThat(query.getValue().statuses()).containsExactly(MedicationStatus.ACTIVE, MedicationStatus.TAPERING);
+        assertThat(query.getValue().from()).isEqualTo(LocalDate.of(2024, 1, 1));
+        assertThat(query.getValue().to()).isEqualTo(LocalDate.of(2024, 12, 31));
+        assertThat(query.getValue().pageable())
+                .isEqualTo(PageRequest.of(1, 10, Sort.by(SortFields.UPDATED_AT, "id").ascending()));
+    }
+
+    @Test
+    void givenUnsupportedSort_whenGetMedications_thenReturns400WithoutQuerying() throws Exception {
+        var patientId = UUID.randomUUID();
+
+        mockMvc.perform(get(ApiPaths.MEDICATIONS_API_PATH, patientId).param("sort", "description"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(ExceptionMessages.UNSUPPORTED_SORT));
+
+        verifyNoInteractions(medicationService);
+    }
+
+    @Test
+    void givenInvertedDateRange_whenGetMedications_thenReturns400() throws Exception {
+        var patientId = UUID.randomUUID();
+
+        mockMvc.perform(get(ApiPaths.MEDICATIONS_API_PATH, patientId).param("from", "2024-12-31").param("to", "2024-01-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(ExceptionMessages.INVALID_DATE_RANGE));
+    }
+
+    @Test
+    void givenMatchingIfNoneMatch_whenGetMedications_thenReturns304WithoutLoadingThem() throws Exception {
+        var patientId = UUID.randomUUID();
+        when(medicationService.getMedicationsETag(eq(patientId), any())).thenReturn("\"abc\"");
+
+        mockMvc.perform(get(ApiPaths.MEDICATIONS_API_PATH, patientId).header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(content().string(""));
+
+        verify(medicationService, never()).getMedications(any(), any());
+    }
+
+    @Test
+    void givenStaleIfNoneMatch_whenGetMedications_thenReturns200WithPage() throws Exception {
+        var patientId = UUID.randomUUID();
+        when(medicationService.getMedicationsETag(eq(patientId), any())).thenReturn("\"new\"");
+        when(medicationService.getMedications(eq(patientId), any()))
+                .thenReturn(new PageResponse<>(List.of(medicationResponse(UUID.randomUUID(), patientId, false)), 0, 50, false));
+
+        mockMvc.perform(get(ApiPaths.MEDICATIONS_API_PATH, patientId).header(HttpHeaders.IF_NONE_MATCH, "\"old\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"new\""))
+                .andExpect(jsonPath("$.items.length()").value(1));
+    }
 }
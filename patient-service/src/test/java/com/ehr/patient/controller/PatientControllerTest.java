@@ -2,8 +2,15 @@ package com.ehr.patient.controller;
 
 import com.ehr.patient.constant.ApiPaths;
 import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.constant.PageLimits;
+import com.ehr.patient.dto.CursorPageResponse;
+import com.ehr.patient.dto.PatientLookupRequest;
+import com.ehr.patient.dto.PatientLookupResponse;
+import com.ehr.patient.dto.PatientLookupView;
+import com.ehr.patient.etag.PatientChartVersion;
 import com.ehr.patient.exception.DuplicateResourceException;
 import com.ehr.patient.exception.GlobalExceptionHandler;
+import com.ehr.patient.exception.InvalidCursorException;
 import com.ehr.patient.exception.ResourceNotFoundException;
 import com.ehr.patient.service.PatientService;
 
@@ -15,19 +22,26 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -79,7 +93,7 @@ class PatientControllerTest {
     }
 
     @Test
-    void givenPatientsExist_whenGetAllPatients_thenReturns200WithList() throws Exception {
+    void givenPatientsExist_whenGetPatients_thenReturns200WithPage() throws Exception {
         var patient1 = patientResponse(
                 UUID.randomUUID(),
                 "John",
@@ -92,24 +106,118 @@ class PatientControllerTest {
                 "Smith",
                 "jane@example.com"
         );
-        when(patientService.getAllPatients()).thenReturn(List.of(patient1, patient2));
+        when(patientService.getPatients(null, 50))
+                .thenReturn(new CursorPageResponse<>(List.of(patient1, patient2), "next-cursor"));
 
         mockMvc.perform(get(ApiPaths.PATIENTS_API_PATH))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].firstName").value("John"))
-                .andExpect(jsonPath("$[1].firstName").value("Jane"));
+                .andExpect(jsonPath("$.items").isArray())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].firstName").value("John"))
+                .andExpect(jsonPath("$.items[1].firstName").value("Jane"))
+                .andExpect(jsonPath("$.nextCursor").value("next-cursor"));
     }
 
     @Test
-    void givenNoPatientsExist_whenGetAllPatients_thenReturns200WithEmptyList() throws Exception {
-        when(patientService.getAllPatients()).thenReturn(List.of());
+    void givenCursorAndSize_whenGetPatients_thenPassesThemToService() throws Exception {
+        when(patientService.getPatients("abc", 10)).thenReturn(new CursorPageResponse<>(List.of(), null));
+
+        mockMvc.perform(get(ApiPaths.PATIENTS_API_PATH)
+                        .param("cursor", "abc")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0));
+    }
+
+    @Test
+    void givenNoPatientsExist_whenGetPatients_thenReturns200WithEmptyPage() throws Exception {
+        when(patientService.getPatients(null, 50)).thenReturn(new CursorPageResponse<>(List.of(), null));
 
         mockMvc.perform(get(ApiPaths.PATIENTS_API_PATH))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(0));
+                .andExpect(jsonPath("$.items").isArray())
+                .andExpect(jsonPath("$.items.length()").value(0));
+    }
+
+    @Test
+    void givenMalformedCursor_whenGetPatients_thenReturns400() throws Exception {
+        when(patientService.getPatients("bad", 50)).thenThrow(
+                new InvalidCursorException(ExceptionMessages.INVALID_CURSOR)
+        );
+
+        mockMvc.perform(get(ApiPaths.PATIENTS_API_PATH).param("cursor", "bad"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(ExceptionMessages.INVALID_CURSOR));
+    }
+
+    @Test
+    void givenPatientsExist_whenGetPatientSummaries_thenReturns200WithCounts() throws Exception {
+        var summary = patientSummaryResponse(UUID.randomUUID(), "John", "Doe");
+        when(patientService.getPatientSummaries(null, 50)).thenReturn(new CursorPageResponse<>(List.of(summary), null));
+
+        mockMvc.perform(get(ApiPaths.PATIENTS_API_PATH + ApiPaths.SUMMARIES_PATH))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].lastName").value("Doe"))
+                .andExpect(jsonPath("$.items[0].diagnosisCount").value(2))
+                .andExpect(jsonPath("$.items[0].medicationCount").value(3))
+                .andExpect(jsonPath("$.items[0].diagnoses").doesNotExist());
+    }
+
+    @Test
+    void givenIdsWithoutView_whenLookupPatients_thenReturnsSummariesAndMissingIds() throws Exception {
+        var foundId = UUID.randomUUID();
+        var missingId = UUID.randomUUID();
+        var ids = List.of(foundId, missingId);
+        when(patientService.lookupPatientSummaries(ids)).thenReturn(new PatientLookupResponse<>(
+                List.of(patientSummaryResponse(foundId, "John", "Doe")), List.of(missingId)));
+
+        mockMvc.perform(post(ApiPaths.PATIENTS_API_PATH + ApiPaths.LOOKUP_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PatientLookupRequest(ids, null))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.patients[0].id").value(foundId.toString()))
+                .andExpect(jsonPath("$.patients[0].diagnosisCount").value(2))
+                .andExpect(jsonPath("$.missingIds[0]").value(missingId.toString()));
+
+        verify(patientService, never()).lookupPatients(any());
+    }
+
+    @Test
+    void givenFullView_whenLookupPatients_thenReturnsFullCharts() throws Exception {
+        var patientId = UUID.randomUUID();
+        var ids = List.of(patientId);
+        when(patientService.lookupPatients(ids))
+                .thenReturn(new PatientLookupResponse<>(List.of(patientResponse(patientId)), List.of()));
+
+        mockMvc.perform(post(ApiPaths.PATIENTS_API_PATH + ApiPaths.LOOKUP_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PatientLookupRequest(ids, PatientLookupView.FULL))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.patients[0].id").value(patientId.toString()))
+                .andExpect(jsonPath("$.patients[0].diagnoses").isArray())
+                .andExpect(jsonPath("$.missingIds").isEmpty());
+    }
+
+    @Test
+    void givenNoIds_whenLookupPatients_thenReturns400() throws Exception {
+        mockMvc.perform(post(ApiPaths.PATIENTS_API_PATH + ApiPaths.LOOKUP_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PatientLookupRequest(List.of(), null))))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(patientService);
+    }
+
+    @Test
+    void givenMoreIdsThanTheLimit_whenLookupPatients_thenReturns400() throws Exception {
+        var ids = IntStream.rangeClosed(0, PageLimits.MAX_LOOKUP_IDS).mapToObj(i -> UUID.randomUUID()).toList();
+
+        mockMvc.perform(post(ApiPaths.PATIENTS_API_PATH + ApiPaths.LOOKUP_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PatientLookupRequest(ids, null))))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(patientService);
     }
 
     @Test
@@ -186,4 +294,43 @@ class PatientControllerTest {
                 .andExpect(status().isConflict())
                 .andExpect(jsonPath("$.error").value(ExceptionMessages.PATIENT_EMAIL_EXISTS));
     }
+
+    @Test
+    void givenExistingPatient_whenGetPatient_thenReturnsETagOfTheChart() throws Exception {
+        var patientId = UUID.randomUUID();
+        var response = patientResponse(patientId);
+        when(patientService.getPatient(patientId)).thenReturn(response);
+
+        mockMvc.perform(get(ApiPaths.PATIENTS_API_PATH + "/{id}", patientId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, PatientChartVersion.of(response).eTag()));
+
+        verify(patientService, never()).getPatientETag(any());
+    }
+
+    @Test
+    void givenMatchingIfNoneMatch_whenGetPatient_thenReturns304WithoutLoadingThePatient() throws Exception {
+        var patientId = UUID.randomUUID();
+        when(patientService.getPatientETag(patientId)).thenReturn("\"abc\"");
+
+        mockMvc.perform(get(ApiPaths.PATIENTS_API_PATH + "/{id}", patientId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(content().string(""));
+
+        verify(patientService, never()).getPatient(any());
+    }
+
+    @Test
+    void givenStaleIfNoneMatch_whenGetPatient_thenReturns200WithPatient() throws Exception {
+        var patientId = UUID.randomUUID();
+        when(patientService.getPatientETag(patientId)).thenReturn("\"new\"");
+        when(patientService.getPatient(patientId)).thenReturn(patientResponse(patientId));
+
+        mockMvc.perform(get(ApiPaths.PATIENTS_API_PATH + "/{id}", patientId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"old\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(patientId.toString()));
+    }
 }
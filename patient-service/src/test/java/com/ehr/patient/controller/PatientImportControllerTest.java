@@ -0,0 +1,81 @@
+package com.ehr.patient.controller;
+
+import com.ehr.patient.constant.ApiPaths;
+import com.ehr.patient.dto.PatientImportResponse;
+import com.ehr.patient.dto.PatientImportResult;
+import com.ehr.patient.exception.GlobalExceptionHandler;
+import com.ehr.patient.service.PatientImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
+import static com.ehr.patient.utils.PatientTestUtils.importPatientRequest;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(PatientImportController.class)
+@Import(GlobalExceptionHandler.class)
+class PatientImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private PatientImportService patientImportService;
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+    }
+
+    @Test
+    void givenJsonArray_whenImportPatients_thenReturnsPerRecordResults() throws Exception {
+        var patientId = UUID.randomUUID();
+        when(patientImportService.importPatients(anyList())).thenReturn(new PatientImportResponse(1, 1, List.of(
+                PatientImportResult.created(0, patientId),
+                PatientImportResult.failed(1, "Patient with email already exists")
+        )));
+
+        mockMvc.perform(post(ApiPaths.PATIENTS_API_PATH + ApiPaths.BATCH_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(
+                                importPatientRequest("a@example.com"),
+                                importPatientRequest("b@example.com")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[0].outcome").value("CREATED"))
+                .andExpect(jsonPath("$.results[0].patientId").value(patientId.toString()))
+                .andExpect(jsonPath("$.results[1].outcome").value("FAILED"));
+    }
+
+    @Test
+    void givenNdjsonBody_whenImportPatients_thenStreamsBodyToService() throws Exception {
+        when(patientImportService.importPatients(any(InputStream.class)))
+                .thenReturn(new PatientImportResponse(1, 0, List.of(PatientImportResult.created(0, UUID.randomUUID()))));
+
+        mockMvc.perform(post(ApiPaths.PATIENTS_API_PATH + ApiPaths.BATCH_PATH)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(objectMapper.writeValueAsString(importPatientRequest("a@example.com")) + "\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1));
+    }
+}
@@ -0,0 +1,96 @@
+package com.ehr.patient.controller;
+
+import com.ehr.patient.constant.ApiPaths;
+import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.dto.PageResponse;
+import com.ehr.patient.exception.GlobalExceptionHandler;
+import com.ehr.patient.exception.SearchTimeoutException;
+import com.ehr.patient.pagination.PatientSearchQuery;
+import com.ehr.patient.service.PatientSearchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static com.ehr.patient.utils.PatientTestUtils.patientSummaryResponse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(PatientSearchController.class)
+@Import(GlobalExceptionHandler.class)
+class PatientSearchControllerTest {
+
+    private static final String SEARCH_PATH = ApiPaths.PATIENTS_API_PATH + ApiPaths.SEARCH_PATH;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private PatientSearchService patientSearchService;
+
+    @Test
+    void givenCriteria_whenSearch_thenPassesNormalizedQueryAndReturnsPage() throws Exception {
+        var patientId = UUID.randomUUID();
+        var query = new PatientSearchQuery("doe", null, "555", LocalDate.of(1985, 3, 15), 1, 20);
+        when(patientSearchService.search(query)).thenReturn(
+                new PageResponse<>(List.of(patientSummaryResponse(patientId, "John", "Doe")), 1, 20, true));
+
+        mockMvc.perform(get(SEARCH_PATH)
+                        .param("name", " Doe ")
+                        .param("phone", "555")
+                        .param("dateOfBirth", "1985-03-15")
+                        .param("page", "1")
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(patientId.toString()))
+                .andExpect(jsonPath("$.page").value(1))
+                .andExpect(jsonPath("$.size").value(20))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    void givenNoCriteria_whenSearch_thenReturns400() throws Exception {
+        mockMvc.perform(get(SEARCH_PATH).param("name", " "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(ExceptionMessages.SEARCH_CRITERIA_REQUIRED));
+
+        verifyNoInteractions(patientSearchService);
+    }
+
+    @Test
+    void givenTermShorterThanATrigram_whenSearch_thenReturns400() throws Exception {
+        mockMvc.perform(get(SEARCH_PATH).param("email", "jo"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(ExceptionMessages.SEARCH_TERM_TOO_SHORT));
+    }
+
+    @Test
+    void givenPageBeyondResultCap_whenSearch_thenReturns400() throws Exception {
+        mockMvc.perform(get(SEARCH_PATH)
+                        .param("name", "doe")
+                        .param("page", "5")
+                        .param("size", "200"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(ExceptionMessages.SEARCH_PAGE_OUT_OF_RANGE));
+    }
+
+    @Test
+    void givenSearchPastItsTimeout_whenSearch_thenReturns503() throws Exception {
+        when(patientSearchService.search(any())).thenThrow(
+                new SearchTimeoutException(ExceptionMessages.SEARCH_TIMED_OUT, null));
+
+        mockMvc.perform(get(SEARCH_PATH).param("name", "doe"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.error").value(ExceptionMessages.SEARCH_TIMED_OUT));
+    }
+}
@@ -0,0 +1,71 @@
+package com.ehr.patient.controller;
+
+import com.ehr.patient.constant.ApiPaths;
+import com.ehr.patient.constant.PageLimits;
+import com.ehr.patient.dto.PatientTypeaheadResponse;
+import com.ehr.patient.exception.GlobalExceptionHandler;
+import com.ehr.patient.typeahead.PatientTypeahead;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(PatientTypeaheadController.class)
+@Import(GlobalExceptionHandler.class)
+class PatientTypeaheadControllerTest {
+
+    private static final String TYPEAHEAD_PATH = ApiPaths.PATIENTS_API_PATH + ApiPaths.TYPEAHEAD_PATH;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private PatientTypeahead patientTypeahead;
+
+    @Test
+    void givenQuery_whenTypeahead_thenReturnsMatchesWithDefaultLimit() throws Exception {
+        var patientId = UUID.randomUUID();
+        when(patientTypeahead.search("jo do", 10)).thenReturn(List.of(
+                new PatientTypeaheadResponse(patientId, "John", "Doe", LocalDate.of(1985, 3, 15), "jd@example.com")));
+
+        mockMvc.perform(get(TYPEAHEAD_PATH).param("q", "jo do"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(patientId.toString()))
+                .andExpect(jsonPath("$[0].lastName").value("Doe"))
+                .andExpect(jsonPath("$[0].dateOfBirth").value("1985-03-15"));
+    }
+
+    @Test
+    void givenLimitAboveMaximum_whenTypeahead_thenClampsIt() throws Exception {
+        when(patientTypeahead.search("jo", PageLimits.MAX_TYPEAHEAD_LIMIT)).thenReturn(List.of());
+
+        mockMvc.perform(get(TYPEAHEAD_PATH).param("q", "jo").param("limit", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+
+        verify(patientTypeahead).search("jo", PageLimits.MAX_TYPEAHEAD_LIMIT);
+    }
+
+    @Test
+    void givenMissingQuery_whenTypeahead_thenReturnsBadRequest() throws Exception {
+        mockMvc.perform(get(TYPEAHEAD_PATH))
+                .andExpect(status().isBadRequest());
+
+        verify(patientTypeahead, never()).search(anyString(), anyInt());
+    }
+}
@@ -0,0 +1,134 @@
+package com.ehr.patient.datasource;
+
+import com.ehr.patient.config.CacheConfig;
+import com.ehr.patient.config.EntityCacheConfig;
+import com.ehr.patient.dto.PatientResponse;
+import com.ehr.patient.service.DiagnosisService;
+import com.ehr.patient.service.PatientService;
+import com.ehr.patient.utils.ServiceSliceTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static com.ehr.patient.utils.DiagnosisTestUtils.createDiagnosisRequest;
+import static com.ehr.patient.utils.PatientTestUtils.createPatientRequest;
+import static com.ehr.patient.utils.PatientTestUtils.updatePatientRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * A primary and a replica that only has what {@link #replicate()} copied to it, so every read-only
+ * transaction routed to the replica sees the data as of the last copy.
+ */
+@ServiceSliceTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.cache.use_second_level_cache=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CacheConfig.class, EntityCacheConfig.class, ReplicaCacheFillTest.LaggingReplicaConfig.class})
+class ReplicaCacheFillTest {
+
+    private static final DataSource PRIMARY = node("primary");
+    private static final DataSource REPLICA = node("replica");
+    private static final List<String> TABLES = List.of("patients", "diagnoses", "medications");
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private DiagnosisService diagnosisService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        var replica = new JdbcTemplate(REPLICA);
+        if (replica.queryForObject("SELECT COUNT(*) FROM information_schema.tables WHERE table_name = 'PATIENTS'",
+                Integer.class) == 0) {
+            new JdbcTemplate(PRIMARY).queryForList("SCRIPT NODATA", String.class).forEach(replica::execute);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (DataSource node : List.of(PRIMARY, REPLICA)) {
+            var jdbcTemplate = new JdbcTemplate(node);
+            jdbcTemplate.update("DELETE FROM medications");
+            jdbcTemplate.update("DELETE FROM diagnoses");
+            jdbcTemplate.update("DELETE FROM outbox_events");
+            jdbcTemplate.update("DELETE FROM patients");
+        }
+    }
+
+    @Test
+    void givenReplicaBehindAnUpdate_whenChartReadAfterEviction_thenCachesThePrimaryCopy() {
+        UUID patientId = patientService.createPatient(createPatientRequest("John", "Doe", "jd@example.com")).id();
+        replicate();
+        patientService.getPatient(patientId);
+
+        patientService.updatePatient(patientId, updatePatientRequest("Johnny", "Doe", "jd@example.com"));
+        // As when the entry expires, or a write on another instance invalidates it.
+        entityManagerFactory.getCache().evictAll();
+
+        assertThat(patientService.getPatients(null, 10).items())
+                .extracting(PatientResponse::firstName)
+                .containsExactly("John");
+        assertThat(patientService.getPatient(patientId).firstName()).isEqualTo("Johnny");
+        assertThat(patientService.getPatient(patientId).firstName()).isEqualTo("Johnny");
+    }
+
+    @Test
+    void givenReplicaBehindANewDiagnosis_whenRosterReadFromReplica_thenEntityCacheKeepsNoStaleCollection() {
+        UUID patientId = patientService.createPatient(createPatientRequest("Ann", "Lee", "al@example.com")).id();
+        replicate();
+        patientService.getPatient(patientId);
+
+        diagnosisService.addDiagnosis(patientId, createDiagnosisRequest());
+
+        assertThat(patientService.getPatients(null, 10).items().get(0).diagnoses()).isEmpty();
+        assertThat(patientService.getPatient(patientId).diagnoses()).hasSize(1);
+    }
+
+    private static void replicate() {
+        var primary = new JdbcTemplate(PRIMARY);
+        var replica = new JdbcTemplate(REPLICA);
+        replica.update("DELETE FROM medications");
+        replica.update("DELETE FROM diagnoses");
+        replica.update("DELETE FROM patients");
+        for (String table : TABLES) {
+            var insert = new SimpleJdbcInsert(REPLICA).withTableName(table);
+            primary.queryForList("SELECT * FROM " + table).forEach(insert::execute);
+        }
+    }
+
+    private static DataSource node(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:cache-fill-" + name + ";DB_CLOSE_DELAY=-1");
+    }
+
+    @TestConfiguration
+    static class LaggingReplicaConfig {
+
+        @Bean
+        DataSource dataSource(MeterRegistry meterRegistry) {
+            var readYourWrites = new ReadYourWrites(mock(ReplicationPositions.class), Duration.ofSeconds(5),
+                    meterRegistry);
+            return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(PRIMARY, REPLICA, readYourWrites));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.ehr.patient.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private static final String CLIENT_ID = "client-1";
+    private static final long WRITE_LSN = 100;
+
+    private final ReplicationPositions positions = mock(ReplicationPositions.class);
+
+    private DataSource primary;
+    private DataSource replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = node("primary");
+        replica = node("replica");
+        when(positions.primaryLsn()).thenReturn(WRITE_LSN);
+        when(positions.replayLsn()).thenReturn(WRITE_LSN - 1);
+    }
+
+    @Test
+    void givenReadOnlyTransaction_whenQuerying_thenUsesReplica() {
+        var routing = routing(new ReadYourWrites(positions, Duration.ofMinutes(1), new SimpleMeterRegistry()));
+
+        assertThat(nodeName(routing, true)).isEqualTo("replica");
+    }
+
+    @Test
+    void givenReadWriteTransaction_whenQuerying_thenUsesPrimary() {
+        var routing = routing(new ReadYourWrites(positions, Duration.ofMinutes(1), new SimpleMeterRegistry()));
+
+        assertThat(nodeName(routing, false)).isEqualTo("primary");
+    }
+
+    @Test
+    void givenClientJustWrote_whenReplicaBehind_thenReadsFromPrimary() {
+        var readYourWrites = new ReadYourWrites(positions, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        var routing = routing(readYourWrites);
+        write(readYourWrites, routing);
+
+        readYourWrites.beginRequest(CLIENT_ID);
+        var pinnedRead = nodeName(routing, true);
+        readYourWrites.endRequest();
+        readYourWrites.beginRequest("client-2");
+        var otherClientRead = nodeName(routing, true);
+        readYourWrites.endRequest();
+
+        assertThat(pinnedRead).isEqualTo("primary");
+        assertThat(otherClientRead).isEqualTo("replica");
+    }
+
+    @Test
+    void givenClientJustWrote_whenReplicaCaughtUp_thenReadsFromReplica() {
+        var readYourWrites = new ReadYourWrites(positions, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        var routing = routing(readYourWrites);
+        write(readYourWrites, routing);
+        when(positions.replayLsn()).thenReturn(WRITE_LSN);
+
+        readYourWrites.beginRequest(CLIENT_ID);
+        var read = nodeName(routing, true);
+        readYourWrites.endRequest();
+
+        assertThat(read).isEqualTo("replica");
+    }
+
+    @Test
+    void givenClientJustWrote_whenPinWindowElapsed_thenReadsFromReplica() {
+        var readYourWrites = new ReadYourWrites(positions, Duration.ZERO, new SimpleMeterRegistry());
+        var routing = routing(readYourWrites);
+        write(readYourWrites, routing);
+
+        readYourWrites.beginRequest(CLIENT_ID);
+        var read = nodeName(routing, true);
+        readYourWrites.endRequest();
+
+        assertThat(read).isEqualTo("replica");
+    }
+
+    private DataSource routing(ReadYourWrites readYourWrites) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, readYourWrites));
+    }
+
+    private static void write(ReadYourWrites readYourWrites, DataSource routing) {
+        readYourWrites.beginRequest(CLIENT_ID);
+        new TransactionTemplate(new DataSourceTransactionManager(routing)).executeWithoutResult(status ->
+                new JdbcTemplate(routing).update("UPDATE node SET writes = writes + 1"));
+        readYourWrites.endRequest();
+    }
+
+    private static String nodeName(DataSource routing, boolean readOnly) {
+        var transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status ->
+                new JdbcTemplate(routing).queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static DataSource node(String name) {
+        var dataSource = new DriverManagerDataSource("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        var jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS node");
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(16), writes INT)");
+        jdbcTemplate.update("INSERT INTO node VALUES (?, 0)", name);
+        return dataSource;
+    }
+}
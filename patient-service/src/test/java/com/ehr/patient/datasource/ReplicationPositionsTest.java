@@ -0,0 +1,21 @@
+package com.ehr.patient.datasource;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReplicationPositionsTest {
+
+    @Test
+    void givenLsnText_whenParsed_thenCombinesBothHalves() {
+        assertThat(ReplicationPositions.parseLsn("16/B374D848")).isEqualTo(0x16_B374D848L);
+        assertThat(ReplicationPositions.parseLsn("0/1")).isLessThan(ReplicationPositions.parseLsn("1/0"));
+    }
+
+    @Test
+    void givenTextWithoutSeparator_whenParsed_thenThrowsIllegalArgumentException() {
+        assertThatThrownBy(() -> ReplicationPositions.parseLsn("B374D848"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
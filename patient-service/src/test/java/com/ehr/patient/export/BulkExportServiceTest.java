@@ -0,0 +1,269 @@
+package com.ehr.patient.export;
+
+import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.exception.ResourceNotFoundException;
+import com.ehr.patient.exception.TooManyExportsException;
+import com.ehr.patient.repository.DiagnosisRepository;
+import com.ehr.patient.repository.MedicationRepository;
+import com.ehr.patient.repository.PatientRepository;
+import com.ehr.patient.service.DiagnosisService;
+import com.ehr.patient.service.MedicationService;
+import com.ehr.patient.service.PatientService;
+import com.ehr.patient.sharding.ScatterGather;
+import com.ehr.patient.utils.ServiceSliceTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static com.ehr.patient.utils.DiagnosisTestUtils.createDiagnosisRequest;
+import static com.ehr.patient.utils.MedicationTestUtils.createMedicationRequest;
+import static com.ehr.patient.utils.PatientTestUtils.createPatientRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.awaitility.Awaitility.await;
+
+@ServiceSliceTest
+class BulkExportServiceTest {
+
+    private static final int PATIENTS = 25;
+    private static final int BUFFER_SIZE = 256;
+    private static final int MAX_ACTIVE_JOBS = 2;
+    private static final Duration EXPORT_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration RETENTION = Duration.ofHours(24);
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private DiagnosisService diagnosisService;
+
+    @Autowired
+    private MedicationService medicationService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DiagnosisRepository diagnosisRepository;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private ScatterGather scatterGather;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path exportDirectory;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private BulkExportService bulkExportService;
+
+    @BeforeEach
+    void setUp() {
+        bulkExportService = exportService(transactionManager);
+        for (int i = 0; i < PATIENTS; i++) {
+            UUID id = patientService.createPatient(createPatientRequest("John", "Doe", "export" + i + "@example.com"))
+                    .id();
+            diagnosisService.addDiagnosis(id, createDiagnosisRequest());
+            if (i % 5 == 0) {
+                medicationService.addMedication(id, createMedicationRequest());
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkExportService.destroy();
+        patientRepository.deleteAll();
+    }
+
+    @Test
+    void givenPlainExport_whenCompleted_thenWritesOneNdjsonLinePerRow() throws IOException {
+        BulkExportJob job = awaitFinished(bulkExportService.start("export", false));
+
+        assertThat(job.getStatus()).isEqualTo(BulkExportJob.Status.COMPLETED);
+        assertThat(job.getTransactionTime()).isNotNull();
+        assertThat(job.getExportedRows()).isEqualTo(PATIENTS * 2 + PATIENTS / 5);
+        assertThat(job.getOutput()).extracting(BulkExportJob.OutputFile::type, BulkExportJob.OutputFile::count)
+                .containsExactly(
+                        tuple(BulkExporter.PATIENT, (long) PATIENTS),
+                        tuple(BulkExporter.DIAGNOSIS, (long) PATIENTS),
+                        tuple(BulkExporter.MEDICATION, (long) PATIENTS / 5));
+
+        Path patients = bulkExportService.getFile(job.getId(), "Patient.ndjson");
+        List<String> lines = Files.readAllLines(patients, StandardCharsets.UTF_8);
+        assertThat(lines).hasSize(PATIENTS);
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertThat(first.get("lastName").asString()).isEqualTo("Doe");
+        assertThat(first.has("diagnoses")).isFalse();
+        assertThat(job.getOutput().get(0).bytes()).isEqualTo(Files.size(patients));
+    }
+
+    @Test
+    void givenGzipExport_whenCompleted_thenFilesDecompressToTheSameRows() throws IOException {
+        BulkExportJob job = awaitFinished(bulkExportService.start("export", true));
+
+        assertThat(job.getStatus()).isEqualTo(BulkExportJob.Status.COMPLETED);
+        Path diagnoses = bulkExportService.getFile(job.getId(), "Diagnosis.ndjson.gz");
+        List<String> lines = gunzipLines(diagnoses);
+        assertThat(lines).hasSize(PATIENTS);
+        assertThat(lines).allSatisfy(line -> assertThat(objectMapper.readTree(line).has("patientId")).isTrue());
+    }
+
+    @Test
+    void givenUnlistedFileName_whenGetFile_thenThrowsNotFound() {
+        BulkExportJob job = awaitFinished(bulkExportService.start("export", false));
+
+        assertThatThrownBy(() -> bulkExportService.getFile(job.getId(), "../Patient.ndjson"))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage(ExceptionMessages.EXPORT_FILE_NOT_FOUND);
+        assertThatThrownBy(() -> bulkExportService.getFile(UUID.randomUUID(), "Patient.ndjson"))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage(ExceptionMessages.EXPORT_NOT_FOUND);
+    }
+
+    @Test
+    void givenCompletedJob_whenDeleted_thenRemovesFilesAndJob() {
+        BulkExportJob job = awaitFinished(bulkExportService.start("export", false));
+
+        bulkExportService.delete(job.getId());
+
+        assertThat(job.getDirectory()).doesNotExist();
+        assertThatThrownBy(() -> bulkExportService.getJob(job.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void givenDirectoriesLeftByEarlierRuns_whenStartedAndCleanedUp_thenDeletesOnlyAbandonedExpiredJobs()
+            throws IOException {
+        BulkExportJob live = awaitFinished(bulkExportService.start("export", false));
+        age(live.getDirectory(), RETENTION.plusHours(1));
+        Path expired = age(jobDirectory(UUID.randomUUID()), RETENTION.plusHours(1));
+        Path recent = age(jobDirectory(UUID.randomUUID()), RETENTION.minusHours(1));
+        Path notAJob = age(Files.createDirectories(exportDirectory.resolve("parquet")), RETENTION.plusHours(1));
+
+        bulkExportService.run(new DefaultApplicationArguments());
+
+        assertThat(expired).doesNotExist();
+        assertThat(recent).exists();
+        assertThat(notAJob).exists();
+        assertThat(live.getDirectory()).exists();
+
+        Path expiredSinceStartup = age(jobDirectory(UUID.randomUUID()), RETENTION.plusHours(1));
+        bulkExportService.deleteExpired();
+
+        assertThat(expiredSinceStartup).doesNotExist();
+        assertThat(recent).exists();
+    }
+
+    @Test
+    void givenMaxActiveJobsQueuedOrRunning_whenStart_thenRejectsUntilOneFinishes() {
+        CountDownLatch release = new CountDownLatch(1);
+        bulkExportService.destroy();
+        bulkExportService = exportService(heldUntil(release));
+        BulkExportJob running = bulkExportService.start("export", false);
+        BulkExportJob queued = bulkExportService.start("export", false);
+
+        assertThatThrownBy(() -> bulkExportService.start("export", false))
+                .isInstanceOf(TooManyExportsException.class)
+                .hasMessage(ExceptionMessages.EXPORT_LIMIT_REACHED);
+
+        release.countDown();
+        awaitFinished(running);
+        awaitFinished(queued);
+
+        assertThat(awaitFinished(bulkExportService.start("export", false)).getStatus())
+                .isEqualTo(BulkExportJob.Status.COMPLETED);
+    }
+
+    private BulkExportService exportService(PlatformTransactionManager exportTransactions) {
+        return new BulkExportService(patientRepository, diagnosisRepository, medicationRepository, scatterGather,
+                exportTransactions, objectMapper, new SimpleMeterRegistry(), exportDirectory, 1, MAX_ACTIVE_JOBS,
+                BUFFER_SIZE, RETENTION.toHours());
+    }
+
+    // Keeps exports from opening their snapshot until the latch is released.
+    private PlatformTransactionManager heldUntil(CountDownLatch release) {
+        return new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+                return transactionManager.getTransaction(definition);
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+                transactionManager.commit(status);
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+                transactionManager.rollback(status);
+            }
+        };
+    }
+
+    private Path jobDirectory(UUID id) throws IOException {
+        Path directory = Files.createDirectories(exportDirectory.resolve(id.toString()));
+        Files.writeString(directory.resolve("Patient.ndjson"), "{}\n");
+        return directory;
+    }
+
+    private static Path age(Path directory, Duration age) throws IOException {
+        FileTime modified = FileTime.from(Instant.now().minus(age));
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.toList()) {
+                Files.setLastModifiedTime(path, modified);
+            }
+        }
+        return directory;
+    }
+
+    private BulkExportJob awaitFinished(BulkExportJob job) {
+        await().atMost(EXPORT_TIMEOUT).until(() -> job.getStatus() == BulkExportJob.Status.COMPLETED
+                || job.getStatus() == BulkExportJob.Status.FAILED);
+        return job;
+    }
+
+    private static List<String> gunzipLines(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file));
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        }
+    }
+}
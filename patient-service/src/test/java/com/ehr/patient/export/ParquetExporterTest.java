@@ -0,0 +1,222 @@
+package com.ehr.patient.export;
+
+import com.ehr.patient.repository.DiagnosisRepository;
+import com.ehr.patient.repository.MedicationRepository;
+import com.ehr.patient.repository.PatientRepository;
+import com.ehr.patient.service.DiagnosisService;
+import com.ehr.patient.service.MedicationService;
+import com.ehr.patient.service.PatientService;
+import com.ehr.patient.sharding.ScatterGather;
+import com.ehr.patient.utils.ServiceSliceTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.LocalInputFile;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.schema.MessageType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static com.ehr.patient.utils.DiagnosisTestUtils.createDiagnosisRequest;
+import static com.ehr.patient.utils.MedicationTestUtils.createMedicationRequest;
+import static com.ehr.patient.utils.PatientTestUtils.createPatientRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ServiceSliceTest
+class ParquetExporterTest {
+
+    private static final int PATIENTS = 23;
+    private static final int CHUNK_SIZE = 5;
+    private static final LocalDate EXPORT_DATE = LocalDate.of(2026, 1, 31);
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private DiagnosisService diagnosisService;
+
+    @Autowired
+    private MedicationService medicationService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DiagnosisRepository diagnosisRepository;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private ScatterGather scatterGather;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path exportDirectory;
+
+    private ParquetExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        exporter = new ParquetExporter(patientRepository, diagnosisRepository, medicationRepository, scatterGather,
+                transactionManager, new SimpleMeterRegistry(), exportDirectory, CHUNK_SIZE, 2, "snappy");
+    }
+
+    @AfterEach
+    void tearDown() {
+        exporter.destroy();
+        patientRepository.deleteAll();
+    }
+
+    @Test
+    void givenPatients_whenExport_thenWritesOneRowGroupPerChunkUnderTheDatePartition() throws IOException {
+        List<UUID> ids = seed(PATIENTS);
+
+        long exported = exporter.export(EXPORT_DATE);
+
+        assertThat(exported).isEqualTo(PATIENTS * 3L);
+        Path patients = partition("patients");
+        List<Path> parts = parquetFiles(patients);
+        assertThat(parts).hasSize((PATIENTS + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        List<Group> rows = new ArrayList<>();
+        for (Path part : parts) {
+            rows.addAll(read(part));
+        }
+        assertThat(rows).extracting(row -> UUID.fromString(row.getString("id", 0)))
+                .containsExactlyInAnyOrderElementsOf(ids);
+        Group first = rows.get(0);
+        assertThat(first.getString("city", 0)).isEqualTo("Springfield");
+        assertThat(first.getString("status", 0)).isEqualTo("ACTIVE");
+        assertThat(first.getInteger("dateOfBirth", 0)).isEqualTo((int) LocalDate.of(1985, 3, 15).toEpochDay());
+        assertThat(readAll(partition("diagnoses"))).hasSize(PATIENTS)
+                .allSatisfy(row -> assertThat(row.getString("icdCode", 0)).isEqualTo("F43.10"));
+        assertThat(readAll(partition("medications"))).hasSize(PATIENTS)
+                .allSatisfy(row -> assertThat(row.getBoolean("contraindicated", 0)).isFalse());
+    }
+
+    @Test
+    void givenExport_whenInspectingColumnChunks_thenOnlyLowCardinalityColumnsAreDictionaryEncoded()
+            throws IOException {
+        seed(PATIENTS);
+
+        exporter.export(EXPORT_DATE);
+
+        assertThat(dictionaryColumns(parquetFiles(partition("patients")).get(0)))
+                .containsExactlyInAnyOrder("gender", "city", "state", "status");
+        assertThat(dictionaryColumns(parquetFiles(partition("diagnoses")).get(0)))
+                .containsExactlyInAnyOrder("icdCode", "status");
+    }
+
+    @Test
+    void givenExistingPartition_whenExportedAgain_thenReplacesItWithoutLeftovers() throws IOException {
+        seed(PATIENTS);
+        exporter.export(EXPORT_DATE);
+        patientRepository.deleteAll();
+        seed(2);
+
+        exporter.export(EXPORT_DATE);
+
+        assertThat(readAll(partition("patients"))).hasSize(2);
+        try (Stream<Path> entries = Files.list(exportDirectory.resolve("patients"))) {
+            assertThat(entries).extracting(path -> path.getFileName().toString())
+                    .containsExactly(ParquetExporter.PARTITION_PREFIX + EXPORT_DATE);
+        }
+    }
+
+    @Test
+    void givenEmptyTables_whenExport_thenWritesAnEmptyFileWithTheSchema() throws IOException {
+        long exported = exporter.export(EXPORT_DATE);
+
+        assertThat(exported).isZero();
+        List<Path> parts = parquetFiles(partition("medications"));
+        assertThat(parts).hasSize(1);
+        try (ParquetFileReader reader = open(parts.get(0))) {
+            assertThat(reader.getRecordCount()).isZero();
+            assertThat(reader.getFileMetaData().getSchema()).isEqualTo(ParquetTable.MEDICATIONS.schema());
+        }
+    }
+
+    private List<UUID> seed(int count) {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            UUID id = patientService.createPatient(createPatientRequest("John", "Doe", "parquet" + i + "@example.com"))
+                    .id();
+            diagnosisService.addDiagnosis(id, createDiagnosisRequest());
+            medicationService.addMedication(id, createMedicationRequest());
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    private Path partition(String table) {
+        return exportDirectory.resolve(table).resolve(ParquetExporter.PARTITION_PREFIX + EXPORT_DATE);
+    }
+
+    private static List<Path> parquetFiles(Path partition) throws IOException {
+        try (Stream<Path> files = Files.list(partition)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static List<Group> readAll(Path partition) throws IOException {
+        List<Group> rows = new ArrayList<>();
+        for (Path part : parquetFiles(partition)) {
+            rows.addAll(read(part));
+        }
+        return rows;
+    }
+
+    private static List<Group> read(Path file) throws IOException {
+        List<Group> rows = new ArrayList<>();
+        try (ParquetFileReader reader = open(file)) {
+            MessageType schema = reader.getFileMetaData().getSchema();
+            PageReadStore rowGroup;
+            while ((rowGroup = reader.readNextRowGroup()) != null) {
+                RecordReader<Group> records = new ColumnIOFactory().getColumnIO(schema)
+                        .getRecordReader(rowGroup, new GroupRecordConverter(schema));
+                for (long i = 0; i < rowGroup.getRowCount(); i++) {
+                    rows.add(records.read());
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static List<String> dictionaryColumns(Path file) throws IOException {
+        try (ParquetFileReader reader = open(file)) {
+            assertThat(reader.getRowGroups()).hasSize(1);
+            return reader.getRowGroups().get(0).getColumns().stream()
+                    .filter(ColumnChunkMetaData::hasDictionaryPage)
+                    .map(column -> column.getPath().toDotString())
+                    .toList();
+        }
+    }
+
+    private static ParquetFileReader open(Path file) throws IOException {
+        return ParquetFileReader.open(new LocalInputFile(file),
+                ParquetReadOptions.builder(new PlainParquetConfiguration())
+                        .withCodecFactory(new ParquetCodecs())
+                        .build());
+    }
+}
@@ -0,0 +1,81 @@
+package com.ehr.patient.outbox;
+
+import com.ehr.patient.exception.OutboxDeliveryException;
+import com.ehr.patient.model.enums.DomainEventType;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HttpOutboxSinkTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final AtomicInteger responseStatus = new AtomicInteger(204);
+    private final AtomicReference<String> contentType = new AtomicReference<>();
+    private final AtomicReference<String> body = new AtomicReference<>();
+
+    private HttpServer server;
+    private HttpOutboxSink sink;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/events", exchange -> {
+            contentType.set(exchange.getRequestHeaders().getFirst("Content-Type"));
+            body.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(responseStatus.get(), -1);
+            exchange.close();
+        });
+        server.start();
+        URI url = URI.create("http://localhost:" + server.getAddress().getPort() + "/events");
+        sink = new HttpOutboxSink(jsonMapper, url, 5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void givenBatch_whenDeliver_thenPostsOneNdjsonLinePerMessage() {
+        var first = message("{\"icdCode\":\"F43.10\"}");
+        var second = message("{\"name\":\"Sertraline\"}");
+
+        sink.deliver(List.of(first, second));
+
+        assertThat(contentType.get()).isEqualTo("application/x-ndjson");
+        List<String> lines = body.get().lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(jsonMapper.readTree(lines.get(0)).get("id").asString()).isEqualTo(first.id().toString());
+        assertThat(jsonMapper.readTree(lines.get(0)).get("payload").get("icdCode").asString()).isEqualTo("F43.10");
+        assertThat(jsonMapper.readTree(lines.get(1)).get("payload").get("name").asString()).isEqualTo("Sertraline");
+    }
+
+    @Test
+    void givenWebhookRejectsBatch_whenDeliver_thenThrowsOutboxDeliveryException() {
+        responseStatus.set(503);
+
+        assertThatThrownBy(() -> sink.deliver(List.of(message("{}"))))
+                .isInstanceOf(OutboxDeliveryException.class)
+                .hasMessageContaining("503");
+    }
+
+    private OutboxMessage message(String payload) {
+        return new OutboxMessage(UUID.randomUUID(), DomainEventType.DIAGNOSIS_ADDED, UUID.randomUUID(),
+                UUID.randomUUID(), LocalDateTime.now(), payload);
+    }
+}
@@ -0,0 +1,234 @@
+package com.ehr.patient.outbox;
+
+import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.dto.PatientSummaryResponse;
+import com.ehr.patient.event.DiagnosisEvent;
+import com.ehr.patient.event.PatientDomainEvent;
+import com.ehr.patient.event.PatientEvent;
+import com.ehr.patient.exception.DuplicateResourceException;
+import com.ehr.patient.exception.OutboxDeliveryException;
+import com.ehr.patient.model.OutboxEvent;
+import com.ehr.patient.model.enums.DomainEventType;
+import com.ehr.patient.repository.OutboxEventRepository;
+import com.ehr.patient.repository.PatientRepository;
+import com.ehr.patient.service.DiagnosisService;
+import com.ehr.patient.service.MedicationService;
+import com.ehr.patient.service.PatientService;
+import com.ehr.patient.sharding.ScatterGather;
+import com.ehr.patient.utils.QueryCounter;
+import com.ehr.patient.utils.ServiceSliceTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.ehr.patient.utils.DiagnosisTestUtils.createDiagnosisRequest;
+import static com.ehr.patient.utils.MedicationTestUtils.createMedicationRequest;
+import static com.ehr.patient.utils.MedicationTestUtils.updateMedicationRequest;
+import static com.ehr.patient.utils.PatientTestUtils.createPatientRequest;
+import static com.ehr.patient.utils.PatientTestUtils.updatePatientRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@ServiceSliceTest
+@AutoConfigureJson
+@Import(OutboxWriter.class)
+class OutboxRelayTest {
+
+    private static final int BATCH_SIZE = 2;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private DiagnosisService diagnosisService;
+
+    @Autowired
+    private MedicationService medicationService;
+
+    @Autowired
+    private ScatterGather scatterGather;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @Autowired
+    private OutboxWriter outboxWriter;
+
+    @TempDir
+    private Path outboxDirectory;
+
+    private UUID patientId;
+
+    @BeforeEach
+    void setUp() {
+        patientId = patientService.createPatient(createPatientRequest()).id();
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+        patientRepository.deleteAll();
+    }
+
+    @Test
+    void givenWrites_whenCommitted_thenEachAppendsOneEventInTheSameFlush() {
+        queryCounter.reset();
+        var diagnosis = diagnosisService.addDiagnosis(patientId, createDiagnosisRequest());
+        assertThat(queryCounter.statements()).isEqualTo(2);
+
+        var medication = medicationService.addMedication(patientId, createMedicationRequest());
+        patientService.updatePatient(patientId, updatePatientRequest());
+        diagnosisService.updateDiagnosis(patientId, diagnosis.id(), createDiagnosisRequest("F43.12", "Updated"));
+        medicationService.updateMedication(patientId, medication.id(), updateMedicationRequest());
+
+        assertThat(outboxEventRepository.findAll())
+                .extracting(OutboxEvent::getEventType)
+                .containsExactlyInAnyOrder(DomainEventType.values());
+        assertThat(outboxEventRepository.findAll())
+                .allSatisfy(event -> assertThat(event.getPatientId()).isEqualTo(patientId));
+    }
+
+    @Test
+    void givenBulkWriteEvents_whenAppendAll_thenStoresThemInOrderWithOneStatement() {
+        var patient = patientService.getPatient(patientId);
+        var diagnosis = diagnosisService.addDiagnosis(patientId, createDiagnosisRequest());
+        outboxEventRepository.deleteAll();
+        List<PatientDomainEvent> events = List.of(
+                new PatientEvent(DomainEventType.PATIENT_CREATED, PatientSummaryResponse.of(patient)),
+                new DiagnosisEvent(DomainEventType.DIAGNOSIS_ADDED, diagnosis));
+        queryCounter.reset();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> outboxWriter.appendAll(events));
+
+        assertThat(queryCounter.statements()).isEqualTo(1);
+        List<OutboxEvent> stored = outboxEventRepository.findAll(Sort.by("createdAt", "id"));
+        assertThat(stored).extracting(OutboxEvent::getEventType, OutboxEvent::getAggregateId).containsExactly(
+                tuple(DomainEventType.PATIENT_CREATED, patientId),
+                tuple(DomainEventType.DIAGNOSIS_ADDED, diagnosis.id()));
+        assertThat(objectMapper.readTree(stored.get(1).getPayload()).get("icdCode").asString())
+                .isEqualTo(diagnosis.icdCode());
+    }
+
+    @Test
+    void givenRejectedWrite_whenRolledBack_thenAppendsNothing() {
+        assertThatThrownBy(() -> patientService.createPatient(createPatientRequest()))
+                .isInstanceOf(DuplicateResourceException.class)
+                .hasMessage(ExceptionMessages.PATIENT_EMAIL_EXISTS);
+
+        assertThat(outboxEventRepository.findAll())
+                .extracting(OutboxEvent::getEventType)
+                .containsExactly(DomainEventType.PATIENT_CREATED);
+    }
+
+    @Test
+    void givenPendingEvents_whenRelayPending_thenAppendsNdjsonBatchesAndDeletesThem() throws Exception {
+        diagnosisService.addDiagnosis(patientId, createDiagnosisRequest());
+        medicationService.addMedication(patientId, createMedicationRequest());
+        patientService.updatePatient(patientId, updatePatientRequest());
+        Path file = outboxDirectory.resolve("events.ndjson");
+        var meterRegistry = new SimpleMeterRegistry();
+        var relay = new OutboxRelay(outboxEventRepository, new FileOutboxSink(objectMapper, file),
+                scatterGather, transactionManager, meterRegistry, BATCH_SIZE);
+
+        int relayed = relay.relayPending();
+
+        List<JsonNode> lines = Files.readAllLines(file).stream().map(objectMapper::readTree).toList();
+        assertThat(relayed).isEqualTo(4);
+        assertThat(lines).extracting(line -> line.get("type").asString())
+                .containsExactlyInAnyOrder("PATIENT_CREATED", "DIAGNOSIS_ADDED", "MEDICATION_ADDED", "PATIENT_UPDATED");
+        assertThat(lines).allSatisfy(line -> {
+            assertThat(line.get("patientId").asString()).isEqualTo(patientId.toString());
+            assertThat(line.get("payload").isObject()).isTrue();
+        });
+        assertThat(outboxEventRepository.count()).isZero();
+        assertThat(meterRegistry.counter(OutboxRelay.RELAYED_METRIC).count()).isEqualTo(4);
+        assertThat(meterRegistry.timer(OutboxRelay.DELIVERY_LAG_METRIC).count()).isEqualTo(4);
+        assertThat(meterRegistry.get(OutboxRelay.OLDEST_PENDING_METRIC).gauge().value()).isZero();
+    }
+
+    @Test
+    void givenFailingSink_whenRelayPending_thenKeepsEventsQueuedAndCountsFailure() {
+        var meterRegistry = new SimpleMeterRegistry();
+        OutboxSink failingSink = messages -> {
+            throw new OutboxDeliveryException(ExceptionMessages.OUTBOX_WEBHOOK_FAILED);
+        };
+        var relay = new OutboxRelay(outboxEventRepository, failingSink, scatterGather, transactionManager,
+                meterRegistry, BATCH_SIZE);
+
+        int relayed = relay.relayPending();
+
+        assertThat(relayed).isZero();
+        assertThat(outboxEventRepository.count()).isEqualTo(1);
+        assertThat(meterRegistry.counter(OutboxRelay.FAILURES_METRIC).count()).isEqualTo(1);
+        assertThat(meterRegistry.get(OutboxRelay.OLDEST_PENDING_METRIC).gauge().value()).isPositive();
+    }
+
+    @Test
+    void givenBatchClaimedByAnotherRelay_whenFindRelayBatch_thenSkipsItWithoutWaiting() throws Exception {
+        diagnosisService.addDiagnosis(patientId, createDiagnosisRequest());
+        medicationService.addMedication(patientId, createMedicationRequest());
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+        var claimed = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        CompletableFuture<List<UUID>> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            List<UUID> ids = outboxEventRepository.findRelayBatch(Limit.of(BATCH_SIZE)).stream()
+                    .map(OutboxEvent::getId)
+                    .toList();
+            claimed.countDown();
+            await(release);
+            return ids;
+        }));
+        await(claimed);
+        List<UUID> second = transactionTemplate.execute(status ->
+                outboxEventRepository.findRelayBatch(Limit.of(BATCH_SIZE)).stream().map(OutboxEvent::getId).toList());
+        release.countDown();
+
+        // A plain FOR UPDATE would block here until the first relay commits. H2 locks every row its sort reads,
+        // so the second claim comes back empty; Postgres locks only the rows under the limit and would hand
+        // over the remaining event.
+        assertThat(first.get(10, TimeUnit.SECONDS)).hasSize(BATCH_SIZE);
+        assertThat(second).doesNotContainAnyElementsOf(first.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
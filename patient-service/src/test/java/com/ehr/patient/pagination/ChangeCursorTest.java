@@ -0,0 +1,55 @@
+package com.ehr.patient.pagination;
+
+import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChangeCursorTest {
+
+    @Test
+    void givenCursor_whenEncodedAndDecoded_thenRoundTrips() {
+        var cursor = new ChangeCursor(
+                new ChangeCursor.Watermark(LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_456_000), UUID.randomUUID()),
+                ChangeCursor.Watermark.ORIGIN,
+                new ChangeCursor.Watermark(LocalDateTime.of(2024, 3, 1, 10, 15), UUID.randomUUID()));
+
+        var decoded = ChangeCursor.decode(cursor.encode());
+
+        assertThat(decoded).isEqualTo(cursor);
+    }
+
+    @Test
+    void givenEmptyBatch_whenAdvance_thenKeepsWatermark() {
+        var watermark = new ChangeCursor.Watermark(LocalDateTime.of(2024, 3, 1, 10, 15), UUID.randomUUID());
+
+        var advanced = watermark.advance(List.<UUID>of(), id -> LocalDateTime.now(), id -> id);
+
+        assertThat(advanced).isSameAs(watermark);
+    }
+
+    @Test
+    void givenCursorWithMissingWatermark_whenDecoded_thenThrowsInvalidCursorException() {
+        var cursor = CursorCodec.encode("2024-03-01T10:15," + UUID.randomUUID());
+
+        assertThatThrownBy(() -> ChangeCursor.decode(cursor))
+                .isInstanceOf(InvalidCursorException.class)
+                .hasMessage(ExceptionMessages.INVALID_CURSOR);
+    }
+
+    @Test
+    void givenCursorWithMalformedTimestamp_whenDecoded_thenThrowsInvalidCursorException() {
+        var watermark = "yesterday," + UUID.randomUUID();
+        var cursor = CursorCodec.encode(String.join("|", watermark, watermark, watermark));
+
+        assertThatThrownBy(() -> ChangeCursor.decode(cursor))
+                .isInstanceOf(InvalidCursorException.class)
+                .hasMessage(ExceptionMessages.INVALID_CURSOR);
+    }
+}
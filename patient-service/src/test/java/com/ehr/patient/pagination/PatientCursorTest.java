@@ -0,0 +1,38 @@
+package com.ehr.patient.pagination;
+
+import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PatientCursorTest {
+
+    @Test
+    void givenCursor_whenEncodedAndDecoded_thenRoundTrips() {
+        var cursor = new PatientCursor("O'Brien: Smith", UUID.randomUUID());
+
+        var decoded = PatientCursor.decode(cursor.encode());
+
+        assertThat(decoded).isEqualTo(cursor);
+    }
+
+    @Test
+    void givenNonBase64Cursor_whenDecoded_thenThrowsInvalidCursorException() {
+        assertThatThrownBy(() -> PatientCursor.decode("%%%"))
+                .isInstanceOf(InvalidCursorException.class)
+                .hasMessage(ExceptionMessages.INVALID_CURSOR);
+    }
+
+    @Test
+    void givenCursorWithoutId_whenDecoded_thenThrowsInvalidCursorException() {
+        var cursor = CursorCodec.encode("Doe");
+
+        assertThatThrownBy(() -> PatientCursor.decode(cursor))
+                .isInstanceOf(InvalidCursorException.class)
+                .hasMessage(ExceptionMessages.INVALID_CURSOR);
+    }
+}
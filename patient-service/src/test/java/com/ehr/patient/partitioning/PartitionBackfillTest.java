@@ -0,0 +1,167 @@
+package com.ehr.patient.partitioning;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Migrates a database that already holds charts, then backfills it while writes keep arriving.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class PartitionBackfillTest {
+
+    private static final int PATIENTS = 5;
+    private static final int DIAGNOSES_PER_PATIENT = 3;
+
+    @Container
+    private static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:18.1-alpine");
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        flyway().cleanDisabled(false).load().clean();
+    }
+
+    @Test
+    void givenExistingRows_whenBackfilled_thenSwapsInPartitionedTablesWithEveryWrite() {
+        flyway().target("7").load().migrate();
+        List<UUID> patientIds = new ArrayList<>();
+        List<UUID> diagnosisIds = new ArrayList<>();
+        for (int i = 0; i < PATIENTS; i++) {
+            UUID patientId = UUID.randomUUID();
+            patientIds.add(patientId);
+            jdbcTemplate.update("INSERT INTO patients (id, first_name, last_name, email, status) "
+                    + "VALUES (?, 'Pat', 'Doe', ?, 'ACTIVE')", patientId, "patient" + i + "@example.com");
+            for (int j = 0; j < DIAGNOSES_PER_PATIENT; j++) {
+                UUID diagnosisId = UUID.randomUUID();
+                diagnosisIds.add(diagnosisId);
+                jdbcTemplate.update("INSERT INTO diagnoses (id, patient_id, icd_code, status) "
+                        + "VALUES (?, ?, 'F41.1', 'ACTIVE')", diagnosisId, patientId);
+            }
+        }
+        jdbcTemplate.update("INSERT INTO medications (id, patient_id, name, contraindicated) "
+                + "VALUES (?, ?, 'Sertraline', false)", UUID.randomUUID(), patientIds.get(0));
+
+        flyway().load().migrate();
+        PartitionBackfill backfill = new PartitionBackfill(dataSource, 2, Duration.ZERO);
+        assertThat(backfill.isPending("diagnoses")).isTrue();
+        assertThat(relkind("diagnoses")).isEqualTo("r");
+
+        // Writes between the migration and the backfill reach the copy through the mirror triggers.
+        jdbcTemplate.update("UPDATE diagnoses SET icd_code = 'F43.12' WHERE id = ?", diagnosisIds.get(0));
+        jdbcTemplate.update("DELETE FROM diagnoses WHERE id = ?", diagnosisIds.get(1));
+
+        long copied = backfill.backfill();
+
+        // The diagnoses left after the delete, plus the one medication.
+        assertThat(copied).isEqualTo(PATIENTS * DIAGNOSES_PER_PATIENT);
+        for (String table : PartitionBackfill.TABLES) {
+            assertThat(backfill.isPending(table)).isFalse();
+            assertThat(relkind(table)).isEqualTo("p");
+            assertThat(count(table)).isEqualTo(count(table + "_legacy"));
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT icd_code FROM diagnoses WHERE id = ?", String.class,
+                diagnosisIds.get(0))).isEqualTo("F43.12");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM diagnoses WHERE id = ?", Integer.class,
+                diagnosisIds.get(1))).isZero();
+        assertThat(jdbcTemplate.queryForList("SELECT indexname FROM pg_indexes WHERE tablename = 'diagnoses'",
+                String.class)).contains("idx_diagnoses_patient_id_diagnosis_date");
+
+        jdbcTemplate.update("DELETE FROM medications WHERE patient_id = ?", patientIds.get(0));
+        jdbcTemplate.update("DELETE FROM diagnoses WHERE patient_id = ?", patientIds.get(0));
+        assertThat(jdbcTemplate.update("DELETE FROM patients WHERE id = ?", patientIds.get(0))).isEqualTo(1);
+        assertThat(backfill.backfill()).isZero();
+    }
+
+    @Test
+    void givenBackfillLockHeldElsewhere_whenBackfill_thenLeavesTheTablesToItsHolder() throws Exception {
+        migrateWithOneDiagnosis();
+        PartitionBackfill backfill = new PartitionBackfill(dataSource, 2, Duration.ZERO);
+
+        try (Connection holder = dataSource.getConnection()) {
+            new JdbcTemplate(new SingleConnectionDataSource(holder, true))
+                    .queryForObject("SELECT pg_try_advisory_lock(hashtext('partition-backfill'))", Boolean.class);
+
+            assertThat(backfill.backfill()).isZero();
+            assertThat(backfill.isPending("diagnoses")).isTrue();
+        }
+
+        assertThat(backfill.backfill()).isEqualTo(1);
+        assertThat(backfill.isPending("diagnoses")).isFalse();
+    }
+
+    @Test
+    void givenSwapInProgress_whenFinishPartitioningCalledAgain_thenWaitsAndReturnsFalse() throws Exception {
+        migrateWithOneDiagnosis();
+        var transactionManager = new DataSourceTransactionManager(dataSource);
+        TransactionStatus first = transactionManager.getTransaction(TransactionDefinition.withDefaults());
+        assertThat(jdbcTemplate.queryForObject("SELECT finish_partitioning('diagnoses')", Boolean.class)).isTrue();
+
+        CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(() -> new JdbcTemplate(dataSource)
+                .queryForObject("SELECT finish_partitioning('diagnoses')", Boolean.class));
+        Thread.sleep(500);
+        assertThat(second).isNotDone();
+        transactionManager.commit(first);
+
+        assertThat(second.get(10, TimeUnit.SECONDS)).isFalse();
+        assertThat(relkind("diagnoses")).isEqualTo("p");
+    }
+
+    @Test
+    void givenEmptyDatabase_whenMigrated_thenSwapsWithoutBackfill() {
+        flyway().load().migrate();
+
+        for (String table : PartitionBackfill.TABLES) {
+            assertThat(new PartitionBackfill(dataSource, 2, Duration.ZERO).isPending(table)).isFalse();
+            assertThat(relkind(table)).isEqualTo("p");
+        }
+    }
+
+    private void migrateWithOneDiagnosis() {
+        flyway().target("7").load().migrate();
+        UUID patientId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO patients (id, first_name, last_name, email, status) "
+                + "VALUES (?, 'Pat', 'Doe', 'pat@example.com', 'ACTIVE')", patientId);
+        jdbcTemplate.update("INSERT INTO diagnoses (id, patient_id, icd_code, status) "
+                + "VALUES (?, ?, 'F41.1', 'ACTIVE')", UUID.randomUUID(), patientId);
+        flyway().load().migrate();
+    }
+
+    private FluentConfiguration flyway() {
+        return Flyway.configure().dataSource(dataSource);
+    }
+
+    private String relkind(String table) {
+        return jdbcTemplate.queryForObject("SELECT relkind FROM pg_class WHERE oid = to_regclass(?)", String.class,
+                table);
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+}
@@ -0,0 +1,159 @@
+package com.ehr.patient.repository;
+
+import com.ehr.patient.archive.PatientArchive;
+import com.ehr.patient.config.ShardingConfig;
+import com.ehr.patient.service.DiagnosisService;
+import com.ehr.patient.service.MedicationService;
+import com.ehr.patient.service.PatientService;
+import com.ehr.patient.sharding.ScatterGather;
+import com.ehr.patient.utils.PlanCapture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.ehr.patient.utils.DiagnosisTestUtils.createDiagnosisRequest;
+import static com.ehr.patient.utils.DiagnosisTestUtils.diagnosisListQuery;
+import static com.ehr.patient.utils.MedicationTestUtils.createMedicationRequest;
+import static com.ehr.patient.utils.MedicationTestUtils.medicationListQuery;
+import static com.ehr.patient.utils.MedicationTestUtils.updateMedicationRequest;
+import static com.ehr.patient.utils.PatientTestUtils.createPatientRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the per-patient reads and writes against the partitioned tables and checks each plan with EXPLAIN.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.cache.use_second_level_cache=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PatientService.class, DiagnosisService.class, MedicationService.class, PlanCapture.class,
+        ShardingConfig.class, ScatterGather.class, PatientArchive.class, PatientBatchRepository.class})
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PartitionPruningTest {
+
+    private static final int OTHER_PATIENTS = 20;
+
+    @Container
+    @ServiceConnection
+    private static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:18.1-alpine");
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private DiagnosisService diagnosisService;
+
+    @Autowired
+    private MedicationService medicationService;
+
+    @Autowired
+    private DiagnosisRepository diagnosisRepository;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PlanCapture planCapture;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private UUID patientId;
+    private UUID diagnosisId;
+    private UUID medicationId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // Other charts spread rows over the remaining partitions, so a scan of any of them would show.
+        for (int i = 0; i < OTHER_PATIENTS; i++) {
+            UUID otherId = patientService.createPatient(
+                    createPatientRequest("Pat", "Other", "other" + i + "@example.com")).id();
+            diagnosisService.addDiagnosis(otherId, createDiagnosisRequest());
+            medicationService.addMedication(otherId, createMedicationRequest());
+        }
+        patientId = patientService.createPatient(createPatientRequest()).id();
+        diagnosisId = diagnosisService.addDiagnosis(patientId, createDiagnosisRequest()).id();
+        medicationId = medicationService.addMedication(patientId, createMedicationRequest()).id();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM outbox_events");
+        patientRepository.deleteAll();
+    }
+
+    @Test
+    void givenPartitionedTables_whenMigrated_thenDiagnosesAndMedicationsAreHashPartitioned() {
+        for (String table : List.of("diagnoses", "medications")) {
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT relkind FROM pg_class WHERE oid = to_regclass(?)", String.class, table)).isEqualTo("p");
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM pg_inherits WHERE inhparent = to_regclass(?)", Integer.class, table))
+                    .isEqualTo(16);
+        }
+    }
+
+    @Test
+    void givenPatientScopedReads_whenExplained_thenEachReadsOnePartition() {
+        planCapture.start();
+        diagnosisRepository.findByPatientId(patientId);
+        diagnosisService.getDiagnoses(patientId, diagnosisListQuery());
+        diagnosisRepository.findByIdAndPatientId(diagnosisId, patientId);
+        diagnosisRepository.findVersionByPatientId(patientId);
+        medicationRepository.findByPatientId(patientId);
+        medicationService.getMedications(patientId, medicationListQuery());
+        medicationRepository.findByIdAndPatientId(medicationId, patientId);
+        medicationRepository.findVersionByPatientId(patientId);
+        medicationService.getContraindications(patientId);
+        patientRepository.findChartVersion(patientId);
+        patientService.getPatient(patientId);
+
+        assertPrunedToOnePartition(planCapture.stop());
+    }
+
+    @Test
+    void givenPatientScopedWrites_whenExplained_thenEachTouchesOnePartition() {
+        planCapture.start();
+        diagnosisService.addDiagnosis(patientId, createDiagnosisRequest());
+        diagnosisService.updateDiagnosis(patientId, diagnosisId, createDiagnosisRequest("F43.12", "Updated"));
+        medicationService.updateMedication(patientId, medicationId, updateMedicationRequest());
+        transactionTemplate.executeWithoutResult(status -> diagnosisRepository.delete(
+                diagnosisRepository.findByIdAndPatientId(diagnosisId, patientId).orElseThrow()));
+
+        assertPrunedToOnePartition(planCapture.stop());
+    }
+
+    private static void assertPrunedToOnePartition(List<PlanCapture.Plan> plans) {
+        assertThat(plans).anySatisfy(plan -> assertThat(plan.partitions()).isNotEmpty());
+        assertThat(plans).allSatisfy(plan -> {
+            assertThat(plan.partitions()).as(plan.sql())
+                    .filteredOn(partition -> partition.startsWith("diagnoses_")).hasSizeLessThanOrEqualTo(1);
+            assertThat(plan.partitions()).as(plan.sql())
+                    .filteredOn(partition -> partition.startsWith("medications_")).hasSizeLessThanOrEqualTo(1);
+        });
+    }
+}
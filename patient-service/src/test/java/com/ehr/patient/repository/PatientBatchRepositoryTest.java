@@ -0,0 +1,52 @@
+package com.ehr.patient.repository;
+
+import com.ehr.patient.utils.QueryCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static com.ehr.patient.utils.PatientTestUtils.importPatientRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({PatientBatchRepository.class, QueryCounter.class})
+class PatientBatchRepositoryTest {
+
+    @Autowired
+    private PatientBatchRepository patientBatchRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DiagnosisRepository diagnosisRepository;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @Test
+    void givenImportRows_whenInsertAll_thenWritesEachTableInOneBatchedStatement() {
+        List<PatientImportRow> rows = IntStream.range(0, 25)
+                .mapToObj(i -> new PatientImportRow(UUID.randomUUID(), importPatientRequest("p" + i + "@example.com")))
+                .toList();
+        queryCounter.reset();
+
+        patientBatchRepository.insertAll(rows);
+
+        assertThat(queryCounter.statements()).isEqualTo(3);
+        assertThat(patientRepository.count()).isEqualTo(25);
+        assertThat(diagnosisRepository.findByPatientId(rows.get(0).id())).hasSize(1);
+        assertThat(medicationRepository.findByPatientId(rows.get(24).id())).hasSize(1);
+    }
+}
@@ -0,0 +1,135 @@
+package com.ehr.patient.service;
+
+import com.ehr.patient.dto.ChangeFeedResponse;
+import com.ehr.patient.dto.PatientSummaryResponse;
+import com.ehr.patient.pagination.ChangeCursor;
+import com.ehr.patient.repository.DiagnosisRepository;
+import com.ehr.patient.repository.MedicationRepository;
+import com.ehr.patient.repository.PatientRepository;
+import com.ehr.patient.sharding.ScatterGather;
+import com.ehr.patient.utils.QueryCounter;
+import com.ehr.patient.utils.ServiceSliceTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.ehr.patient.utils.DiagnosisTestUtils.createDiagnosisRequest;
+import static com.ehr.patient.utils.MedicationTestUtils.createMedicationRequest;
+import static com.ehr.patient.utils.PatientTestUtils.createPatientRequest;
+import static com.ehr.patient.utils.PatientTestUtils.updatePatientRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ServiceSliceTest
+@TestPropertySource(properties = "patient.change-feed.settle-seconds=0")
+@Import(ChangeFeedService.class)
+class ChangeFeedServiceTest {
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DiagnosisRepository diagnosisRepository;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private ScatterGather scatterGather;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private DiagnosisService diagnosisService;
+
+    @Autowired
+    private MedicationService medicationService;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAll();
+    }
+
+    @Test
+    void givenChangesInEachTable_whenGetChangesFromStart_thenReturnsThemInOneBatch() {
+        var patientId = createPatient(0);
+        var otherPatientId = createPatient(1);
+        var diagnosis = diagnosisService.addDiagnosis(patientId, createDiagnosisRequest());
+        var medication = medicationService.addMedication(otherPatientId, createMedicationRequest());
+        queryCounter.reset();
+
+        var changes = changeFeedService.getChanges(null, 50);
+
+        assertThat(changes.patients()).extracting(PatientSummaryResponse::id)
+                .containsExactlyInAnyOrder(patientId, otherPatientId);
+        assertThat(changes.patients()).extracting(PatientSummaryResponse::updatedAt).isSorted();
+        assertThat(changes.diagnoses()).containsExactly(diagnosis);
+        assertThat(changes.medications()).containsExactly(medication);
+        assertThat(changes.hasMore()).isFalse();
+        assertThat(queryCounter.statements()).isEqualTo(3);
+    }
+
+    @Test
+    void givenMoreChangesThanBatchSize_whenFollowingCursors_thenReturnsEachChangeOnce() {
+        var patientIds = List.of(createPatient(0), createPatient(1), createPatient(2));
+
+        List<UUID> synced = new ArrayList<>();
+        ChangeFeedResponse batch = changeFeedService.getChanges(null, 2);
+        synced.addAll(batch.patients().stream().map(PatientSummaryResponse::id).toList());
+        assertThat(batch.hasMore()).isTrue();
+
+        batch = changeFeedService.getChanges(batch.nextCursor(), 2);
+        synced.addAll(batch.patients().stream().map(PatientSummaryResponse::id).toList());
+        assertThat(batch.hasMore()).isFalse();
+
+        var caughtUp = changeFeedService.getChanges(batch.nextCursor(), 2);
+        assertThat(synced).containsExactlyInAnyOrderElementsOf(patientIds);
+        assertThat(caughtUp.patients()).isEmpty();
+        assertThat(caughtUp.nextCursor()).isEqualTo(batch.nextCursor());
+    }
+
+    @Test
+    void givenCaughtUpCursor_whenPatientUpdated_thenReturnsOnlyThatPatient() {
+        var patientId = createPatient(0);
+        createPatient(1);
+        diagnosisService.addDiagnosis(patientId, createDiagnosisRequest());
+        var cursor = changeFeedService.getChanges(null, 50).nextCursor();
+
+        patientService.updatePatient(patientId, updatePatientRequest());
+        var changes = changeFeedService.getChanges(cursor, 50);
+
+        assertThat(changes.patients()).extracting(PatientSummaryResponse::id).containsExactly(patientId);
+        assertThat(changes.patients().get(0).email()).isEqualTo(updatePatientRequest().email());
+        assertThat(changes.diagnoses()).isEmpty();
+        assertThat(changes.medications()).isEmpty();
+    }
+
+    @Test
+    void givenRowsInsideSettleWindow_whenGetChanges_thenHoldsThemBack() {
+        createPatient(0);
+        var settlingFeed = new ChangeFeedService(patientRepository, diagnosisRepository, medicationRepository,
+                scatterGather, 3600);
+
+        var changes = settlingFeed.getChanges(null, 50);
+
+        assertThat(changes.patients()).isEmpty();
+        assertThat(changes.nextCursor()).isEqualTo(ChangeCursor.START.encode());
+    }
+
+    private UUID createPatient(int index) {
+        return patientService.createPatient(
+                createPatientRequest("John", "Doe" + index, "patient" + index + "@example.com")).id();
+    }
+}
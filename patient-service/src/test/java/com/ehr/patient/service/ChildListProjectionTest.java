@@ -0,0 +1,133 @@
+package com.ehr.patient.service;
+
+import com.ehr.patient.constant.SortFields;
+import com.ehr.patient.dto.CreateDiagnosisRequest;
+import com.ehr.patient.dto.CreateMedicationRequest;
+import com.ehr.patient.dto.DiagnosisResponse;
+import com.ehr.patient.dto.MedicationResponse;
+import com.ehr.patient.model.enums.DiagnosisStatus;
+import com.ehr.patient.model.enums.MedicationStatus;
+import com.ehr.patient.pagination.ChildListQuery;
+import com.ehr.patient.repository.PatientRepository;
+import com.ehr.patient.utils.QueryCounter;
+import com.ehr.patient.utils.ServiceSliceTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static com.ehr.patient.utils.DiagnosisTestUtils.createDiagnosisRequest;
+import static com.ehr.patient.utils.DiagnosisTestUtils.diagnosisListQuery;
+import static com.ehr.patient.utils.MedicationTestUtils.createMedicationRequest;
+import static com.ehr.patient.utils.MedicationTestUtils.medicationListQuery;
+import static com.ehr.patient.utils.PatientTestUtils.createPatientRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ServiceSliceTest
+class ChildListProjectionTest {
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private DiagnosisService diagnosisService;
+
+    @Autowired
+    private MedicationService medicationService;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    private UUID patientId;
+
+    @BeforeEach
+    void setUp() {
+        patientId = patientService.createPatient(createPatientRequest()).id();
+    }
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAll();
+    }
+
+    @Test
+    void givenDiagnoses_whenGetDiagnoses_thenProjectsSameResponsesAsWritePath() {
+        var first = diagnosisService.addDiagnosis(patientId, createDiagnosisRequest("F43.10", "PTSD"));
+        var second = diagnosisService.addDiagnosis(patientId, createDiagnosisRequest("F32.1", "Major Depression"));
+        queryCounter.reset();
+
+        var response = diagnosisService.getDiagnoses(patientId, diagnosisListQuery());
+
+        assertThat(response.items()).containsExactlyInAnyOrder(first, second);
+        assertThat(queryCounter.statements()).isEqualTo(2);
+    }
+
+    @Test
+    void givenMedications_whenGetMedicationsAndContraindications_thenProjectsSameResponsesAsWritePath() {
+        var regular = medicationService.addMedication(patientId, createMedicationRequest("Sertraline", "50mg", false));
+        var contraindicated = medicationService.addMedication(patientId,
+                createMedicationRequest("MAO Inhibitor", "10mg", true));
+        queryCounter.reset();
+
+        var medications = medicationService.getMedications(patientId, medicationListQuery());
+        var contraindications = medicationService.getContraindications(patientId);
+
+        assertThat(medications.items()).containsExactlyInAnyOrder(regular, contraindicated);
+        assertThat(contraindications).containsExactly(contraindicated);
+        assertThat(queryCounter.statements()).isEqualTo(4);
+    }
+
+    @Test
+    void givenStatusAndDateRange_whenGetDiagnoses_thenReturnsOnlyMatchingRowsNewestFirst() {
+        addDiagnosis("F43.10", LocalDate.of(2023, 6, 1), DiagnosisStatus.ACTIVE);
+        var inRange = addDiagnosis("F32.1", LocalDate.of(2024, 3, 1), DiagnosisStatus.ACTIVE);
+        var latestInRange = addDiagnosis("F41.1", LocalDate.of(2024, 9, 1), DiagnosisStatus.ACTIVE);
+        addDiagnosis("F40.1", LocalDate.of(2024, 5, 1), DiagnosisStatus.RESOLVED);
+        var query = ChildListQuery.of(DiagnosisStatus.class, List.of(DiagnosisStatus.ACTIVE),
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31),
+                SortFields.DIAGNOSIS_DATE, "desc", SortFields.DIAGNOSIS_SORTS, 0, 10);
+        queryCounter.reset();
+
+        var response = diagnosisService.getDiagnoses(patientId, query);
+
+        assertThat(response.items()).containsExactly(latestInRange, inRange);
+        assertThat(response.hasNext()).isFalse();
+        assertThat(queryCounter.statements()).isEqualTo(2);
+    }
+
+    @Test
+    void givenMoreMedicationsThanPageSize_whenGetMedications_thenPagesInRequestedOrder() {
+        var first = addMedication("Sertraline", LocalDate.of(2024, 1, 1), MedicationStatus.ACTIVE);
+        var second = addMedication("Lorazepam", LocalDate.of(2024, 2, 1), MedicationStatus.TAPERING);
+        var third = addMedication("Bupropion", LocalDate.of(2024, 3, 1), MedicationStatus.ACTIVE);
+        addMedication("Lithium", LocalDate.of(2024, 4, 1), MedicationStatus.DISCONTINUED);
+        var activeOrTapering = List.of(MedicationStatus.ACTIVE, MedicationStatus.TAPERING);
+
+        var firstPage = medicationService.getMedications(patientId, ChildListQuery.of(MedicationStatus.class,
+                activeOrTapering, null, null, SortFields.START_DATE, "asc", SortFields.MEDICATION_SORTS, 0, 2));
+        var secondPage = medicationService.getMedications(patientId, ChildListQuery.of(MedicationStatus.class,
+                activeOrTapering, null, null, SortFields.START_DATE, "asc", SortFields.MEDICATION_SORTS, 1, 2));
+
+        assertThat(firstPage.items()).containsExactly(first, second);
+        assertThat(firstPage.hasNext()).isTrue();
+        assertThat(secondPage.items()).containsExactly(third);
+        assertThat(secondPage.hasNext()).isFalse();
+    }
+
+    private DiagnosisResponse addDiagnosis(String icdCode, LocalDate diagnosisDate, DiagnosisStatus status) {
+        return diagnosisService.addDiagnosis(patientId,
+                new CreateDiagnosisRequest(icdCode, "Diagnosis " + icdCode, diagnosisDate, status));
+    }
+
+    private MedicationResponse addMedication(String name, LocalDate startDate, MedicationStatus status) {
+        return medicationService.addMedication(patientId,
+                new CreateMedicationRequest(name, "10mg", "Once daily", status, startDate, null, false, null, null));
+    }
+}
@@ -1,8 +1,11 @@
 package com.ehr.patient.service;
 
+import com.ehr.patient.archive.PatientArchive;
 import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.event.DiagnosisEvent;
 import com.ehr.patient.exception.ResourceNotFoundException;
 import com.ehr.patient.model.Diagnosis;
+import com.ehr.patient.model.enums.DomainEventType;
 import com.ehr.patient.repository.DiagnosisRepository;
 import com.ehr.patient.repository.PatientRepository;
 
@@ -17,11 +20,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.SliceImpl;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,11 +40,17 @@ class DiagnosisServiceTest {
     @Mock
     private PatientRepository patientRepository;
 
+    @Mock
+    private PatientArchive patientArchive;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private DiagnosisService diagnosisService;
 
     @BeforeEach
     void setUp() {
-        diagnosisService = new DiagnosisService(diagnosisRepository, patientRepository);
+        diagnosisService = new DiagnosisService(diagnosisRepository, patientRepository, patientArchive, eventPublisher);
     }
 
     @Test
@@ -45,8 +58,8 @@ class DiagnosisServiceTest {
         var patientId = UUID.randomUUID();
         var existingPatient = patientWithId(patientId);
         var request = createDiagnosisRequest();
-        when(patientRepository.findById(patientId)).thenReturn(Optional.of(existingPatient));
-        when(diagnosisRepository.save(any(Diagnosis.class))).thenAnswer(invocation -> {
+        when(patientRepository.getReferenceById(patientId)).thenReturn(existingPatient);
+        when(diagnosisRepository.saveAndFlush(any(Diagnosis.class))).thenAnswer(invocation -> {
             Diagnosis saved = invocation.getArgument(0);
             saved.setId(UUID.randomUUID());
             return saved;
@@ -57,45 +70,52 @@ class DiagnosisServiceTest {
         assertThat(response.patientId()).isEqualTo(patientId);
         assertThat(response.icdCode()).isEqualTo("F43.10");
         assertThat(response.description()).isEqualTo("Post-traumatic stress disorder");
-        verify(diagnosisRepository).save(any(Diagnosis.class));
+        verify(diagnosisRepository).saveAndFlush(any(Diagnosis.class));
+        verify(eventPublisher).publishEvent(new DiagnosisEvent(DomainEventType.DIAGNOSIS_ADDED, response));
     }
 
     @Test
     void givenNonExistentPatient_whenAddDiagnosis_thenThrowsResourceNotFoundException() {
         var patientId = UUID.randomUUID();
         var request = createDiagnosisRequest();
-        when(patientRepository.findById(patientId)).thenReturn(Optional.empty());
+        when(patientRepository.getReferenceById(patientId)).thenReturn(patientWithId(patientId));
+        when(diagnosisRepository.saveAndFlush(any(Diagnosis.class))).thenThrow(new DataIntegrityViolationException("fk_diagnosiss_patient"));
 
         assertThatThrownBy(() -> diagnosisService.addDiagnosis(patientId, request))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessage(ExceptionMessages.PATIENT_NOT_FOUND);
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
-    void givenPatientWithDiagnoses_whenGetDiagnoses_thenReturnsListOfDiagnosisResponses() {
+    void givenPatientWithDiagnoses_whenGetDiagnoses_thenReturnsPageOfDiagnosisResponses() {
         var patientId = UUID.randomUUID();
-        var existingPatient = patientWithId(patientId);
-        var diagnosis1 = diagnosis(existingPatient, "F43.10", "PTSD");
-        var diagnosis2 = diagnosis(existingPatient, "F32.1", "Major Depression");
+        var diagnosis1 = diagnosisResponse(patientId);
+        var diagnosis2 = diagnosisResponse(patientId);
         when(patientRepository.existsById(patientId)).thenReturn(true);
-        when(diagnosisRepository.findByPatientId(patientId)).thenReturn(List.of(diagnosis1, diagnosis2));
+        var query = diagnosisListQuery();
+        when(diagnosisRepository.findResponsesByPatientId(
+                patientId, query.statuses(), query.from(), query.to(), query.pageable()))
+                .thenReturn(new SliceImpl<>(List.of(diagnosis1, diagnosis2), query.pageable(), true));
 
-        var response = diagnosisService.getDiagnoses(patientId);
+        var response = diagnosisService.getDiagnoses(patientId, query);
 
-        assertThat(response).hasSize(2);
-        assertThat(response.get(0).icdCode()).isEqualTo("F43.10");
-        assertThat(response.get(1).icdCode()).isEqualTo("F32.1");
+        assertThat(response.items()).containsExactly(diagnosis1, diagnosis2);
+        assertThat(response.hasNext()).isTrue();
     }
 
     @Test
-    void givenPatientWithNoDiagnoses_whenGetDiagnoses_thenReturnsEmptyList() {
+    void givenPatientWithNoDiagnoses_whenGetDiagnoses_thenReturnsEmptyPage() {
         var patientId = UUID.randomUUID();
         when(patientRepository.existsById(patientId)).thenReturn(true);
-        when(diagnosisRepository.findByPatientId(patientId)).thenReturn(List.of());
+        var query = diagnosisListQuery();
+        when(diagnosisRepository.findResponsesByPatientId(
+                patientId, query.statuses(), query.from(), query.to(), query.pageable()))
+                .thenReturn(new SliceImpl<>(List.of(), query.pageable(), false));
 
-        var response = diagnosisService.getDiagnoses(patientId);
+        var response = diagnosisService.getDiagnoses(patientId, query);
 
-        assertThat(response).isEmpty();
+        assertThat(response.items()).isEmpty();
     }
 
     @Test
@@ -103,7 +123,7 @@ class DiagnosisServiceTest {
         var patientId = UUID.randomUUID();
         when(patientRepository.existsById(patientId)).thenReturn(false);
 
-        assertThatThrownBy(() -> diagnosisService.getDiagnoses(patientId))
+        assertThatThrownBy(() -> diagnosisService.getDiagnoses(patientId, diagnosisListQuery()))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessage(ExceptionMessages.PATIENT_NOT_FOUND);
     }
@@ -119,15 +139,15 @@ class DiagnosisServiceTest {
                 "F43.12",
                 "Updated PTSD diagnosis"
         );
-        when(patientRepository.existsById(patientId)).thenReturn(true);
-        when(diagnosisRepository.findById(diagnosisId)).thenReturn(Optional.of(existingDiagnosis));
-        when(diagnosisRepository.save(any(Diagnosis.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(diagnosisRepository.findByIdAndPatientId(diagnosisId, patientId)).thenReturn(Optional.of(existingDiagnosis));
+        when(diagnosisRepository.saveAndFlush(any(Diagnosis.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         var response = diagnosisService.updateDiagnosis(patientId, diagnosisId, request);
 
         assertThat(response.icdCode()).isEqualTo("F43.12");
         assertThat(response.description()).isEqualTo("Updated PTSD diagnosis");
-        verify(diagnosisRepository).save(any(Diagnosis.class));
+        verify(diagnosisRepository).saveAndFlush(any(Diagnosis.class));
+        verify(eventPublisher).publishEvent(new DiagnosisEvent(DomainEventType.DIAGNOSIS_UPDATED, response));
     }
 
     @Test
@@ -135,6 +155,7 @@ class DiagnosisServiceTest {
         var patientId = UUID.randomUUID();
         var diagnosisId = UUID.randomUUID();
         var request = createDiagnosisRequest();
+        when(diagnosisRepository.findByIdAndPatientId(diagnosisId, patientId)).thenReturn(Optional.empty());
         when(patientRepository.existsById(patientId)).thenReturn(false);
 
         assertThatThrownBy(() -> diagnosisService.updateDiagnosis(patientId, diagnosisId, request))
@@ -147,8 +168,9 @@ class DiagnosisServiceTest {
         var patientId = UUID.randomUUID();
         var diagnosisId = UUID.randomUUID();
         var request = createDiagnosisRequest();
+        when(diagnosisRepository.findByIdAndPatientId(diagnosisId, patientId)).thenReturn(Optional.empty());
         when(patientRepository.existsById(patientId)).thenReturn(true);
-        when(diagnosisRepository.findById(diagnosisId)).thenReturn(Optional.empty());
+        when(diagnosisRepository.existsById(diagnosisId)).thenReturn(false);
 
         assertThatThrownBy(() -> diagnosisService.updateDiagnosis(patientId, diagnosisId, request))
                 .isInstanceOf(ResourceNotFoundException.class)
@@ -158,14 +180,11 @@ class DiagnosisServiceTest {
     @Test
     void givenDiagnosisBelongsToDifferentPatient_whenUpdateDiagnosis_thenThrowsResourceNotFoundException() {
         var patientId = UUID.randomUUID();
-        var differentPatientId = UUID.randomUUID();
         var diagnosisId = UUID.randomUUID();
-        var differentPatient = patientWithId(differentPatientId);
-        var existingDiagnosis = diagnosis(differentPatient);
-        existingDiagnosis.setId(diagnosisId);
         var request = createDiagnosisRequest();
+        when(diagnosisRepository.findByIdAndPatientId(diagnosisId, patientId)).thenReturn(Optional.empty());
         when(patientRepository.existsById(patientId)).thenReturn(true);
-        when(diagnosisRepository.findById(diagnosisId)).thenReturn(Optional.of(existingDiagnosis));
+        when(diagnosisRepository.existsById(diagnosisId)).thenReturn(true);
 
         assertThatThrownBy(() -> diagnosisService.updateDiagnosis(patientId, diagnosisId, request))
                 .isInstanceOf(ResourceNotFoundException.class)
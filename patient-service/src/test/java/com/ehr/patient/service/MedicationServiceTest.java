@@ -1,8 +1,11 @@
 package com.ehr.patient.service;
 
+import com.ehr.patient.archive.PatientArchive;
 import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.event.MedicationEvent;
 import com.ehr.patient.exception.ResourceNotFoundException;
 import com.ehr.patient.model.Medication;
+import com.ehr.patient.model.enums.DomainEventType;
 import com.ehr.patient.repository.MedicationRepository;
 import com.ehr.patient.repository.PatientRepository;
 
@@ -17,6 +20,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.SliceImpl;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -33,11 +39,17 @@ class MedicationServiceTest {
     @Mock
     private PatientRepository patientRepository;
 
+    @Mock
+    private PatientArchive patientArchive;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private MedicationService medicationService;
 
     @BeforeEach
     void setUp() {
-        medicationService = new MedicationService(medicationRepository, patientRepository);
+        medicationService = new MedicationService(medicationRepository, patientRepository, patientArchive, eventPublisher);
     }
 
     @Test
@@ -45,8 +57,8 @@ class MedicationServiceTest {
         var patientId = UUID.randomUUID();
         var existingPatient = patientWithId(patientId);
         var request = createMedicationRequest();
-        when(patientRepository.findById(patientId)).thenReturn(Optional.of(existingPatient));
-        when(medicationRepository.save(any(Medication.class))).thenAnswer(invocation -> {
+        when(patientRepository.getReferenceById(patientId)).thenReturn(existingPatient);
+        when(medicationRepository.saveAndFlush(any(Medication.class))).thenAnswer(invocation -> {
             Medication saved = invocation.getArgument(0);
             saved.setId(UUID.randomUUID());
             return saved;
@@ -58,7 +70,8 @@ class MedicationServiceTest {
         assertThat(response.name()).isEqualTo("Sertraline");
         assertThat(response.dosage()).isEqualTo("50mg");
         assertThat(response.contraindicated()).isFalse();
-        verify(medicationRepository).save(any(Medication.class));
+        verify(medicationRepository).saveAndFlush(any(Medication.class));
+        verify(eventPublisher).publishEvent(new MedicationEvent(DomainEventType.MEDICATION_ADDED, response));
     }
 
     @Test
@@ -70,8 +83,8 @@ class MedicationServiceTest {
                 "10mg",
                 true
         );
-        when(patientRepository.findById(patientId)).thenReturn(Optional.of(existingPatient));
-        when(medicationRepository.save(any(Medication.class))).thenAnswer(invocation -> {
+        when(patientRepository.getReferenceById(patientId)).thenReturn(existingPatient);
+        when(medicationRepository.saveAndFlush(any(Medication.class))).thenAnswer(invocation -> {
             Medication saved = invocation.getArgument(0);
             saved.setId(UUID.randomUUID());
             return saved;
@@ -87,7 +100,8 @@ class MedicationServiceTest {
     void givenNonExistentPatient_whenAddMedication_thenThrowsResourceNotFoundException() {
         var patientId = UUID.randomUUID();
         var request = createMedicationRequest();
-        when(patientRepository.findById(patientId)).thenReturn(Optional.empty());
+        when(patientRepository.getReferenceById(patientId)).thenReturn(patientWithId(patientId));
+        when(medicationRepository.saveAndFlush(any(Medication.class))).thenThrow(new DataIntegrityViolationException("fk_medications_patient"));
 
         assertThatThrownBy(() -> medicationService.addMedication(patientId, request))
                 .isInstanceOf(ResourceNotFoundException.class)
@@ -95,30 +109,34 @@ class MedicationServiceTest {
     }
 
     @Test
-    void givenPatientWithMedications_whenGetMedications_thenReturnsListOfMedicationResponses() {
+    void givenPatientWithMedications_whenGetMedications_thenReturnsPageOfMedicationResponses() {
         var patientId = UUID.randomUUID();
-        var existingPatient = patientWithId(patientId);
-        var medication1 = medication(existingPatient, "Sertraline", "50mg", false);
-        var medication2 = medication(existingPatient, "Lorazepam", "1mg", true);
+        var medication1 = medicationResponse(UUID.randomUUID(), patientId, false);
+        var medication2 = medicationResponse(UUID.randomUUID(), patientId, true);
         when(patientRepository.existsById(patientId)).thenReturn(true);
-        when(medicationRepository.findByPatientId(patientId)).thenReturn(List.of(medication1, medication2));
+        var query = medicationListQuery();
+        when(medicationRepository.findResponsesByPatientId(
+                patientId, query.statuses(), query.from(), query.to(), query.pageable()))
+                .thenReturn(new SliceImpl<>(List.of(medication1, medication2), query.pageable(), true));
 
-        var response = medicationService.getMedications(patientId);
+        var response = medicationService.getMedications(patientId, query);
 
-        assertThat(response).hasSize(2);
-        assertThat(response.get(0).name()).isEqualTo("Sertraline");
-        assertThat(response.get(1).name()).isEqualTo("Lorazepam");
+        assertThat(response.items()).containsExactly(medication1, medication2);
+        assertThat(response.hasNext()).isTrue();
     }
 
     @Test
-    void givenPatientWithNoMedications_whenGetMedications_thenReturnsEmptyList() {
+    void givenPatientWithNoMedications_whenGetMedications_thenReturnsEmptyPage() {
         var patientId = UUID.randomUUID();
         when(patientRepository.existsById(patientId)).thenReturn(true);
-        when(medicationRepository.findByPatientId(patientId)).thenReturn(List.of());
+        var query = medicationListQuery();
+        when(medicationRepository.findResponsesByPatientId(
+                patientId, query.statuses(), query.from(), query.to(), query.pageable()))
+                .thenReturn(new SliceImpl<>(List.of(), query.pageable(), false));
 
-        var response = medicationService.getMedications(patientId);
+        var response = medicationService.getMedications(patientId, query);
 
-        assertThat(response).isEmpty();
+        assertThat(response.items()).isEmpty();
     }
 
     @Test
@@ -126,7 +144,7 @@ class MedicationServiceTest {
         var patientId = UUID.randomUUID();
         when(patientRepository.existsById(patientId)).thenReturn(false);
 
-        assertThatThrownBy(() -> medicationService.getMedications(patientId))
+        assertThatThrownBy(() -> medicationService.getMedications(patientId, medicationListQuery()))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessage(ExceptionMessages.PATIENT_NOT_FOUND);
     }
@@ -143,14 +161,14 @@ class MedicationServiceTest {
                 "100mg",
                 false
         );
-        when(patientRepository.existsById(patientId)).thenReturn(true);
-        when(medicationRepository.findById(medicationId)).thenReturn(Optional.of(existingMedication));
-        when(medicationRepository.save(any(Medication.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(medicationRepository.findByIdAndPatientId(medicationId, patientId)).thenReturn(Optional.of(existingMedication));
+        when(medicationRepository.saveAndFlush(any(Medication.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         var response = medicationService.updateMedication(patientId, medicationId, request);
 
         assertThat(response.dosage()).isEqualTo("100mg");
-        verify(medicationRepository).save(any(Medication.class));
+        verify(medicationRepository).saveAndFlush(any(Medication.class));
+        verify(eventPublisher).publishEvent(new MedicationEvent(DomainEventType.MEDICATION_UPDATED, response));
     }
 
     @Test
@@ -158,6 +176,7 @@ class MedicationServiceTest {
         var patientId = UUID.randomUUID();
         var medicationId = UUID.randomUUID();
         var request = updateMedicationRequest();
+        when(medicationRepository.findByIdAndPatientId(medicationId, patientId)).thenReturn(Optional.empty());
         when(patientRepository.existsById(patientId)).thenReturn(false);
 
         assertThatThrownBy(() -> medicationService.updateMedication(patientId, medicationId, request))
@@ -170,8 +189,9 @@ class MedicationServiceTest {
         var patientId = UUID.randomUUID();
         var medicationId = UUID.randomUUID();
         var request = updateMedicationRequest();
+        when(medicationRepository.findByIdAndPatientId(medicationId, patientId)).thenReturn(Optional.empty());
         when(patientRepository.existsById(patientId)).thenReturn(true);
-        when(medicationRepository.findById(medicationId)).thenReturn(Optional.empty());
+        when(medicationRepository.existsById(medicationId)).thenReturn(false);
 
         assertThatThrownBy(() -> medicationService.updateMedication(patientId, medicationId, request))
                 .isInstanceOf(ResourceNotFoundException.class)
@@ -181,14 +201,11 @@ class MedicationServiceTest {
     @Test
     void givenMedicationBelongsToDifferentPatient_whenUpdateMedication_thenThrowsResourceNotFoundException() {
         var patientId = UUID.randomUUID();
-        var differentPatientId = UUID.randomUUID();
         var medicationId = UUID.randomUUID();
-        var differentPatient = patientWithId(differentPatientId);
-        var existingMedication = medication(differentPatient);
-        existingMedication.setId(medicationId);
         var request = updateMedicationRequest();
+        when(medicationRepository.findByIdAndPatientId(medicationId, patientId)).thenReturn(Optional.empty());
         when(patientRepository.existsById(patientId)).thenReturn(true);
-        when(medicationRepository.findById(medicationId)).thenReturn(Optional.of(existingMedication));
+        when(medicationRepository.existsById(medicationId)).thenReturn(true);
 
         assertThatThrownBy(() -> medicationService.updateMedication(patientId, medicationId, request))
                 .isInstanceOf(ResourceNotFoundException.class)
@@ -198,24 +215,21 @@ class MedicationServiceTest {
     @Test
     void givenPatientWithContraindicatedMedications_whenGetContraindications_thenReturnsOnlyContraindicated() {
         var patientId = UUID.randomUUID();
-        var existingPatient = patientWithId(patientId);
-        var contraindicatedMed = medication(existingPatient, "MAO Inhibitor", "10mg", true);
+        var contraindicatedMed = medicationResponse(UUID.randomUUID(), patientId, true);
         when(patientRepository.existsById(patientId)).thenReturn(true);
-        when(medicationRepository.findByPatientIdAndContraindicatedTrue(patientId))
+        when(medicationRepository.findContraindicationResponsesByPatientId(patientId))
                 .thenReturn(List.of(contraindicatedMed));
 
         var response = medicationService.getContraindications(patientId);
 
-        assertThat(response).hasSize(1);
-        assertThat(response.get(0).contraindicated()).isTrue();
-        assertThat(response.get(0).name()).isEqualTo("MAO Inhibitor");
+        assertThat(response).containsExactly(contraindicatedMed);
     }
 
     @Test
     void givenPatientWithNoContraindications_whenGetContraindications_thenReturnsEmptyList() {
         var patientId = UUID.randomUUID();
         when(patientRepository.existsById(patientId)).thenReturn(true);
-        when(medicationRepository.findByPatientIdAndContraindicatedTrue(patientId)).thenReturn(List.of());
+        when(medicationRepository.findContraindicationResponsesByPatientId(patientId)).thenReturn(List.of());
 
         var response = medicationService.getContraindications(patientId);
 
@@ -0,0 +1,206 @@
+package com.ehr.patient.service;
+
+import com.ehr.patient.archive.PatientArchive;
+import com.ehr.patient.config.CacheConfig;
+import com.ehr.patient.config.ShardingConfig;
+import com.ehr.patient.constant.CacheNames;
+import com.ehr.patient.model.Diagnosis;
+import com.ehr.patient.model.Medication;
+import com.ehr.patient.model.Patient;
+import com.ehr.patient.repository.DiagnosisRepository;
+import com.ehr.patient.repository.MedicationRepository;
+import com.ehr.patient.repository.PatientRepository;
+import com.ehr.patient.sharding.ScatterGather;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.cache.metrics.CacheMetricsRegistrar;
+import org.springframework.boot.cache.metrics.CaffeineCacheMeterBinderProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.ehr.patient.utils.DiagnosisTestUtils.createDiagnosisRequest;
+import static com.ehr.patient.utils.DiagnosisTestUtils.diagnosis;
+import static com.ehr.patient.utils.MedicationTestUtils.createMedicationRequest;
+import static com.ehr.patient.utils.MedicationTestUtils.medication;
+import static com.ehr.patient.utils.MedicationTestUtils.updateMedicationRequest;
+import static com.ehr.patient.utils.PatientTestUtils.patientWithId;
+import static com.ehr.patient.utils.PatientTestUtils.updatePatientRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig({CacheConfig.class, PatientService.class, DiagnosisService.class, MedicationService.class,
+        ShardingConfig.class, ScatterGather.class})
+@TestPropertySource(properties = {
+        "patient.cache.maximum-size=100",
+        "patient.cache.time-to-live-minutes=1"
+})
+class PatientCacheTest {
+
+    @MockitoBean
+    private PatientRepository patientRepository;
+
+    @MockitoBean
+    private DiagnosisRepository diagnosisRepository;
+
+    @MockitoBean
+    private MedicationRepository medicationRepository;
+
+    @MockitoBean
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private PatientArchive patientArchive;
+
+    @MockitoBean
+    private EntityManager entityManager;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterBinder patientCacheLoadMetrics;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private DiagnosisService diagnosisService;
+
+    @Autowired
+    private MedicationService medicationService;
+
+    private UUID patientId;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheNames.PATIENTS).clear();
+        patientId = UUID.randomUUID();
+        patient = patientWithId(patientId);
+        when(patientRepository.findById(patientId)).thenReturn(Optional.of(patient));
+        when(patientRepository.getReferenceById(patientId)).thenReturn(patient);
+    }
+
+    @Test
+    void givenCachedPatient_whenGetPatientAgain_thenDoesNotReloadIt() {
+        var first = patientService.getPatient(patientId);
+        var second = patientService.getPatient(patientId);
+
+        assertThat(second).isSameAs(first);
+        verify(patientRepository, times(1)).findById(patientId);
+    }
+
+    @Test
+    void givenCachedPatient_whenUpdatePatient_thenNextGetReloads() {
+        patientService.getPatient(patientId);
+        when(patientRepository.findChartById(patientId)).thenReturn(Optional.of(patient));
+        when(patientRepository.saveAndFlush(any(Patient.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        patientService.updatePatient(patientId, updatePatientRequest());
+        clearInvocations(patientRepository);
+        var reloaded = patientService.getPatient(patientId);
+
+        assertThat(reloaded.firstName()).isEqualTo(updatePatientRequest().firstName());
+        verify(patientRepository).findById(patientId);
+    }
+
+    @Test
+    void givenCachedPatient_whenAddDiagnosis_thenNextGetReloads() {
+        patientService.getPatient(patientId);
+        when(diagnosisRepository.saveAndFlush(any(Diagnosis.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        diagnosisService.addDiagnosis(patientId, createDiagnosisRequest());
+
+        assertThat(isCached(patientId)).isFalse();
+    }
+
+    @Test
+    void givenCachedPatient_whenUpdateDiagnosis_thenNextGetReloads() {
+        var existing = diagnosis(patient);
+        patientService.getPatient(patientId);
+        when(diagnosisRepository.findByIdAndPatientId(existing.getId(), patientId)).thenReturn(Optional.of(existing));
+        when(diagnosisRepository.saveAndFlush(any(Diagnosis.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        diagnosisService.updateDiagnosis(patientId, existing.getId(), createDiagnosisRequest());
+
+        assertThat(isCached(patientId)).isFalse();
+    }
+
+    @Test
+    void givenCachedPatient_whenAddMedication_thenNextGetReloads() {
+        patientService.getPatient(patientId);
+        when(medicationRepository.saveAndFlush(any(Medication.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        medicationService.addMedication(patientId, createMedicationRequest());
+
+        assertThat(isCached(patientId)).isFalse();
+    }
+
+    @Test
+    void givenCachedPatient_whenUpdateMedication_thenNextGetReloads() {
+        var existing = medication(patient);
+        patientService.getPatient(patientId);
+        when(medicationRepository.findByIdAndPatientId(existing.getId(), patientId)).thenReturn(Optional.of(existing));
+        when(medicationRepository.saveAndFlush(any(Medication.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        medicationService.updateMedication(patientId, existing.getId(), updateMedicationRequest());
+
+        assertThat(isCached(patientId)).isFalse();
+    }
+
+    @Test
+    void givenCachedPatients_whenOtherPatientChanges_thenKeepsUnrelatedEntries() {
+        var otherId = UUID.randomUUID();
+        var other = patientWithId(otherId);
+        when(patientRepository.findById(otherId)).thenReturn(Optional.of(other));
+        when(patientRepository.getReferenceById(otherId)).thenReturn(other);
+        when(diagnosisRepository.saveAndFlush(any(Diagnosis.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        patientService.getPatient(patientId);
+        patientService.getPatient(otherId);
+
+        diagnosisService.addDiagnosis(otherId, createDiagnosisRequest());
+
+        assertThat(isCached(patientId)).isTrue();
+        assertThat(isCached(otherId)).isFalse();
+    }
+
+    @Test
+    void givenPatientCache_whenBoundToMeterRegistry_thenPublishesHitAndLoadMetrics() {
+        var registry = new SimpleMeterRegistry();
+        var registrar = new CacheMetricsRegistrar(registry, List.of(new CaffeineCacheMeterBinderProvider()));
+
+        boolean bound = registrar.bindCacheToRegistry(cacheManager.getCache(CacheNames.PATIENTS));
+        patientCacheLoadMetrics.bindTo(registry);
+        var hits = registry.get("cache.gets").tag("result", "hit").functionCounter();
+        var loads = registry.get("cache.load").tag("result", "success").functionCounter();
+        double hitsBefore = hits.count();
+        double loadsBefore = loads.count();
+        patientService.getPatient(patientId);
+        patientService.getPatient(patientId);
+
+        assertThat(bound).isTrue();
+        assertThat(hits.count() - hitsBefore).isEqualTo(1);
+        assertThat(loads.count() - loadsBefore).isEqualTo(1);
+        assertThat(registry.get("cache.load.duration").timeGauge().value()).isPositive();
+        assertThat(registry.get("cache.evictions").functionCounter()).isNotNull();
+    }
+
+    private boolean isCached(UUID id) {
+        return cacheManager.getCache(CacheNames.PATIENTS).get(id) != null;
+    }
+}
@@ -0,0 +1,270 @@
+package com.ehr.patient.service;
+
+import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.constant.FieldLimits;
+import com.ehr.patient.dto.CreatePatientRequest;
+import com.ehr.patient.dto.ImportPatientRequest;
+import com.ehr.patient.dto.PatientImportResult;
+import com.ehr.patient.dto.PatientResponse;
+import com.ehr.patient.dto.PatientSummaryResponse;
+import com.ehr.patient.event.PatientDomainEvent;
+import com.ehr.patient.model.enums.DomainEventType;
+import com.ehr.patient.outbox.OutboxWriter;
+import com.ehr.patient.repository.PatientBatchRepository;
+import com.ehr.patient.repository.PatientImportRow;
+import com.ehr.patient.repository.PatientRepository;
+import com.ehr.patient.sharding.ScatterGather;
+import com.ehr.patient.sharding.ShardTopology;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.ehr.patient.utils.DiagnosisTestUtils.diagnosisResponse;
+import static com.ehr.patient.utils.MedicationTestUtils.medicationResponse;
+import static com.ehr.patient.utils.PatientTestUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PatientImportServiceTest {
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    @Mock
+    private PatientBatchRepository patientBatchRepository;
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private PatientImportService patientImportService;
+
+    @BeforeEach
+    void setUp() {
+        patientImportService = new PatientImportService(
+                patientRepository,
+                patientBatchRepository,
+                outboxWriter,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new TransactionTemplate(transactionManager),
+                new ScatterGather(new ShardTopology(1), transactionManager),
+                jsonMapper,
+                2
+        );
+    }
+
+    @Test
+    void givenValidRecords_whenImportPatients_thenInsertsThemInChunks() {
+        when(patientRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        var records = List.of(
+                importPatientRequest("a@example.com"),
+                importPatientRequest("b@example.com"),
+                importPatientRequest("c@example.com")
+        );
+
+        var response = patientImportService.importPatients(records);
+
+        assertThat(response.created()).isEqualTo(3);
+        assertThat(response.failed()).isZero();
+        assertThat(response.results()).extracting(PatientImportResult::index).containsExactly(0, 1, 2);
+        assertThat(response.results()).allSatisfy(result -> assertThat(result.patientId()).isNotNull());
+        verify(patientRepository, times(2)).findExistingEmails(anyCollection());
+        verify(patientBatchRepository, times(2)).insertAll(any());
+    }
+
+    @Test
+    void givenInvalidRecord_whenImportPatients_thenReportsViolationAndInsertsTheRest() {
+        when(patientRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        var invalid = new ImportPatientRequest(
+                new CreatePatientRequest("", "Doe", null, "Male", "a@example.com",
+                        null, null, null, null, null, null, null),
+                null,
+                null
+        );
+
+        var response = patientImportService.importPatients(List.of(invalid, importPatientRequest("b@example.com")));
+
+        assertThat(response.created()).isEqualTo(1);
+        assertThat(response.results().get(0).outcome()).isEqualTo(PatientImportResult.Outcome.FAILED);
+        assertThat(response.results().get(0).error()).contains("patient.firstName", "patient.dateOfBirth");
+        assertThat(insertedEmails()).containsExactly("b@example.com");
+    }
+
+    @Test
+    void givenExistingAndRepeatedEmails_whenImportPatients_thenRejectsThemWithOneLookupPerChunk() {
+        when(patientRepository.findExistingEmails(Set.of("taken@example.com"))).thenReturn(Set.of("taken@example.com"));
+
+        var response = patientImportService.importPatients(List.of(
+                importPatientRequest("taken@example.com"),
+                importPatientRequest("taken@example.com")
+        ));
+
+        assertThat(response.created()).isZero();
+        assertThat(response.results()).extracting(PatientImportResult::error).containsExactly(
+                ExceptionMessages.PATIENT_EMAIL_EXISTS,
+                ExceptionMessages.PATIENT_EMAIL_DUPLICATED_IN_BATCH
+        );
+    }
+
+    @Test
+    void givenNdjsonWithMalformedLine_whenImportPatients_thenFailsOnlyThatLine() throws Exception {
+        when(patientRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        String ndjson = jsonMapper.writeValueAsString(importPatientRequest("a@example.com")) + "\n"
+                + "{not json\n"
+                + "\n"
+                + jsonMapper.writeValueAsString(importPatientRequest("b@example.com")) + "\n";
+
+        var response = patientImportService.importPatients(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(response.created()).isEqualTo(2);
+        assertThat(response.results()).extracting(PatientImportResult::outcome).containsExactly(
+                PatientImportResult.Outcome.CREATED,
+                PatientImportResult.Outcome.FAILED,
+                PatientImportResult.Outcome.CREATED
+        );
+        assertThat(response.results().get(1).error()).isEqualTo(ExceptionMessages.MALFORMED_IMPORT_RECORD);
+    }
+
+    @Test
+    void givenConcurrentEmailConflict_whenImportPatients_thenRechecksEmailsAndRetries() {
+        when(patientRepository.findExistingEmails(anyCollection()))
+                .thenReturn(Set.of())
+                .thenReturn(Set.of("a@example.com"));
+        doThrow(new DataIntegrityViolationException("uk_patients_email"))
+                .doReturn(List.of())
+                .when(patientBatchRepository).insertAll(any());
+
+        var response = patientImportService.importPatients(List.of(
+                importPatientRequest("a@example.com"),
+                importPatientRequest("b@example.com")
+        ));
+
+        assertThat(response.results()).extracting(PatientImportResult::outcome).containsExactly(
+                PatientImportResult.Outcome.FAILED,
+                PatientImportResult.Outcome.CREATED
+        );
+        verify(patientBatchRepository, times(2)).insertAll(any());
+    }
+
+    @Test
+    void givenRecordTheDatabaseKeepsRejecting_whenImportPatients_thenFailsOnlyThatRecord() {
+        when(patientRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        doAnswer(invocation -> {
+            List<PatientImportRow> rows = invocation.getArgument(0);
+            if (rows.stream().anyMatch(row -> row.request().patient().email().equals("bad@example.com"))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return List.of();
+        }).when(patientBatchRepository).insertAll(any());
+
+        var response = patientImportService.importPatients(List.of(
+                importPatientRequest("bad@example.com"),
+                importPatientRequest("b@example.com")
+        ));
+
+        assertThat(response.results()).extracting(PatientImportResult::outcome).containsExactly(
+                PatientImportResult.Outcome.FAILED,
+                PatientImportResult.Outcome.CREATED
+        );
+        assertThat(response.results().get(0).error()).isEqualTo(ExceptionMessages.IMPORT_RECORD_REJECTED);
+    }
+
+    @Test
+    void givenFieldLongerThanItsColumn_whenImportPatients_thenReportsViolationWithoutInsertingIt() {
+        when(patientRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        var tooLong = new ImportPatientRequest(
+                new CreatePatientRequest("John", "Doe", LocalDate.of(1990, 1, 15), "Male", "a@example.com",
+                        null, "x".repeat(FieldLimits.MAX_TEXT_LENGTH + 1), null, null, null, null, null),
+                null,
+                null
+        );
+
+        var response = patientImportService.importPatients(List.of(tooLong, importPatientRequest("b@example.com")));
+
+        assertThat(response.results().get(0).error()).contains("patient.address");
+        assertThat(insertedEmails()).containsExactly("b@example.com");
+    }
+
+    @Test
+    void givenNoRecords_whenImportPatients_thenDoesNotTouchTheDatabase() {
+        var response = patientImportService.importPatients(List.of());
+
+        assertThat(response.results()).isEmpty();
+        verify(patientBatchRepository, never()).insertAll(any());
+        verify(outboxWriter, never()).appendAll(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenInsertedCharts_whenImportPatients_thenAppendsTheirCreatedEventsToTheOutbox() {
+        when(patientRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        when(patientBatchRepository.insertAll(any())).thenAnswer(invocation -> {
+            List<PatientImportRow> rows = invocation.getArgument(0);
+            return rows.stream().map(PatientImportServiceTest::chart).toList();
+        });
+
+        var response = patientImportService.importPatients(List.of(
+                importPatientRequest("a@example.com"),
+                importPatientRequest("b@example.com")
+        ));
+
+        ArgumentCaptor<List<PatientDomainEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(outboxWriter).appendAll(events.capture());
+        UUID first = response.results().get(0).patientId();
+        UUID second = response.results().get(1).patientId();
+        assertThat(events.getValue()).extracting(PatientDomainEvent::type, PatientDomainEvent::patientId)
+                .containsExactly(
+                        tuple(DomainEventType.PATIENT_CREATED, first),
+                        tuple(DomainEventType.DIAGNOSIS_ADDED, first),
+                        tuple(DomainEventType.MEDICATION_ADDED, first),
+                        tuple(DomainEventType.PATIENT_CREATED, second),
+                        tuple(DomainEventType.DIAGNOSIS_ADDED, second),
+                        tuple(DomainEventType.MEDICATION_ADDED, second));
+        assertThat(events.getValue().get(0).payload()).isInstanceOf(PatientSummaryResponse.class);
+    }
+
+    private static PatientResponse chart(PatientImportRow row) {
+        PatientResponse patient = patientResponse(row.id(), "John", "Doe", row.request().patient().email());
+        return new PatientResponse(patient.id(), patient.firstName(), patient.lastName(), patient.dateOfBirth(),
+                patient.gender(), patient.email(), patient.phone(), patient.address(), patient.city(),
+                patient.state(), patient.zipCode(), patient.emergencyContactName(), patient.emergencyContactPhone(),
+                patient.status(), patient.createdAt(), patient.updatedAt(),
+                List.of(diagnosisResponse(row.id())), List.of(medicationResponse(row.id())));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> insertedEmails() {
+        ArgumentCaptor<List<PatientImportRow>> rows = ArgumentCaptor.forClass(List.class);
+        verify(patientBatchRepository).insertAll(rows.capture());
+        return rows.getValue().stream().map(row -> row.request().patient().email()).toList();
+    }
+}
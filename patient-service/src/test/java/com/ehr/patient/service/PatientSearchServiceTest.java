@@ -0,0 +1,107 @@
+package com.ehr.patient.service;
+
+import com.ehr.patient.dto.PageResponse;
+import com.ehr.patient.dto.PatientSummaryResponse;
+import com.ehr.patient.model.Patient;
+import com.ehr.patient.pagination.PatientSearchQuery;
+import com.ehr.patient.repository.PatientRepository;
+import com.ehr.patient.repository.PatientSearchRepository;
+import com.ehr.patient.utils.ServiceSliceTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+
+import static com.ehr.patient.utils.PatientTestUtils.patient;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ServiceSliceTest
+@Import({PatientSearchService.class, PatientSearchRepository.class})
+class PatientSearchServiceTest {
+
+    @Autowired
+    private PatientSearchService patientSearchService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAll();
+    }
+
+    @Test
+    void givenNameTerm_whenSearch_thenOrdersExactBeforePrefixBeforeContainsMatches() {
+        save("Ann", "McDoe", "mcdoe@example.com");
+        save("Ann", "Doerr", "doerr@example.com");
+        save("Ann", "Smith", "smith@example.com");
+        save("Doe", "Zeller", "zeller@example.com");
+        save("Ann", "Doe", "doe@example.com");
+
+        PageResponse<PatientSummaryResponse> page = search("DOE", null, null, null, 0, 10);
+
+        assertThat(page.items()).extracting(PatientSummaryResponse::lastName)
+                .containsExactly("Doe", "Zeller", "Doerr", "McDoe");
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    void givenSeveralCriteria_whenSearch_thenMatchesAllAndSumsTheirRelevance() {
+        save("John", "Adams", "adams.john@example.com");
+        save("John", "Baker", "john.baker@example.com");
+        Patient otherBirthday = patient("John", "Carter", "john.carter@example.com");
+        otherBirthday.setId(null);
+        otherBirthday.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        patientRepository.save(otherBirthday);
+
+        PageResponse<PatientSummaryResponse> page = search("john", "john", null, LocalDate.of(1985, 3, 15), 0, 10);
+
+        assertThat(page.items()).extracting(PatientSummaryResponse::lastName).containsExactly("Baker", "Adams");
+    }
+
+    @Test
+    void givenTermWithLikeWildcards_whenSearch_thenMatchesThemLiterally() {
+        save("Ann", "Lee", "a_b%c@example.com");
+        save("Ann", "Kim", "axbyc@example.com");
+
+        PageResponse<PatientSummaryResponse> page = search(null, "a_b%c", null, null, 0, 10);
+
+        assertThat(page.items()).extracting(PatientSummaryResponse::lastName).containsExactly("Lee");
+    }
+
+    @Test
+    void givenPhoneTerm_whenSearch_thenMatchesAnywhereInTheNumber() {
+        save("Ann", "Lee", "lee@example.com");
+
+        assertThat(search(null, null, "123-45", null, 0, 10).items()).hasSize(1);
+        assertThat(search(null, null, "999-99", null, 0, 10).items()).isEmpty();
+    }
+
+    @Test
+    void givenMoreMatchesThanAPage_whenSearch_thenPagesInOrder() {
+        for (int i = 0; i < 5; i++) {
+            save("Ann", "Doe" + i, "doe" + i + "@example.com");
+        }
+
+        PageResponse<PatientSummaryResponse> second = search("doe", null, null, null, 1, 2);
+        PageResponse<PatientSummaryResponse> last = search("doe", null, null, null, 2, 2);
+
+        assertThat(second.items()).extracting(PatientSummaryResponse::lastName).containsExactly("Doe2", "Doe3");
+        assertThat(second.hasNext()).isTrue();
+        assertThat(last.items()).extracting(PatientSummaryResponse::lastName).containsExactly("Doe4");
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    private PageResponse<PatientSummaryResponse> search(String name, String email, String phone,
+                                                        LocalDate dateOfBirth, int page, int size) {
+        return patientSearchService.search(PatientSearchQuery.of(name, email, phone, dateOfBirth, page, size));
+    }
+
+    private void save(String firstName, String lastName, String email) {
+        Patient patient = patient(firstName, lastName, email);
+        patient.setId(null);
+        patientRepository.save(patient);
+    }
+}
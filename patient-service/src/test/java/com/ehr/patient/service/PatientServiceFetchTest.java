@@ -0,0 +1,134 @@
+package com.ehr.patient.service;
+
+import com.ehr.patient.archive.PatientArchive;
+import com.ehr.patient.config.ShardingConfig;
+import com.ehr.patient.dto.PatientResponse;
+import com.ehr.patient.dto.PatientSummaryResponse;
+import com.ehr.patient.model.Diagnosis;
+import com.ehr.patient.model.Medication;
+import com.ehr.patient.model.Patient;
+import com.ehr.patient.repository.PatientBatchRepository;
+import com.ehr.patient.sharding.ScatterGather;
+import com.ehr.patient.utils.QueryCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.ehr.patient.utils.DiagnosisTestUtils.diagnosis;
+import static com.ehr.patient.utils.MedicationTestUtils.medication;
+import static com.ehr.patient.utils.PatientTestUtils.patient;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({PatientService.class, QueryCounter.class, ShardingConfig.class, ScatterGather.class,
+        PatientArchive.class, PatientBatchRepository.class})
+class PatientServiceFetchTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Test
+    void givenPatientWithManyDiagnosesAndMedications_whenGetPatient_thenRowsGrowWithSumOfCollections() {
+        UUID patientId = persistPatient("Doe", 40, 60);
+        entityManager.clear();
+        queryCounter.reset();
+
+        var response = patientService.getPatient(patientId);
+
+        assertThat(response.diagnoses()).hasSize(40);
+        assertThat(response.medications()).hasSize(60);
+        assertThat(queryCounter.statements()).isEqualTo(3);
+        assertThat(queryCounter.rows()).isEqualTo(1 + 40 + 60);
+    }
+
+    @Test
+    void givenRosterPage_whenGetPatients_thenBatchesChildCollectionsAcrossThePage() {
+        persistPatient("Adams", 3, 5);
+        persistPatient("Baker", 4, 2);
+        persistPatient("Clark", 0, 7);
+        entityManager.clear();
+        queryCounter.reset();
+
+        var page = patientService.getPatients(null, 10);
+
+        assertThat(page.items()).hasSize(3);
+        assertThat(queryCounter.statements()).isEqualTo(3);
+        assertThat(queryCounter.rows()).isEqualTo(3 + (3 + 4 + 0) + (5 + 2 + 7));
+    }
+
+    @Test
+    void givenRosterPage_whenGetPatientSummaries_thenReadsOneRowPerPatientInOneStatement() {
+        persistPatient("Adams", 3, 5);
+        persistPatient("Baker", 4, 2);
+        entityManager.clear();
+        queryCounter.reset();
+
+        var page = patientService.getPatientSummaries(null, 10);
+
+        assertThat(page.items()).extracting(PatientSummaryResponse::diagnosisCount).containsExactly(3L, 4L);
+        assertThat(page.items()).extracting(PatientSummaryResponse::medicationCount).containsExactly(5L, 2L);
+        assertThat(queryCounter.statements()).isEqualTo(1);
+        assertThat(queryCounter.rows()).isEqualTo(2);
+    }
+
+    @Test
+    void givenKnownAndUnknownIds_whenLookupPatients_thenLoadsChartsAndChecksArchiveInFourStatements() {
+        UUID adams = persistPatient("Adams", 3, 5);
+        UUID baker = persistPatient("Baker", 4, 2);
+        entityManager.clear();
+        queryCounter.reset();
+
+        var response = patientService.lookupPatients(List.of(baker, UUID.randomUUID(), adams));
+
+        assertThat(response.patients()).extracting(PatientResponse::id).containsExactly(baker, adams);
+        assertThat(response.missingIds()).hasSize(1);
+        // The unknown id is also looked up in the archive.
+        assertThat(queryCounter.statements()).isEqualTo(4);
+    }
+
+    @Test
+    void givenKnownIds_whenLookupPatientSummaries_thenReadsThemInOneStatement() {
+        UUID adams = persistPatient("Adams", 3, 5);
+        UUID baker = persistPatient("Baker", 4, 2);
+        entityManager.clear();
+        queryCounter.reset();
+
+        var response = patientService.lookupPatientSummaries(List.of(adams, baker));
+
+        assertThat(response.patients()).extracting(PatientSummaryResponse::diagnosisCount).containsExactly(3L, 4L);
+        assertThat(response.missingIds()).isEmpty();
+        assertThat(queryCounter.statements()).isEqualTo(1);
+    }
+
+    private UUID persistPatient(String lastName, int diagnosisCount, int medicationCount) {
+        Patient patient = patient("John", lastName, lastName.toLowerCase() + "@example.com");
+        patient.setId(null);
+        entityManager.persist(patient);
+        for (int i = 0; i < diagnosisCount; i++) {
+            Diagnosis diagnosis = diagnosis(patient, "F43." + i, "Diagnosis " + i);
+            diagnosis.setId(null);
+            entityManager.persist(diagnosis);
+        }
+        for (int i = 0; i < medicationCount; i++) {
+            Medication medication = medication(patient, "Medication " + i, "10mg", false);
+            medication.setId(null);
+            entityManager.persist(medication);
+        }
+        entityManager.flush();
+        return patient.getId();
+    }
+}
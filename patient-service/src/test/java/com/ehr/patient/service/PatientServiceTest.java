@@ -1,10 +1,22 @@
 package com.ehr.patient.service;
 
+import com.ehr.patient.archive.PatientArchive;
 import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.dto.PatientResponse;
+import com.ehr.patient.dto.PatientSummaryResponse;
+import com.ehr.patient.event.PatientEvent;
 import com.ehr.patient.exception.DuplicateResourceException;
+import com.ehr.patient.exception.InvalidCursorException;
 import com.ehr.patient.exception.ResourceNotFoundException;
 import com.ehr.patient.model.Patient;
+import com.ehr.patient.model.enums.DomainEventType;
+import com.ehr.patient.pagination.PatientCursor;
 import com.ehr.patient.repository.PatientRepository;
+import com.ehr.patient.sharding.ScatterGather;
+import com.ehr.patient.sharding.ShardTopology;
+import jakarta.persistence.EntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,11 +28,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,47 +45,58 @@ class PatientServiceTest {
     @Mock
     private PatientRepository patientRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private PatientArchive patientArchive;
+
+    @Mock
+    private EntityManager entityManager;
+
     private PatientService patientService;
 
     @BeforeEach
     void setUp() {
-        patientService = new PatientService(patientRepository);
+        patientService = new PatientService(patientRepository, eventPublisher,
+                new ScatterGather(new ShardTopology(1), transactionManager), patientArchive, entityManager);
     }
 
     @Test
     void givenValidRequest_whenCreatePatient_thenReturnsPatientResponse() {
         var request = createPatientRequest();
-        when(patientRepository.findByEmail("john.doe@example.com")).thenReturn(Optional.empty());
-        when(patientRepository.save(any(Patient.class))).thenAnswer(invocation -> {
-            Patient saved = invocation.getArgument(0);
-            saved.setId(UUID.randomUUID());
-            return saved;
-        });
 
         var response = patientService.createPatient(request);
 
+        assertThat(response.id()).isNotNull();
         assertThat(response.firstName()).isEqualTo("John");
         assertThat(response.lastName()).isEqualTo("Doe");
         assertThat(response.email()).isEqualTo("john.doe@example.com");
-        verify(patientRepository).save(any(Patient.class));
+        verify(entityManager).persist(any(Patient.class));
+        verify(patientRepository).flush();
+        verify(eventPublisher).publishEvent(
+                new PatientEvent(DomainEventType.PATIENT_CREATED, PatientSummaryResponse.of(response)));
     }
 
     @Test
     void givenExistingEmail_whenCreatePatient_thenThrowsDuplicateResourceException() {
         var request = createPatientRequest();
-        var existingPatient = patient();
-        when(patientRepository.findByEmail("john.doe@example.com")).thenReturn(Optional.of(existingPatient));
+        doThrow(new DataIntegrityViolationException("uk_patients_email")).when(patientRepository).flush();
 
         assertThatThrownBy(() -> patientService.createPatient(request))
                 .isInstanceOf(DuplicateResourceException.class)
                 .hasMessage(ExceptionMessages.PATIENT_EMAIL_EXISTS);
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
     void givenExistingPatientId_whenGetPatient_thenReturnsPatientResponse() {
         var patientId = UUID.randomUUID();
         var existingPatient = patientWithId(patientId);
-        when(patientRepository.findByIdWithDiagnosesAndMedications(patientId)).thenReturn(Optional.of(existingPatient));
+        when(patientRepository.findById(patientId)).thenReturn(Optional.of(existingPatient));
 
         var response = patientService.getPatient(patientId);
 
@@ -81,7 +108,7 @@ class PatientServiceTest {
     @Test
     void givenNonExistentPatientId_whenGetPatient_thenThrowsResourceNotFoundException() {
         var patientId = UUID.randomUUID();
-        when(patientRepository.findByIdWithDiagnosesAndMedications(patientId)).thenReturn(Optional.empty());
+        when(patientRepository.findById(patientId)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> patientService.getPatient(patientId))
                 .isInstanceOf(ResourceNotFoundException.class)
@@ -89,7 +116,7 @@ class PatientServiceTest {
     }
 
     @Test
-    void givenPatientsExist_whenGetAllPatients_thenReturnsListOfPatientResponses() {
+    void givenPatientsExist_whenGetPatients_thenReturnsFirstPageInRosterOrder() {
         var patient1 = patient(
                 "John",
                 "Doe",
@@ -100,22 +127,93 @@ class PatientServiceTest {
                 "Smith",
                 "jane@example.com"
         );
-        when(patientRepository.findAllWithDiagnosesAndMedications()).thenReturn(List.of(patient1, patient2));
+        when(patientRepository.findRosterPage(Limit.of(3))).thenReturn(List.of(patient1, patient2));
 
-        var response = patientService.getAllPatients();
+        var response = patientService.getPatients(null, 2);
 
-        assertThat(response).hasSize(2);
-        assertThat(response.get(0).firstName()).isEqualTo("John");
-        assertThat(response.get(1).firstName()).isEqualTo("Jane");
+        assertThat(response.items()).hasSize(2);
+        assertThat(response.items().get(0).firstName()).isEqualTo("John");
+        assertThat(response.items().get(1).firstName()).isEqualTo("Jane");
+        assertThat(response.nextCursor()).isNull();
     }
 
     @Test
-    void givenNoPatientsExist_whenGetAllPatients_thenReturnsEmptyList() {
-        when(patientRepository.findAllWithDiagnosesAndMedications()).thenReturn(List.of());
+    void givenMorePatientsThanPageSize_whenGetPatients_thenReturnsCursorAfterLastPatient() {
+        var patient1 = patient(
+                "John",
+                "Doe",
+                "john@example.com"
+        );
+        var patient2 = patient(
+                "Jane",
+                "Smith",
+                "jane@example.com"
+        );
+        when(patientRepository.findRosterPage(Limit.of(2))).thenReturn(List.of(patient1, patient2));
 
-        var response = patientService.getAllPatients();
+        var response = patientService.getPatients(null, 1);
 
-        assertThat(response).isEmpty();
+        assertThat(response.items()).hasSize(1);
+        assertThat(PatientCursor.decode(response.nextCursor()))
+                .isEqualTo(new PatientCursor("Doe", patient1.getId()));
+    }
+
+    @Test
+    void givenCursor_whenGetPatients_thenSeeksPastCursorPosition() {
+        var patient = patient(
+                "Jane",
+                "Smith",
+                "jane@example.com"
+        );
+        var cursor = new PatientCursor("Doe", UUID.randomUUID());
+        when(patientRepository.findRosterPageAfter("Doe", cursor.id(), Limit.of(51))).thenReturn(List.of(patient));
+
+        var response = patientService.getPatients(cursor.encode(), 50);
+
+        assertThat(response.items()).extracting(PatientResponse::lastName).containsExactly("Smith");
+        assertThat(response.nextCursor()).isNull();
+    }
+
+    @Test
+    void givenNoPatientsExist_whenGetPatients_thenReturnsEmptyPage() {
+        when(patientRepository.findRosterPage(Limit.of(51))).thenReturn(List.of());
+
+        var response = patientService.getPatients(null, 50);
+
+        assertThat(response.items()).isEmpty();
+        assertThat(response.nextCursor()).isNull();
+    }
+
+    @Test
+    void givenMalformedCursor_whenGetPatients_thenThrowsInvalidCursorException() {
+        assertThatThrownBy(() -> patientService.getPatients("not-a-cursor", 50))
+                .isInstanceOf(InvalidCursorException.class)
+                .hasMessage(ExceptionMessages.INVALID_CURSOR);
+    }
+
+    @Test
+    void givenMorePatientsThanPageSize_whenGetPatientSummaries_thenReturnsSummariesWithCursor() {
+        var summary1 = patientSummaryResponse(UUID.randomUUID(), "John", "Doe");
+        var summary2 = patientSummaryResponse(UUID.randomUUID(), "Jane", "Smith");
+        when(patientRepository.findSummaryPage(Limit.of(2))).thenReturn(List.of(summary1, summary2));
+
+        var response = patientService.getPatientSummaries(null, 1);
+
+        assertThat(response.items()).containsExactly(summary1);
+        assertThat(PatientCursor.decode(response.nextCursor()))
+                .isEqualTo(new PatientCursor("Doe", summary1.id()));
+    }
+
+    @Test
+    void givenCursor_whenGetPatientSummaries_thenSeeksPastCursorPosition() {
+        var summary = patientSummaryResponse(UUID.randomUUID(), "Jane", "Smith");
+        var cursor = new PatientCursor("Doe", UUID.randomUUID());
+        when(patientRepository.findSummaryPageAfter("Doe", cursor.id(), Limit.of(51))).thenReturn(List.of(summary));
+
+        var response = patientService.getPatientSummaries(cursor.encode(), 50);
+
+        assertThat(response.items()).containsExactly(summary);
+        assertThat(response.nextCursor()).isNull();
     }
 
     @Test
@@ -123,21 +221,23 @@ class PatientServiceTest {
         var patientId = UUID.randomUUID();
         var existingPatient = patientWithId(patientId);
         var request = updatePatientRequest();
-        when(patientRepository.findById(patientId)).thenReturn(Optional.of(existingPatient));
-        when(patientRepository.save(any(Patient.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(patientRepository.findChartById(patientId)).thenReturn(Optional.of(existingPatient));
+        when(patientRepository.saveAndFlush(any(Patient.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         var response = patientService.updatePatient(patientId, request);
 
         assertThat(response.email()).isEqualTo("john.updated@example.com");
         assertThat(response.address()).isEqualTo("456 Oak Ave");
-        verify(patientRepository).save(any(Patient.class));
+        verify(patientRepository).saveAndFlush(any(Patient.class));
+        verify(eventPublisher).publishEvent(
+                new PatientEvent(DomainEventType.PATIENT_UPDATED, PatientSummaryResponse.of(response)));
     }
 
     @Test
     void givenNonExistentPatient_whenUpdatePatient_thenThrowsResourceNotFoundException() {
         var patientId = UUID.randomUUID();
         var request = updatePatientRequest();
-        when(patientRepository.findById(patientId)).thenReturn(Optional.empty());
+        when(patientRepository.findChartById(patientId)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> patientService.updatePatient(patientId, request))
                 .isInstanceOf(ResourceNotFoundException.class)
@@ -149,17 +249,41 @@ class PatientServiceTest {
         var patientId = UUID.randomUUID();
         var existingPatient = patientWithId(patientId);
         existingPatient.setEmail("original@example.com");
-        var anotherPatient = patient(
-                "Other",
-                "Person",
-                "john.updated@example.com"
-        );
         var request = updatePatientRequest();
-        when(patientRepository.findById(patientId)).thenReturn(Optional.of(existingPatient));
-        when(patientRepository.findByEmail("john.updated@example.com")).thenReturn(Optional.of(anotherPatient));
+        when(patientRepository.findChartById(patientId)).thenReturn(Optional.of(existingPatient));
+        when(patientRepository.saveAndFlush(any(Patient.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_patients_email"));
 
         assertThatThrownBy(() -> patientService.updatePatient(patientId, request))
                 .isInstanceOf(DuplicateResourceException.class)
                 .hasMessage(ExceptionMessages.PATIENT_EMAIL_EXISTS);
     }
+
+    @Test
+    void givenDuplicateAndUnknownIds_whenLookupPatientSummaries_thenQueriesOnceInRequestOrderAndReportsMissing() {
+        var first = UUID.randomUUID();
+        var second = UUID.randomUUID();
+        var missing = UUID.randomUUID();
+        when(patientRepository.findSummariesByIdIn(List.of(second, missing, first))).thenReturn(List.of(
+                patientSummaryResponse(first, "John", "Doe"),
+                patientSummaryResponse(second, "Jane", "Roe")));
+
+        var response = patientService.lookupPatientSummaries(List.of(second, missing, first, second));
+
+        assertThat(response.patients()).extracting(PatientSummaryResponse::id).containsExactly(second, first);
+        assertThat(response.missingIds()).containsExactly(missing);
+    }
+
+    @Test
+    void givenIds_whenLookupPatients_thenReturnsFullChartsAndReportsMissing() {
+        var found = UUID.randomUUID();
+        var missing = UUID.randomUUID();
+        when(patientRepository.findAllById(List.of(found, missing))).thenReturn(List.of(patientWithId(found)));
+
+        var response = patientService.lookupPatients(List.of(found, missing));
+
+        assertThat(response.patients()).extracting(PatientResponse::id).containsExactly(found);
+        assertThat(response.patients().get(0).diagnoses()).isEmpty();
+        assertThat(response.missingIds()).containsExactly(missing);
+    }
 }
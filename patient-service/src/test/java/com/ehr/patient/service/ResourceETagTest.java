@@ -0,0 +1,123 @@
+package com.ehr.patient.service;
+
+import com.ehr.patient.constant.SortFields;
+import com.ehr.patient.dto.DiagnosisResponse;
+import com.ehr.patient.dto.MedicationResponse;
+import com.ehr.patient.etag.CollectionVersion;
+import com.ehr.patient.etag.PatientChartVersion;
+import com.ehr.patient.model.Patient;
+import com.ehr.patient.model.enums.DiagnosisStatus;
+import com.ehr.patient.pagination.ChildListQuery;
+import com.ehr.patient.repository.PatientRepository;
+import com.ehr.patient.utils.QueryCounter;
+import com.ehr.patient.utils.ServiceSliceTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.ehr.patient.utils.DiagnosisTestUtils.createDiagnosisRequest;
+import static com.ehr.patient.utils.DiagnosisTestUtils.diagnosisListQuery;
+import static com.ehr.patient.utils.MedicationTestUtils.createMedicationRequest;
+import static com.ehr.patient.utils.MedicationTestUtils.medicationListQuery;
+import static com.ehr.patient.utils.MedicationTestUtils.updateMedicationRequest;
+import static com.ehr.patient.utils.PatientTestUtils.patient;
+import static com.ehr.patient.utils.PatientTestUtils.updatePatientRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ServiceSliceTest
+class ResourceETagTest {
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private DiagnosisService diagnosisService;
+
+    @Autowired
+    private MedicationService medicationService;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    private UUID patientId;
+
+    @BeforeEach
+    void setUp() {
+        Patient patient = patient("John", "Doe", "john.doe@example.com");
+        patient.setId(null);
+        patientId = patientRepository.save(patient).getId();
+        diagnosisService.addDiagnosis(patientId, createDiagnosisRequest());
+        medicationService.addMedication(patientId, createMedicationRequest());
+    }
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAll();
+    }
+
+    @Test
+    void givenPatient_whenGetPatientETag_thenMatchesETagOfLoadedChartInOneStatement() {
+        queryCounter.reset();
+
+        String versionETag = patientService.getPatientETag(patientId);
+
+        assertThat(queryCounter.statements()).isEqualTo(1);
+        assertThat(versionETag).isEqualTo(PatientChartVersion.of(patientService.getPatient(patientId)).eTag());
+    }
+
+    @Test
+    void givenChildChange_whenGetPatientETag_thenChangesAndStillMatchesLoadedChart() {
+        String before = patientService.getPatientETag(patientId);
+
+        diagnosisService.addDiagnosis(patientId, createDiagnosisRequest());
+        String after = patientService.getPatientETag(patientId);
+
+        assertThat(after).isNotEqualTo(before);
+        assertThat(after).isEqualTo(PatientChartVersion.of(patientService.getPatient(patientId)).eTag());
+    }
+
+    @Test
+    void givenPatientUpdate_whenGetPatientETag_thenChangesAndStillMatchesLoadedChart() {
+        String before = patientService.getPatientETag(patientId);
+
+        patientService.updatePatient(patientId, updatePatientRequest());
+        String after = patientService.getPatientETag(patientId);
+
+        assertThat(after).isNotEqualTo(before);
+        assertThat(after).isEqualTo(PatientChartVersion.of(patientService.getPatient(patientId)).eTag());
+    }
+
+    @Test
+    void givenCollectionChange_whenGetCollectionETags_thenMatchLoadedLists() {
+        var diagnoses = diagnosisListQuery();
+        var medications = medicationListQuery();
+        var medicationId = medicationService.getMedications(patientId, medications).items().get(0).id();
+        String diagnosesBefore = diagnosisService.getDiagnosesETag(patientId, diagnoses);
+        String medicationsBefore = medicationService.getMedicationsETag(patientId, medications);
+
+        medicationService.updateMedication(patientId, medicationId, updateMedicationRequest());
+
+        assertThat(diagnosisService.getDiagnosesETag(patientId, diagnoses)).isEqualTo(diagnosesBefore)
+                .isEqualTo(CollectionVersion.of(patientId, diagnosisService.getDiagnoses(patientId, diagnoses).items(),
+                        DiagnosisResponse::updatedAt).eTag(diagnoses));
+        assertThat(medicationService.getMedicationsETag(patientId, medications)).isNotEqualTo(medicationsBefore)
+                .isEqualTo(CollectionVersion.of(patientId, medicationService.getMedications(patientId, medications).items(),
+                        MedicationResponse::updatedAt).eTag(medications));
+    }
+
+    @Test
+    void givenDifferentListQueries_whenGetCollectionETag_thenTagsDiffer() {
+        var resolvedOnly = ChildListQuery.of(DiagnosisStatus.class, List.of(DiagnosisStatus.RESOLVED), null, null,
+                SortFields.DIAGNOSIS_DATE, SortFields.DEFAULT_DIRECTION, SortFields.DIAGNOSIS_SORTS, 0, 10);
+
+        assertThat(diagnosisService.getDiagnosesETag(patientId, resolvedOnly))
+                .isNotEqualTo(diagnosisService.getDiagnosesETag(patientId, diagnosisListQuery()));
+    }
+}
@@ -0,0 +1,165 @@
+package com.ehr.patient.service;
+
+import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.exception.DuplicateResourceException;
+import com.ehr.patient.exception.ResourceNotFoundException;
+import com.ehr.patient.outbox.OutboxWriter;
+import com.ehr.patient.repository.OutboxEventRepository;
+import com.ehr.patient.repository.PatientRepository;
+import com.ehr.patient.utils.QueryCounter;
+import com.ehr.patient.utils.ServiceSliceTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.context.annotation.Import;
+
+import java.util.UUID;
+
+import static com.ehr.patient.utils.DiagnosisTestUtils.createDiagnosisRequest;
+import static com.ehr.patient.utils.MedicationTestUtils.createMedicationRequest;
+import static com.ehr.patient.utils.MedicationTestUtils.updateMedicationRequest;
+import static com.ehr.patient.utils.PatientTestUtils.createPatientRequest;
+import static com.ehr.patient.utils.PatientTestUtils.updatePatientRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Counts statements with the outbox wired in, as in the application: every committed write also inserts
+ * its domain event into the outbox in the same flush.
+ */
+@ServiceSliceTest
+@AutoConfigureJson
+@Import(OutboxWriter.class)
+class WriteStatementCountTest {
+
+    private static final int MAX_STATEMENTS_PER_WRITE = 2;
+    private static final int OUTBOX_INSERT = 1;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private DiagnosisService diagnosisService;
+
+    @Autowired
+    private MedicationService medicationService;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    private UUID patientId;
+
+    @BeforeEach
+    void setUp() {
+        patientId = patientService.createPatient(createPatientRequest()).id();
+        queryCounter.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+        patientRepository.deleteAll();
+    }
+
+    @Test
+    void givenNewPatient_whenCreatePatient_thenInsertsInOneStatementPlusTheOutboxRow() {
+        patientService.createPatient(createPatientRequest("Jane", "Roe", "jane.roe@example.com"));
+
+        assertThat(queryCounter.statements()).isEqualTo(1 + OUTBOX_INSERT);
+    }
+
+    @Test
+    void givenTakenEmail_whenCreatePatient_thenUniqueConstraintRejectsIt() {
+        assertThatThrownBy(() -> patientService.createPatient(createPatientRequest()))
+                .isInstanceOf(DuplicateResourceException.class)
+                .hasMessage(ExceptionMessages.PATIENT_EMAIL_EXISTS);
+
+        assertThat(queryCounter.statements()).isEqualTo(1);
+    }
+
+    @Test
+    void givenExistingPatient_whenUpdatePatient_thenLoadsAndUpdatesInTwoStatementsPlusTheOutboxRow() {
+        diagnosisService.addDiagnosis(patientId, createDiagnosisRequest());
+        medicationService.addMedication(patientId, createMedicationRequest());
+        queryCounter.reset();
+
+        var response = patientService.updatePatient(patientId, updatePatientRequest());
+
+        assertThat(queryCounter.statements()).isEqualTo(MAX_STATEMENTS_PER_WRITE + OUTBOX_INSERT);
+        assertThat(response.diagnoses()).hasSize(1);
+        assertThat(response.medications()).hasSize(1);
+        assertThat(response.updatedAt()).isEqualTo(patientRepository.findById(patientId).orElseThrow().getUpdatedAt());
+    }
+
+    @Test
+    void givenEmailOfAnotherPatient_whenUpdatePatient_thenUniqueConstraintRejectsIt() {
+        patientService.createPatient(createPatientRequest("Jane", "Roe", updatePatientRequest().email()));
+
+        assertThatThrownBy(() -> patientService.updatePatient(patientId, updatePatientRequest()))
+                .isInstanceOf(DuplicateResourceException.class)
+                .hasMessage(ExceptionMessages.PATIENT_EMAIL_EXISTS);
+    }
+
+    @Test
+    void givenExistingPatient_whenAddDiagnosisAndMedication_thenEachInsertsInOneStatementPlusTheOutboxRow() {
+        diagnosisService.addDiagnosis(patientId, createDiagnosisRequest());
+        assertThat(queryCounter.statements()).isEqualTo(1 + OUTBOX_INSERT);
+
+        queryCounter.reset();
+        medicationService.addMedication(patientId, createMedicationRequest());
+        assertThat(queryCounter.statements()).isEqualTo(1 + OUTBOX_INSERT);
+    }
+
+    @Test
+    void givenUnknownPatient_whenAddDiagnosisAndMedication_thenForeignKeyRejectsThem() {
+        var unknownPatientId = UUID.randomUUID();
+
+        assertThatThrownBy(() -> diagnosisService.addDiagnosis(unknownPatientId, createDiagnosisRequest()))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage(ExceptionMessages.PATIENT_NOT_FOUND);
+        assertThatThrownBy(() -> medicationService.addMedication(unknownPatientId, createMedicationRequest()))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage(ExceptionMessages.PATIENT_NOT_FOUND);
+    }
+
+    @Test
+    void givenExistingChildren_whenUpdateDiagnosisAndMedication_thenEachTakesTwoStatementsPlusTheOutboxRow() {
+        var diagnosis = diagnosisService.addDiagnosis(patientId, createDiagnosisRequest());
+        var medication = medicationService.addMedication(patientId, createMedicationRequest());
+
+        queryCounter.reset();
+        var updatedDiagnosis = diagnosisService.updateDiagnosis(patientId, diagnosis.id(),
+                createDiagnosisRequest("F43.12", "Updated"));
+        assertThat(queryCounter.statements()).isEqualTo(MAX_STATEMENTS_PER_WRITE + OUTBOX_INSERT);
+
+        queryCounter.reset();
+        var updatedMedication = medicationService.updateMedication(patientId, medication.id(), updateMedicationRequest());
+        assertThat(queryCounter.statements()).isEqualTo(MAX_STATEMENTS_PER_WRITE + OUTBOX_INSERT);
+
+        assertThat(updatedDiagnosis.updatedAt()).isAfterOrEqualTo(diagnosis.updatedAt());
+        assertThat(updatedMedication.dosage()).isEqualTo(updateMedicationRequest().dosage());
+    }
+
+    @Test
+    void givenChildOfAnotherPatient_whenUpdateDiagnosisAndMedication_thenReportsNotFoundForPatient() {
+        var otherPatientId = patientService.createPatient(
+                createPatientRequest("Jane", "Roe", "jane.roe@example.com")).id();
+        var diagnosis = diagnosisService.addDiagnosis(otherPatientId, createDiagnosisRequest());
+        var medication = medicationService.addMedication(otherPatientId, createMedicationRequest());
+
+        assertThatThrownBy(() -> diagnosisService.updateDiagnosis(patientId, diagnosis.id(), createDiagnosisRequest()))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage(ExceptionMessages.DIAGNOSIS_NOT_FOUND_FOR_PATIENT);
+        assertThatThrownBy(() -> medicationService.updateMedication(patientId, medication.id(), updateMedicationRequest()))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage(ExceptionMessages.MEDICATION_NOT_FOUND_FOR_PATIENT);
+    }
+}
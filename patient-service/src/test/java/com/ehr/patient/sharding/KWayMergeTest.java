@@ -0,0 +1,37 @@
+package com.ehr.patient.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KWayMergeTest {
+
+    @Test
+    void givenSortedRuns_whenMerge_thenReturnsFirstItemsInCombinedOrder() {
+        var runs = List.of(List.of(1, 4, 7), List.of(2, 5), List.<Integer>of(), List.of(3, 6, 8));
+
+        var merged = KWayMerge.merge(runs, Comparator.naturalOrder(), 6);
+
+        assertThat(merged).containsExactly(1, 2, 3, 4, 5, 6);
+    }
+
+    @Test
+    void givenSingleRun_whenMerge_thenTruncatesToLimit() {
+        var merged = KWayMerge.merge(List.of(List.of(1, 2, 3)), Comparator.naturalOrder(), 2);
+
+        assertThat(merged).containsExactly(1, 2);
+    }
+
+    @Test
+    void givenHighBitSet_whenCompareWithUuidOrder_thenSortsAsUnsignedLikePostgres() {
+        var low = new UUID(0x7fffffffffffffffL, 0);
+        var high = new UUID(0x8000000000000000L, 0);
+
+        assertThat(KWayMerge.UUID_ORDER.compare(low, high)).isNegative();
+        assertThat(low.compareTo(high)).isPositive();
+    }
+}
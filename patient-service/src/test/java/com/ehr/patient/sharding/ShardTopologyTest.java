@@ -0,0 +1,58 @@
+package com.ehr.patient.sharding;
+
+import com.ehr.patient.model.id.UuidV7;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardTopologyTest {
+
+    private static final int PATIENTS = 20_000;
+
+    @Test
+    void givenSingleShard_whenShardOf_thenAlwaysShardZero() {
+        var topology = new ShardTopology(1);
+
+        assertThat(topology.isSharded()).isFalse();
+        assertThat(topology.shardOf(UuidV7.randomUuid())).isZero();
+    }
+
+    @Test
+    void givenSequentialV7Ids_whenShardOf_thenSpreadsEvenly() {
+        var topology = new ShardTopology(4);
+        int[] counts = new int[4];
+
+        for (int i = 0; i < PATIENTS; i++) {
+            counts[topology.shardOf(UuidV7.randomUuid())]++;
+        }
+
+        for (int count : counts) {
+            assertThat(count).isBetween(4_500, 5_500);
+        }
+    }
+
+    @Test
+    void givenShardAdded_whenShardOf_thenOnlyMovesPatientsToNewShard() {
+        var before = new ShardTopology(4);
+        var after = new ShardTopology(5);
+        int moved = 0;
+
+        for (int i = 0; i < PATIENTS; i++) {
+            UUID id = UuidV7.randomUuid();
+            if (before.shardOf(id) != after.shardOf(id)) {
+                assertThat(after.shardOf(id)).isEqualTo(4);
+                moved++;
+            }
+        }
+
+        assertThat(moved).isBetween(3_500, 4_500);
+    }
+
+    @Test
+    void givenNoShards_whenCreated_thenThrowsIllegalArgumentException() {
+        assertThatThrownBy(() -> new ShardTopology(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
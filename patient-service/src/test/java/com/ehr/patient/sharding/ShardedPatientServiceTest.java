@@ -0,0 +1,234 @@
+package com.ehr.patient.sharding;
+
+import com.ehr.patient.config.ShardedDataSourceConfig;
+import com.ehr.patient.constant.ExceptionMessages;
+import com.ehr.patient.dto.CursorPageResponse;
+import com.ehr.patient.dto.PatientResponse;
+import com.ehr.patient.dto.PatientSummaryResponse;
+import com.ehr.patient.exception.DuplicateResourceException;
+import com.ehr.patient.service.DiagnosisService;
+import com.ehr.patient.service.PatientService;
+import com.ehr.patient.utils.ServiceSliceTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static com.ehr.patient.utils.DiagnosisTestUtils.createDiagnosisRequest;
+import static com.ehr.patient.utils.PatientTestUtils.createPatientRequest;
+import static com.ehr.patient.utils.PatientTestUtils.updatePatientRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Two in-memory shards. Hibernate creates the schema on shard 0 and it is copied to shard 1.
+ */
+@ServiceSliceTest
+@TestPropertySource(properties = {
+        "patient.sharding.enabled=true",
+        "patient.sharding.shards[0].url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1;IGNORE_UNKNOWN_SETTINGS=TRUE",
+        "patient.sharding.shards[0].username=sa",
+        "patient.sharding.shards[0].password=",
+        "patient.sharding.shards[1].url=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1;IGNORE_UNKNOWN_SETTINGS=TRUE",
+        "patient.sharding.shards[1].username=sa",
+        "patient.sharding.shards[1].password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ShardedDataSourceConfig.class)
+class ShardedPatientServiceTest {
+
+    private static final int PATIENTS = 24;
+
+    @Autowired
+    private ShardDataSources shardDataSources;
+
+    @Autowired
+    private ShardTopology topology;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private DiagnosisService diagnosisService;
+
+    private List<JdbcTemplate> shards;
+
+    @BeforeEach
+    void setUp() {
+        shards = shardDataSources.pools().stream().map(JdbcTemplate::new).toList();
+        if (tableCount(shards.get(1)) == 0) {
+            shards.get(0).queryForList("SCRIPT NODATA", String.class).forEach(shards.get(1)::execute);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (JdbcTemplate shard : shards) {
+            shard.update("DELETE FROM archived_patients");
+            shard.update("DELETE FROM medications");
+            shard.update("DELETE FROM diagnoses");
+            shard.update("DELETE FROM outbox_events");
+            shard.update("DELETE FROM patients");
+        }
+    }
+
+    @Test
+    void givenNewPatients_whenCreatePatient_thenStoresEachChartOnItsHashedShard() {
+        List<UUID> ids = createPatients();
+
+        for (UUID id : ids) {
+            int shard = topology.shardOf(id);
+            assertThat(patientsOn(shard, id)).isEqualTo(1);
+            assertThat(patientsOn(1 - shard, id)).isZero();
+            assertThat(shards.get(shard).queryForObject(
+                    "SELECT COUNT(*) FROM diagnoses WHERE patient_id = ?", Integer.class, id)).isEqualTo(1);
+        }
+        assertThat(ids).extracting(topology::shardOf).contains(0, 1);
+    }
+
+    @Test
+    void givenPatientsOnBothShards_whenPagingRoster_thenMergesPagesInKeysetOrder() {
+        createPatients();
+        List<PatientResponse> roster = new ArrayList<>();
+        String cursor = null;
+
+        do {
+            CursorPageResponse<PatientResponse> page = patientService.getPatients(cursor, 5);
+            roster.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(roster).hasSize(PATIENTS);
+        assertThat(roster).isSortedAccordingTo(Comparator.comparing(PatientResponse::lastName)
+                .thenComparing(PatientResponse::id, KWayMerge.UUID_ORDER));
+        assertThat(roster).allSatisfy(patient -> assertThat(patient.diagnoses()).hasSize(1));
+    }
+
+    @Test
+    void givenIdsOnBothShards_whenLookupPatientSummaries_thenFindsEveryPatientInRequestOrder() {
+        List<UUID> ids = createPatients();
+        List<UUID> requested = new ArrayList<>(ids);
+        Collections.reverse(requested);
+        requested.add(UUID.randomUUID());
+
+        var response = patientService.lookupPatientSummaries(requested);
+
+        assertThat(response.patients()).extracting(PatientSummaryResponse::id)
+                .containsExactlyElementsOf(requested.subList(0, PATIENTS));
+        assertThat(response.missingIds()).hasSize(1);
+    }
+
+    @Test
+    void givenChartsOnWrongShard_whenRebalance_thenMovesThemWithTheirDiagnoses() {
+        List<UUID> ids = createPatients();
+        long onShardOne = ids.stream().filter(id -> topology.shardOf(id) == 1).count();
+        new ShardRebalancer(shardDataSources.pools(), new ShardTopology(1), 5).rebalance();
+        assertThat(shards.get(1).queryForObject("SELECT COUNT(*) FROM patients", Integer.class)).isZero();
+
+        int moved = new ShardRebalancer(shardDataSources.pools(), topology, 5).rebalance();
+
+        assertThat(moved).isEqualTo(onShardOne);
+        for (UUID id : ids) {
+            int shard = topology.shardOf(id);
+            assertThat(patientsOn(shard, id)).isEqualTo(1);
+            assertThat(patientsOn(1 - shard, id)).isZero();
+            assertThat(shards.get(shard).queryForObject(
+                    "SELECT COUNT(*) FROM diagnoses WHERE patient_id = ?", Integer.class, id)).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void givenArchivedChartsOnWrongShard_whenRebalance_thenMovesThemAndTheyCanBeRestored() {
+        List<UUID> ids = createPatients();
+        archiveAll();
+        new ShardRebalancer(shardDataSources.pools(), new ShardTopology(1), 5).rebalance();
+        assertThat(shards.get(1).queryForObject("SELECT COUNT(*) FROM archived_patients", Integer.class)).isZero();
+
+        int moved = new ShardRebalancer(shardDataSources.pools(), topology, 5).rebalance();
+
+        assertThat(moved).isEqualTo(ids.stream().filter(id -> topology.shardOf(id) == 1).count());
+        for (UUID id : ids) {
+            int shard = topology.shardOf(id);
+            assertThat(archivedOn(shard, id)).isEqualTo(1);
+            assertThat(archivedOn(1 - shard, id)).isZero();
+        }
+        UUID onShardOne = ids.stream().filter(id -> topology.shardOf(id) == 1).findFirst().orElseThrow();
+        assertThat(ShardContext.callOn(1, () -> patientService.getPatient(onShardOne)).diagnoses()).hasSize(1);
+        PatientResponse restored = patientService.updatePatient(onShardOne,
+                updatePatientRequest("Pat", "Restored", "restored@example.com"));
+        assertThat(restored.diagnoses()).hasSize(1);
+        assertThat(patientsOn(1, onShardOne)).isEqualTo(1);
+    }
+
+    @Test
+    void givenEmailTakenOnEitherShard_whenCreatePatient_thenRejectsIt() {
+        List<UUID> ids = createPatients();
+
+        for (int shard = 0; shard < 2; shard++) {
+            String takenEmail = emailOnShard(ids, shard);
+            assertThatThrownBy(() -> patientService.createPatient(createPatientRequest("New", "Pat", takenEmail)))
+                    .isInstanceOf(DuplicateResourceException.class)
+                    .hasMessage(ExceptionMessages.PATIENT_EMAIL_EXISTS);
+        }
+        assertThat(shards.get(0).queryForObject("SELECT COUNT(*) FROM patients", Integer.class)
+                + shards.get(1).queryForObject("SELECT COUNT(*) FROM patients", Integer.class)).isEqualTo(PATIENTS);
+    }
+
+    @Test
+    void givenEmailTakenOnOtherShard_whenUpdatePatient_thenRejectsIt() {
+        List<UUID> ids = createPatients();
+        UUID onShardZero = ids.stream().filter(id -> topology.shardOf(id) == 0).findFirst().orElseThrow();
+
+        assertThatThrownBy(() -> patientService.updatePatient(onShardZero,
+                updatePatientRequest("Pat", "Moved", emailOnShard(ids, 1))))
+                .isInstanceOf(DuplicateResourceException.class)
+                .hasMessage(ExceptionMessages.PATIENT_EMAIL_EXISTS);
+    }
+
+    private List<UUID> createPatients() {
+        return IntStream.range(0, PATIENTS).mapToObj(i -> {
+            UUID id = patientService.createPatient(
+                    createPatientRequest("Pat", "Last" + (char) ('A' + i % 7), "patient" + i + "@example.com")).id();
+            ShardContext.runOn(topology.shardOf(id), () -> diagnosisService.addDiagnosis(id, createDiagnosisRequest()));
+            return id;
+        }).toList();
+    }
+
+    private void archiveAll() {
+        for (int shard = 0; shard < shards.size(); shard++) {
+            shards.get(shard).update("UPDATE patients SET status = 'INACTIVE'");
+            ShardContext.runOn(shard, () -> patientService.archiveBatch(LocalDateTime.now().plusDays(1), PATIENTS));
+        }
+    }
+
+    private String emailOnShard(List<UUID> ids, int shard) {
+        UUID id = ids.stream().filter(patientId -> topology.shardOf(patientId) == shard).findFirst().orElseThrow();
+        return "patient" + ids.indexOf(id) + "@example.com";
+    }
+
+    private int patientsOn(int shard, UUID id) {
+        return shards.get(shard).queryForObject("SELECT COUNT(*) FROM patients WHERE id = ?", Integer.class, id);
+    }
+
+    private int archivedOn(int shard, UUID id) {
+        return shards.get(shard).queryForObject("SELECT COUNT(*) FROM archived_patients WHERE id = ?",
+                Integer.class, id);
+    }
+
+    private static int tableCount(JdbcTemplate shard) {
+        return shard.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE table_name = 'PATIENTS'", Integer.class);
+    }
+}
@@ -0,0 +1,98 @@
+package com.ehr.patient.typeahead;
+
+import com.ehr.patient.dto.PatientResponse;
+import com.ehr.patient.dto.PatientTypeaheadResponse;
+import com.ehr.patient.model.Patient;
+import com.ehr.patient.repository.PatientRepository;
+import com.ehr.patient.service.PatientService;
+import com.ehr.patient.utils.ServiceSliceTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+import static com.ehr.patient.utils.PatientTestUtils.createPatientRequest;
+import static com.ehr.patient.utils.PatientTestUtils.patient;
+import static com.ehr.patient.utils.PatientTestUtils.updatePatientRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@ServiceSliceTest
+@Import(PatientTypeahead.class)
+@TestPropertySource(properties = "patient.typeahead.max-pending=" + PatientTypeaheadTest.MAX_PENDING)
+class PatientTypeaheadTest {
+
+    static final int MAX_PENDING = 3;
+
+    @Autowired
+    private PatientTypeahead patientTypeahead;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAll();
+        patientTypeahead.rebuild();
+    }
+
+    @Test
+    void givenStoredPatients_whenRebuild_thenIndexesThemAndReportsItsSize() {
+        save("Olivia", "Hart", "olivia.hart@example.com");
+        save("Oliver", "Stone", "oliver.stone@example.com");
+
+        patientTypeahead.rebuild();
+
+        assertThat(patientTypeahead.search("oliv", 10)).extracting(PatientTypeaheadResponse::lastName)
+                .containsExactly("Stone", "Hart");
+        assertThat(meterRegistry.get(PatientTypeahead.ENTRIES_METRIC).gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get(PatientTypeahead.MEMORY_METRIC).gauge().value()).isPositive();
+        assertThat(meterRegistry.get(PatientTypeahead.REBUILD_METRIC).timer().count()).isPositive();
+    }
+
+    @Test
+    void givenPatientCreatedAndUpdated_whenSearch_thenSeesTheCommittedChangesWithoutRebuild() {
+        PatientResponse created = patientService.createPatient(
+                createPatientRequest("Priya", "Nair", "priya.nair@example.com"));
+
+        assertThat(patientTypeahead.search("priya n", 10)).extracting(PatientTypeaheadResponse::id)
+                .containsExactly(created.id());
+
+        patientService.updatePatient(created.id(), updatePatientRequest("Priya", "Menon", "priya.nair@example.com"));
+
+        assertThat(patientTypeahead.search("nair", 10)).isEmpty();
+        assertThat(patientTypeahead.search("men", 10)).extracting(PatientTypeaheadResponse::lastName)
+                .containsExactly("Menon");
+        assertThat(patientTypeahead.search("priya.n", 10)).hasSize(1);
+        assertThat(meterRegistry.get(PatientTypeahead.PENDING_METRIC).gauge().value()).isPositive();
+    }
+
+    @Test
+    void givenChangesPastMaxPending_whenTheyCommit_thenRebuildsEarly() {
+        IntStream.range(0, MAX_PENDING).forEach(i -> patientService.createPatient(
+                createPatientRequest("Quinn", "Doe" + (char) ('a' + i), "quinn" + i + "@example.com")));
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            assertThat(meterRegistry.get(PatientTypeahead.PENDING_METRIC).gauge().value()).isZero();
+            assertThat(meterRegistry.get(PatientTypeahead.ENTRIES_METRIC).gauge().value()).isEqualTo(MAX_PENDING);
+        });
+        assertThat(patientTypeahead.search("quinn", 10)).hasSize(MAX_PENDING);
+    }
+
+    private void save(String firstName, String lastName, String email) {
+        Patient patient = patient(firstName, lastName, email);
+        patient.setId(null);
+        patientRepository.save(patient);
+    }
+}
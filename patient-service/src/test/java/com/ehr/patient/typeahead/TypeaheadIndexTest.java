@@ -0,0 +1,122 @@
+package com.ehr.patient.typeahead;
+
+import com.ehr.patient.dto.PatientTypeaheadResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TypeaheadIndexTest {
+
+    @Test
+    void givenPrefixOfFirstLastNameOrEmail_whenSearch_thenFindsPatient() {
+        PatientTypeaheadResponse patient = patient("John", "Doe", "jd@example.com");
+        TypeaheadIndex index = index(patient, patient("Jane", "Roe", "jr@example.com"));
+
+        assertThat(index.search("joh", 10)).containsExactly(patient);
+        assertThat(index.search("DO", 10)).containsExactly(patient);
+        assertThat(index.search("jd@", 10)).containsExactly(patient);
+        assertThat(index.search("oe", 10)).isEmpty();
+    }
+
+    @Test
+    void givenAccentsAndPunctuation_whenSearch_thenMatchesTheirPlainForm() {
+        PatientTypeaheadResponse obrien = patient("Zoë", "O'Brien", null);
+        TypeaheadIndex index = index(obrien);
+
+        assertThat(index.search("zoe", 10)).containsExactly(obrien);
+        assertThat(index.search("obr", 10)).containsExactly(obrien);
+        assertThat(index.search("O'B", 10)).containsExactly(obrien);
+    }
+
+    @Test
+    void givenSeveralWords_whenSearch_thenEachMustStartANameOrTheEmail() {
+        PatientTypeaheadResponse johnSmith = patient("John", "Smith", "john.smith@example.com");
+        TypeaheadIndex index = index(johnSmith, patient("John", "Doe", "john.doe@example.com"),
+                patient("Jane", "Smith", "jane.smith@example.com"));
+
+        assertThat(index.search("john smi", 10)).containsExactly(johnSmith);
+        assertThat(index.search("smi jo", 10)).containsExactly(johnSmith);
+        assertThat(index.search("john smithers", 10)).isEmpty();
+    }
+
+    @Test
+    void givenSeveralMatches_whenSearch_thenShorterNamesLeadAndLimitApplies() {
+        PatientTypeaheadResponse ann = patient("Ann", "Lee", "lee1@example.com");
+        PatientTypeaheadResponse anna = patient("Anna", "Kim", "kim@example.com");
+        PatientTypeaheadResponse annabel = patient("Annabel", "Ng", "ng@example.com");
+        TypeaheadIndex index = index(annabel, anna, ann, patient("Bob", "Annis", "bob@example.com"));
+
+        assertThat(index.search("ann", 3)).containsExactly(ann, anna, annabel);
+    }
+
+    @Test
+    void givenPatientMatchingByFirstAndLastName_whenSearch_thenListsItOnce() {
+        PatientTypeaheadResponse patient = patient("Morgan", "Morgan", "mm@example.com");
+        TypeaheadIndex index = index(patient);
+
+        assertThat(index.search("mor", 10)).containsExactly(patient);
+    }
+
+    @Test
+    void givenPatientChangedAfterBuild_whenSearch_thenOverlayReplacesLoadedEntry() {
+        PatientTypeaheadResponse before = patient("Maria", "Lopez", "maria@example.com");
+        PatientTypeaheadResponse after = new PatientTypeaheadResponse(before.id(), "Maria", "Garcia",
+                before.dateOfBirth(), before.email());
+        PatientTypeaheadResponse added = patient("Mario", "Gomez", "mario@example.com");
+
+        TypeaheadIndex index = index(before).with(after).with(added);
+
+        assertThat(index.search("lop", 10)).isEmpty();
+        assertThat(index.search("gar", 10)).containsExactly(after);
+        assertThat(index.search("mari", 10)).containsExactly(after, added);
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.pending()).isEqualTo(2);
+    }
+
+    @Test
+    void givenBuiltIndex_whenMeasured_thenReportsItsEstimatedFootprint() {
+        TypeaheadIndex small = index(patient("John", "Doe", "jd@example.com"));
+        TypeaheadIndex larger = index(patient("John", "Doe", "jd@example.com"),
+                patient("Jane", "Roe", "jr@example.com"));
+
+        assertThat(TypeaheadIndex.EMPTY.search("a", 10)).isEmpty();
+        assertThat(small.memoryBytes()).isPositive();
+        assertThat(larger.memoryBytes()).isGreaterThan(small.memoryBytes());
+        assertThat(small.with(patient("Ann", "Lee", null)).memoryBytes()).isGreaterThan(small.memoryBytes());
+    }
+
+    @Test
+    void givenSeveralChanges_whenAddedTogether_thenMatchesAddingThemOneByOne() {
+        PatientTypeaheadResponse before = patient("Maria", "Lopez", "maria@example.com");
+        PatientTypeaheadResponse after = new PatientTypeaheadResponse(before.id(), "María", "Garcia",
+                before.dateOfBirth(), before.email());
+        PatientTypeaheadResponse added = patient("Mario", "Gomez", "mario@example.com");
+        TypeaheadIndex base = index(patient("Ann", "Lee", "al@example.com"));
+
+        TypeaheadIndex together = base.with(List.of(before, added, after));
+        TypeaheadIndex oneByOne = base.with(before).with(added).with(after);
+
+        assertThat(together.search("mari", 10)).containsExactly(after, added).isEqualTo(oneByOne.search("mari", 10));
+        assertThat(together.search("lop", 10)).isEmpty();
+        assertThat(together.pending()).isEqualTo(2).isEqualTo(oneByOne.pending());
+        assertThat(together.memoryBytes()).isEqualTo(oneByOne.memoryBytes());
+        assertThat(base.with(List.of())).isSameAs(base);
+    }
+
+    private static TypeaheadIndex index(PatientTypeaheadResponse... patients) {
+        TypeaheadIndex.Builder builder = new TypeaheadIndex.Builder();
+        for (PatientTypeaheadResponse patient : patients) {
+            builder.add(patient);
+        }
+        return builder.build();
+    }
+
+    private static PatientTypeaheadResponse patient(String firstName, String lastName, String email) {
+        return new PatientTypeaheadResponse(UUID.randomUUID(), firstName, lastName, LocalDate.of(1985, 3, 15),
+                email);
+    }
+}
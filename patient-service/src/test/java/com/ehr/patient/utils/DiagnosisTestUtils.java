@@ -1,10 +1,13 @@
 package com.ehr.patient.utils;
 
+import com.ehr.patient.constant.PageLimits;
+import com.ehr.patient.constant.SortFields;
 import com.ehr.patient.dto.CreateDiagnosisRequest;
 import com.ehr.patient.dto.DiagnosisResponse;
 import com.ehr.patient.model.Diagnosis;
 import com.ehr.patient.model.Patient;
 import com.ehr.patient.model.enums.DiagnosisStatus;
+import com.ehr.patient.pagination.ChildListQuery;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -70,4 +73,9 @@ public final class DiagnosisTestUtils {
                 LocalDateTime.now()
         );
     }
+
+    public static ChildListQuery<DiagnosisStatus> diagnosisListQuery() {
+        return ChildListQuery.of(DiagnosisStatus.class, null, null, null, SortFields.DIAGNOSIS_DATE,
+                SortFields.DEFAULT_DIRECTION, SortFields.DIAGNOSIS_SORTS, 0, PageLimits.MAX_PAGE_SIZE);
+    }
 }
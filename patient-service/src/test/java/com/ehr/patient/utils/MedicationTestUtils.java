@@ -1,11 +1,14 @@
 package com.ehr.patient.utils;
 
+import com.ehr.patient.constant.PageLimits;
+import com.ehr.patient.constant.SortFields;
 import com.ehr.patient.dto.CreateMedicationRequest;
 import com.ehr.patient.dto.MedicationResponse;
 import com.ehr.patient.dto.UpdateMedicationRequest;
 import com.ehr.patient.model.Medication;
 import com.ehr.patient.model.Patient;
 import com.ehr.patient.model.enums.MedicationStatus;
+import com.ehr.patient.pagination.ChildListQuery;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -111,4 +114,9 @@ public final class MedicationTestUtils {
                 LocalDateTime.now()
         );
     }
+
+    public static ChildListQuery<MedicationStatus> medicationListQuery() {
+        return ChildListQuery.of(MedicationStatus.class, null, null, null, SortFields.START_DATE,
+                SortFields.DEFAULT_DIRECTION, SortFields.MEDICATION_SORTS, 0, PageLimits.MAX_PAGE_SIZE);
+    }
 }
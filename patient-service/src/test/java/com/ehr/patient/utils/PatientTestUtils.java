@@ -1,7 +1,9 @@
 package com.ehr.patient.utils;
 
 import com.ehr.patient.dto.CreatePatientRequest;
+import com.ehr.patient.dto.ImportPatientRequest;
 import com.ehr.patient.dto.PatientResponse;
+import com.ehr.patient.dto.PatientSummaryResponse;
 import com.ehr.patient.dto.UpdatePatientRequest;
 import com.ehr.patient.model.Patient;
 import com.ehr.patient.model.enums.PatientStatus;
@@ -10,6 +12,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.UUID;
 
 public final class PatientTestUtils {
@@ -139,4 +142,35 @@ public final class PatientTestUtils {
                 Collections.emptyList()
         );
     }
+
+    public static PatientSummaryResponse patientSummaryResponse(UUID id, String firstName, String lastName) {
+        return new PatientSummaryResponse(
+                id,
+                firstName,
+                lastName,
+                LocalDate.of(1985, 3, 15),
+                "Male",
+                "john.doe@example.com",
+                "555-123-4567",
+                "123 Main St",
+                "Springfield",
+                "IL",
+                "62701",
+                "Jane Doe",
+                "555-987-6543",
+                PatientStatus.ACTIVE,
+                LocalDateTime.now(),
+                LocalDateTime.now(),
+                2,
+                3
+        );
+    }
+
+    public static ImportPatientRequest importPatientRequest(String email) {
+        return new ImportPatientRequest(
+                createPatientRequest("John", "Doe", email),
+                List.of(DiagnosisTestUtils.createDiagnosisRequest()),
+                List.of(MedicationTestUtils.createMedicationRequest())
+        );
+    }
 }
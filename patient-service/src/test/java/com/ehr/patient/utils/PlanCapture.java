@@ -0,0 +1,137 @@
+package com.ehr.patient.utils;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+/**
+ * Explains every prepared statement executed while capturing, with the statement's own parameters, and
+ * records which child-table partitions and indexes the plan reads. Queries are explained with ANALYZE so
+ * partitions pruned at execution time are left out, and carry the server-side execution time; writes are
+ * only planned.
+ */
+public class PlanCapture implements BeanPostProcessor {
+
+    private static final Pattern PARTITION = Pattern.compile("(diagnoses|medications)_p\\d+");
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate");
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final List<Plan> plans = new CopyOnWriteArrayList<>();
+    private volatile boolean capturing;
+
+    public record Plan(String sql, Set<String> partitions, Set<String> indexes, double executionMillis) {
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (method, args, result) ->
+                    result instanceof Connection connection ? connection(connection) : result);
+        }
+        return bean;
+    }
+
+    public void start() {
+        plans.clear();
+        capturing = true;
+    }
+
+    public List<Plan> stop() {
+        capturing = false;
+        return List.copyOf(plans);
+    }
+
+    private Connection connection(Connection connection) {
+        return proxy(Connection.class, connection, (method, args, result) ->
+                result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")
+                        ? statement(connection, statement, (String) args[0])
+                        : result);
+    }
+
+    private PreparedStatement statement(Connection connection, PreparedStatement statement, String sql) {
+        List<Object[]> parameters = new ArrayList<>();
+        List<Method> setters = new ArrayList<>();
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+                    if (method.getName().startsWith("set") && args != null && args.length >= 2
+                            && args[0] instanceof Integer) {
+                        setters.add(method);
+                        parameters.add(args);
+                    } else if (method.getName().equals("clearParameters")) {
+                        setters.clear();
+                        parameters.clear();
+                    } else if (capturing && EXECUTE_METHODS.contains(method.getName()) && args == null) {
+                        plans.add(explain(connection, sql, setters, parameters));
+                    }
+                    return invoke(method, statement, args);
+                });
+    }
+
+    private Plan explain(Connection connection, String sql, List<Method> setters, List<Object[]> parameters)
+            throws Throwable {
+        boolean query = sql.stripLeading().regionMatches(true, 0, "select", 0, 6);
+        String explain = "EXPLAIN (" + (query ? "ANALYZE, " : "") + "FORMAT JSON) " + sql;
+        try (PreparedStatement statement = connection.prepareStatement(explain)) {
+            for (int i = 0; i < setters.size(); i++) {
+                invoke(setters.get(i), statement, parameters.get(i));
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                JsonNode plan = jsonMapper.readTree(resultSet.getString(1));
+                Set<String> partitions = new TreeSet<>();
+                Set<String> indexes = new TreeSet<>();
+                collect(plan, query, partitions, indexes);
+                return new Plan(sql, partitions, indexes, plan.path(0).path("Execution Time").asDouble(0));
+            }
+        }
+    }
+
+    private static void collect(JsonNode node, boolean analyzed, Set<String> partitions, Set<String> indexes) {
+        if (node.isObject()) {
+            JsonNode relation = node.get("Relation Name");
+            JsonNode index = node.get("Index Name");
+            boolean executed = !analyzed || node.path("Actual Loops").asLong(0) > 0;
+            if (relation != null && executed && PARTITION.matcher(relation.asString()).matches()) {
+                partitions.add(relation.asString());
+            }
+            if (index != null && executed) {
+                indexes.add(index.asString());
+            }
+        }
+        for (JsonNode child : node.values()) {
+            collect(child, analyzed, partitions, indexes);
+        }
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private <T> T proxy(Class<T> type, T target, ResultWrapper wrapper) {
+        return type.cast(Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> wrapper.wrap(method, args, invoke(method, target, args))));
+    }
+
+    private interface ResultWrapper {
+
+        Object wrap(Method method, Object[] args, Object result);
+    }
+}
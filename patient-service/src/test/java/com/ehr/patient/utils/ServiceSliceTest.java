@@ -0,0 +1,40 @@
+package com.ehr.patient.utils;
+
+import com.ehr.patient.archive.PatientArchive;
+import com.ehr.patient.config.ShardingConfig;
+import com.ehr.patient.repository.PatientBatchRepository;
+import com.ehr.patient.service.DiagnosisService;
+import com.ehr.patient.service.MedicationService;
+import com.ehr.patient.service.PatientService;
+import com.ehr.patient.sharding.ScatterGather;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * JPA slice with the patient, diagnosis and medication services wired as they are in the application, on a
+ * schema generated from the entities, with the entity cache off and no test-managed transaction.
+ * Extra beans go in the test's own {@code @Import}, extra properties in a {@code @TestPropertySource}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"
+})
+@Import({PatientService.class, DiagnosisService.class, MedicationService.class, QueryCounter.class,
+        ShardingConfig.class, ScatterGather.class, PatientArchive.class, PatientBatchRepository.class,
+        SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public @interface ServiceSliceTest {
+}